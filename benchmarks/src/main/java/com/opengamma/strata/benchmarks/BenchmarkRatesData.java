@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmarks;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
+import static com.opengamma.strata.basics.index.OvernightIndices.USD_FED_FUND;
+import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M;
+import static com.opengamma.strata.product.swap.type.FixedOvernightSwapConventions.USD_FIXED_1Y_FED_FUND_OIS;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.date.Tenor;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.ImmutableMarketDataBuilder;
+import com.opengamma.strata.market.ValueType;
+import com.opengamma.strata.market.curve.CurveGroupName;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.CurveNode;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurveDefinition;
+import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
+import com.opengamma.strata.market.curve.interpolator.CurveExtrapolators;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+import com.opengamma.strata.market.curve.node.FixedIborSwapCurveNode;
+import com.opengamma.strata.market.curve.node.FixedOvernightSwapCurveNode;
+import com.opengamma.strata.market.curve.node.FraCurveNode;
+import com.opengamma.strata.market.curve.node.IborFixingDepositCurveNode;
+import com.opengamma.strata.market.observable.QuoteId;
+import com.opengamma.strata.pricer.curve.RatesCurveCalibrator;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.product.common.BuySell;
+import com.opengamma.strata.product.deposit.type.IborFixingDepositTemplate;
+import com.opengamma.strata.product.fra.type.FraTemplate;
+import com.opengamma.strata.product.swap.SwapTrade;
+import com.opengamma.strata.product.swap.type.FixedIborSwapTemplate;
+import com.opengamma.strata.product.swap.type.FixedOvernightSwapTemplate;
+
+/**
+ * Synthetic rates market data and portfolio shared by the benchmarks.
+ * <p>
+ * The market is made of two USD curves, a discounting and Fed Fund curve calibrated to OIS
+ * and a Libor 3M forward curve calibrated to a fixing, FRAs and swaps.
+ */
+public final class BenchmarkRatesData {
+
+  /**
+   * The reference data.
+   */
+  public static final ReferenceData REF_DATA = ReferenceData.standard();
+  /**
+   * The valuation date.
+   */
+  public static final LocalDate VALUATION_DATE = LocalDate.of(2015, 7, 21);
+  /**
+   * The curve group name.
+   */
+  public static final CurveGroupName CURVE_GROUP_NAME = CurveGroupName.of("USD-DSCON-LIBOR3M");
+  /**
+   * The calibrator.
+   */
+  public static final RatesCurveCalibrator CALIBRATOR = RatesCurveCalibrator.of(1e-9, 1e-9, 100);
+
+  private static final String SCHEME = "BENCHMARK";
+  private static final double[] DSC_MARKET_QUOTES = new double[] {
+      0.00072000, 0.00082000, 0.00093000, 0.00090000, 0.00105000,
+      0.00118500, 0.00318650, 0.00318650, 0.00704000, 0.01121500, 0.01515000,
+      0.01845500, 0.02111000, 0.02332000, 0.02513500, 0.02668500};
+  private static final Period[] DSC_OIS_TENORS = new Period[] {
+      Period.ofMonths(1), Period.ofMonths(2), Period.ofMonths(3), Period.ofMonths(6), Period.ofMonths(9),
+      Period.ofYears(1), Period.ofMonths(18), Period.ofYears(2), Period.ofYears(3), Period.ofYears(4), Period.ofYears(5),
+      Period.ofYears(6), Period.ofYears(7), Period.ofYears(8), Period.ofYears(9), Period.ofYears(10)};
+  private static final double[] FWD3_MARKET_QUOTES = new double[] {
+      0.00236600,
+      0.00258250, 0.00296050,
+      0.00294300, 0.00503000, 0.00939150, 0.01380800, 0.01732000,
+      0.02396200, 0.02930000, 0.03195000, 0.03423500, 0.03615500,
+      0.03696850, 0.03734500};
+  private static final Period[] FWD3_FRA_TENORS = new Period[] {
+      Period.ofMonths(3), Period.ofMonths(6)};
+  private static final Period[] FWD3_IRS_TENORS = new Period[] {
+      Period.ofYears(1), Period.ofYears(2), Period.ofYears(3), Period.ofYears(4), Period.ofYears(5),
+      Period.ofYears(7), Period.ofYears(10), Period.ofYears(12), Period.ofYears(15), Period.ofYears(20),
+      Period.ofYears(25), Period.ofYears(30)};
+
+  /**
+   * Restricted constructor.
+   */
+  private BenchmarkRatesData() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates the curve group definition.
+   *
+   * @return the curve group definition
+   */
+  public static RatesCurveGroupDefinition curveGroupDefinition() {
+    List<CurveNode> dscNodes = new ArrayList<>();
+    for (int i = 0; i < DSC_OIS_TENORS.length; i++) {
+      dscNodes.add(FixedOvernightSwapCurveNode.of(
+          FixedOvernightSwapTemplate.of(Period.ZERO, Tenor.of(DSC_OIS_TENORS[i]), USD_FIXED_1Y_FED_FUND_OIS),
+          dscQuoteId(i)));
+    }
+    List<CurveNode> fwdNodes = new ArrayList<>();
+    fwdNodes.add(IborFixingDepositCurveNode.of(IborFixingDepositTemplate.of(USD_LIBOR_3M), fwdQuoteId(0)));
+    for (int i = 0; i < FWD3_FRA_TENORS.length; i++) {
+      fwdNodes.add(FraCurveNode.of(FraTemplate.of(FWD3_FRA_TENORS[i], USD_LIBOR_3M), fwdQuoteId(fwdNodes.size())));
+    }
+    for (int i = 0; i < FWD3_IRS_TENORS.length; i++) {
+      fwdNodes.add(FixedIborSwapCurveNode.of(
+          FixedIborSwapTemplate.of(Period.ZERO, Tenor.of(FWD3_IRS_TENORS[i]), USD_FIXED_6M_LIBOR_3M),
+          fwdQuoteId(fwdNodes.size())));
+    }
+    return RatesCurveGroupDefinition.builder()
+        .name(CURVE_GROUP_NAME)
+        .addCurve(curveDefinition("USD-DSCON-OIS", dscNodes), USD, USD_FED_FUND)
+        .addForwardCurve(curveDefinition("USD-LIBOR3M-FRAIRS", fwdNodes), USD_LIBOR_3M)
+        .build();
+  }
+
+  /**
+   * Creates the market quotes used to calibrate the curves.
+   *
+   * @return the market quotes
+   */
+  public static ImmutableMarketData marketQuotes() {
+    ImmutableMarketDataBuilder builder = ImmutableMarketData.builder(VALUATION_DATE);
+    for (int i = 0; i < DSC_MARKET_QUOTES.length; i++) {
+      builder.addValue(dscQuoteId(i), DSC_MARKET_QUOTES[i]);
+    }
+    for (int i = 0; i < FWD3_MARKET_QUOTES.length; i++) {
+      builder.addValue(fwdQuoteId(i), FWD3_MARKET_QUOTES[i]);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Calibrates the curves.
+   *
+   * @return the calibrated rates provider
+   */
+  public static ImmutableRatesProvider ratesProvider() {
+    return CALIBRATOR.calibrate(curveGroupDefinition(), marketQuotes(), REF_DATA);
+  }
+
+  /**
+   * Creates a portfolio of forward starting fixed versus Libor 3M swaps.
+   * <p>
+   * The swaps have tenors from 1 to 30 years and a range of coupons.
+   *
+   * @param size  the number of swaps
+   * @return the swaps
+   */
+  public static List<SwapTrade> swapTrades(int size) {
+    List<SwapTrade> trades = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Tenor tenor = Tenor.ofYears(1 + i % 30);
+      double coupon = 0.01 + 0.0001 * (i % 100);
+      BuySell buySell = i % 2 == 0 ? BuySell.BUY : BuySell.SELL;
+      trades.add(USD_FIXED_6M_LIBOR_3M.createTrade(
+          VALUATION_DATE, Period.ofMonths(1), tenor, buySell, 1_000_000d, coupon, REF_DATA));
+    }
+    return trades;
+  }
+
+  //-------------------------------------------------------------------------
+  private static InterpolatedNodalCurveDefinition curveDefinition(String name, List<CurveNode> nodes) {
+    return InterpolatedNodalCurveDefinition.builder()
+        .name(CurveName.of(name))
+        .xValueType(ValueType.YEAR_FRACTION)
+        .yValueType(ValueType.ZERO_RATE)
+        .dayCount(ACT_365F)
+        .interpolator(CurveInterpolators.LINEAR)
+        .extrapolatorLeft(CurveExtrapolators.FLAT)
+        .extrapolatorRight(CurveExtrapolators.FLAT)
+        .nodes(nodes)
+        .build();
+  }
+
+  private static QuoteId dscQuoteId(int index) {
+    return QuoteId.of(StandardId.of(SCHEME, "OIS" + DSC_OIS_TENORS[index]));
+  }
+
+  private static QuoteId fwdQuoteId(int index) {
+    return QuoteId.of(StandardId.of(SCHEME, "LIBOR3M-" + index));
+  }
+
+}
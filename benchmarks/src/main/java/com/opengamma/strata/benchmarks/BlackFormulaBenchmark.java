@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.opengamma.strata.pricer.impl.option.BlackFormulaRepository;
+
+/**
+ * Benchmark of the Black formula in {@link BlackFormulaRepository}.
+ * <p>
+ * The formulas are evaluated on a strip of strikes around the forward. The reported time is per strike.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlackFormulaBenchmark {
+
+  private static final int NB_STRIKES = 100;
+  private static final double FORWARD = 0.025;
+  private static final double EXPIRY = 2.5;
+  private static final double VOLATILITY = 0.35;
+
+  private final double[] strikes = new double[NB_STRIKES];
+  private final double[] prices = new double[NB_STRIKES];
+
+  /**
+   * Creates the strikes and the prices.
+   */
+  @Setup
+  public void setup() {
+    for (int i = 0; i < NB_STRIKES; i++) {
+      strikes[i] = FORWARD * (0.5 + 1.5 * i / (NB_STRIKES - 1));
+      prices[i] = BlackFormulaRepository.price(FORWARD, strikes[i], EXPIRY, VOLATILITY, true);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the price.
+   *
+   * @param blackhole  the blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(NB_STRIKES)
+  public void price(Blackhole blackhole) {
+    for (int i = 0; i < NB_STRIKES; i++) {
+      blackhole.consume(BlackFormulaRepository.price(FORWARD, strikes[i], EXPIRY, VOLATILITY, true));
+    }
+  }
+
+  /**
+   * Calculates the price and its derivatives.
+   *
+   * @param blackhole  the blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(NB_STRIKES)
+  public void priceAdjoint(Blackhole blackhole) {
+    for (int i = 0; i < NB_STRIKES; i++) {
+      blackhole.consume(BlackFormulaRepository.priceAdjoint(FORWARD, strikes[i], EXPIRY, VOLATILITY, true));
+    }
+  }
+
+  /**
+   * Calculates the vega.
+   *
+   * @param blackhole  the blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(NB_STRIKES)
+  public void vega(Blackhole blackhole) {
+    for (int i = 0; i < NB_STRIKES; i++) {
+      blackhole.consume(BlackFormulaRepository.vega(FORWARD, strikes[i], EXPIRY, VOLATILITY));
+    }
+  }
+
+  /**
+   * Calculates the implied volatility.
+   *
+   * @param blackhole  the blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(NB_STRIKES)
+  public void impliedVolatility(Blackhole blackhole) {
+    for (int i = 0; i < NB_STRIKES; i++) {
+      blackhole.consume(BlackFormulaRepository.impliedVolatility(prices[i], FORWARD, strikes[i], EXPIRY, true));
+    }
+  }
+
+}
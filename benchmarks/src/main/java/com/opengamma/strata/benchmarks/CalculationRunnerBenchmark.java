@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmarks;
+
+import static com.opengamma.strata.benchmarks.BenchmarkRatesData.CURVE_GROUP_NAME;
+import static com.opengamma.strata.benchmarks.BenchmarkRatesData.REF_DATA;
+import static com.opengamma.strata.benchmarks.BenchmarkRatesData.VALUATION_DATE;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.index.Index;
+import com.opengamma.strata.calc.CalculationRules;
+import com.opengamma.strata.calc.CalculationRunner;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketDataBuilder;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveId;
+import com.opengamma.strata.market.curve.ParallelShiftedCurve;
+import com.opengamma.strata.measure.Measures;
+import com.opengamma.strata.measure.StandardComponents;
+import com.opengamma.strata.measure.rate.RatesMarketDataLookup;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.product.Trade;
+
+/**
+ * Benchmark of {@link CalculationRunner#calculateMultiScenario} on a synthetic swap portfolio.
+ * <p>
+ * Each scenario applies a parallel shift to the calibrated curves.
+ * The calculations run on the calling thread so that the result measures the engine and the pricers,
+ * not the thread pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CalculationRunnerBenchmark {
+
+  private static final int PORTFOLIO_SIZE = 100;
+  private static final double ONE_BP = 1.0e-4;
+  private static final List<Column> COLUMNS = ImmutableList.of(
+      Column.of(Measures.PRESENT_VALUE),
+      Column.of(Measures.PAR_RATE),
+      Column.of(Measures.PV01_CALIBRATED_SUM));
+
+  /**
+   * The number of scenarios.
+   */
+  @Param({"1", "20"})
+  public int scenarioCount;
+
+  private CalculationRunner runner;
+  private CalculationRules rules;
+  private List<Trade> trades;
+  private ImmutableScenarioMarketData marketData;
+
+  /**
+   * Calibrates the curves and creates the scenarios.
+   */
+  @Setup
+  public void setup() {
+    runner = CalculationRunner.of(MoreExecutors.newDirectExecutorService());
+    trades = ImmutableList.copyOf(BenchmarkRatesData.swapTrades(PORTFOLIO_SIZE));
+    ImmutableRatesProvider ratesProvider = BenchmarkRatesData.ratesProvider();
+    ImmutableScenarioMarketDataBuilder builder = ImmutableScenarioMarketData.builder(VALUATION_DATE);
+    Map<Currency, CurveId> discountCurveIds = new HashMap<>();
+    Map<Index, CurveId> forwardCurveIds = new HashMap<>();
+    ratesProvider.getDiscountCurves().forEach((ccy, curve) -> {
+      discountCurveIds.put(ccy, addCurve(builder, curve));
+    });
+    ratesProvider.getIndexCurves().forEach((index, curve) -> {
+      forwardCurveIds.put(index, addCurve(builder, curve));
+    });
+    marketData = builder.build();
+    rules = CalculationRules.of(
+        StandardComponents.calculationFunctions(), RatesMarketDataLookup.of(discountCurveIds, forwardCurveIds));
+  }
+
+  // adds the shifted curves to the market data
+  private CurveId addCurve(ImmutableScenarioMarketDataBuilder builder, Curve curve) {
+    CurveId curveId = CurveId.of(CURVE_GROUP_NAME, curve.getName());
+    List<Curve> scenarioCurves = new ArrayList<>(scenarioCount);
+    for (int i = 0; i < scenarioCount; i++) {
+      scenarioCurves.add(ParallelShiftedCurve.absolute(curve, i * ONE_BP));
+    }
+    builder.addBox(curveId, MarketDataBox.ofScenarioValues(scenarioCurves));
+    return curveId;
+  }
+
+  /**
+   * Closes the runner.
+   */
+  @TearDown
+  public void tearDown() {
+    runner.close();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the results for all the trades, measures and scenarios.
+   *
+   * @return the results
+   */
+  @Benchmark
+  public Results calculateMultiScenario() {
+    return runner.calculateMultiScenario(rules, trades, COLUMNS, marketData, REF_DATA);
+  }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmarks;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.benchmarks.BenchmarkRatesData.REF_DATA;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.date.HolidayCalendarIds;
+import com.opengamma.strata.basics.schedule.Frequency;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.market.ValueType;
+import com.opengamma.strata.market.curve.DefaultCurveMetadata;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.curve.interpolator.CurveExtrapolators;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.pricer.common.PriceType;
+import com.opengamma.strata.pricer.credit.ConstantRecoveryRates;
+import com.opengamma.strata.pricer.credit.ImmutableCreditRatesProvider;
+import com.opengamma.strata.pricer.credit.IsdaCdsProductPricer;
+import com.opengamma.strata.pricer.credit.IsdaCreditDiscountFactors;
+import com.opengamma.strata.pricer.credit.LegalEntitySurvivalProbabilities;
+import com.opengamma.strata.product.common.BuySell;
+import com.opengamma.strata.product.credit.Cds;
+import com.opengamma.strata.product.credit.ResolvedCds;
+
+/**
+ * Benchmark of the pricing of single name CDS by {@link IsdaCdsProductPricer}.
+ * <p>
+ * The reported time is per CDS.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CdsPricerBenchmark {
+
+  private static final int PORTFOLIO_SIZE = 40;
+  private static final LocalDate VALUATION_DATE = LocalDate.of(2014, 1, 3);
+  private static final StandardId LEGAL_ENTITY = StandardId.of("BENCHMARK", "ABC");
+  private static final IsdaCdsProductPricer PRICER = IsdaCdsProductPricer.DEFAULT;
+
+  private ImmutableCreditRatesProvider ratesProvider;
+  private List<ResolvedCds> products;
+  private LocalDate referenceDate;
+
+  /**
+   * Creates the curves and resolves the CDS.
+   */
+  @Setup
+  public void setup() {
+    IsdaCreditDiscountFactors yieldCurve = IsdaCreditDiscountFactors.of(USD, VALUATION_DATE, curve(
+        "yield",
+        DoubleArray.of(0.09, 0.17, 0.25, 0.5, 0.75, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 12, 15, 20, 30),
+        DoubleArray.of(0.0015, 0.0016, 0.0018, 0.0021, 0.0025, 0.0031, 0.0052, 0.0083, 0.0115, 0.0143, 0.0168,
+            0.0189, 0.0206, 0.0220, 0.0232, 0.0251, 0.0270, 0.0287, 0.0298)));
+    IsdaCreditDiscountFactors creditCurve = IsdaCreditDiscountFactors.of(USD, VALUATION_DATE, curve(
+        "credit",
+        DoubleArray.of(0.5, 1, 2, 3, 4, 5, 7, 10),
+        DoubleArray.of(0.0085, 0.0099, 0.0120, 0.0142, 0.0168, 0.0197, 0.0231, 0.0270)));
+    ratesProvider = ImmutableCreditRatesProvider.builder()
+        .valuationDate(VALUATION_DATE)
+        .creditCurves(ImmutableMap.of(
+            Pair.of(LEGAL_ENTITY, USD), LegalEntitySurvivalProbabilities.of(LEGAL_ENTITY, creditCurve)))
+        .discountCurves(ImmutableMap.of(USD, yieldCurve))
+        .recoveryRateCurves(ImmutableMap.of(LEGAL_ENTITY, ConstantRecoveryRates.of(LEGAL_ENTITY, VALUATION_DATE, 0.4)))
+        .build();
+    products = new ArrayList<>(PORTFOLIO_SIZE);
+    for (int i = 0; i < PORTFOLIO_SIZE; i++) {
+      LocalDate endDate = LocalDate.of(2014, 3, 20).plusMonths(3 * (i + 1));
+      products.add(Cds.of(
+          i % 2 == 0 ? BuySell.BUY : BuySell.SELL, LEGAL_ENTITY, USD, 1.0e7, LocalDate.of(2013, 12, 20), endDate,
+          Frequency.P3M, HolidayCalendarIds.SAT_SUN, i % 4 < 2 ? 0.01 : 0.05)
+          .resolve(REF_DATA));
+    }
+    referenceDate = products.get(0).getSettlementDateOffset().adjust(VALUATION_DATE, REF_DATA);
+  }
+
+  private static InterpolatedNodalCurve curve(String name, DoubleArray times, DoubleArray rates) {
+    DefaultCurveMetadata metadata = DefaultCurveMetadata.builder()
+        .xValueType(ValueType.YEAR_FRACTION)
+        .yValueType(ValueType.ZERO_RATE)
+        .curveName(name)
+        .dayCount(ACT_365F)
+        .build();
+    return InterpolatedNodalCurve.of(
+        metadata, times, rates, CurveInterpolators.PRODUCT_LINEAR, CurveExtrapolators.FLAT,
+        CurveExtrapolators.PRODUCT_LINEAR);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the clean present value.
+   *
+   * @param blackhole  the blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(PORTFOLIO_SIZE)
+  public void presentValue(Blackhole blackhole) {
+    for (ResolvedCds product : products) {
+      blackhole.consume(PRICER.presentValue(product, ratesProvider, referenceDate, PriceType.CLEAN, REF_DATA));
+    }
+  }
+
+  /**
+   * Calculates the par spread.
+   *
+   * @param blackhole  the blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(PORTFOLIO_SIZE)
+  public void parSpread(Blackhole blackhole) {
+    for (ResolvedCds product : products) {
+      blackhole.consume(PRICER.parSpread(product, ratesProvider, referenceDate, REF_DATA));
+    }
+  }
+
+  /**
+   * Calculates the present value sensitivity to the curve parameters.
+   *
+   * @param blackhole  the blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(PORTFOLIO_SIZE)
+  public void presentValueSensitivity(Blackhole blackhole) {
+    for (ResolvedCds product : products) {
+      PointSensitivities pointSensitivity =
+          PRICER.presentValueSensitivity(product, ratesProvider, referenceDate, REF_DATA).build();
+      blackhole.consume(ratesProvider.parameterSensitivity(pointSensitivity));
+    }
+  }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmarks;
+
+import static com.opengamma.strata.benchmarks.BenchmarkRatesData.CALIBRATOR;
+import static com.opengamma.strata.benchmarks.BenchmarkRatesData.REF_DATA;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
+import com.opengamma.strata.pricer.curve.RatesCurveCalibrator;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+
+/**
+ * Benchmark of the curve calibration by {@link RatesCurveCalibrator}.
+ * <p>
+ * The calibration includes the Jacobian matrices of the curves with respect to the market quotes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CurveCalibrationBenchmark {
+
+  private RatesCurveGroupDefinition curveGroupDefinition;
+  private ImmutableMarketData marketQuotes;
+
+  /**
+   * Creates the curve definitions and the market quotes.
+   */
+  @Setup
+  public void setup() {
+    curveGroupDefinition = BenchmarkRatesData.curveGroupDefinition();
+    marketQuotes = BenchmarkRatesData.marketQuotes();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calibrates the curves.
+   *
+   * @return the calibrated rates provider
+   */
+  @Benchmark
+  public ImmutableRatesProvider calibrate() {
+    return CALIBRATOR.calibrate(curveGroupDefinition, marketQuotes, REF_DATA);
+  }
+
+}
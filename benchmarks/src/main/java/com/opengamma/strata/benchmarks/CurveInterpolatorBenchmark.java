@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.curve.interpolator.BoundCurveInterpolator;
+import com.opengamma.strata.market.curve.interpolator.CurveExtrapolators;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolator;
+
+/**
+ * Benchmark of the curve interpolators.
+ * <p>
+ * The curve has the typical nodes of a calibrated zero rate curve.
+ * The interpolation benchmarks report the time per point, the points covering the whole curve.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CurveInterpolatorBenchmark {
+
+  private static final int NB_POINTS = 1000;
+  private static final DoubleArray X_VALUES =
+      DoubleArray.of(0.08, 0.25, 0.5, 0.75, 1, 1.5, 2, 3, 4, 5, 6, 7, 8, 9, 10, 12, 15, 20, 25, 30);
+  private static final DoubleArray Y_VALUES = X_VALUES.map(x -> 0.03 - 0.025 * Math.exp(-x / 5d));
+
+  /**
+   * The name of the interpolator.
+   */
+  @Param({"Linear", "LogLinear", "DoubleQuadratic", "NaturalSplineNonnegativityCubic", "ProductNaturalSpline",
+      "LogNaturalSplineMonotoneCubic", "PiecewiseCubicHermiteMonotonicity"})
+  public String interpolatorName;
+
+  private CurveInterpolator interpolator;
+  private BoundCurveInterpolator bound;
+  private final double[] points = new double[NB_POINTS];
+
+  /**
+   * Binds the interpolator and creates the points.
+   */
+  @Setup
+  public void setup() {
+    interpolator = CurveInterpolator.of(interpolatorName);
+    bound = bind();
+    double last = X_VALUES.get(X_VALUES.size() - 1);
+    for (int i = 0; i < NB_POINTS; i++) {
+      points[i] = last * i / (NB_POINTS - 1);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Binds the interpolator to the nodes, which is done each time a curve is created.
+   *
+   * @return the bound interpolator
+   */
+  @Benchmark
+  public BoundCurveInterpolator bind() {
+    return interpolator.bind(X_VALUES, Y_VALUES, CurveExtrapolators.FLAT, CurveExtrapolators.FLAT);
+  }
+
+  /**
+   * Interpolates the value.
+   *
+   * @param blackhole  the blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(NB_POINTS)
+  public void interpolate(Blackhole blackhole) {
+    for (int i = 0; i < NB_POINTS; i++) {
+      blackhole.consume(bound.interpolate(points[i]));
+    }
+  }
+
+  /**
+   * Calculates the first derivative.
+   *
+   * @param blackhole  the blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(NB_POINTS)
+  public void firstDerivative(Blackhole blackhole) {
+    for (int i = 0; i < NB_POINTS; i++) {
+      blackhole.consume(bound.firstDerivative(points[i]));
+    }
+  }
+
+  /**
+   * Calculates the sensitivity to the node values.
+   *
+   * @param blackhole  the blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(NB_POINTS)
+  public void parameterSensitivity(Blackhole blackhole) {
+    for (int i = 0; i < NB_POINTS; i++) {
+      blackhole.consume(bound.parameterSensitivity(points[i]));
+    }
+  }
+
+}
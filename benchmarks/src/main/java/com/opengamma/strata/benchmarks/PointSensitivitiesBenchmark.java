@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmarks;
+
+import static com.opengamma.strata.benchmarks.BenchmarkRatesData.REF_DATA;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
+import com.opengamma.strata.product.swap.SwapTrade;
+
+/**
+ * Benchmark of {@link PointSensitivities#normalized()}.
+ * <p>
+ * The sensitivities are the combined present value sensitivities of a portfolio of swaps,
+ * which contain many entries for the same curves and dates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PointSensitivitiesBenchmark {
+
+  /**
+   * The number of swaps in the portfolio.
+   */
+  @Param({"1", "10", "100"})
+  public int portfolioSize;
+
+  private PointSensitivities sensitivities;
+
+  /**
+   * Creates the sensitivities.
+   */
+  @Setup
+  public void setup() {
+    ImmutableRatesProvider ratesProvider = BenchmarkRatesData.ratesProvider();
+    PointSensitivityBuilder builder = PointSensitivityBuilder.none();
+    for (SwapTrade trade : BenchmarkRatesData.swapTrades(portfolioSize)) {
+      builder = builder.combinedWith(DiscountingSwapProductPricer.DEFAULT
+          .presentValueSensitivity(trade.getProduct().resolve(REF_DATA), ratesProvider));
+    }
+    sensitivities = builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Normalizes the sensitivities.
+   *
+   * @return the normalized sensitivities
+   */
+  @Benchmark
+  public PointSensitivities normalized() {
+    return sensitivities.normalized();
+  }
+
+}
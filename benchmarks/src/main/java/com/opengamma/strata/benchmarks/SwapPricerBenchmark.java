@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmarks;
+
+import static com.opengamma.strata.benchmarks.BenchmarkRatesData.REF_DATA;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.opengamma.strata.collect.Guavate;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+
+/**
+ * Benchmark of the present value and PV01 of swaps by {@link DiscountingSwapProductPricer}.
+ * <p>
+ * The reported time is per swap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SwapPricerBenchmark {
+
+  private static final int PORTFOLIO_SIZE = 100;
+  private static final DiscountingSwapProductPricer PRICER = DiscountingSwapProductPricer.DEFAULT;
+
+  private ImmutableRatesProvider ratesProvider;
+  private List<ResolvedSwap> swaps;
+
+  /**
+   * Calibrates the curves and resolves the swaps.
+   */
+  @Setup
+  public void setup() {
+    ratesProvider = BenchmarkRatesData.ratesProvider();
+    swaps = BenchmarkRatesData.swapTrades(PORTFOLIO_SIZE).stream()
+        .map(trade -> trade.getProduct().resolve(REF_DATA))
+        .collect(Guavate.toImmutableList());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value.
+   *
+   * @param blackhole  the blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(PORTFOLIO_SIZE)
+  public void presentValue(Blackhole blackhole) {
+    for (ResolvedSwap swap : swaps) {
+      blackhole.consume(PRICER.presentValue(swap, ratesProvider));
+    }
+  }
+
+  /**
+   * Calculates the point sensitivity of the present value.
+   *
+   * @param blackhole  the blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(PORTFOLIO_SIZE)
+  public void presentValueSensitivity(Blackhole blackhole) {
+    for (ResolvedSwap swap : swaps) {
+      blackhole.consume(PRICER.presentValueSensitivity(swap, ratesProvider).build());
+    }
+  }
+
+  /**
+   * Calculates the PV01, the present value sensitivity to the curve parameters.
+   *
+   * @param blackhole  the blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(PORTFOLIO_SIZE)
+  public void pv01(Blackhole blackhole) {
+    for (ResolvedSwap swap : swaps) {
+      PointSensitivities pointSensitivity = PRICER.presentValueSensitivity(swap, ratesProvider).build();
+      blackhole.consume(ratesProvider.parameterSensitivity(pointSensitivity));
+    }
+  }
+
+}
@@ -242,10 +242,22 @@ public final class FxMatrix
 
     // We could do this using the currency amounts but to
     // avoid creating extra objects we'll use doubles
-    double total = amount.getAmounts()
-        .stream()
-        .mapToDouble(ca -> convert(ca.getAmount(), ca.getCurrency(), targetCurrency))
-        .sum();
+    // the index of the target currency is only resolved once
+    // the sum is compensated (Neumaier), as it was when using DoubleStream.sum()
+    Integer targetIndex = currencies.get(targetCurrency);
+    double sum = 0d;
+    double error = 0d;
+    for (CurrencyAmount ca : amount.getAmounts()) {
+      Integer index = currencies.get(ca.getCurrency());
+      double rate = index != null && targetIndex != null ?
+          rates.get(index, targetIndex) :
+          fxRate(ca.getCurrency(), targetCurrency);
+      double value = ca.getAmount() * rate;
+      double next = sum + value;
+      error += Math.abs(sum) >= Math.abs(value) ? (sum - next) + value : (value - next) + sum;
+      sum = next;
+    }
+    double total = sum + error;
     return CurrencyAmount.of(targetCurrency, total);
   }
 
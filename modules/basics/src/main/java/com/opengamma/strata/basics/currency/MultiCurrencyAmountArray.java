@@ -232,8 +232,9 @@ public final class MultiCurrencyAmountArray
     for (Map.Entry<Currency, DoubleArray> entry : values.entrySet()) {
       Currency currency = entry.getKey();
       DoubleArray currencyValues = entry.getValue();
+      double fxRate = fxRateProvider.fxRate(currency, resultCurrency);
       for (int i = 0; i < size; i++) {
-        singleCurrencyValues[i] += currencyValues.get(i) * fxRateProvider.fxRate(currency, resultCurrency);
+        singleCurrencyValues[i] += currencyValues.get(i) * fxRate;
       }
     }
     return CurrencyAmountArray.of(resultCurrency, DoubleArray.ofUnsafe(singleCurrencyValues));
@@ -27,6 +27,7 @@ import org.joda.beans.JodaBeanUtils;
 import org.joda.beans.MetaBean;
 import org.joda.beans.MetaProperty;
 import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.ImmutableConstructor;
 import org.joda.beans.gen.PropertyDefinition;
 import org.joda.beans.impl.direct.DirectMetaBean;
 import org.joda.beans.impl.direct.DirectMetaProperty;
@@ -34,12 +35,15 @@ import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
 import org.joda.beans.ser.SerDeserializer;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.tuple.Pair;
 
 /**
  * An immutable holiday calendar implementation.
@@ -65,6 +69,7 @@ public final class ImmutableHolidayCalendar
   // (most logic involves finding business days, finding 1 is easier than finding 0
   // when using Integer.numberOfTrailingZeros and Integer.numberOfLeadingZeros)
   // benchmarking showed nextOrSame() and previousOrSame() do not need to be overridden
+  // a cumulative count of business days per month allows large shifts and counts without scanning each month
   // out-of-range and weekend-only (used in testing) are handled using exceptions to fast-path the common case
 
   /**
@@ -76,6 +81,25 @@ public final class ImmutableHolidayCalendar
    * The serialization version id.
    */
   private static final long serialVersionUID = 2L;
+  /**
+   * The minimum absolute shift amount that uses the cumulative business day counts.
+   * Smaller shifts are faster using the bit scanning approach.
+   */
+  private static final int COUNT_SHIFT_THRESHOLD = 16;
+  /**
+   * The maximum number of combined calendars to cache.
+   * Real portfolios combine a few hundred pairs of calendars at most, so this is rarely reached.
+   * The bound protects against callers that combine many ad-hoc calendars.
+   */
+  private static final int MAX_COMBINED = 1_000;
+  /**
+   * The cache of combined calendars, keyed by the identifiers of the two input calendars.
+   * The least recently used entries are evicted once the maximum size is reached.
+   */
+  private static final Cache<Pair<HolidayCalendarId, HolidayCalendarId>, CombinedEntry> COMBINED =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_COMBINED)
+          .build();
 
   /**
    * The identifier, such as 'GBLO'.
@@ -102,6 +126,12 @@ public final class ImmutableHolidayCalendar
    */
   @PropertyDefinition(validate = "notNull", get = "")
   private final int[] lookup;
+  /**
+   * The cumulative business day counts, where each item is the number of business days
+   * in the lookup table before the start of the matching month.
+   * This has one more item than the lookup table, the last item being the total.
+   */
+  private final transient int[] businessDayCounts;  // derived, not a property
 
   //-------------------------------------------------------------------------
   /**
@@ -155,7 +185,10 @@ public final class ImmutableHolidayCalendar
    * Obtains a combined holiday calendar instance.
    * <p>
    * This combines the two input calendars.
-   * It is intended for up-front occasional use rather than continuous use, as it can be relatively slow.
+   * The result is cached by the identifiers of the two calendars, and returned again
+   * when the method is called with the same two calendar instances.
+   * The cache is bounded, evicting the least recently used combinations.
+   * Combining two calendars for the first time can be relatively slow.
    * 
    * @param cal1  the first calendar
    * @param cal2  the second calendar
@@ -166,6 +199,19 @@ public final class ImmutableHolidayCalendar
     if (cal1 == cal2) {
       return ArgChecker.notNull(cal1, "cal1");
     }
+    // the instances are checked as well as the identifiers, as calendar data can change
+    Pair<HolidayCalendarId, HolidayCalendarId> key = Pair.of(cal1.id, cal2.id);
+    CombinedEntry cached = COMBINED.getIfPresent(key);
+    if (cached != null && cached.cal1 == cal1 && cached.cal2 == cal2) {
+      return cached.combined;
+    }
+    ImmutableHolidayCalendar combined = combine(cal1, cal2);
+    COMBINED.put(key, new CombinedEntry(cal1, cal2, combined));
+    return combined;
+  }
+
+  // combines two calendars
+  private static ImmutableHolidayCalendar combine(ImmutableHolidayCalendar cal1, ImmutableHolidayCalendar cal2) {
     HolidayCalendarId newId = cal1.id.combinedWith(cal2.id);
 
     // use slow version if lookup arrays do not overlap
@@ -254,6 +300,15 @@ public final class ImmutableHolidayCalendar
     return array;
   }
 
+  // create and populate the cumulative business day counts
+  private static int[] buildBusinessDayCounts(int[] lookup) {
+    int[] counts = new int[lookup.length + 1];
+    for (int i = 0; i < lookup.length; i++) {
+      counts[i + 1] = counts[i] + Integer.bitCount(lookup[i]);
+    }
+    return counts;
+  }
+
   //-------------------------------------------------------------------------
   // writes the binary format
   void writeExternal(DataOutput out) throws IOException {
@@ -292,6 +347,27 @@ public final class ImmutableHolidayCalendar
     this.weekends = weekendDays;
     this.startYear = startYear;
     this.lookup = ArgChecker.notNull(lookup, "lookup");
+    this.businessDayCounts = buildBusinessDayCounts(lookup);
+  }
+
+  @ImmutableConstructor
+  private ImmutableHolidayCalendar(
+      HolidayCalendarId id,
+      int weekends,
+      int startYear,
+      int[] lookup) {
+    JodaBeanUtils.notNull(id, "id");
+    JodaBeanUtils.notNull(lookup, "lookup");
+    this.id = id;
+    this.weekends = weekends;
+    this.startYear = startYear;
+    this.lookup = lookup.clone();
+    this.businessDayCounts = buildBusinessDayCounts(this.lookup);
+  }
+
+  // ensure standard constructor is invoked
+  private Object readResolve() {
+    return new ImmutableHolidayCalendar(id, weekends, startYear, lookup, false);
   }
 
   //-------------------------------------------------------------------------
@@ -353,7 +429,9 @@ public final class ImmutableHolidayCalendar
   @Override
   public LocalDate shift(LocalDate date, int amount) {
     try {
-      if (amount > 0) {
+      if (amount >= COUNT_SHIFT_THRESHOLD || amount <= -COUNT_SHIFT_THRESHOLD) {
+        return shiftByCount(date, amount);
+      } else if (amount > 0) {
         // day-of-month: minus one for zero-based day-of-month, plus one to start from next day
         return shiftNext(date.getYear(), date.getMonthValue(), date.getDayOfMonth(), amount);
       } else if (amount < 0) {
@@ -375,6 +453,37 @@ public final class ImmutableHolidayCalendar
     throw new IllegalArgumentException("Date is outside the accepted range (year 0000 to 10,000): " + date);
   }
 
+  // shift using the cumulative business day counts, following the same semantics as shiftNext() and shiftPrev()
+  private LocalDate shiftByCount(LocalDate date, int amount) {
+    // find data for month
+    int index = (date.getYear() - startYear) * 12 + date.getMonthValue() - 1;
+    int monthData = lookup[index];
+    int dom0 = date.getDayOfMonth() - 1;
+    // zero-based position of the target within all the business days in the lookup table
+    int before = businessDayCounts[index] + Integer.bitCount(monthData & ((1 << dom0) - 1));
+    int target = amount > 0 ? before + ((monthData >>> dom0) & 1) + amount - 1 : before + amount;
+    if (target < 0 || target >= businessDayCounts[lookup.length]) {
+      return shiftOutOfRange(date, amount);
+    }
+    // binary search for the month containing the target
+    int low = 0;
+    int high = lookup.length - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (businessDayCounts[mid] <= target) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    // remove the earlier business days in the month, leaving the target as the least significant bit
+    int targetData = lookup[low];
+    for (int i = target - businessDayCounts[low]; i > 0; i--) {
+      targetData &= targetData - 1;
+    }
+    return LocalDate.of(startYear + low / 12, low % 12 + 1, Integer.numberOfTrailingZeros(targetData) + 1);
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public LocalDate next(LocalDate date) {
@@ -540,6 +649,24 @@ public final class ImmutableHolidayCalendar
     throw new IllegalArgumentException("Date is outside the accepted range (year 0000 to 10,000): " + date);
   }
 
+  //-------------------------------------------------------------------------
+  @Override
+  public int daysBetween(LocalDate startInclusive, LocalDate endExclusive) {
+    ArgChecker.inOrderOrEqual(startInclusive, endExclusive, "startInclusive", "endExclusive");
+    try {
+      return businessDaysBefore(endExclusive) - businessDaysBefore(startInclusive);
+
+    } catch (ArrayIndexOutOfBoundsException ex) {
+      return HolidayCalendar.super.daysBetween(startInclusive, endExclusive);
+    }
+  }
+
+  // the number of business days in the lookup table before the date
+  private int businessDaysBefore(LocalDate date) {
+    int index = (date.getYear() - startYear) * 12 + date.getMonthValue() - 1;
+    return businessDayCounts[index] + Integer.bitCount(lookup[index] & ((1 << (date.getDayOfMonth() - 1)) - 1));
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public boolean equals(Object obj) {
@@ -581,19 +708,6 @@ public final class ImmutableHolidayCalendar
     MetaBean.register(ImmutableHolidayCalendar.Meta.INSTANCE);
   }
 
-  private ImmutableHolidayCalendar(
-      HolidayCalendarId id,
-      int weekends,
-      int startYear,
-      int[] lookup) {
-    JodaBeanUtils.notNull(id, "id");
-    JodaBeanUtils.notNull(lookup, "lookup");
-    this.id = id;
-    this.weekends = weekends;
-    this.startYear = startYear;
-    this.lookup = lookup.clone();
-  }
-
   @Override
   public ImmutableHolidayCalendar.Meta metaBean() {
     return ImmutableHolidayCalendar.Meta.INSTANCE;
@@ -825,4 +939,23 @@ public final class ImmutableHolidayCalendar
   }
 
   //-------------------------- AUTOGENERATED END --------------------------
+
+  //-------------------------------------------------------------------------
+  // an entry in the cache of combined calendars
+  private static final class CombinedEntry {
+    private final ImmutableHolidayCalendar cal1;
+    private final ImmutableHolidayCalendar cal2;
+    private final ImmutableHolidayCalendar combined;
+
+    private CombinedEntry(
+        ImmutableHolidayCalendar cal1,
+        ImmutableHolidayCalendar cal2,
+        ImmutableHolidayCalendar combined) {
+
+      this.cal1 = cal1;
+      this.cal2 = cal2;
+      this.combined = combined;
+    }
+  }
+
 }
@@ -33,6 +33,7 @@ import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.date.AdjustableDate;
 import com.opengamma.strata.basics.date.BusinessDayAdjustment;
+import com.opengamma.strata.basics.date.DateAdjuster;
 import com.opengamma.strata.collect.ArgChecker;
 
 /**
@@ -408,11 +409,22 @@ public final class PeriodicSchedule
    *  yields the first/last regular date that was specified
    * </ul>
    * 
+   * <p>
+   * Schedules are not cached unless the reference data was obtained from
+   * {@link ScheduleCache#cachingReferenceData(ReferenceData, int)}, in which case identical
+   * definitions resolved using that reference data instance share the same {@code Schedule}.
+   * 
    * @return the schedule
    * @param refData  the reference data, used to find the holiday calendars
    * @throws ScheduleException if the definition is invalid
    */
   public Schedule createSchedule(ReferenceData refData) {
+    ScheduleCache cache = ScheduleCache.find(refData);
+    return cache != null ? cache.schedule(this, () -> generateSchedule(refData)) : generateSchedule(refData);
+  }
+
+  // creates the schedule
+  private Schedule generateSchedule(ReferenceData refData) {
     LocalDate unadjStart = calculatedUnadjustedStartDate(refData);
     LocalDate unadjEnd = calculatedUnadjustedEndDate(refData);
     LocalDate regularStart = calculatedFirstRegularStartDate(unadjStart, refData);
@@ -780,12 +792,22 @@ public final class PeriodicSchedule
 
   // applies the appropriate business day adjustment to each date
   private List<LocalDate> applyBusinessDayAdjustment(List<LocalDate> unadj, ReferenceData refData) {
+    // resolve the holiday calendar once, rather than once for each date
+    DateAdjuster adjuster = businessDayAdjustment.resolve(refData);
     List<LocalDate> adj = new ArrayList<>(unadj.size());
-    adj.add(calculatedStartDate().adjusted(refData));
+    if (overrideStartDate == null && startDateBusinessDayAdjustment == null) {
+      adj.add(adjuster.adjust(startDate));
+    } else {
+      adj.add(calculatedStartDate().adjusted(refData));
+    }
     for (int i = 1; i < unadj.size() - 1; i++) {
-      adj.add(businessDayAdjustment.adjust(unadj.get(i), refData));
+      adj.add(adjuster.adjust(unadj.get(i)));
+    }
+    if (endDateBusinessDayAdjustment == null) {
+      adj.add(adjuster.adjust(endDate));
+    } else {
+      adj.add(calculatedEndDate().adjusted(refData));
     }
-    adj.add(calculatedEndDate().adjusted(refData));
     return adj;
   }
 
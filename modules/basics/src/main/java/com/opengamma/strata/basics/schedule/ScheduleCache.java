@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.basics.schedule;
+
+import java.io.Serializable;
+import java.util.function.Supplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.ReferenceDataId;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * A bounded cache of the schedules created by {@link PeriodicSchedule}.
+ * <p>
+ * By default, {@link PeriodicSchedule#createSchedule(ReferenceData)} generates the schedule each time.
+ * When many trades with identical schedule terms are resolved, such as a large portfolio of
+ * standard swaps, the caller can opt in to sharing the schedules using
+ * {@link #cachingReferenceData(ReferenceData, int)}. The cache is held by the reference data
+ * instance that is returned, and is only used when resolving against that exact instance.
+ * As such, the cached schedules are discarded along with the reference data, and reference data
+ * containing different holiday calendars never sees them.
+ * <p>
+ * The cached schedules are not serialized, the cache of deserialized reference data is empty.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class ScheduleCache implements Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The maximum number of schedules to cache.
+   */
+  private final int maximumSize;
+  /**
+   * The underlying cache, keyed by definition.
+   */
+  private final transient Cache<PeriodicSchedule, Schedule> schedules;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains reference data that caches the schedules created using it.
+   * <p>
+   * The result contains the same values as the specified reference data, together with a cache
+   * holding at most the specified number of schedules. When the cache is full, the least recently
+   * used schedules are evicted.
+   *
+   * @param refData  the underlying reference data
+   * @param maximumSize  the maximum number of schedules to cache
+   * @return the reference data with a schedule cache attached
+   */
+  public static ReferenceData cachingReferenceData(ReferenceData refData, int maximumSize) {
+    ArgChecker.notNull(refData, "refData");
+    ArgChecker.notNegativeOrZero(maximumSize, "maximumSize");
+    return new CachingReferenceData(refData, new ScheduleCache(maximumSize));
+  }
+
+  // finds the cache attached to the reference data, null if none
+  static ScheduleCache find(ReferenceData refData) {
+    return refData instanceof CachingReferenceData ? ((CachingReferenceData) refData).cache : null;
+  }
+
+  // restricted constructor
+  private ScheduleCache(int maximumSize) {
+    this.maximumSize = maximumSize;
+    this.schedules = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .build();
+  }
+
+  // ensure standard constructor is invoked, creating an empty cache
+  private Object readResolve() {
+    return new ScheduleCache(maximumSize);
+  }
+
+  //-------------------------------------------------------------------------
+  // finds the schedule, creating and caching it if necessary
+  // the generator may throw ScheduleException, thus the cache loader is not used
+  Schedule schedule(PeriodicSchedule definition, Supplier<Schedule> generator) {
+    Schedule schedule = schedules.getIfPresent(definition);
+    if (schedule == null) {
+      schedule = generator.get();
+      schedules.put(definition, schedule);
+    }
+    return schedule;
+  }
+
+  // the approximate number of schedules in the cache
+  long size() {
+    return schedules.size();
+  }
+
+  @Override
+  public String toString() {
+    return "ScheduleCache[size=" + schedules.size() + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  // the reference data holding the cache, created after the cache such that both are immutable
+  private static final class CachingReferenceData implements ReferenceData, Serializable {
+    private static final long serialVersionUID = 1L;
+    private final ReferenceData underlying;
+    private final ScheduleCache cache;
+
+    private CachingReferenceData(ReferenceData underlying, ScheduleCache cache) {
+      this.underlying = underlying;
+      this.cache = cache;
+    }
+
+    @Override
+    public boolean containsValue(ReferenceDataId<?> id) {
+      return underlying.containsValue(id);
+    }
+
+    @Override
+    public <T> T queryValueOrNull(ReferenceDataId<T> id) {
+      return underlying.queryValueOrNull(id);
+    }
+
+    @Override
+    public String toString() {
+      return "CachingReferenceData[" + underlying + ", " + cache + "]";
+    }
+  }
+
+}
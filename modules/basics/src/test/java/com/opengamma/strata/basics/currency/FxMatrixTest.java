@@ -463,6 +463,24 @@ public class FxMatrixTest {
         .hasAmount((1600d * 1.4) + 1200 + ((1500 / 1.6) * 1.4));
   }
 
+  public void convertMultipleCurrencyAmountCompensated() {
+
+    FxMatrix matrix = FxMatrix.builder()
+        .addRate(GBP, USD, 1)
+        .addRate(EUR, USD, 1)
+        .build();
+
+    // the small amount is lost when the large amounts are summed without compensation
+    MultiCurrencyAmount amount = MultiCurrencyAmount.of(
+        CurrencyAmount.of(EUR, 1e16),
+        CurrencyAmount.of(GBP, 1),
+        CurrencyAmount.of(USD, -1e16));
+
+    assertThat(matrix.convert(amount, USD))
+        .hasCurrency(USD)
+        .hasAmount(1);
+  }
+
   public void cannotMergeDisjointMatrices() {
 
     FxMatrix matrix1 = FxMatrix.builder()
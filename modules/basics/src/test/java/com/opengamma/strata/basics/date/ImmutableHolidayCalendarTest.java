@@ -15,9 +15,14 @@ import static java.time.DayOfWeek.SATURDAY;
 import static java.time.DayOfWeek.SUNDAY;
 import static java.time.DayOfWeek.THURSDAY;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertSame;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -345,6 +350,38 @@ public class ImmutableHolidayCalendarTest {
     assertSame(test, base);
   }
 
+  public void test_combined_cached() {
+    ImmutableHolidayCalendar base1 =
+        ImmutableHolidayCalendar.of(TEST_ID, ImmutableList.of(MON_2014_07_14), SATURDAY, SUNDAY);
+    ImmutableHolidayCalendar base2 =
+        ImmutableHolidayCalendar.of(TEST_ID2, ImmutableList.of(WED_2014_07_16), SATURDAY, SUNDAY);
+    ImmutableHolidayCalendar test = ImmutableHolidayCalendar.combined(base1, base2);
+    assertSame(ImmutableHolidayCalendar.combined(base1, base2), test);
+
+    // same identifier but different data is not served from the cache
+    ImmutableHolidayCalendar base2Updated =
+        ImmutableHolidayCalendar.of(TEST_ID2, ImmutableList.of(THU_2014_07_17), SATURDAY, SUNDAY);
+    ImmutableHolidayCalendar updated = ImmutableHolidayCalendar.combined(base1, base2Updated);
+    assertEquals(updated.getHolidays(), ImmutableList.of(MON_2014_07_14, THU_2014_07_17));
+  }
+
+  public void test_combined_cacheBounded() {
+    ImmutableHolidayCalendar base1 =
+        ImmutableHolidayCalendar.of(TEST_ID, ImmutableList.of(MON_2014_07_14), SATURDAY, SUNDAY);
+    ImmutableHolidayCalendar base2 =
+        ImmutableHolidayCalendar.of(TEST_ID2, ImmutableList.of(WED_2014_07_16), SATURDAY, SUNDAY);
+    ImmutableHolidayCalendar test = ImmutableHolidayCalendar.combined(base1, base2);
+    for (int i = 0; i < 5_000; i++) {
+      ImmutableHolidayCalendar other = ImmutableHolidayCalendar.of(
+          HolidayCalendarId.of("Bounded" + i), ImmutableList.of(WED_2014_07_16), SATURDAY, SUNDAY);
+      ImmutableHolidayCalendar.combined(base1, other);
+    }
+    // the oldest entry has been evicted, but an equal calendar is created again
+    ImmutableHolidayCalendar recreated = ImmutableHolidayCalendar.combined(base1, base2);
+    assertNotSame(recreated, test);
+    assertEquals(recreated, test);
+  }
+
   public void test_combined_differentStartYear1() {
     Iterable<LocalDate> holidays1 = Arrays.asList(WED_2015_04_01);
     ImmutableHolidayCalendar base1 = ImmutableHolidayCalendar.of(TEST_ID, holidays1, SATURDAY, SUNDAY);
@@ -887,6 +924,36 @@ public class ImmutableHolidayCalendarTest {
     }
   }
 
+  public void test_broadCheck_shiftAndDaysBetween() {
+    LocalDate start = LocalDate.of(2010, 1, 1);
+    LocalDate end = LocalDate.of(2020, 1, 1);
+    Random random = new Random(547698);
+    SortedSet<LocalDate> set = new TreeSet<>();
+    for (LocalDate date = start; date.isBefore(end); date = date.plusDays(random.nextInt(10) + 1)) {
+      set.add(date);
+    }
+    ImmutableHolidayCalendar test =
+        ImmutableHolidayCalendar.of(HolidayCalendarId.of("TestBroad"), set, SATURDAY, SUNDAY);
+    int[] amounts = {-600, -300, -40, -17, -16, -15, -1, 1, 15, 16, 17, 40, 300, 600};
+    for (LocalDate date = start.minusDays(20); date.isBefore(end.plusDays(20)); date = date.plusDays(3)) {
+      for (int amount : amounts) {
+        assertEquals(test.shift(date, amount), shiftByStep(test, date, amount), date + " " + amount);
+      }
+      LocalDate other = date.plusDays(random.nextInt(400));
+      long expected = LocalDateUtils.stream(date, other).filter(test::isBusinessDay).count();
+      assertEquals(test.daysBetween(date, other), expected);
+    }
+  }
+
+  // reference implementation of shift
+  private static LocalDate shiftByStep(HolidayCalendar cal, LocalDate date, int amount) {
+    LocalDate result = date;
+    for (int i = 0; i < Math.abs(amount); i++) {
+      result = amount > 0 ? cal.next(result) : cal.previous(result);
+    }
+    return result;
+  }
+
   //-------------------------------------------------------------------------
   public void test_equals() {
     ImmutableHolidayCalendar a1 = ImmutableHolidayCalendar.of(TEST_ID, Arrays.asList(WED_2014_07_16), SATURDAY, SUNDAY);
@@ -907,6 +974,18 @@ public class ImmutableHolidayCalendarTest {
     assertSerialization(HOLCAL_MON_WED);
   }
 
+  public void test_serialization_derived() throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+      oos.writeObject(HOLCAL_MON_WED);
+    }
+    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+      HolidayCalendar test = (HolidayCalendar) ois.readObject();
+      assertEquals(test.shift(FRI_2014_07_11, 20), HOLCAL_MON_WED.shift(FRI_2014_07_11, 20));
+      assertEquals(test.daysBetween(FRI_2014_07_11, TUE_2014_07_22), 5);
+    }
+  }
+
   public void test_readOldJodaFormat() throws IOException {
     ResourceLocator file =
         ResourceLocator.ofClasspath("com/opengamma/strata/basics/date/ImmutableHolidayCalendar-Old.json");
@@ -36,10 +36,12 @@ import static com.opengamma.strata.basics.schedule.StubConvention.SHORT_INITIAL;
 import static com.opengamma.strata.basics.schedule.StubConvention.SMART_FINAL;
 import static com.opengamma.strata.basics.schedule.StubConvention.SMART_INITIAL;
 import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
 import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static com.opengamma.strata.collect.TestHelper.list;
+import static java.time.DayOfWeek.SATURDAY;
 import static java.time.DayOfWeek.SUNDAY;
 import static java.time.Month.APRIL;
 import static java.time.Month.AUGUST;
@@ -51,7 +53,13 @@ import static java.time.Month.NOVEMBER;
 import static java.time.Month.OCTOBER;
 import static java.time.Month.SEPTEMBER;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -60,11 +68,15 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ImmutableReferenceData;
 import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.ReferenceDataNotFoundException;
 import com.opengamma.strata.basics.date.AdjustableDate;
 import com.opengamma.strata.basics.date.BusinessDayAdjustment;
 import com.opengamma.strata.basics.date.BusinessDayConvention;
 import com.opengamma.strata.basics.date.HolidayCalendar;
+import com.opengamma.strata.basics.date.HolidayCalendars;
+import com.opengamma.strata.basics.date.ImmutableHolidayCalendar;
 
 /**
  * Test {@link PeriodicSchedule}.
@@ -219,6 +231,68 @@ public class PeriodicScheduleTest {
     }
   }
 
+  public void test_createSchedule_notCachedByDefault() {
+    PeriodicSchedule defn = PeriodicSchedule.of(
+        date(2014, JUNE, 17), date(2014, SEPTEMBER, 17), P1M, BDA, SHORT_INITIAL, DAY_17);
+    Schedule test = defn.createSchedule(REF_DATA);
+    assertNotSame(defn.createSchedule(REF_DATA), test);
+    assertEquals(defn.createSchedule(REF_DATA), test);
+  }
+
+  public void test_createSchedule_cached() {
+    PeriodicSchedule defn = PeriodicSchedule.of(
+        date(2014, JUNE, 17), date(2014, SEPTEMBER, 17), P1M, BDA, SHORT_INITIAL, DAY_17);
+    ReferenceData cachingRefData = ScheduleCache.cachingReferenceData(REF_DATA, 10);
+    Schedule test = defn.createSchedule(cachingRefData);
+    assertEquals(test, defn.createSchedule(REF_DATA));
+    assertSame(defn.createSchedule(cachingRefData), test);
+    assertSame(defn.toBuilder().build().createSchedule(cachingRefData), test);
+    assertEquals(ScheduleCache.find(cachingRefData).size(), 1);
+    assertEquals(ScheduleCache.find(cachingRefData).toString(), "ScheduleCache[size=1]");
+    assertEquals(ScheduleCache.find(REF_DATA), null);
+
+    // reference data derived from the caching instance does not use the cache
+    ReferenceData refData = ImmutableReferenceData.of(
+        SAT_SUN, ImmutableHolidayCalendar.of(SAT_SUN, ImmutableList.of(date(2014, JULY, 17)), SATURDAY, SUNDAY));
+    Schedule updated = defn.createSchedule(refData.combinedWith(cachingRefData));
+    assertEquals(updated.getPeriod(1).getStartDate(), date(2014, JULY, 18));
+    assertEquals(updated.getPeriod(1).getUnadjustedStartDate(), date(2014, JULY, 17));
+    assertEquals(ScheduleCache.find(cachingRefData).size(), 1);
+  }
+
+  public void test_createSchedule_cached_serialization() throws Exception {
+    PeriodicSchedule defn = PeriodicSchedule.of(
+        date(2014, JUNE, 17), date(2014, SEPTEMBER, 17), P1M, BDA, SHORT_INITIAL, DAY_17);
+    ReferenceData cachingRefData = ScheduleCache.cachingReferenceData(
+        ImmutableReferenceData.of(SAT_SUN, HolidayCalendars.SAT_SUN), 10);
+    Schedule schedule = defn.createSchedule(cachingRefData);
+    assertEquals(ScheduleCache.find(cachingRefData).size(), 1);
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+      oos.writeObject(cachingRefData);
+    }
+    ReferenceData test;
+    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+      test = (ReferenceData) ois.readObject();
+    }
+    assertEquals(test.getValue(SAT_SUN), HolidayCalendars.SAT_SUN);
+    assertEquals(ScheduleCache.find(test).size(), 0);
+    Schedule deserialized = defn.createSchedule(test);
+    assertEquals(deserialized, schedule);
+    assertSame(defn.createSchedule(test), deserialized);
+    assertEquals(ScheduleCache.find(test).size(), 1);
+  }
+
+  public void test_createSchedule_cached_invalid() {
+    assertThrowsIllegalArg(() -> ScheduleCache.cachingReferenceData(REF_DATA, 0));
+    PeriodicSchedule defn = PeriodicSchedule.of(
+        date(2014, JUNE, 17), date(2014, SEPTEMBER, 17), P1M, BDA, SHORT_INITIAL, DAY_17);
+    ReferenceData cachingRefData = ScheduleCache.cachingReferenceData(ReferenceData.empty(), 10);
+    assertThrows(() -> defn.createSchedule(cachingRefData), ReferenceDataNotFoundException.class);
+    assertEquals(ScheduleCache.find(cachingRefData).size(), 0);
+  }
+
   public void test_of_LocalDateRoll_null() {
     assertThrowsIllegalArg(() -> PeriodicSchedule.of(null, SEP_17, P1M, BDA, SHORT_INITIAL, DAY_17));
     assertThrowsIllegalArg(() -> PeriodicSchedule.of(JUN_04, null, P1M, BDA, SHORT_INITIAL, DAY_17));
@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 
 import org.joda.beans.ImmutableBean;
 import org.joda.beans.JodaBeanUtils;
@@ -203,15 +204,32 @@ public final class CalculationTask implements ImmutableBean {
    * @param refData  the reference data
    * @return results of the calculation, one for every scenario in the market data
    */
-  @SuppressWarnings("unchecked")
   public CalculationResults execute(ScenarioMarketData marketData, ReferenceData refData) {
+    return execute(marketData, refData, lookup -> fxRateProvider(marketData, lookup));
+  }
+
+  /**
+   * Executes the task, obtaining the FX provider from a function.
+   * <p>
+   * The function is passed the FX rate lookup of the task, if any.
+   * It allows the FX providers, and the rates they have found, to be shared between the tasks of a run.
+   *
+   * @param marketData  the market data used in the calculation
+   * @param refData  the reference data
+   * @param fxProviders  the function providing a suitable FX provider
+   * @return results of the calculation, one for every scenario in the market data
+   */
+  @SuppressWarnings("unchecked")
+  CalculationResults execute(
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      Function<Optional<FxRateLookup>, ScenarioFxRateProvider> fxProviders) {
+
     // calculate the results
     Map<Measure, Result<?>> results = calculate(marketData, refData);
 
     // get a suitable FX provider
-    ScenarioFxRateProvider fxProvider = parameters.findParameter(FxRateLookup.class)
-        .map(lookup -> LookupScenarioFxRateProvider.of(marketData, lookup))
-        .orElse(ScenarioFxRateProvider.of(marketData));
+    ScenarioFxRateProvider fxProvider = fxProviders.apply(parameters.findParameter(FxRateLookup.class));
 
     // convert the results, using a normal loop for better stack traces
     ImmutableList.Builder<CalculationResult> resultBuilder = ImmutableList.builder();
@@ -223,6 +241,13 @@ public final class CalculationTask implements ImmutableBean {
     return CalculationResults.of(target, resultBuilder.build());
   }
 
+  // obtains a suitable FX provider
+  static ScenarioFxRateProvider fxRateProvider(ScenarioMarketData marketData, Optional<FxRateLookup> lookup) {
+    return lookup
+        .map(lk -> LookupScenarioFxRateProvider.of(marketData, lk))
+        .orElseGet(() -> ScenarioFxRateProvider.of(marketData));
+  }
+
   // calculates the result
   private Map<Measure, Result<?>> calculate(ScenarioMarketData marketData, ReferenceData refData) {
     try {
@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.io.CsvOutput;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+
+/**
+ * Calculation listener that writes each result to CSV as it is received.
+ * <p>
+ * {@link ResultsListener} retains every result until the calculations are complete.
+ * For a very large portfolio, or a large number of scenarios, the results may not fit in memory.
+ * This listener writes each result as soon as it is received and does not retain it.
+ * The calculation runner blocks the calculations if the listener falls behind, thus the memory
+ * used does not depend on the size of the portfolio.
+ * <p>
+ * The CSV file has the columns 'Row', 'Column', 'Scenario', 'Currency', 'Value' and 'Error'.
+ * The row is the index of the target and the column is the column name.
+ * A result containing scenario values is written as one line per scenario, and a result containing
+ * a multi-currency amount is written as one line per currency. Values that are not amounts or numbers
+ * are written using {@code toString()}. A failure is written as a single line with the failure message.
+ * The lines are written in the order the results are received, not in row order.
+ * <p>
+ * The output is flushed, but not closed, when the calculations are complete.
+ * If writing fails, no further lines are written and the exception is available from {@link #getFuture()}.
+ * <p>
+ * This listener must only be used for a single calculation run.
+ */
+public final class CsvCalculationListener implements CalculationListener {
+
+  /**
+   * The header of the CSV file.
+   */
+  private static final ImmutableList<String> HEADERS =
+      ImmutableList.of("Row", "Column", "Scenario", "Currency", "Value", "Error");
+
+  /**
+   * The underlying output.
+   */
+  private final Appendable output;
+  /**
+   * The CSV output.
+   */
+  private final CsvOutput csv;
+  /**
+   * A future providing the number of lines written.
+   */
+  private final CompletableFuture<Long> future = new CompletableFuture<>();
+  /**
+   * The column names.
+   */
+  private List<String> columnNames = ImmutableList.of();
+  /**
+   * The number of lines written.
+   */
+  private long lineCount;
+  /**
+   * The exception that occurred when writing, null if none.
+   */
+  private RuntimeException failure;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance that writes to the specified output.
+   * <p>
+   * If the output is {@link Flushable}, it is flushed when the calculations are complete.
+   *
+   * @param output  the output, such as a {@code Writer}
+   * @return the listener
+   */
+  public static CsvCalculationListener of(Appendable output) {
+    return new CsvCalculationListener(output);
+  }
+
+  // restricted constructor
+  private CsvCalculationListener(Appendable output) {
+    this.output = ArgChecker.notNull(output, "output");
+    this.csv = CsvOutput.standard(output, "\n");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the number of lines written, excluding the header, blocking until the calculations are complete.
+   * <p>
+   * If the thread is interrupted while this method is blocked, then a runtime exception
+   * is thrown, but with the interrupt flag set.
+   *
+   * @return the number of lines written
+   * @throws RuntimeException if an exception occurred writing the output
+   */
+  public long result() {
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(ex);
+    } catch (ExecutionException ex) {
+      throw new RuntimeException("Exception writing results", ex.getCause());
+    }
+  }
+
+  /**
+   * A future providing asynchronous notification when the results have been written.
+   * <p>
+   * The future provides the number of lines written, excluding the header.
+   * It completes exceptionally if an exception occurred writing the output.
+   *
+   * @return a future providing asynchronous notification when the results have been written
+   */
+  public CompletableFuture<Long> getFuture() {
+    return future;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public void calculationsStarted(List<CalculationTarget> targets, List<Column> columns) {
+    columnNames = columns.stream()
+        .map(column -> column.getName().getName())
+        .collect(toImmutableList());
+    write(() -> csv.writeLine(HEADERS));
+  }
+
+  @Override
+  public void resultReceived(CalculationTarget target, CalculationResult result) {
+    write(() -> writeResult(result));
+  }
+
+  @Override
+  public void calculationsComplete() {
+    write(() -> {
+      if (output instanceof Flushable) {
+        try {
+          ((Flushable) output).flush();
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      }
+    });
+    if (failure != null) {
+      future.completeExceptionally(failure);
+    } else {
+      future.complete(lineCount);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // writes unless an earlier write failed
+  private void write(Runnable writer) {
+    if (failure == null) {
+      try {
+        writer.run();
+      } catch (RuntimeException ex) {
+        failure = ex;
+      }
+    }
+  }
+
+  // writes a single result
+  private void writeResult(CalculationResult calculationResult) {
+    String row = Integer.toString(calculationResult.getRowIndex());
+    int columnIndex = calculationResult.getColumnIndex();
+    String column = columnIndex < columnNames.size() ? columnNames.get(columnIndex) : Integer.toString(columnIndex);
+    Result<?> result = calculationResult.getResult();
+    if (result.isFailure()) {
+      writeLine(row, column, "", "", "", result.getFailure().getMessage());
+      return;
+    }
+    Object value = result.getValue();
+    // the common scenario arrays are written without creating an object for each scenario
+    if (value instanceof CurrencyScenarioArray) {
+      CurrencyScenarioArray amounts = (CurrencyScenarioArray) value;
+      writeValues(row, column, amounts.getCurrency().getCode(), amounts.getAmounts().getValues());
+    } else if (value instanceof MultiCurrencyScenarioArray) {
+      MultiCurrencyScenarioArray amounts = (MultiCurrencyScenarioArray) value;
+      for (Currency currency : amounts.getCurrencies()) {
+        writeValues(row, column, currency.getCode(), amounts.getValues(currency));
+      }
+    } else if (value instanceof DoubleScenarioArray) {
+      writeValues(row, column, "", ((DoubleScenarioArray) value).getValues());
+    } else if (value instanceof ScenarioArray) {
+      ScenarioArray<?> array = (ScenarioArray<?>) value;
+      for (int i = 0; i < array.getScenarioCount(); i++) {
+        writeValue(row, column, Integer.toString(i), array.get(i));
+      }
+    } else {
+      writeValue(row, column, "", value);
+    }
+  }
+
+  // writes the values of each scenario
+  private void writeValues(String row, String column, String currency, DoubleArray values) {
+    for (int i = 0; i < values.size(); i++) {
+      writeLine(row, column, Integer.toString(i), currency, Double.toString(values.get(i)), "");
+    }
+  }
+
+  // writes a single value
+  private void writeValue(String row, String column, String scenario, Object value) {
+    if (value instanceof CurrencyAmount) {
+      CurrencyAmount amount = (CurrencyAmount) value;
+      writeLine(row, column, scenario, amount.getCurrency().getCode(), Double.toString(amount.getAmount()), "");
+    } else if (value instanceof MultiCurrencyAmount) {
+      for (CurrencyAmount amount : ((MultiCurrencyAmount) value).getAmounts()) {
+        writeLine(row, column, scenario, amount.getCurrency().getCode(), Double.toString(amount.getAmount()), "");
+      }
+    } else {
+      writeLine(row, column, scenario, "", String.valueOf(value), "");
+    }
+  }
+
+  // writes a line
+  private void writeLine(String row, String column, String scenario, String currency, String value, String error) {
+    csv.writeCell(row)
+        .writeCell(column)
+        .writeCell(scenario)
+        .writeCell(currency)
+        .writeCell(value)
+        .writeCell(error)
+        .writeNewLine();
+    lineCount++;
+  }
+
+}
@@ -8,11 +8,15 @@ package com.opengamma.strata.calc.runner;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import com.opengamma.strata.basics.CalculationTarget;
@@ -24,6 +28,7 @@ import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioFxRateProvider;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
 /**
@@ -172,6 +177,9 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
       ReferenceData refData,
       CalculationListener listener) {
 
+    // the market data is wrapped to allow values derived from it to be shared by the targets of this run
+    // the shared values are discarded along with the wrapper when the run is complete
+    ScenarioMarketData runMarketData = RunScopedMarketData.of(marketData);
     List<CalculationTask> taskList = tasks.getTasks();
     // the listener is invoked via this wrapper
     // the wrapper ensures thread-safety for the listener
@@ -179,8 +187,13 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
     Consumer<CalculationResults> consumer =
         new ListenerWrapper(listener, taskList.size(), tasks.getTargets(), tasks.getColumns());
 
+    // the FX providers are shared between the tasks, so each FX rate is only found once in the run
+    Map<Optional<FxRateLookup>, ScenarioFxRateProvider> fxProviders = new ConcurrentHashMap<>();
+    Function<Optional<FxRateLookup>, ScenarioFxRateProvider> fxProviderFn =
+        lookup -> fxProviders.computeIfAbsent(lookup, lk -> CalculationTask.fxRateProvider(runMarketData, lk));
+
     // run each task using the executor
-    taskList.forEach(task -> runTask(task, marketData, refData, consumer));
+    taskList.forEach(task -> runTask(task, runMarketData, refData, fxProviderFn, consumer));
   }
 
   // submits a task to the executor to be run
@@ -188,11 +201,12 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
       CalculationTask task,
       ScenarioMarketData marketData,
       ReferenceData refData,
+      Function<Optional<FxRateLookup>, ScenarioFxRateProvider> fxProviders,
       Consumer<CalculationResults> consumer) {
 
     // the task is executed, with the result passed to the consumer
     // the consumer wraps the listener to ensure thread-safety
-    Supplier<CalculationResults> taskExecutor = () -> task.execute(marketData, refData);
+    Supplier<CalculationResults> taskExecutor = () -> task.execute(marketData, refData, fxProviders);
     CompletableFuture.supplyAsync(taskExecutor, executor).thenAccept(consumer);
   }
 
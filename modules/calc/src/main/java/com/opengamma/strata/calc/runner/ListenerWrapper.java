@@ -8,6 +8,7 @@ package com.opengamma.strata.calc.runner;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
@@ -29,10 +30,21 @@ import com.opengamma.strata.collect.ArgChecker;
  * Calculations may be performed in bulk for a given target.
  * The logic in this class unwraps the {@link CalculationResults}, calling the
  * listener with each individual {@link CalculationResult}.
+ * <p>
+ * The number of results waiting to be delivered is bounded. If the listener is slower than the
+ * calculations, such as when writing to a file, the calculation threads are blocked until the
+ * listener has caught up. This ensures the memory used does not depend on the number of targets.
+ * <p>
+ * The default bound of 1000 results is chosen so that a listener which keeps up with the calculations
+ * never blocks them, as the queue only grows while a single listener call is slower than the calculation
+ * of many targets. Each queued item holds the results of one target for all columns, thus at most
+ * 1000 rows of a report are held in memory while the listener catches up.
  */
 final class ListenerWrapper implements Consumer<CalculationResults> {
 
   private static final Logger log = LoggerFactory.getLogger(ListenerWrapper.class);
+  /** The default maximum number of results that can be queued before calculation threads are blocked. */
+  static final int DEFAULT_MAX_QUEUE_SIZE = 1000;
 
   /** The wrapped listener. */
   private final CalculationListener listener;
@@ -43,6 +55,12 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
   /** Protects the queue and the executing flag. */
   private final Lock lock = new ReentrantLock();
 
+  /** Signalled when a result is removed from the queue, or when the listener is no longer being invoked. */
+  private final Condition queueNotFull = lock.newCondition();
+
+  /** The maximum number of results that can be queued before calculation threads are blocked. */
+  private final int maxQueueSize;
+
   /** This lock is never contended; it is used to guarantee the listener state is visible to all threads. */
   private final Lock listenerLock = new ReentrantLock();
 
@@ -65,13 +83,37 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
   //-------------------------------------------------------------------------
   /**
    * Creates an instance wrapping the specified listener.
-   *  @param listener  the underlying listener wrapped by this object
+   * <p>
+   * At most {@link #DEFAULT_MAX_QUEUE_SIZE} results are queued.
+   *
+   * @param listener  the underlying listener wrapped by this object
    * @param tasksExpected  the number of tasks to be executed
+   * @param targets  the targets for which values are being calculated
    * @param columns  the columns for which values are being calculated
    */
   ListenerWrapper(CalculationListener listener, int tasksExpected, List<CalculationTarget> targets, List<Column> columns) {
+    this(listener, tasksExpected, targets, columns, DEFAULT_MAX_QUEUE_SIZE);
+  }
+
+  /**
+   * Creates an instance wrapping the specified listener, specifying the maximum queue size.
+   *
+   * @param listener  the underlying listener wrapped by this object
+   * @param tasksExpected  the number of tasks to be executed
+   * @param targets  the targets for which values are being calculated
+   * @param columns  the columns for which values are being calculated
+   * @param maxQueueSize  the maximum number of results that can be queued before calculation threads are blocked
+   */
+  ListenerWrapper(
+      CalculationListener listener,
+      int tasksExpected,
+      List<CalculationTarget> targets,
+      List<Column> columns,
+      int maxQueueSize) {
+
     this.listener = ArgChecker.notNull(listener, "listener");
     this.tasksExpected = ArgChecker.notNegative(tasksExpected, "tasksExpected");
+    this.maxQueueSize = ArgChecker.notNegativeOrZero(maxQueueSize, "maxQueueSize");
 
     listenerLock.lock();
     try {
@@ -112,6 +154,11 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
     // to any thread acquiring the lock.
     lock.lock();
     try {
+      // If the queue is full, wait until the thread invoking the listener has removed a result.
+      // The thread invoking the listener never waits, thus it always makes progress.
+      while (executing && queue.size() >= maxQueueSize) {
+        queueNotFull.awaitUninterruptibly();
+      }
       if (executing) {
         // Another thread is already invoking the listener. Add the result to
         // the queue and return. The other thread will ensure the queued results
@@ -169,13 +216,16 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
         } else if (queue.isEmpty()) {
           // There are no more results to deliver. Unset the executing flag and return.
           // This allows the next calling thread to deliver results.
+          // All blocked threads are woken, as any one of them may now invoke the listener.
           executing = false;
+          queueNotFull.signalAll();
           return;
         } else {
           // There are results on the queue. This means another thread called accept(),
           // added a result to the queue and returned while this thread was invoking the listener.
           // This thread must deliver the results from the queue.
           nextResult = queue.remove();
+          queueNotFull.signal();
         }
       } finally {
         lock.unlock();
@@ -6,15 +6,23 @@
 package com.opengamma.strata.calc.runner;
 
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.FxMatrix;
 import com.opengamma.strata.basics.currency.FxRateProvider;
 import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.data.CachingFxRateProvider;
 import com.opengamma.strata.data.scenario.ScenarioFxRateProvider;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
 /**
  * A provider of scenario FX rates that uses FX rate lookup.
  * The use of {@link FxRateLookup} allows triangulation currency and observable source to be controlled.
+ * <p>
+ * The provider for each scenario is created when first used and then retained.
+ * Unless the lookup provides an {@link FxMatrix}, each rate is cached once found, avoiding repeated triangulation.
  */
 class LookupScenarioFxRateProvider
     implements ScenarioFxRateProvider, Serializable {
@@ -30,6 +38,14 @@ class LookupScenarioFxRateProvider
    * The FX rate lookup.
    */
   private final FxRateLookup lookup;
+  /**
+   * The FX rate provider for each scenario, null until first used.
+   */
+  private final transient AtomicReferenceArray<FxRateProvider> providers;
+  /**
+   * The currencies of the FX rates in the market data, null until first used.
+   */
+  private transient volatile ImmutableSet<Currency> currencies;
 
   // obtains an instance, returning the interface type to make type system happy at call site
   static ScenarioFxRateProvider of(ScenarioMarketData marketData, FxRateLookup lookup) {
@@ -39,6 +55,12 @@ class LookupScenarioFxRateProvider
   private LookupScenarioFxRateProvider(ScenarioMarketData marketData, FxRateLookup lookup) {
     this.marketData = ArgChecker.notNull(marketData, "marketData");
     this.lookup = ArgChecker.notNull(lookup, "lookup");
+    this.providers = new AtomicReferenceArray<>(marketData.getScenarioCount());
+  }
+
+  // ensure standard constructor is invoked
+  private Object readResolve() {
+    return new LookupScenarioFxRateProvider(marketData, lookup);
   }
 
   @Override
@@ -48,7 +70,24 @@ class LookupScenarioFxRateProvider
 
   @Override
   public FxRateProvider fxRateProvider(int scenarioIndex) {
-    return lookup.fxRateProvider(marketData.scenario(scenarioIndex));
+    FxRateProvider provider = providers.get(scenarioIndex);
+    if (provider == null) {
+      FxRateProvider underlying = lookup.fxRateProvider(marketData.scenario(scenarioIndex));
+      // a matrix already holds all the rates in a table
+      provider = underlying instanceof FxMatrix ? underlying : CachingFxRateProvider.of(underlying, currencies());
+      providers.lazySet(scenarioIndex, provider);
+    }
+    return provider;
+  }
+
+  // the currencies are only determined once
+  private ImmutableSet<Currency> currencies() {
+    ImmutableSet<Currency> result = currencies;
+    if (result == null) {
+      result = CachingFxRateProvider.fxRateCurrencies(marketData.getIds());
+      currencies = result;
+    }
+    return result;
   }
 
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+import com.opengamma.strata.data.scenario.ScenarioMarketDataId;
+
+/**
+ * Scenario market data that is scoped to a single calculation run.
+ * <p>
+ * The {@link CalculationTaskRunner} passes the market data of a run to the calculation functions
+ * wrapped in an instance of this class. The functions can then use {@link #computeIfAbsent} to share
+ * values derived from the market data between the targets of the run, such as a view of the market data.
+ * <p>
+ * The shared values are held by this instance, which is only referenced by the tasks of the run.
+ * As such, the shared values, and the market data they refer to, can be garbage collected once the run
+ * is complete, even if they are keyed by a long-lived object.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class RunScopedMarketData implements ScenarioMarketData {
+
+  /**
+   * The underlying market data.
+   */
+  private final ScenarioMarketData underlying;
+  /**
+   * The values shared between the targets of the run.
+   */
+  private final ConcurrentMap<Object, Object> sharedValues = new ConcurrentHashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance wrapping the market data of a calculation run.
+   *
+   * @param underlying  the underlying market data
+   * @return the run-scoped market data
+   */
+  static RunScopedMarketData of(ScenarioMarketData underlying) {
+    return new RunScopedMarketData(underlying);
+  }
+
+  /**
+   * Finds the value shared between the targets of a run, computing it if necessary.
+   * <p>
+   * If the market data is scoped to a calculation run, the value is computed the first time
+   * the key is seen, and then returned for the rest of the run.
+   * Otherwise, there is no run to share the value with, and the value is computed on each call.
+   * <p>
+   * The key must implement {@code equals} and {@code hashCode}.
+   * The function must not have side effects, as it may be invoked more than once for the same key.
+   *
+   * @param <K>  the type of the key
+   * @param <V>  the type of the value
+   * @param marketData  the market data passed to the calculation function
+   * @param key  the key identifying the value
+   * @param valueFn  the function computing the value from the key
+   * @return the value
+   */
+  public static <K, V> V computeIfAbsent(
+      ScenarioMarketData marketData,
+      K key,
+      Function<? super K, ? extends V> valueFn) {
+
+    ArgChecker.notNull(marketData, "marketData");
+    ArgChecker.notNull(key, "key");
+    ArgChecker.notNull(valueFn, "valueFn");
+    if (!(marketData instanceof RunScopedMarketData)) {
+      return valueFn.apply(key);
+    }
+    ConcurrentMap<Object, Object> sharedValues = ((RunScopedMarketData) marketData).sharedValues;
+    // the value is not computed under the lock of the map, allowing the function to share other values
+    @SuppressWarnings("unchecked")
+    V value = (V) sharedValues.get(key);
+    if (value == null) {
+      V computed = valueFn.apply(key);
+      @SuppressWarnings("unchecked")
+      V existing = (V) sharedValues.putIfAbsent(key, computed);
+      value = existing != null ? existing : computed;
+    }
+    return value;
+  }
+
+  // restricted constructor
+  private RunScopedMarketData(ScenarioMarketData underlying) {
+    this.underlying = ArgChecker.notNull(underlying, "underlying");
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public MarketDataBox<LocalDate> getValuationDate() {
+    return underlying.getValuationDate();
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return underlying.getScenarioCount();
+  }
+
+  @Override
+  public MarketData scenario(int scenarioIndex) {
+    return underlying.scenario(scenarioIndex);
+  }
+
+  @Override
+  public boolean containsValue(MarketDataId<?> id) {
+    return underlying.containsValue(id);
+  }
+
+  @Override
+  public <T> MarketDataBox<T> getValue(MarketDataId<T> id) {
+    return underlying.getValue(id);
+  }
+
+  @Override
+  public <T> Optional<MarketDataBox<T>> findValue(MarketDataId<T> id) {
+    return underlying.findValue(id);
+  }
+
+  @Override
+  public Set<MarketDataId<?>> getIds() {
+    return underlying.getIds();
+  }
+
+  @Override
+  public <T> Set<MarketDataId<T>> findIds(MarketDataName<T> name) {
+    return underlying.findIds(name);
+  }
+
+  @Override
+  public <T, U extends ScenarioArray<T>> U getScenarioValue(ScenarioMarketDataId<T, U> id) {
+    return underlying.getScenarioValue(id);
+  }
+
+  @Override
+  public Set<ObservableId> getTimeSeriesIds() {
+    return underlying.getTimeSeriesIds();
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries getTimeSeries(ObservableId id) {
+    return underlying.getTimeSeries(id);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "RunScopedMarketData[" + underlying + "]";
+  }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+
+/**
+ * Test {@link CsvCalculationListener}.
+ */
+@Test
+public class CsvCalculationListenerTest {
+
+  private static final CalculationTarget TARGET = new CalculationTarget() {};
+  private static final ImmutableList<Column> COLUMNS = ImmutableList.of(
+      Column.of(TestingMeasures.PRESENT_VALUE),
+      Column.of(TestingMeasures.PAR_RATE));
+
+  //-------------------------------------------------------------------------
+  public void test_write() {
+    StringWriter writer = new StringWriter();
+    CsvCalculationListener test = CsvCalculationListener.of(writer);
+    test.calculationsStarted(ImmutableList.of(TARGET, TARGET), COLUMNS);
+    test.resultReceived(TARGET, CalculationResult.of(0, 0,
+        Result.success(CurrencyScenarioArray.of(GBP, DoubleArray.of(1d, 2d)))));
+    test.resultReceived(TARGET, CalculationResult.of(0, 1,
+        Result.success(DoubleScenarioArray.of(DoubleArray.of(0.01, 0.02)))));
+    test.resultReceived(TARGET, CalculationResult.of(1, 0,
+        Result.success(MultiCurrencyScenarioArray.of(ImmutableMap.of(USD, DoubleArray.of(3d))))));
+    test.resultReceived(TARGET, CalculationResult.of(1, 1,
+        Result.failure(FailureReason.CALCULATION_FAILED, "Oops, failed")));
+    assertThat(test.getFuture().isDone()).isFalse();
+    test.calculationsComplete();
+    assertThat(test.result()).isEqualTo(6L);
+    assertThat(writer.toString()).isEqualTo(
+        "Row,Column,Scenario,Currency,Value,Error\n" +
+            "0,PresentValue,0,GBP,1.0,\n" +
+            "0,PresentValue,1,GBP,2.0,\n" +
+            "0,ParRate,0,,0.01,\n" +
+            "0,ParRate,1,,0.02,\n" +
+            "1,PresentValue,0,USD,3.0,\n" +
+            "1,ParRate,,,,\"Oops, failed\"\n");
+  }
+
+  public void test_write_singleValues() {
+    StringWriter writer = new StringWriter();
+    CsvCalculationListener test = CsvCalculationListener.of(writer);
+    test.calculationsStarted(ImmutableList.of(TARGET), COLUMNS);
+    test.resultReceived(TARGET, CalculationResult.of(0, 0,
+        Result.success(MultiCurrencyAmount.of(CurrencyAmount.of(GBP, 1d), CurrencyAmount.of(USD, 2d)))));
+    test.resultReceived(TARGET, CalculationResult.of(0, 1,
+        Result.success(ScenarioArray.of(CurrencyAmount.of(GBP, 3d), "Foo"))));
+    test.calculationsComplete();
+    assertThat(test.result()).isEqualTo(4L);
+    assertThat(writer.toString()).isEqualTo(
+        "Row,Column,Scenario,Currency,Value,Error\n" +
+            "0,PresentValue,,GBP,1.0,\n" +
+            "0,PresentValue,,USD,2.0,\n" +
+            "0,ParRate,0,GBP,3.0,\n" +
+            "0,ParRate,1,,Foo,\n");
+  }
+
+  public void test_write_failure() {
+    Writer writer = new StringWriter() {
+      @Override
+      public StringWriter append(CharSequence csq) {
+        throw new UncheckedIOException(new IOException("Disk full"));
+      }
+    };
+    CsvCalculationListener test = CsvCalculationListener.of(writer);
+    test.calculationsStarted(ImmutableList.of(TARGET), COLUMNS);
+    test.resultReceived(TARGET, CalculationResult.of(0, 0, Result.success(1d)));
+    test.calculationsComplete();
+    assertThat(test.getFuture().isCompletedExceptionally()).isTrue();
+    assertThrows(() -> test.result(), RuntimeException.class, "Exception writing results");
+  }
+
+  public void test_runner() {
+    StringWriter writer = new StringWriter();
+    CsvCalculationListener test = CsvCalculationListener.of(writer);
+    ListenerWrapper wrapper = new ListenerWrapper(test, 1, ImmutableList.of(TARGET), COLUMNS);
+    wrapper.accept(CalculationResults.of(TARGET, ImmutableList.of(
+        CalculationResult.of(0, 0, Result.success(CurrencyAmount.of(GBP, 1d))))));
+    assertThat(test.result()).isEqualTo(1L);
+    assertThat(writer.toString()).isEqualTo(
+        "Row,Column,Scenario,Currency,Value,Error\n" +
+            "0,PresentValue,,GBP,1.0,\n");
+  }
+
+}
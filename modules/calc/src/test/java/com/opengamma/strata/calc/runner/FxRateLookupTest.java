@@ -13,6 +13,8 @@ import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
 import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
 
@@ -21,11 +23,15 @@ import org.testng.annotations.Test;
 
 import com.opengamma.strata.basics.currency.FxMatrix;
 import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.basics.currency.FxRateProvider;
+import com.opengamma.strata.data.CachingFxRateProvider;
 import com.opengamma.strata.data.FxMatrixId;
 import com.opengamma.strata.data.FxRateId;
 import com.opengamma.strata.data.ImmutableMarketData;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.ObservableSource;
+import com.opengamma.strata.data.scenario.ScenarioFxRateProvider;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
 /**
  * Test {@link FxRateLookup}.
@@ -91,6 +97,31 @@ public class FxRateLookupTest {
     assertEquals(test.fxRateProvider(marketData).fxRate(GBP, USD), 1.5d);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_scenarioProvider_rates() {
+    MarketData marketData = ImmutableMarketData.builder(VAL_DATE)
+        .addValue(FxRateId.of(GBP, USD), FxRate.of(GBP, USD, 1.5d))
+        .addValue(FxRateId.of(EUR, USD), FxRate.of(EUR, USD, 1.1d))
+        .build();
+    ScenarioFxRateProvider test =
+        LookupScenarioFxRateProvider.of(ScenarioMarketData.of(2, marketData), FxRateLookup.ofRates());
+    FxRateProvider provider = test.fxRateProvider(1);
+    assertTrue(provider instanceof CachingFxRateProvider);
+    assertSame(test.fxRateProvider(1), provider);
+    assertEquals(test.fxRate(GBP, EUR, 1), FxRateLookup.ofRates().fxRateProvider(marketData).fxRate(GBP, EUR));
+  }
+
+  public void test_scenarioProvider_matrix() {
+    FxMatrix matrix = FxMatrix.of(GBP, USD, 1.5d);
+    MarketData marketData = ImmutableMarketData.builder(VAL_DATE)
+        .addValue(FxMatrixId.standard(), matrix)
+        .build();
+    ScenarioFxRateProvider test =
+        LookupScenarioFxRateProvider.of(ScenarioMarketData.of(2, marketData), FxRateLookup.ofMatrix());
+    assertSame(test.fxRateProvider(0), matrix);
+    assertEquals(test.fxRate(GBP, USD, 0), 1.5d);
+  }
+
   //-------------------------------------------------------------------------
   public void coverage_rates() {
     FxRateLookup test = FxRateLookup.ofRates();
@@ -6,13 +6,19 @@
 package com.opengamma.strata.calc.runner;
 
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
@@ -52,6 +58,79 @@ public class ListenerWrapperTest {
     }
   }
 
+  // Tests that threads delivering results to a slow listener are blocked when the queue is full,
+  // and that they resume once the listener catches up without losing any results.
+  public void slowListenerBlocksProducers() throws InterruptedException {
+    int maxQueueSize = 2;
+    int producerCount = 6;
+    CountDownLatch firstResultReceived = new CountDownLatch(1);
+    CountDownLatch releaseListener = new CountDownLatch(1);
+    CountDownLatch complete = new CountDownLatch(1);
+    Queue<CalculationTarget> received = new ConcurrentLinkedQueue<>();
+    CalculationListener listener = new CalculationListener() {
+      @Override
+      public void resultReceived(CalculationTarget target, CalculationResult result) {
+        received.add(target);
+        firstResultReceived.countDown();
+        try {
+          releaseListener.await();
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+
+      @Override
+      public void calculationsComplete() {
+        complete.countDown();
+      }
+    };
+    ListenerWrapper wrapper =
+        new ListenerWrapper(listener, producerCount + 1, ImmutableList.of(), ImmutableList.of(), maxQueueSize);
+    CalculationResult result = CalculationResult.of(0, 0, Result.failure(FailureReason.ERROR, "foo"));
+    List<CalculationTarget> targets = IntStream.range(0, producerCount + 1)
+        .mapToObj(i -> new CalculationTarget() {})
+        .collect(toList());
+
+    // the first thread invokes the listener, which does not return until released
+    AtomicInteger acceptsReturned = new AtomicInteger();
+    Thread first = new Thread(() -> wrapper.accept(CalculationResults.of(targets.get(0), ImmutableList.of(result))));
+    first.start();
+    assertThat(firstResultReceived.await(10, TimeUnit.SECONDS)).isTrue();
+
+    // the remaining threads fill the queue, then block
+    List<Thread> producers = new ArrayList<>();
+    for (int i = 1; i <= producerCount; i++) {
+      CalculationResults results = CalculationResults.of(targets.get(i), ImmutableList.of(result));
+      Thread producer = new Thread(() -> {
+        wrapper.accept(results);
+        acceptsReturned.incrementAndGet();
+      });
+      producers.add(producer);
+      producer.start();
+    }
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    int blockedExpected = producerCount - maxQueueSize;
+    while (producers.stream().filter(t -> t.getState() == Thread.State.WAITING).count() < blockedExpected ||
+        acceptsReturned.get() < maxQueueSize) {
+      assertThat(System.nanoTime()).as("Producers did not block").isLessThan(deadline);
+      Thread.sleep(1);
+    }
+    assertThat(acceptsReturned.get()).isEqualTo(maxQueueSize);
+    assertThat(received).hasSize(1);
+
+    // once the listener is released, all producers resume and every result is delivered
+    releaseListener.countDown();
+    first.join(TimeUnit.SECONDS.toMillis(10));
+    for (Thread producer : producers) {
+      producer.join(TimeUnit.SECONDS.toMillis(10));
+      assertThat(producer.isAlive()).as("Producer did not resume").isFalse();
+    }
+    assertThat(first.isAlive()).isFalse();
+    assertThat(complete.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(acceptsReturned.get()).isEqualTo(producerCount);
+    assertThat(received).containsExactlyInAnyOrderElementsOf(targets);
+  }
+
   public static final class Listener implements CalculationListener {
 
     /**
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.calc.marketdata.TestObservableId;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.FxRateId;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link RunScopedMarketData}.
+ */
+@Test
+public class RunScopedMarketDataTest {
+
+  private static final LocalDate VAL_DATE = date(2016, 6, 30);
+  private static final FxRateId FX_ID = FxRateId.of(GBP, USD);
+  private static final FxRate FX_RATE = FxRate.of(GBP, USD, 1.5d);
+  private static final ObservableId TS_ID = TestObservableId.of("1");
+  private static final LocalDateDoubleTimeSeries TS = LocalDateDoubleTimeSeries.of(VAL_DATE, 1d);
+  private static final MarketData MARKET_DATA = ImmutableMarketData.builder(VAL_DATE)
+      .addValue(FX_ID, FX_RATE)
+      .addTimeSeries(TS_ID, TS)
+      .build();
+  private static final ScenarioMarketData UNDERLYING = ScenarioMarketData.of(2, MARKET_DATA);
+
+  //-------------------------------------------------------------------------
+  public void test_delegates() {
+    RunScopedMarketData test = RunScopedMarketData.of(UNDERLYING);
+    assertEquals(test.getValuationDate(), MarketDataBox.ofSingleValue(VAL_DATE));
+    assertEquals(test.getScenarioCount(), 2);
+    assertEquals(test.scenario(1).getValue(FX_ID), FX_RATE);
+    assertEquals(test.containsValue(FX_ID), true);
+    assertEquals(test.getValue(FX_ID), MarketDataBox.ofSingleValue(FX_RATE));
+    assertEquals(test.findValue(FX_ID), UNDERLYING.findValue(FX_ID));
+    assertEquals(test.getIds(), ImmutableSet.of(FX_ID));
+    assertEquals(test.getTimeSeriesIds(), ImmutableSet.of(TS_ID));
+    assertEquals(test.getTimeSeries(TS_ID), TS);
+  }
+
+  public void test_computeIfAbsent() {
+    RunScopedMarketData test = RunScopedMarketData.of(UNDERLYING);
+    List<String> computed = new ArrayList<>();
+    Object value1 = RunScopedMarketData.computeIfAbsent(test, "A", key -> {
+      computed.add(key);
+      return new Object();
+    });
+    Object value2 = RunScopedMarketData.computeIfAbsent(test, "A", key -> {
+      computed.add(key);
+      return new Object();
+    });
+    assertSame(value1, value2);
+    assertEquals(computed.size(), 1);
+    // another run does not see the value
+    Object value3 = RunScopedMarketData.computeIfAbsent(RunScopedMarketData.of(UNDERLYING), "A", key -> new Object());
+    assertNotSame(value1, value3);
+  }
+
+  public void test_computeIfAbsent_notRunScoped() {
+    Object value1 = RunScopedMarketData.computeIfAbsent(UNDERLYING, "A", key -> new Object());
+    Object value2 = RunScopedMarketData.computeIfAbsent(UNDERLYING, "A", key -> new Object());
+    assertNotSame(value1, value2);
+  }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.FxRateProvider;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Provides FX rates from an underlying provider, retaining each rate once it has been found.
+ * <p>
+ * The underlying provider, typically {@link MarketDataFxRateProvider}, may need several market data
+ * lookups to find a rate, for example when triangulating via a third currency.
+ * This provider holds a dense table of rates between a fixed set of currencies, in the same way as
+ * {@code FxMatrix}, which is populated the first time each rate is queried.
+ * Subsequent queries only require array indexing.
+ * <p>
+ * Rates involving currencies outside the fixed set are obtained directly from the underlying provider.
+ * Failures are not cached, thus querying a rate that cannot be found always throws the exception
+ * of the underlying provider.
+ * <p>
+ * This class is thread-safe if the underlying provider is thread-safe.
+ */
+public final class CachingFxRateProvider implements FxRateProvider {
+
+  /**
+   * The underlying provider.
+   */
+  private final FxRateProvider underlying;
+  /**
+   * The index of each currency in the table.
+   */
+  private final ImmutableMap<Currency, Integer> currencies;
+  /**
+   * The table of rates, holding the raw bits of the rate, or zero if not yet known.
+   */
+  private final AtomicLongArray rates;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance that caches rates between the specified currencies.
+   *
+   * @param underlying  the underlying provider
+   * @param currencies  the currencies to cache rates for
+   * @return the provider
+   */
+  public static CachingFxRateProvider of(FxRateProvider underlying, Collection<Currency> currencies) {
+    return new CachingFxRateProvider(underlying, currencies);
+  }
+
+  /**
+   * Returns the currencies of the FX rates in the specified set of identifiers.
+   * <p>
+   * The result is the set of currencies appearing in any {@link FxRateId} in the set.
+   * Only rates between these currencies can be found in the market data, directly or by triangulation.
+   *
+   * @param ids  the market data identifiers
+   * @return the currencies of the FX rates
+   */
+  public static ImmutableSet<Currency> fxRateCurrencies(Set<? extends MarketDataId<?>> ids) {
+    ImmutableSet.Builder<Currency> builder = ImmutableSet.builder();
+    for (MarketDataId<?> id : ids) {
+      if (id instanceof FxRateId) {
+        FxRateId fxRateId = (FxRateId) id;
+        builder.add(fxRateId.getPair().getBase());
+        builder.add(fxRateId.getPair().getCounter());
+      }
+    }
+    return builder.build();
+  }
+
+  // restricted constructor
+  private CachingFxRateProvider(FxRateProvider underlying, Collection<Currency> currencies) {
+    this.underlying = ArgChecker.notNull(underlying, "underlying");
+    ArgChecker.notNull(currencies, "currencies");
+    ImmutableMap.Builder<Currency, Integer> builder = ImmutableMap.builder();
+    int index = 0;
+    for (Currency currency : ImmutableSet.copyOf(currencies)) {
+      builder.put(currency, index++);
+    }
+    this.currencies = builder.build();
+    this.rates = new AtomicLongArray(index * index);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the underlying provider.
+   *
+   * @return the underlying provider
+   */
+  public FxRateProvider getUnderlying() {
+    return underlying;
+  }
+
+  @Override
+  public double fxRate(Currency baseCurrency, Currency counterCurrency) {
+    if (baseCurrency.equals(counterCurrency)) {
+      return 1d;
+    }
+    Integer baseIndex = currencies.get(baseCurrency);
+    Integer counterIndex = currencies.get(counterCurrency);
+    if (baseIndex == null || counterIndex == null) {
+      return underlying.fxRate(baseCurrency, counterCurrency);
+    }
+    int index = baseIndex * currencies.size() + counterIndex;
+    long bits = rates.get(index);
+    if (bits != 0) {
+      return Double.longBitsToDouble(bits);
+    }
+    // a rate of zero is not a valid FX rate, thus it is used to mean unknown
+    double rate = underlying.fxRate(baseCurrency, counterCurrency);
+    rates.lazySet(index, Double.doubleToRawLongBits(rate));
+    return rate;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "CachingFxRateProvider[currencies=" + currencies.keySet() + ", underlying=" + underlying + "]";
+  }
+
+}
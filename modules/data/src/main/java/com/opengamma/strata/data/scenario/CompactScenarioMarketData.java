@@ -0,0 +1,449 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * Market data across scenarios, storing observable values in compact primitive form.
+ * <p>
+ * Scenario market data is normally held as a map of {@link MarketDataBox} keyed by identifier.
+ * When there are a very large number of observable values, such as quotes, and scenarios,
+ * the boxed values and map entries dominate the memory used.
+ * <p>
+ * This implementation interns a fixed list of {@link ObservableId} to int indices and stores the values
+ * in a scenario-major block of {@code double}, where the values for one scenario are contiguous.
+ * The block may be allocated on the heap or off-heap using direct buffers.
+ * A block is split into several buffers only when it exceeds the maximum size of a single buffer.
+ * <p>
+ * The {@code MarketDataBox} for an observable is only created when it is queried.
+ * The market data for a single scenario, as returned by {@link #scenario(int)}, reads the values directly.
+ * All other market data, including time-series, is obtained from an underlying {@code ScenarioMarketData}.
+ * <p>
+ * Values that are not set in the builder are {@code NaN}.
+ * This class is not a Joda-Bean, as the data is not held in a form suitable for serialization.
+ */
+public final class CompactScenarioMarketData implements ScenarioMarketData {
+
+  /**
+   * The maximum number of doubles in a single buffer.
+   */
+  private static final int MAX_BLOCK_SIZE = Integer.MAX_VALUE / Double.BYTES;
+
+  /**
+   * The valuation date.
+   */
+  private final MarketDataBox<LocalDate> valuationDate;
+  /**
+   * The number of scenarios.
+   */
+  private final int scenarioCount;
+  /**
+   * The identifiers of the values, in index order.
+   */
+  private final ImmutableList<ObservableId> ids;
+  /**
+   * The index of each identifier.
+   */
+  private final ImmutableMap<ObservableId, Integer> indices;
+  /**
+   * The values, each buffer holding the values of one or more whole scenarios.
+   */
+  private final DoubleBuffer[] blocks;
+  /**
+   * The number of scenarios in each buffer.
+   */
+  private final int scenariosPerBlock;
+  /**
+   * The market data for all other identifiers.
+   */
+  private final ScenarioMarketData underlying;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a builder for market data containing the specified observable identifiers.
+   * <p>
+   * The values are stored on the heap if {@code offHeap} is false, and in direct buffers if it is true.
+   *
+   * @param valuationDate  the valuation date, either a single value or one for each scenario
+   * @param scenarioCount  the number of scenarios
+   * @param ids  the identifiers of the values to be stored, no duplicates
+   * @param offHeap  whether to store the values off-heap
+   * @return the builder
+   */
+  public static Builder builder(
+      MarketDataBox<LocalDate> valuationDate,
+      int scenarioCount,
+      List<? extends ObservableId> ids,
+      boolean offHeap) {
+
+    return new Builder(valuationDate, scenarioCount, ids, offHeap);
+  }
+
+  // restricted constructor
+  private CompactScenarioMarketData(Builder builder) {
+    this.valuationDate = builder.valuationDate;
+    this.scenarioCount = builder.scenarioCount;
+    this.ids = builder.ids;
+    this.indices = builder.indices;
+    this.blocks = Arrays.stream(builder.blocks).map(DoubleBuffer::asReadOnlyBuffer).toArray(DoubleBuffer[]::new);
+    this.scenariosPerBlock = builder.scenariosPerBlock;
+    this.underlying = builder.underlying;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public MarketDataBox<LocalDate> getValuationDate() {
+    return valuationDate;
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  /**
+   * Gets the identifiers of the values held in compact form.
+   * <p>
+   * The values are indexed in the order of this list.
+   *
+   * @return the identifiers
+   */
+  public ImmutableList<ObservableId> getObservableIds() {
+    return ids;
+  }
+
+  /**
+   * Gets the market data for all other identifiers.
+   *
+   * @return the underlying market data
+   */
+  public ScenarioMarketData getUnderlying() {
+    return underlying;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the value of an observable in a single scenario.
+   *
+   * @param id  the identifier of the value
+   * @param scenarioIndex  the index of the scenario
+   * @return the value
+   * @throws IllegalArgumentException if the identifier is not held in compact form or the index is invalid
+   */
+  public double value(ObservableId id, int scenarioIndex) {
+    Integer index = indices.get(id);
+    if (index == null) {
+      throw new IllegalArgumentException("Observable identifier not found: " + id);
+    }
+    ArgChecker.inRange(scenarioIndex, 0, scenarioCount, "scenarioIndex");
+    return value(index, scenarioIndex);
+  }
+
+  // reads a value
+  private double value(int index, int scenarioIndex) {
+    int block = scenarioIndex / scenariosPerBlock;
+    int offset = (scenarioIndex - block * scenariosPerBlock) * ids.size() + index;
+    return blocks[block].get(offset);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public MarketData scenario(int scenarioIndex) {
+    ArgChecker.inRange(scenarioIndex, 0, scenarioCount, "scenarioIndex");
+    return new CompactScenario(this, scenarioIndex);
+  }
+
+  @Override
+  public boolean containsValue(MarketDataId<?> id) {
+    return indices.containsKey(id) || underlying.containsValue(id);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Optional<MarketDataBox<T>> findValue(MarketDataId<T> id) {
+    Integer index = indices.get(id);
+    if (index == null) {
+      return underlying.findValue(id);
+    }
+    int idx = index;
+    MarketDataBox<Double> box =
+        MarketDataBox.ofScenarioValue(DoubleScenarioArray.of(scenarioCount, i -> value(idx, i)));
+    return Optional.of((MarketDataBox<T>) box);
+  }
+
+  @Override
+  public Set<MarketDataId<?>> getIds() {
+    return ImmutableSet.<MarketDataId<?>>builder()
+        .addAll(ids)
+        .addAll(underlying.getIds())
+        .build();
+  }
+
+  @Override
+  public <T> Set<MarketDataId<T>> findIds(MarketDataName<T> name) {
+    // observable identifiers do not have names
+    return underlying.findIds(name);
+  }
+
+  @Override
+  public Set<ObservableId> getTimeSeriesIds() {
+    return underlying.getTimeSeriesIds();
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries getTimeSeries(ObservableId id) {
+    return underlying.getTimeSeries(id);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "CompactScenarioMarketData[scenarioCount=" + scenarioCount + ", observableCount=" + ids.size() + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The market data for a single scenario, reading the compact values directly.
+   */
+  private static final class CompactScenario implements MarketData {
+
+    private final CompactScenarioMarketData marketData;
+    private final int scenarioIndex;
+    private final MarketData underlying;
+
+    private CompactScenario(CompactScenarioMarketData marketData, int scenarioIndex) {
+      this.marketData = marketData;
+      this.scenarioIndex = scenarioIndex;
+      this.underlying = marketData.underlying.scenario(scenarioIndex);
+    }
+
+    @Override
+    public LocalDate getValuationDate() {
+      return marketData.valuationDate.getValue(scenarioIndex);
+    }
+
+    @Override
+    public boolean containsValue(MarketDataId<?> id) {
+      return marketData.indices.containsKey(id) || underlying.containsValue(id);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> findValue(MarketDataId<T> id) {
+      Integer index = marketData.indices.get(id);
+      if (index == null) {
+        return underlying.findValue(id);
+      }
+      return Optional.of((T) Double.valueOf(marketData.value(index, scenarioIndex)));
+    }
+
+    @Override
+    public Set<MarketDataId<?>> getIds() {
+      return marketData.getIds();
+    }
+
+    @Override
+    public <T> Set<MarketDataId<T>> findIds(MarketDataName<T> name) {
+      return underlying.findIds(name);
+    }
+
+    @Override
+    public Set<ObservableId> getTimeSeriesIds() {
+      return underlying.getTimeSeriesIds();
+    }
+
+    @Override
+    public LocalDateDoubleTimeSeries getTimeSeries(ObservableId id) {
+      return underlying.getTimeSeries(id);
+    }
+
+    @Override
+    public String toString() {
+      return "CompactScenarioMarketData.Scenario[scenarioIndex=" + scenarioIndex + "]";
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Builder for {@code CompactScenarioMarketData}.
+   * <p>
+   * The builder writes directly into the storage of the market data.
+   * It cannot be used after {@link #build()} has been called.
+   */
+  public static final class Builder {
+
+    private final MarketDataBox<LocalDate> valuationDate;
+    private final int scenarioCount;
+    private final ImmutableList<ObservableId> ids;
+    private final ImmutableMap<ObservableId, Integer> indices;
+    private final int scenariosPerBlock;
+    private DoubleBuffer[] blocks;
+    private ScenarioMarketData underlying;
+
+    // restricted constructor
+    private Builder(
+        MarketDataBox<LocalDate> valuationDate,
+        int scenarioCount,
+        List<? extends ObservableId> ids,
+        boolean offHeap) {
+
+      ArgChecker.notNull(valuationDate, "valuationDate");
+      ArgChecker.notNegativeOrZero(scenarioCount, "scenarioCount");
+      ArgChecker.notNull(ids, "ids");
+      if (valuationDate.isScenarioValue() && valuationDate.getScenarioCount() != scenarioCount) {
+        throw new IllegalArgumentException(
+            "Valuation date must have " + scenarioCount + " scenarios, but has " + valuationDate.getScenarioCount());
+      }
+      this.valuationDate = valuationDate;
+      this.scenarioCount = scenarioCount;
+      this.ids = ImmutableList.copyOf(ids);
+      ImmutableMap.Builder<ObservableId, Integer> indexBuilder = ImmutableMap.builder();
+      for (int i = 0; i < this.ids.size(); i++) {
+        indexBuilder.put(this.ids.get(i), i);
+      }
+      this.indices = indexBuilder.build();
+      // one contiguous block, unless it exceeds the maximum size of a buffer
+      int idCount = Math.max(this.ids.size(), 1);
+      this.scenariosPerBlock = Math.min(scenarioCount, Math.max(MAX_BLOCK_SIZE / idCount, 1));
+      int blockCount = (scenarioCount + scenariosPerBlock - 1) / scenariosPerBlock;
+      this.blocks = new DoubleBuffer[blockCount];
+      for (int i = 0; i < blockCount; i++) {
+        int size = Math.min(scenariosPerBlock, scenarioCount - i * scenariosPerBlock) * this.ids.size();
+        DoubleBuffer block = offHeap ?
+            ByteBuffer.allocateDirect(size * Double.BYTES).asDoubleBuffer() :
+            DoubleBuffer.allocate(size);
+        for (int j = 0; j < size; j++) {
+          block.put(j, Double.NaN);
+        }
+        blocks[i] = block;
+      }
+      this.underlying =
+          ImmutableScenarioMarketData.of(scenarioCount, valuationDate, ImmutableMap.of(), ImmutableMap.of());
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Sets the value of an observable in a single scenario.
+     *
+     * @param id  the identifier of the value
+     * @param scenarioIndex  the index of the scenario
+     * @param value  the value
+     * @return this builder
+     */
+    public Builder value(ObservableId id, int scenarioIndex, double value) {
+      ArgChecker.inRange(scenarioIndex, 0, scenarioCount, "scenarioIndex");
+      put(index(id), scenarioIndex, value);
+      return this;
+    }
+
+    /**
+     * Sets the values of an observable in all scenarios.
+     *
+     * @param id  the identifier of the value
+     * @param values  the values, one for each scenario
+     * @return this builder
+     */
+    public Builder values(ObservableId id, DoubleArray values) {
+      ArgChecker.isTrue(
+          values.size() == scenarioCount, "Expected {} values but found {}", scenarioCount, values.size());
+      int index = index(id);
+      for (int i = 0; i < scenarioCount; i++) {
+        put(index, i, values.get(i));
+      }
+      return this;
+    }
+
+    /**
+     * Sets the values of all observables in a single scenario.
+     *
+     * @param scenarioIndex  the index of the scenario
+     * @param values  the values, in the order of the identifiers
+     * @return this builder
+     */
+    public Builder scenarioValues(int scenarioIndex, DoubleArray values) {
+      ArgChecker.inRange(scenarioIndex, 0, scenarioCount, "scenarioIndex");
+      ArgChecker.isTrue(values.size() == ids.size(), "Expected {} values but found {}", ids.size(), values.size());
+      for (int i = 0; i < values.size(); i++) {
+        put(i, scenarioIndex, values.get(i));
+      }
+      return this;
+    }
+
+    /**
+     * Sets the market data for all other identifiers.
+     * <p>
+     * By default, there is no other market data.
+     *
+     * @param underlying  the underlying market data
+     * @return this builder
+     */
+    public Builder underlying(ScenarioMarketData underlying) {
+      ArgChecker.notNull(underlying, "underlying");
+      ArgChecker.isTrue(
+          underlying.getScenarioCount() == scenarioCount,
+          "Expected {} scenarios in underlying market data but found {}",
+          scenarioCount,
+          underlying.getScenarioCount());
+      this.underlying = underlying;
+      return this;
+    }
+
+    /**
+     * Builds the market data.
+     *
+     * @return the market data
+     */
+    public CompactScenarioMarketData build() {
+      checkNotBuilt();
+      CompactScenarioMarketData result = new CompactScenarioMarketData(this);
+      blocks = null;
+      return result;
+    }
+
+    //-----------------------------------------------------------------------
+    // finds the index of an identifier
+    private int index(ObservableId id) {
+      Integer index = indices.get(ArgChecker.notNull(id, "id"));
+      if (index == null) {
+        throw new IllegalArgumentException("Observable identifier not found: " + id);
+      }
+      return index;
+    }
+
+    // writes a value
+    private void put(int index, int scenarioIndex, double value) {
+      checkNotBuilt();
+      int block = scenarioIndex / scenariosPerBlock;
+      blocks[block].put((scenarioIndex - block * scenariosPerBlock) * ids.size() + index, value);
+    }
+
+    // checks the builder is still usable
+    private void checkNotBuilt() {
+      if (blocks == null) {
+        throw new IllegalStateException("Builder cannot be used after build() has been called");
+      }
+    }
+  }
+
+}
@@ -6,13 +6,24 @@
 package com.opengamma.strata.data.scenario;
 
 import java.io.Serializable;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.FxRate;
 import com.opengamma.strata.basics.currency.FxRateProvider;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.data.CachingFxRateProvider;
+import com.opengamma.strata.data.FxRateId;
 import com.opengamma.strata.data.MarketDataFxRateProvider;
 import com.opengamma.strata.data.ObservableSource;
 
 /**
  * A provider of FX rates which takes its data from one scenario in a set of data for multiple scenarios.
+ * <p>
+ * The provider for each scenario is created when first used and then retained.
+ * It caches each rate once found, avoiding repeated triangulation.
  */
 class DefaultScenarioFxRateProvider
     implements ScenarioFxRateProvider, Serializable {
@@ -29,11 +40,25 @@ class DefaultScenarioFxRateProvider
    * The source of the FX rates.
    */
   private final ObservableSource source;
+  /**
+   * The FX rate provider for each scenario, null until first used.
+   */
+  private final transient AtomicReferenceArray<FxRateProvider> providers;
+  /**
+   * The currencies of the FX rates in the market data, null until first used.
+   */
+  private transient volatile ImmutableSet<Currency> currencies;
 
   // creates an instance
   DefaultScenarioFxRateProvider(ScenarioMarketData marketData, ObservableSource source) {
     this.marketData = marketData;
     this.source = source;
+    this.providers = new AtomicReferenceArray<>(marketData.getScenarioCount());
+  }
+
+  // ensure standard constructor is invoked
+  private Object readResolve() {
+    return new DefaultScenarioFxRateProvider(marketData, source);
   }
 
   @Override
@@ -41,9 +66,45 @@ class DefaultScenarioFxRateProvider
     return marketData.getScenarioCount();
   }
 
+  @Override
+  public DoubleArray fxRates(Currency baseCurrency, Currency counterCurrency) {
+    if (baseCurrency.equals(counterCurrency)) {
+      return DoubleArray.filled(getScenarioCount(), 1d);
+    }
+    // a direct rate is read for all scenarios at once, other rates are triangulated in each scenario
+    Optional<MarketDataBox<FxRate>> box = marketData.findValue(FxRateId.of(baseCurrency, counterCurrency, source));
+    if (!box.isPresent()) {
+      return ScenarioFxRateProvider.super.fxRates(baseCurrency, counterCurrency);
+    }
+    MarketDataBox<FxRate> rates = box.get();
+    if (rates.isSingleValue()) {
+      return DoubleArray.filled(getScenarioCount(), rates.getSingleValue().fxRate(baseCurrency, counterCurrency));
+    }
+    if (rates.getScenarioValue() instanceof FxRateScenarioArray) {
+      return ((FxRateScenarioArray) rates.getScenarioValue()).fxRates(baseCurrency, counterCurrency);
+    }
+    return DoubleArray.of(getScenarioCount(), i -> rates.getValue(i).fxRate(baseCurrency, counterCurrency));
+  }
+
   @Override
   public FxRateProvider fxRateProvider(int scenarioIndex) {
-    return MarketDataFxRateProvider.of(marketData.scenario(scenarioIndex), source);
+    FxRateProvider provider = providers.get(scenarioIndex);
+    if (provider == null) {
+      MarketDataFxRateProvider underlying = MarketDataFxRateProvider.of(marketData.scenario(scenarioIndex), source);
+      provider = CachingFxRateProvider.of(underlying, currencies());
+      providers.lazySet(scenarioIndex, provider);
+    }
+    return provider;
+  }
+
+  // the currencies are only determined once
+  private ImmutableSet<Currency> currencies() {
+    ImmutableSet<Currency> result = currencies;
+    if (result == null) {
+      result = CachingFxRateProvider.fxRateCurrencies(marketData.getIds());
+      currencies = result;
+    }
+    return result;
   }
 
 }
@@ -143,6 +143,32 @@ public final class FxRateScenarioArray
     throw new IllegalArgumentException("Unknown rate: " + baseCurrency + "/" + counterCurrency);
   }
 
+  /**
+   * Returns the FX rates for the specified currency pair in all scenarios.
+   * <p>
+   * The rates returned are the rates from the base currency to the counter currency
+   * as defined by this formula: {@code (1 * baseCurrency = fxRate * counterCurrency)}.
+   * <p>
+   * This will return the rates or inverse rates, or 1 if the two input currencies are the same.
+   *
+   * @param baseCurrency  the base currency, to convert from
+   * @param counterCurrency  the counter currency, to convert to
+   * @return the FX rates for the currency pair, one for each scenario
+   * @throws IllegalArgumentException if no FX rate could be found
+   */
+  public DoubleArray fxRates(Currency baseCurrency, Currency counterCurrency) {
+    if (baseCurrency.equals(counterCurrency)) {
+      return DoubleArray.filled(rates.size(), 1d);
+    }
+    if (baseCurrency.equals(pair.getBase()) && counterCurrency.equals(pair.getCounter())) {
+      return rates;
+    }
+    if (counterCurrency.equals(pair.getBase()) && baseCurrency.equals(pair.getCounter())) {
+      return rates.map(v -> 1d / v);
+    }
+    throw new IllegalArgumentException("Unknown rate: " + baseCurrency + "/" + counterCurrency);
+  }
+
   /**
    * Converts an amount in a currency to an amount in a different currency using this rate.
    * <p>
@@ -191,19 +191,37 @@ public final class MultiCurrencyScenarioArray
           "Expected {} FX rates but received {}", size, fxRateProvider.getScenarioCount()));
     }
 
+    // the rates are obtained once for each currency, then applied to all scenarios
     double[] singleCurrencyValues = new double[size];
+    double[] errors = new double[size];
     for (Map.Entry<Currency, DoubleArray> entry : amounts.getValues().entrySet()) {
       Currency currency = entry.getKey();
       DoubleArray currencyValues = entry.getValue();
-
-      for (int i = 0; i < size; i++) {
-        double convertedValue = currencyValues.get(i) * fxRateProvider.fxRate(currency, reportingCurrency, i);
-        singleCurrencyValues[i] += convertedValue;
+      if (currency.equals(reportingCurrency)) {
+        for (int i = 0; i < size; i++) {
+          accumulate(singleCurrencyValues, errors, i, currencyValues.get(i));
+        }
+      } else {
+        DoubleArray rates = fxRateProvider.fxRates(currency, reportingCurrency);
+        for (int i = 0; i < size; i++) {
+          accumulate(singleCurrencyValues, errors, i, currencyValues.get(i) * rates.get(i));
+        }
       }
     }
+    for (int i = 0; i < size; i++) {
+      singleCurrencyValues[i] += errors[i];
+    }
     return CurrencyScenarioArray.of(reportingCurrency, DoubleArray.ofUnsafe(singleCurrencyValues));
   }
 
+  // adds the value to the sum at the index, capturing the rounding error (Neumaier)
+  private static void accumulate(double[] sums, double[] errors, int index, double value) {
+    double sum = sums[index];
+    double total = sum + value;
+    errors[index] += Math.abs(sum) >= Math.abs(value) ? (sum - total) + value : (value - total) + sum;
+    sums[index] = total;
+  }
+
   /**
    * Returns a multi currency scenario array representing the total of the input arrays.
    * <p>
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data;
+
+import static com.opengamma.strata.basics.currency.Currency.CHF;
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.JPY;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.basics.currency.FxRateProvider;
+
+/**
+ * Test {@link CachingFxRateProvider}.
+ */
+@Test
+public class CachingFxRateProviderTest {
+
+  private static final MarketData MARKET_DATA = ImmutableMarketData.builder(date(2015, 6, 30))
+      .addValue(FxRateId.of(EUR, USD), FxRate.of(EUR, USD, 1.10))
+      .addValue(FxRateId.of(GBP, USD), FxRate.of(GBP, USD, 1.50))
+      .addValue(FxRateId.of(USD, CHF), FxRate.of(USD, CHF, 0.95))
+      .build();
+  private static final MarketDataFxRateProvider UNDERLYING = MarketDataFxRateProvider.of(MARKET_DATA);
+
+  //-------------------------------------------------------------------------
+  public void test_fxRateCurrencies() {
+    assertThat(CachingFxRateProvider.fxRateCurrencies(MARKET_DATA.getIds())).containsOnly(EUR, USD, GBP, CHF);
+  }
+
+  public void test_fxRate() {
+    CachingFxRateProvider test =
+        CachingFxRateProvider.of(UNDERLYING, CachingFxRateProvider.fxRateCurrencies(MARKET_DATA.getIds()));
+    assertThat(test.getUnderlying()).isSameAs(UNDERLYING);
+    Currency[] currencies = {EUR, USD, GBP, CHF};
+    for (int repeat = 0; repeat < 2; repeat++) {
+      for (Currency base : currencies) {
+        for (Currency counter : currencies) {
+          assertThat(test.fxRate(base, counter)).isEqualTo(UNDERLYING.fxRate(base, counter));
+        }
+      }
+    }
+    assertThrows(() -> test.fxRate(JPY, USD), MarketDataNotFoundException.class);
+  }
+
+  public void test_fxRate_cached() {
+    AtomicInteger count = new AtomicInteger();
+    FxRateProvider counting = (base, counter) -> {
+      count.incrementAndGet();
+      return UNDERLYING.fxRate(base, counter);
+    };
+    CachingFxRateProvider test = CachingFxRateProvider.of(counting, ImmutableSet.of(EUR, USD, GBP));
+    assertThat(test.fxRate(EUR, GBP)).isEqualTo(UNDERLYING.fxRate(EUR, GBP));
+    assertThat(test.fxRate(EUR, GBP)).isEqualTo(UNDERLYING.fxRate(EUR, GBP));
+    assertThat(count.get()).isEqualTo(1);
+    assertThat(test.fxRate(GBP, EUR)).isEqualTo(UNDERLYING.fxRate(GBP, EUR));
+    assertThat(count.get()).isEqualTo(2);
+    assertThat(test.fxRate(EUR, EUR)).isEqualTo(1d);
+    assertThat(count.get()).isEqualTo(2);
+    // currencies outside the table are not cached
+    test.fxRate(EUR, CHF);
+    test.fxRate(EUR, CHF);
+    assertThat(count.get()).isEqualTo(4);
+  }
+
+}
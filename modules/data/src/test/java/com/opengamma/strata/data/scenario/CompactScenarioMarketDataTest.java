@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataNotFoundException;
+import com.opengamma.strata.data.TestingName;
+
+/**
+ * Test {@link CompactScenarioMarketData}.
+ */
+@Test
+public class CompactScenarioMarketDataTest {
+
+  private static final LocalDate VAL_DATE = date(2015, 6, 30);
+  private static final MarketDataBox<LocalDate> VAL_DATE_BOX = MarketDataBox.ofSingleValue(VAL_DATE);
+  private static final TestObservableId ID1 = TestObservableId.of("1");
+  private static final TestObservableId ID2 = TestObservableId.of("2");
+  private static final TestObservableId ID3 = TestObservableId.of("3");
+  private static final TestObservableId ID_OTHER = TestObservableId.of("other");
+  private static final LocalDateDoubleTimeSeries TIME_SERIES = LocalDateDoubleTimeSeries.builder()
+      .put(date(2011, 3, 8), 1.1)
+      .put(date(2011, 3, 10), 1.2)
+      .build();
+  private static final ScenarioMarketData UNDERLYING = ScenarioMarketData.of(
+      3,
+      VAL_DATE,
+      ImmutableMap.of(ID_OTHER, MarketDataBox.ofScenarioValues(7d, 8d, 9d)),
+      ImmutableMap.of(ID1, TIME_SERIES));
+
+  //-------------------------------------------------------------------------
+  public void test_builder() {
+    for (boolean offHeap : new boolean[] {false, true}) {
+      CompactScenarioMarketData test = CompactScenarioMarketData
+          .builder(VAL_DATE_BOX, 3, ImmutableList.of(ID1, ID2, ID3), offHeap)
+          .value(ID1, 0, 1d)
+          .value(ID1, 2, 3d)
+          .values(ID2, DoubleArray.of(4d, 5d, 6d))
+          .scenarioValues(1, DoubleArray.of(2d, 5.5d, 8d))
+          .underlying(UNDERLYING)
+          .build();
+      assertThat(test.getValuationDate()).isEqualTo(VAL_DATE_BOX);
+      assertThat(test.getScenarioCount()).isEqualTo(3);
+      assertThat(test.getObservableIds()).containsExactly(ID1, ID2, ID3);
+      assertThat(test.getUnderlying()).isSameAs(UNDERLYING);
+      assertThat(test.value(ID1, 0)).isEqualTo(1d);
+      assertThat(test.value(ID1, 1)).isEqualTo(2d);
+      assertThat(test.value(ID1, 2)).isEqualTo(3d);
+      assertThat(test.value(ID2, 1)).isEqualTo(5.5d);
+      assertThat(test.value(ID3, 0)).isNaN();
+      assertThat(test.value(ID3, 1)).isEqualTo(8d);
+      assertThrowsIllegalArg(() -> test.value(ID_OTHER, 0));
+      assertThrowsIllegalArg(() -> test.value(ID1, 3));
+      assertThat(test.toString()).isEqualTo("CompactScenarioMarketData[scenarioCount=3, observableCount=3]");
+    }
+  }
+
+  public void test_builder_invalid() {
+    ImmutableList<TestObservableId> ids = ImmutableList.of(ID1, ID2);
+    assertThrowsIllegalArg(() -> CompactScenarioMarketData.builder(VAL_DATE_BOX, 0, ids, false));
+    assertThrowsIllegalArg(() -> CompactScenarioMarketData.builder(VAL_DATE_BOX, 2, ImmutableList.of(ID1, ID1), false));
+    assertThrowsIllegalArg(() -> CompactScenarioMarketData.builder(
+        MarketDataBox.ofScenarioValues(VAL_DATE, VAL_DATE), 3, ids, false));
+    CompactScenarioMarketData.Builder builder = CompactScenarioMarketData.builder(VAL_DATE_BOX, 3, ids, false);
+    assertThrowsIllegalArg(() -> builder.value(ID3, 0, 1d));
+    assertThrowsIllegalArg(() -> builder.value(ID1, 3, 1d));
+    assertThrowsIllegalArg(() -> builder.values(ID1, DoubleArray.of(1d, 2d)));
+    assertThrowsIllegalArg(() -> builder.scenarioValues(0, DoubleArray.of(1d, 2d, 3d)));
+    assertThrowsIllegalArg(() -> builder.underlying(ScenarioMarketData.empty()));
+    builder.build();
+    assertThrows(() -> builder.value(ID1, 0, 1d), IllegalStateException.class);
+    assertThrows(() -> builder.build(), IllegalStateException.class);
+  }
+
+  public void test_scenarioMarketData() {
+    CompactScenarioMarketData test = CompactScenarioMarketData
+        .builder(VAL_DATE_BOX, 3, ImmutableList.of(ID1, ID2), true)
+        .values(ID1, DoubleArray.of(1d, 2d, 3d))
+        .underlying(UNDERLYING)
+        .build();
+    assertThat(test.containsValue(ID1)).isTrue();
+    assertThat(test.containsValue(ID_OTHER)).isTrue();
+    assertThat(test.containsValue(ID3)).isFalse();
+    MarketDataBox<Double> box = test.getValue(ID1);
+    assertThat(box.getScenarioCount()).isEqualTo(3);
+    assertThat(box.getValue(0)).isEqualTo(1d);
+    assertThat(box.getValue(2)).isEqualTo(3d);
+    assertThat(test.getValue(ID_OTHER)).isEqualTo(MarketDataBox.ofScenarioValues(7d, 8d, 9d));
+    assertThat(test.findValue(ID3)).isEmpty();
+    assertThrows(() -> test.getValue(ID3), MarketDataNotFoundException.class);
+    assertThat(test.getIds()).isEqualTo(ImmutableSet.of(ID1, ID2, ID_OTHER));
+    assertThat(test.findIds(new TestingName("foo"))).isEmpty();
+    assertThat(test.getTimeSeriesIds()).containsOnly(ID1);
+    assertThat(test.getTimeSeries(ID1)).isEqualTo(TIME_SERIES);
+    assertThat(test.getTimeSeries(ID2)).isEqualTo(LocalDateDoubleTimeSeries.empty());
+  }
+
+  public void test_scenario() {
+    MarketDataBox<LocalDate> valDates =
+        MarketDataBox.ofScenarioValues(VAL_DATE, VAL_DATE.plusDays(1), VAL_DATE.plusDays(2));
+    CompactScenarioMarketData test = CompactScenarioMarketData.builder(valDates, 3, ImmutableList.of(ID1, ID2), false)
+        .values(ID1, DoubleArray.of(1d, 2d, 3d))
+        .values(ID2, DoubleArray.of(4d, 5d, 6d))
+        .underlying(UNDERLYING)
+        .build();
+    MarketData scenario = test.scenario(1);
+    assertThat(scenario.getValuationDate()).isEqualTo(VAL_DATE.plusDays(1));
+    assertThat(scenario.containsValue(ID2)).isTrue();
+    assertThat(scenario.containsValue(ID_OTHER)).isTrue();
+    assertThat(scenario.containsValue(ID3)).isFalse();
+    assertThat(scenario.getValue(ID1)).isEqualTo(2d);
+    assertThat(scenario.getValue(ID2)).isEqualTo(5d);
+    assertThat(scenario.getValue(ID_OTHER)).isEqualTo(8d);
+    assertThat(scenario.findValue(ID3)).isEmpty();
+    assertThat(scenario.getIds()).isEqualTo(ImmutableSet.of(ID1, ID2, ID_OTHER));
+    assertThat(scenario.findIds(new TestingName("foo"))).isEmpty();
+    assertThat(scenario.getTimeSeriesIds()).containsOnly(ID1);
+    assertThat(scenario.getTimeSeries(ID1)).isEqualTo(TIME_SERIES);
+    assertThrowsIllegalArg(() -> test.scenario(3));
+  }
+
+}
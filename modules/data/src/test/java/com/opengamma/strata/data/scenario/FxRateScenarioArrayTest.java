@@ -46,6 +46,14 @@ public class FxRateScenarioArrayTest {
     assertThat(rates.fxRate(Currency.USD, Currency.EUR, 2)).isEqualTo(1 / 1.09);
   }
 
+  public void fxRates() {
+    FxRateScenarioArray rates = FxRateScenarioArray.of(Currency.EUR, Currency.USD, DoubleArray.of(1.07, 1.08, 1.09));
+    assertThat(rates.fxRates(Currency.EUR, Currency.USD)).isEqualTo(DoubleArray.of(1.07, 1.08, 1.09));
+    assertThat(rates.fxRates(Currency.USD, Currency.EUR)).isEqualTo(DoubleArray.of(1 / 1.07, 1 / 1.08, 1 / 1.09));
+    assertThat(rates.fxRates(Currency.USD, Currency.USD)).isEqualTo(DoubleArray.of(1, 1, 1));
+    assertThrowsIllegalArg(() -> rates.fxRates(Currency.AED, Currency.ARS));
+  }
+
   public void identicalCurrenciesHaveRateOfOne() {
     assertThrowsIllegalArg(
         () -> FxRateScenarioArray.of(Currency.EUR, Currency.EUR, DoubleArray.of(1.07, 1.08, 1.09)),
@@ -180,6 +180,19 @@ public class MultiCurrencyScenarioArrayTest {
     }
   }
 
+  public void convertCompensated() {
+    // the small amount is lost when the large amounts are summed without compensation
+    MultiCurrencyScenarioArray array = MultiCurrencyScenarioArray.of(ImmutableMap.of(
+        Currency.EUR, DoubleArray.of(1e16, 1e16),
+        Currency.GBP, DoubleArray.of(1, 2),
+        Currency.USD, DoubleArray.of(-1e16, -1e16)));
+    FxRateScenarioArray rates1 = FxRateScenarioArray.of(EUR, USD, DoubleArray.of(1, 1));
+    FxRateScenarioArray rates2 = FxRateScenarioArray.of(GBP, USD, DoubleArray.of(1, 1));
+    ScenarioFxRateProvider fxProvider = new TestScenarioFxRateProvider(rates1, rates2);
+    CurrencyScenarioArray convertedArray = array.convertedTo(Currency.USD, fxProvider);
+    assertThat(convertedArray.getAmounts().getValues()).isEqualTo(DoubleArray.of(1, 2));
+  }
+
   /**
    * Test the hand-written equals and hashCode methods which correctly handle maps with array values
    */
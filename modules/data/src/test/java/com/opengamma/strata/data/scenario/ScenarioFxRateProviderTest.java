@@ -14,6 +14,7 @@ import org.testng.annotations.Test;
 
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.FxRateId;
 import com.opengamma.strata.data.ObservableSource;
 
@@ -39,6 +40,30 @@ public class ScenarioFxRateProviderTest {
     assertThat(fxRateProvider.fxRate(Currency.GBP, Currency.USD, 0)).isEqualTo(1.4d);
   }
 
+  public void fxRates() {
+    assertThat(fxRateProvider.fxRates(Currency.GBP, Currency.USD)).isEqualTo(DoubleArray.of(1.4d));
+    assertThat(fxRateProvider.fxRates(Currency.USD, Currency.USD)).isEqualTo(DoubleArray.of(1d));
+  }
+
+  public void fxRates_scenarios() {
+    ScenarioMarketData marketData = ImmutableScenarioMarketData.builder(LocalDate.of(2011, 3, 8))
+        .addBox(FxRateId.of(Currency.GBP, Currency.USD), MarketDataBox.ofScenarioValue(
+            FxRateScenarioArray.of(Currency.GBP, Currency.USD, DoubleArray.of(1.4d, 1.5d))))
+        .addBox(FxRateId.of(Currency.EUR, Currency.USD), MarketDataBox.ofScenarioValues(
+            FxRate.of(Currency.EUR, Currency.USD, 1.1d), FxRate.of(Currency.EUR, Currency.USD, 1.2d)))
+        .addBox(FxRateId.of(Currency.USD, Currency.JPY), MarketDataBox.ofSingleValue(
+            FxRate.of(Currency.USD, Currency.JPY, 110d)))
+        .build();
+    ScenarioFxRateProvider test = ScenarioFxRateProvider.of(marketData);
+    assertThat(test.fxRates(Currency.GBP, Currency.USD)).isEqualTo(DoubleArray.of(1.4d, 1.5d));
+    assertThat(test.fxRates(Currency.USD, Currency.EUR)).isEqualTo(DoubleArray.of(1 / 1.1d, 1 / 1.2d));
+    assertThat(test.fxRates(Currency.JPY, Currency.USD)).isEqualTo(DoubleArray.of(1 / 110d, 1 / 110d));
+    // triangulated in each scenario
+    for (int i = 0; i < 2; i++) {
+      assertThat(test.fxRates(Currency.GBP, Currency.EUR).get(i)).isEqualTo(test.fxRate(Currency.GBP, Currency.EUR, i));
+    }
+  }
+
   public void specifySource() {
     ObservableSource testSource = ObservableSource.of("test");
     ScenarioMarketData marketData = ImmutableScenarioMarketData.builder(LocalDate.of(2011, 3, 8))
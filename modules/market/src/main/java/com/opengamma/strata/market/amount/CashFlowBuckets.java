@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.amount;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * Cash flows aggregated into date buckets by currency.
+ * <p>
+ * The buckets are defined by their start dates, which must be in increasing order.
+ * Each bucket ends on the day before the start of the next bucket, with the last bucket having no end.
+ * Cash flows paid before the start of the first bucket are excluded.
+ * <p>
+ * The sum of the forecast values and the sum of the present values are held for each currency and bucket.
+ * Instances are created from a {@link CashFlowBuffer} and can be combined.
+ * To aggregate many buffers, possibly in parallel, use a {@link Builder}, which sums in place.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class CashFlowBuckets {
+
+  /**
+   * The bucket start dates.
+   */
+  private final ImmutableList<LocalDate> bucketDates;
+  /**
+   * The bucket start dates, as epoch-days.
+   */
+  private final int[] bucketEpochDays;
+  /**
+   * The sum of the forecast values, keyed by currency.
+   */
+  private final Map<Currency, double[]> forecastValues;
+  /**
+   * The sum of the present values, keyed by currency.
+   */
+  private final Map<Currency, double[]> presentValues;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance by aggregating the cash flows of a buffer.
+   *
+   * @param bucketDates  the bucket start dates, in increasing order
+   * @param buffer  the cash flows to aggregate
+   * @return the bucketed cash flows
+   */
+  public static CashFlowBuckets of(List<LocalDate> bucketDates, CashFlowBuffer buffer) {
+    return builder(bucketDates).add(buffer).build();
+  }
+
+  /**
+   * Obtains a builder, used to aggregate the cash flows of several buffers.
+   *
+   * @param bucketDates  the bucket start dates, in increasing order
+   * @return the builder
+   */
+  public static Builder builder(List<LocalDate> bucketDates) {
+    ImmutableList<LocalDate> dates = ImmutableList.copyOf(bucketDates);
+    ArgChecker.notEmpty(dates, "bucketDates");
+    int[] epochDays = new int[dates.size()];
+    for (int i = 0; i < epochDays.length; i++) {
+      epochDays[i] = Math.toIntExact(dates.get(i).toEpochDay());
+      ArgChecker.isTrue(i == 0 || epochDays[i] > epochDays[i - 1], "Bucket dates must be in increasing order");
+    }
+    return new Builder(dates, epochDays);
+  }
+
+  // finds the bucket containing the date, -1 if before the first bucket
+  private static int bucketIndex(int[] bucketEpochDays, int epochDay) {
+    int index = Arrays.binarySearch(bucketEpochDays, epochDay);
+    return index >= 0 ? index : -index - 2;
+  }
+
+  // restricted constructor
+  private CashFlowBuckets(
+      ImmutableList<LocalDate> bucketDates,
+      int[] bucketEpochDays,
+      Map<Currency, double[]> forecastValues,
+      Map<Currency, double[]> presentValues) {
+
+    this.bucketDates = bucketDates;
+    this.bucketEpochDays = bucketEpochDays;
+    this.forecastValues = forecastValues;
+    this.presentValues = presentValues;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the bucket start dates.
+   *
+   * @return the bucket start dates
+   */
+  public ImmutableList<LocalDate> getBucketDates() {
+    return bucketDates;
+  }
+
+  /**
+   * Gets the currencies of the cash flows.
+   *
+   * @return the currencies
+   */
+  public ImmutableSet<Currency> getCurrencies() {
+    return ImmutableSet.copyOf(forecastValues.keySet());
+  }
+
+  /**
+   * Gets the sum of the forecast values in each bucket for a currency.
+   * <p>
+   * If there are no cash flows in the currency, the sums are zero.
+   *
+   * @param currency  the currency
+   * @return the sum of the forecast values, one for each bucket
+   */
+  public DoubleArray getForecastValues(Currency currency) {
+    return bucketValues(forecastValues, currency);
+  }
+
+  /**
+   * Gets the sum of the present values in each bucket for a currency.
+   * <p>
+   * If there are no cash flows in the currency, the sums are zero.
+   *
+   * @param currency  the currency
+   * @return the sum of the present values, one for each bucket
+   */
+  public DoubleArray getPresentValues(Currency currency) {
+    return bucketValues(presentValues, currency);
+  }
+
+  // obtains the values of the currency
+  private DoubleArray bucketValues(Map<Currency, double[]> values, Currency currency) {
+    double[] array = values.get(currency);
+    return array == null ? DoubleArray.filled(bucketEpochDays.length) : DoubleArray.copyOf(array);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Combines this instance with another, summing the values in each bucket.
+   * <p>
+   * The bucket dates must be the same.
+   *
+   * @param other  the other bucketed cash flows
+   * @return the combined bucketed cash flows
+   */
+  public CashFlowBuckets combinedWith(CashFlowBuckets other) {
+    ArgChecker.isTrue(bucketDates.equals(other.bucketDates), "Bucket dates must be the same");
+    return new CashFlowBuckets(
+        bucketDates,
+        bucketEpochDays,
+        sum(forecastValues, other.forecastValues),
+        sum(presentValues, other.presentValues));
+  }
+
+  // sums the arrays of two maps
+  private static Map<Currency, double[]> sum(Map<Currency, double[]> first, Map<Currency, double[]> second) {
+    Map<Currency, double[]> result = new HashMap<>();
+    Builder.addInPlace(result, first);
+    Builder.addInPlace(result, second);
+    return result;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "CashFlowBuckets[buckets=" + bucketDates.size() + ", currencies=" + forecastValues.keySet() + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A mutable builder of {@code CashFlowBuckets}.
+   * <p>
+   * The cash flows of each buffer are summed in place into a single set of arrays.
+   * This is intended to be used as the mutable container of a parallel stream collect,
+   * with one builder for each thread combined using {@link #addAll(Builder)}.
+   * <p>
+   * This class is mutable and not thread-safe.
+   */
+  public static final class Builder {
+
+    /**
+     * The bucket start dates.
+     */
+    private final ImmutableList<LocalDate> bucketDates;
+    /**
+     * The bucket start dates, as epoch-days.
+     */
+    private final int[] bucketEpochDays;
+    /**
+     * The sum of the forecast values, keyed by currency.
+     */
+    private final Map<Currency, double[]> forecastValues = new HashMap<>();
+    /**
+     * The sum of the present values, keyed by currency.
+     */
+    private final Map<Currency, double[]> presentValues = new HashMap<>();
+
+    // restricted constructor
+    private Builder(ImmutableList<LocalDate> bucketDates, int[] bucketEpochDays) {
+      this.bucketDates = bucketDates;
+      this.bucketEpochDays = bucketEpochDays;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Adds the cash flows of a buffer to the buckets.
+     *
+     * @param buffer  the cash flows to aggregate
+     * @return this builder
+     */
+    public Builder add(CashFlowBuffer buffer) {
+      List<Currency> currencies = buffer.currencies();
+      double[][] forecastByCode = new double[currencies.size()][];
+      double[][] presentByCode = new double[currencies.size()][];
+      int bucketCount = bucketEpochDays.length;
+      for (int i = 0; i < currencies.size(); i++) {
+        forecastByCode[i] = forecastValues.computeIfAbsent(currencies.get(i), ccy -> new double[bucketCount]);
+        presentByCode[i] = presentValues.computeIfAbsent(currencies.get(i), ccy -> new double[bucketCount]);
+      }
+      int[] paymentDates = buffer.paymentDates();
+      int[] currencyCodes = buffer.currencyCodes();
+      double[] forecasts = buffer.forecastValues();
+      double[] discountFactors = buffer.discountFactors();
+      for (int i = 0; i < buffer.size(); i++) {
+        int bucket = bucketIndex(bucketEpochDays, paymentDates[i]);
+        if (bucket >= 0) {
+          forecastByCode[currencyCodes[i]][bucket] += forecasts[i];
+          presentByCode[currencyCodes[i]][bucket] += forecasts[i] * discountFactors[i];
+        }
+      }
+      return this;
+    }
+
+    /**
+     * Adds the sums of another builder to the buckets.
+     * <p>
+     * The bucket dates must be the same.
+     *
+     * @param other  the other builder
+     * @return this builder
+     */
+    public Builder addAll(Builder other) {
+      ArgChecker.isTrue(bucketDates.equals(other.bucketDates), "Bucket dates must be the same");
+      addInPlace(forecastValues, other.forecastValues);
+      addInPlace(presentValues, other.presentValues);
+      return this;
+    }
+
+    // adds the arrays of the second map to the first
+    private static void addInPlace(Map<Currency, double[]> totals, Map<Currency, double[]> values) {
+      values.forEach((ccy, array) -> {
+        double[] total = totals.get(ccy);
+        if (total == null) {
+          totals.put(ccy, array.clone());
+        } else {
+          for (int i = 0; i < total.length; i++) {
+            total[i] += array[i];
+          }
+        }
+      });
+    }
+
+    /**
+     * Builds the bucketed cash flows.
+     * <p>
+     * The builder may continue to be used after this method is called.
+     *
+     * @return the bucketed cash flows
+     */
+    public CashFlowBuckets build() {
+      return new CashFlowBuckets(
+          bucketDates,
+          bucketEpochDays,
+          sum(forecastValues, ImmutableMap.of()),
+          sum(presentValues, ImmutableMap.of()));
+    }
+  }
+
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.amount;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * A mutable buffer of cash flows held in columnar primitive arrays.
+ * <p>
+ * This is an alternative to {@link CashFlows} for projecting a large number of cash flows.
+ * Each cash flow is stored as a payment date in epoch-days, a currency code, a forecast value and
+ * a discount factor, without creating any object per cash flow.
+ * The currency code is the index of the currency in {@link #getCurrencies()}.
+ * <p>
+ * This class is mutable and must be used from a single thread.
+ */
+public final class CashFlowBuffer {
+
+  /**
+   * The default initial capacity.
+   */
+  private static final int DEFAULT_CAPACITY = 64;
+
+  /**
+   * The currencies, indexed by currency code.
+   */
+  private final List<Currency> currencies = new ArrayList<>();
+  /**
+   * The currency codes, keyed by currency.
+   */
+  private final Map<Currency, Integer> currencyCodes = new HashMap<>();
+  /**
+   * The payment dates, as epoch-days.
+   */
+  private int[] paymentDates;
+  /**
+   * The currency codes.
+   */
+  private int[] currencyCodeArray;
+  /**
+   * The forecast values.
+   */
+  private double[] forecastValues;
+  /**
+   * The discount factors.
+   */
+  private double[] discountFactors;
+  /**
+   * The number of cash flows.
+   */
+  private int size;
+
+  /**
+   * Creates an empty buffer.
+   */
+  public CashFlowBuffer() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty buffer with the specified initial capacity.
+   *
+   * @param capacity  the initial capacity
+   */
+  public CashFlowBuffer(int capacity) {
+    ArgChecker.notNegative(capacity, "capacity");
+    this.paymentDates = new int[capacity];
+    this.currencyCodeArray = new int[capacity];
+    this.forecastValues = new double[capacity];
+    this.discountFactors = new double[capacity];
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds a cash flow from the forecast value.
+   *
+   * @param paymentDate  the payment date
+   * @param currency  the currency
+   * @param forecastValue  the amount of the forecast value
+   * @param discountFactor  the discount factor
+   * @return this buffer
+   */
+  public CashFlowBuffer add(LocalDate paymentDate, Currency currency, double forecastValue, double discountFactor) {
+    ensureCapacity(size + 1);
+    paymentDates[size] = Math.toIntExact(paymentDate.toEpochDay());
+    currencyCodeArray[size] = currencyCode(currency);
+    forecastValues[size] = forecastValue;
+    discountFactors[size] = discountFactor;
+    size++;
+    return this;
+  }
+
+  /**
+   * Adds all the cash flows of another buffer.
+   *
+   * @param other  the other buffer
+   * @return this buffer
+   */
+  public CashFlowBuffer addAll(CashFlowBuffer other) {
+    ensureCapacity(size + other.size);
+    int[] codeMapping = new int[other.currencies.size()];
+    for (int i = 0; i < codeMapping.length; i++) {
+      codeMapping[i] = currencyCode(other.currencies.get(i));
+    }
+    System.arraycopy(other.paymentDates, 0, paymentDates, size, other.size);
+    System.arraycopy(other.forecastValues, 0, forecastValues, size, other.size);
+    System.arraycopy(other.discountFactors, 0, discountFactors, size, other.size);
+    for (int i = 0; i < other.size; i++) {
+      currencyCodeArray[size + i] = codeMapping[other.currencyCodeArray[i]];
+    }
+    size += other.size;
+    return this;
+  }
+
+  // finds or allocates the code of the currency
+  private int currencyCode(Currency currency) {
+    Integer code = currencyCodes.get(currency);
+    if (code == null) {
+      code = currencies.size();
+      currencies.add(currency);
+      currencyCodes.put(currency, code);
+    }
+    return code;
+  }
+
+  // grows the arrays if necessary
+  private void ensureCapacity(int capacity) {
+    if (capacity > paymentDates.length) {
+      int newCapacity = Math.max(capacity, paymentDates.length * 2);
+      paymentDates = Arrays.copyOf(paymentDates, newCapacity);
+      currencyCodeArray = Arrays.copyOf(currencyCodeArray, newCapacity);
+      forecastValues = Arrays.copyOf(forecastValues, newCapacity);
+      discountFactors = Arrays.copyOf(discountFactors, newCapacity);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of cash flows.
+   *
+   * @return the number of cash flows
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the currencies, indexed by currency code.
+   *
+   * @return the currencies
+   */
+  public ImmutableList<Currency> getCurrencies() {
+    return ImmutableList.copyOf(currencies);
+  }
+
+  /**
+   * Gets the payment date of a cash flow, as epoch-days.
+   *
+   * @param index  the index of the cash flow
+   * @return the payment date epoch-day
+   */
+  public int getPaymentDateEpochDay(int index) {
+    return paymentDates[ArgChecker.inRange(index, 0, size, "index")];
+  }
+
+  /**
+   * Gets the currency code of a cash flow.
+   *
+   * @param index  the index of the cash flow
+   * @return the currency code, the index of the currency in {@link #getCurrencies()}
+   */
+  public int getCurrencyCode(int index) {
+    return currencyCodeArray[ArgChecker.inRange(index, 0, size, "index")];
+  }
+
+  /**
+   * Gets the forecast value of a cash flow.
+   *
+   * @param index  the index of the cash flow
+   * @return the forecast value
+   */
+  public double getForecastValue(int index) {
+    return forecastValues[ArgChecker.inRange(index, 0, size, "index")];
+  }
+
+  /**
+   * Gets the discount factor of a cash flow.
+   *
+   * @param index  the index of the cash flow
+   * @return the discount factor
+   */
+  public double getDiscountFactor(int index) {
+    return discountFactors[ArgChecker.inRange(index, 0, size, "index")];
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Converts this buffer to a {@code CashFlows} instance.
+   * <p>
+   * This creates a {@link CashFlow} object for each cash flow.
+   *
+   * @return the cash flows
+   */
+  public CashFlows toCashFlows() {
+    ImmutableList.Builder<CashFlow> builder = ImmutableList.builder();
+    for (int i = 0; i < size; i++) {
+      builder.add(CashFlow.ofForecastValue(
+          LocalDate.ofEpochDay(paymentDates[i]),
+          currencies.get(currencyCodeArray[i]),
+          forecastValues[i],
+          discountFactors[i]));
+    }
+    return CashFlows.of(builder.build());
+  }
+
+  //-------------------------------------------------------------------------
+  // package-private access to the arrays, for bucketing
+  int[] paymentDates() {
+    return paymentDates;
+  }
+
+  int[] currencyCodes() {
+    return currencyCodeArray;
+  }
+
+  double[] forecastValues() {
+    return forecastValues;
+  }
+
+  double[] discountFactors() {
+    return discountFactors;
+  }
+
+  List<Currency> currencies() {
+    return currencies;
+  }
+
+  @Override
+  public String toString() {
+    return "CashFlowBuffer[size=" + size + ", currencies=" + currencies + "]";
+  }
+
+}
@@ -0,0 +1,588 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.curve;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.ImmutableConstructor;
+import org.joda.beans.gen.ImmutableValidator;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.market.curve.interpolator.CurveExtrapolator;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolator;
+
+/**
+ * Interpolated nodal curves for multiple scenarios, stored in columnar form.
+ * <p>
+ * All the scenarios share the same metadata, x-values, interpolator and extrapolators.
+ * Only the y-values differ, and these are stored in a single primitive matrix
+ * with one row for each scenario and one column for each node.
+ * <p>
+ * This class is a more memory efficient alternative to a {@code ScenarioArray} holding
+ * an {@link InterpolatedNodalCurve} for each scenario, typically when perturbing a curve with many scenarios.
+ * The curve of a scenario is only created when it is first requested by {@link #get(int)},
+ * and is then cached, such that the interpolator is only bound once for each scenario.
+ */
+@BeanDefinition(builderScope = "private")
+public final class InterpolatedNodalCurveScenarioArray
+    implements ScenarioArray<Curve>, ImmutableBean, Serializable {
+
+  /**
+   * The curve metadata, shared by all the scenarios.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final CurveMetadata metadata;
+  /**
+   * The array of x-values, one for each node, shared by all the scenarios.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleArray xValues;
+  /**
+   * The matrix of y-values.
+   * <p>
+   * There is one row for each scenario and one column for each node.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleMatrix yValues;
+  /**
+   * The interpolator.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final CurveInterpolator interpolator;
+  /**
+   * The extrapolator for x-values on the left.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final CurveExtrapolator extrapolatorLeft;
+  /**
+   * The extrapolator for x-values on the right.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final CurveExtrapolator extrapolatorRight;
+  /**
+   * The cache of the curve of each scenario.
+   */
+  private final transient AtomicReferenceArray<InterpolatedNodalCurve> curves;  // derived, not a property
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from a curve and the y-values of each scenario.
+   * <p>
+   * The metadata, x-values, interpolator and extrapolators are taken from the curve.
+   * The y-values of the curve are not used.
+   *
+   * @param curve  the curve providing the shared data
+   * @param yValues  the y-values, one row for each scenario and one column for each node
+   * @return the scenario array
+   */
+  public static InterpolatedNodalCurveScenarioArray of(InterpolatedNodalCurve curve, DoubleMatrix yValues) {
+    return new InterpolatedNodalCurveScenarioArray(
+        curve.getMetadata(),
+        curve.getXValues(),
+        yValues,
+        curve.getInterpolator(),
+        curve.getExtrapolatorLeft(),
+        curve.getExtrapolatorRight());
+  }
+
+  //-------------------------------------------------------------------------
+  // restricted constructor
+  @ImmutableConstructor
+  private InterpolatedNodalCurveScenarioArray(
+      CurveMetadata metadata,
+      DoubleArray xValues,
+      DoubleMatrix yValues,
+      CurveInterpolator interpolator,
+      CurveExtrapolator extrapolatorLeft,
+      CurveExtrapolator extrapolatorRight) {
+
+    JodaBeanUtils.notNull(metadata, "metadata");
+    JodaBeanUtils.notNull(xValues, "xValues");
+    JodaBeanUtils.notNull(yValues, "yValues");
+    JodaBeanUtils.notNull(interpolator, "interpolator");
+    JodaBeanUtils.notNull(extrapolatorLeft, "extrapolatorLeft");
+    JodaBeanUtils.notNull(extrapolatorRight, "extrapolatorRight");
+    this.metadata = metadata;
+    this.xValues = xValues;
+    this.yValues = yValues;
+    this.interpolator = interpolator;
+    this.extrapolatorLeft = extrapolatorLeft;
+    this.extrapolatorRight = extrapolatorRight;
+    validate();
+    this.curves = new AtomicReferenceArray<>(yValues.rowCount());
+  }
+
+  @ImmutableValidator
+  private void validate() {
+    ArgChecker.isTrue(yValues.rowCount() > 0, "There must be at least one scenario");
+    ArgChecker.isTrue(xValues.size() == yValues.columnCount(),
+        "Number of columns of y-values {} must match number of x-values {}", yValues.columnCount(), xValues.size());
+  }
+
+  // ensure standard constructor is invoked
+  private Object readResolve() {
+    return new InterpolatedNodalCurveScenarioArray(
+        metadata, xValues, yValues, interpolator, extrapolatorLeft, extrapolatorRight);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the curve name.
+   *
+   * @return the curve name
+   */
+  public CurveName getName() {
+    return metadata.getCurveName();
+  }
+
+  /**
+   * Gets the y-values of a scenario.
+   *
+   * @param scenarioIndex  the index of the scenario
+   * @return the y-values of the scenario
+   */
+  public DoubleArray getYValues(int scenarioIndex) {
+    ArgChecker.inRange(scenarioIndex, 0, getScenarioCount(), "scenarioIndex");
+    return yValues.row(scenarioIndex);
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return yValues.rowCount();
+  }
+
+  /**
+   * Gets the curve of a scenario.
+   * <p>
+   * The curve is created on the first call from the shared data and the y-values of the scenario.
+   * Subsequent calls return the same instance, avoiding binding the interpolator again.
+   *
+   * @param scenarioIndex  the index of the scenario
+   * @return the curve of the scenario
+   */
+  @Override
+  public InterpolatedNodalCurve get(int scenarioIndex) {
+    ArgChecker.inRange(scenarioIndex, 0, getScenarioCount(), "scenarioIndex");
+    InterpolatedNodalCurve current = curves.get(scenarioIndex);
+    if (current != null) {
+      return current;
+    }
+    return curves.updateAndGet(
+        scenarioIndex,
+        v -> v != null ? v : InterpolatedNodalCurve.of(
+            metadata, xValues, yValues.row(scenarioIndex), interpolator, extrapolatorLeft, extrapolatorRight));
+  }
+
+    //------------------------- AUTOGENERATED START -------------------------
+    /**
+     * The meta-bean for {@code InterpolatedNodalCurveScenarioArray}.
+     * @return the meta-bean, not null
+     */
+    public static InterpolatedNodalCurveScenarioArray.Meta meta() {
+        return InterpolatedNodalCurveScenarioArray.Meta.INSTANCE;
+    }
+
+    static {
+        MetaBean.register(InterpolatedNodalCurveScenarioArray.Meta.INSTANCE);
+    }
+
+    /**
+     * The serialization version id.
+     */
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public InterpolatedNodalCurveScenarioArray.Meta metaBean() {
+        return InterpolatedNodalCurveScenarioArray.Meta.INSTANCE;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the curve metadata, shared by all the scenarios.
+     * @return the value of the property, not null
+     */
+    public CurveMetadata getMetadata() {
+        return metadata;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the array of x-values, one for each node, shared by all the scenarios.
+     * @return the value of the property, not null
+     */
+    public DoubleArray getXValues() {
+        return xValues;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the matrix of y-values.
+     * <p>
+     * There is one row for each scenario and one column for each node.
+     * @return the value of the property, not null
+     */
+    public DoubleMatrix getYValues() {
+        return yValues;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the interpolator.
+     * @return the value of the property, not null
+     */
+    public CurveInterpolator getInterpolator() {
+        return interpolator;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the extrapolator for x-values on the left.
+     * @return the value of the property, not null
+     */
+    public CurveExtrapolator getExtrapolatorLeft() {
+        return extrapolatorLeft;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the extrapolator for x-values on the right.
+     * @return the value of the property, not null
+     */
+    public CurveExtrapolator getExtrapolatorRight() {
+        return extrapolatorRight;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj != null && obj.getClass() == this.getClass()) {
+            InterpolatedNodalCurveScenarioArray other = (InterpolatedNodalCurveScenarioArray) obj;
+            return JodaBeanUtils.equal(metadata, other.metadata) &&
+                    JodaBeanUtils.equal(xValues, other.xValues) &&
+                    JodaBeanUtils.equal(yValues, other.yValues) &&
+                    JodaBeanUtils.equal(interpolator, other.interpolator) &&
+                    JodaBeanUtils.equal(extrapolatorLeft, other.extrapolatorLeft) &&
+                    JodaBeanUtils.equal(extrapolatorRight, other.extrapolatorRight);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = getClass().hashCode();
+        hash = hash * 31 + JodaBeanUtils.hashCode(metadata);
+        hash = hash * 31 + JodaBeanUtils.hashCode(xValues);
+        hash = hash * 31 + JodaBeanUtils.hashCode(yValues);
+        hash = hash * 31 + JodaBeanUtils.hashCode(interpolator);
+        hash = hash * 31 + JodaBeanUtils.hashCode(extrapolatorLeft);
+        hash = hash * 31 + JodaBeanUtils.hashCode(extrapolatorRight);
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder(224);
+        buf.append("InterpolatedNodalCurveScenarioArray{");
+        buf.append("metadata").append('=').append(metadata).append(',').append(' ');
+        buf.append("xValues").append('=').append(xValues).append(',').append(' ');
+        buf.append("yValues").append('=').append(yValues).append(',').append(' ');
+        buf.append("interpolator").append('=').append(interpolator).append(',').append(' ');
+        buf.append("extrapolatorLeft").append('=').append(extrapolatorLeft).append(',').append(' ');
+        buf.append("extrapolatorRight").append('=').append(JodaBeanUtils.toString(extrapolatorRight));
+        buf.append('}');
+        return buf.toString();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-bean for {@code InterpolatedNodalCurveScenarioArray}.
+     */
+    public static final class Meta extends DirectMetaBean {
+        /**
+         * The singleton instance of the meta-bean.
+         */
+        static final Meta INSTANCE = new Meta();
+
+        /**
+         * The meta-property for the {@code metadata} property.
+         */
+        private final MetaProperty<CurveMetadata> metadata = DirectMetaProperty.ofImmutable(
+                this, "metadata", InterpolatedNodalCurveScenarioArray.class, CurveMetadata.class);
+        /**
+         * The meta-property for the {@code xValues} property.
+         */
+        private final MetaProperty<DoubleArray> xValues = DirectMetaProperty.ofImmutable(
+                this, "xValues", InterpolatedNodalCurveScenarioArray.class, DoubleArray.class);
+        /**
+         * The meta-property for the {@code yValues} property.
+         */
+        private final MetaProperty<DoubleMatrix> yValues = DirectMetaProperty.ofImmutable(
+                this, "yValues", InterpolatedNodalCurveScenarioArray.class, DoubleMatrix.class);
+        /**
+         * The meta-property for the {@code interpolator} property.
+         */
+        private final MetaProperty<CurveInterpolator> interpolator = DirectMetaProperty.ofImmutable(
+                this, "interpolator", InterpolatedNodalCurveScenarioArray.class, CurveInterpolator.class);
+        /**
+         * The meta-property for the {@code extrapolatorLeft} property.
+         */
+        private final MetaProperty<CurveExtrapolator> extrapolatorLeft = DirectMetaProperty.ofImmutable(
+                this, "extrapolatorLeft", InterpolatedNodalCurveScenarioArray.class, CurveExtrapolator.class);
+        /**
+         * The meta-property for the {@code extrapolatorRight} property.
+         */
+        private final MetaProperty<CurveExtrapolator> extrapolatorRight = DirectMetaProperty.ofImmutable(
+                this, "extrapolatorRight", InterpolatedNodalCurveScenarioArray.class, CurveExtrapolator.class);
+        /**
+         * The meta-properties.
+         */
+        private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+                this, null,
+                "metadata",
+                "xValues",
+                "yValues",
+                "interpolator",
+                "extrapolatorLeft",
+                "extrapolatorRight");
+
+        /**
+         * Restricted constructor.
+         */
+        private Meta() {
+        }
+
+        @Override
+        protected MetaProperty<?> metaPropertyGet(String propertyName) {
+            switch (propertyName.hashCode()) {
+                case -450004177:  // metadata
+                    return metadata;
+                case 1681280954:  // xValues
+                    return xValues;
+                case -1726182661:  // yValues
+                    return yValues;
+                case 2096253127:  // interpolator
+                    return interpolator;
+                case 1271703994:  // extrapolatorLeft
+                    return extrapolatorLeft;
+                case 773779145:  // extrapolatorRight
+                    return extrapolatorRight;
+            }
+            return super.metaPropertyGet(propertyName);
+        }
+
+        @Override
+        public BeanBuilder<? extends InterpolatedNodalCurveScenarioArray> builder() {
+            return new InterpolatedNodalCurveScenarioArray.Builder();
+        }
+
+        @Override
+        public Class<? extends InterpolatedNodalCurveScenarioArray> beanType() {
+            return InterpolatedNodalCurveScenarioArray.class;
+        }
+
+        @Override
+        public Map<String, MetaProperty<?>> metaPropertyMap() {
+            return metaPropertyMap$;
+        }
+
+        //-----------------------------------------------------------------------
+        /**
+         * The meta-property for the {@code metadata} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<CurveMetadata> metadata() {
+            return metadata;
+        }
+
+        /**
+         * The meta-property for the {@code xValues} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<DoubleArray> xValues() {
+            return xValues;
+        }
+
+        /**
+         * The meta-property for the {@code yValues} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<DoubleMatrix> yValues() {
+            return yValues;
+        }
+
+        /**
+         * The meta-property for the {@code interpolator} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<CurveInterpolator> interpolator() {
+            return interpolator;
+        }
+
+        /**
+         * The meta-property for the {@code extrapolatorLeft} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<CurveExtrapolator> extrapolatorLeft() {
+            return extrapolatorLeft;
+        }
+
+        /**
+         * The meta-property for the {@code extrapolatorRight} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<CurveExtrapolator> extrapolatorRight() {
+            return extrapolatorRight;
+        }
+
+        //-----------------------------------------------------------------------
+        @Override
+        protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+            switch (propertyName.hashCode()) {
+                case -450004177:  // metadata
+                    return ((InterpolatedNodalCurveScenarioArray) bean).getMetadata();
+                case 1681280954:  // xValues
+                    return ((InterpolatedNodalCurveScenarioArray) bean).getXValues();
+                case -1726182661:  // yValues
+                    return ((InterpolatedNodalCurveScenarioArray) bean).getYValues();
+                case 2096253127:  // interpolator
+                    return ((InterpolatedNodalCurveScenarioArray) bean).getInterpolator();
+                case 1271703994:  // extrapolatorLeft
+                    return ((InterpolatedNodalCurveScenarioArray) bean).getExtrapolatorLeft();
+                case 773779145:  // extrapolatorRight
+                    return ((InterpolatedNodalCurveScenarioArray) bean).getExtrapolatorRight();
+            }
+            return super.propertyGet(bean, propertyName, quiet);
+        }
+
+        @Override
+        protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+            metaProperty(propertyName);
+            if (quiet) {
+                return;
+            }
+            throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+        }
+
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The bean-builder for {@code InterpolatedNodalCurveScenarioArray}.
+     */
+    private static final class Builder extends DirectPrivateBeanBuilder<InterpolatedNodalCurveScenarioArray> {
+
+        private CurveMetadata metadata;
+        private DoubleArray xValues;
+        private DoubleMatrix yValues;
+        private CurveInterpolator interpolator;
+        private CurveExtrapolator extrapolatorLeft;
+        private CurveExtrapolator extrapolatorRight;
+
+        /**
+         * Restricted constructor.
+         */
+        private Builder() {
+        }
+
+        //-----------------------------------------------------------------------
+        @Override
+        public Object get(String propertyName) {
+            switch (propertyName.hashCode()) {
+                case -450004177:  // metadata
+                    return metadata;
+                case 1681280954:  // xValues
+                    return xValues;
+                case -1726182661:  // yValues
+                    return yValues;
+                case 2096253127:  // interpolator
+                    return interpolator;
+                case 1271703994:  // extrapolatorLeft
+                    return extrapolatorLeft;
+                case 773779145:  // extrapolatorRight
+                    return extrapolatorRight;
+                default:
+                    throw new NoSuchElementException("Unknown property: " + propertyName);
+            }
+        }
+
+        @Override
+        public Builder set(String propertyName, Object newValue) {
+            switch (propertyName.hashCode()) {
+                case -450004177:  // metadata
+                    this.metadata = (CurveMetadata) newValue;
+                    break;
+                case 1681280954:  // xValues
+                    this.xValues = (DoubleArray) newValue;
+                    break;
+                case -1726182661:  // yValues
+                    this.yValues = (DoubleMatrix) newValue;
+                    break;
+                case 2096253127:  // interpolator
+                    this.interpolator = (CurveInterpolator) newValue;
+                    break;
+                case 1271703994:  // extrapolatorLeft
+                    this.extrapolatorLeft = (CurveExtrapolator) newValue;
+                    break;
+                case 773779145:  // extrapolatorRight
+                    this.extrapolatorRight = (CurveExtrapolator) newValue;
+                    break;
+                default:
+                    throw new NoSuchElementException("Unknown property: " + propertyName);
+            }
+            return this;
+        }
+
+        @Override
+        public InterpolatedNodalCurveScenarioArray build() {
+            return new InterpolatedNodalCurveScenarioArray(
+                    metadata,
+                    xValues,
+                    yValues,
+                    interpolator,
+                    extrapolatorLeft,
+                    extrapolatorRight);
+        }
+
+        //-----------------------------------------------------------------------
+        @Override
+        public String toString() {
+            StringBuilder buf = new StringBuilder(224);
+            buf.append("InterpolatedNodalCurveScenarioArray.Builder{");
+            buf.append("metadata").append('=').append(JodaBeanUtils.toString(metadata)).append(',').append(' ');
+            buf.append("xValues").append('=').append(JodaBeanUtils.toString(xValues)).append(',').append(' ');
+            buf.append("yValues").append('=').append(JodaBeanUtils.toString(yValues)).append(',').append(' ');
+            buf.append("interpolator").append('=').append(JodaBeanUtils.toString(interpolator)).append(',').append(' ');
+            buf.append("extrapolatorLeft").append('=').append(JodaBeanUtils.toString(extrapolatorLeft)).append(',').append(' ');
+            buf.append("extrapolatorRight").append('=').append(JodaBeanUtils.toString(extrapolatorRight));
+            buf.append('}');
+            return buf.toString();
+        }
+
+    }
+
+    //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -6,6 +6,7 @@
 package com.opengamma.strata.market.curve;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,6 +19,7 @@ import org.joda.beans.JodaBeanUtils;
 import org.joda.beans.MetaBean;
 import org.joda.beans.MetaProperty;
 import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.ImmutableConstructor;
 import org.joda.beans.gen.PropertyDefinition;
 import org.joda.beans.impl.direct.DirectMetaBean;
 import org.joda.beans.impl.direct.DirectMetaProperty;
@@ -25,6 +27,7 @@ import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
 
 import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
 
@@ -33,6 +36,11 @@ import com.opengamma.strata.collect.array.DoubleMatrix;
  * <p>
  * The inverse Jacobian matrix produced using curve calibration is stored here.
  * The information is used to calculate market quote sensitivity.
+ * <p>
+ * The columns of the matrix are divided into blocks, one for each curve in the order.
+ * When curves are calibrated together but are unrelated, for example curves in different currencies,
+ * many of these blocks are zero. The blocks that are not zero are identified on creation,
+ * allowing {@link #multiply(DoubleArray)} to skip the zero blocks.
  */
 @BeanDefinition(builderScope = "private")
 public final class JacobianCalibrationMatrix
@@ -51,6 +59,11 @@ public final class JacobianCalibrationMatrix
    */
   @PropertyDefinition(validate = "notNull")
   private final DoubleMatrix jacobianMatrix;
+  /**
+   * The column ranges of the blocks of the matrix that are not zero.
+   * Each block is defined by a pair of elements, the start column inclusive and the end column exclusive.
+   */
+  private final transient int[] nonZeroBlocks;  // derived, not a property
 
   //-------------------------------------------------------------------------
   /**
@@ -69,6 +82,60 @@ public final class JacobianCalibrationMatrix
     return new JacobianCalibrationMatrix(order, jacobianMatrix);
   }
 
+  //-------------------------------------------------------------------------
+  // restricted constructor
+  @ImmutableConstructor
+  private JacobianCalibrationMatrix(
+      List<CurveParameterSize> order,
+      DoubleMatrix jacobianMatrix) {
+    JodaBeanUtils.notNull(order, "order");
+    JodaBeanUtils.notNull(jacobianMatrix, "jacobianMatrix");
+    this.order = ImmutableList.copyOf(order);
+    this.jacobianMatrix = jacobianMatrix;
+    this.nonZeroBlocks = nonZeroBlocks(this.order, jacobianMatrix);
+  }
+
+  // ensure standard constructor is invoked
+  private Object readResolve() {
+    return new JacobianCalibrationMatrix(order, jacobianMatrix);
+  }
+
+  // finds the column blocks that contain a non-zero element
+  private static int[] nonZeroBlocks(List<CurveParameterSize> order, DoubleMatrix matrix) {
+    int columnCount = matrix.columnCount();
+    int totalParameterCount = order.stream().mapToInt(CurveParameterSize::getParameterCount).sum();
+    if (columnCount != totalParameterCount) {
+      // the order does not describe the columns, so treat the matrix as a single block
+      return new int[] {0, columnCount};
+    }
+    double[][] array = matrix.toArrayUnsafe();
+    int[] blocks = new int[2 * order.size()];
+    int blockCount = 0;
+    int start = 0;
+    for (CurveParameterSize paramSizes : order) {
+      int end = start + paramSizes.getParameterCount();
+      if (!isZeroBlock(array, start, end)) {
+        blocks[2 * blockCount] = start;
+        blocks[2 * blockCount + 1] = end;
+        blockCount++;
+      }
+      start = end;
+    }
+    return Arrays.copyOf(blocks, 2 * blockCount);
+  }
+
+  // checks if all elements in the columns are zero
+  private static boolean isZeroBlock(double[][] array, int start, int end) {
+    for (double[] row : array) {
+      for (int j = start; j < end; j++) {
+        if (row[j] != 0d) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Gets the total number of curves.
@@ -121,6 +188,82 @@ public final class JacobianCalibrationMatrix
     return result;
   }
 
+  /**
+   * Multiplies a sensitivity to the curve parameters by the Jacobian matrix.
+   * <p>
+   * The input array is the sensitivity to the parameters of the calibrated curve, one for each row of the matrix.
+   * The result is the sensitivity to the market quotes, one for each column of the matrix,
+   * which can be split by curve using {@link #splitValues(DoubleArray)}.
+   * <p>
+   * Only the non-zero blocks of the matrix and the non-zero elements of the input are used,
+   * thus the cost is proportional to the non-zero structure rather than the size of the matrix.
+   * The result is the same as the dense vector-matrix product.
+   *
+   * @param parameterSensitivity  the sensitivity to the curve parameters
+   * @return the sensitivity to the market quotes
+   * @throws IllegalArgumentException if the size of the array does not match the number of rows
+   */
+  public DoubleArray multiply(DoubleArray parameterSensitivity) {
+    int rowCount = jacobianMatrix.rowCount();
+    ArgChecker.isTrue(parameterSensitivity.size() == rowCount,
+        "Sensitivity size {} does not match Jacobian matrix row count {}", parameterSensitivity.size(), rowCount);
+    double[][] array = jacobianMatrix.toArrayUnsafe();
+    double[] result = new double[jacobianMatrix.columnCount()];
+    for (int i = 0; i < rowCount; i++) {
+      double sensitivity = parameterSensitivity.get(i);
+      if (sensitivity == 0d) {
+        continue;
+      }
+      double[] row = array[i];
+      for (int b = 0; b < nonZeroBlocks.length; b += 2) {
+        for (int j = nonZeroBlocks[b]; j < nonZeroBlocks[b + 1]; j++) {
+          result[j] += sensitivity * row[j];
+        }
+      }
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  /**
+   * Multiplies many sensitivities to the curve parameters by the Jacobian matrix.
+   * <p>
+   * Each row of the input matrix is a sensitivity to the parameters of the calibrated curve,
+   * such as the sensitivity of a single trade, with one column for each row of the Jacobian matrix.
+   * Each row of the result is the matching sensitivity to the market quotes.
+   * <p>
+   * The result is the same as calling {@link #multiply(DoubleArray)} for each row.
+   * It is more efficient when there are many rows, as each row of the Jacobian matrix is read once.
+   *
+   * @param parameterSensitivities  the sensitivities to the curve parameters, one row for each sensitivity
+   * @return the sensitivities to the market quotes, one row for each sensitivity
+   * @throws IllegalArgumentException if the column count of the input does not match the number of rows
+   */
+  public DoubleMatrix multiply(DoubleMatrix parameterSensitivities) {
+    int rowCount = jacobianMatrix.rowCount();
+    ArgChecker.isTrue(parameterSensitivities.columnCount() == rowCount,
+        "Sensitivity size {} does not match Jacobian matrix row count {}",
+        parameterSensitivities.columnCount(), rowCount);
+    double[][] array = jacobianMatrix.toArrayUnsafe();
+    double[][] sensitivities = parameterSensitivities.toArrayUnsafe();
+    double[][] result = new double[sensitivities.length][jacobianMatrix.columnCount()];
+    for (int i = 0; i < rowCount; i++) {
+      double[] row = array[i];
+      for (int k = 0; k < sensitivities.length; k++) {
+        double sensitivity = sensitivities[k][i];
+        if (sensitivity == 0d) {
+          continue;
+        }
+        double[] resultRow = result[k];
+        for (int b = 0; b < nonZeroBlocks.length; b += 2) {
+          for (int j = nonZeroBlocks[b]; j < nonZeroBlocks[b + 1]; j++) {
+            resultRow[j] += sensitivity * row[j];
+          }
+        }
+      }
+    }
+    return DoubleMatrix.ofUnsafe(result);
+  }
+
   //------------------------- AUTOGENERATED START -------------------------
   /**
    * The meta-bean for {@code JacobianCalibrationMatrix}.
@@ -139,15 +282,6 @@ public final class JacobianCalibrationMatrix
    */
   private static final long serialVersionUID = 1L;
 
-  private JacobianCalibrationMatrix(
-      List<CurveParameterSize> order,
-      DoubleMatrix jacobianMatrix) {
-    JodaBeanUtils.notNull(order, "order");
-    JodaBeanUtils.notNull(jacobianMatrix, "jacobianMatrix");
-    this.order = ImmutableList.copyOf(order);
-    this.jacobianMatrix = jacobianMatrix;
-  }
-
   @Override
   public JacobianCalibrationMatrix.Meta metaBean() {
     return JacobianCalibrationMatrix.Meta.INSTANCE;
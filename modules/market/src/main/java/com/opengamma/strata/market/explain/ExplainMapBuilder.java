@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import com.opengamma.strata.collect.ArgChecker;
@@ -70,6 +71,9 @@ public final class ExplainMapBuilder {
     ArrayList<Object> list;
     if (value instanceof ArrayList) {
       list = (ArrayList<Object>) value;
+    } else if (value instanceof LazyExplainList) {
+      list = new ArrayList<>((LazyExplainList<?>) value);
+      map.put(key, list);
     } else {
       list = new ArrayList<>();
       map.put(key, list);
@@ -142,6 +146,51 @@ public final class ExplainMapBuilder {
     return child.closeListEntry(key);
   }
 
+  /**
+   * Adds a list entry for each input, deferring the creation of the entries until they are accessed.
+   * <p>
+   * This is an alternative to calling {@link #addListEntry(ExplainKey, Consumer)} for each input.
+   * The inputs and the function are retained, and the function is only invoked to populate
+   * the builder of an entry when that entry is read from the resulting map.
+   * This avoids the cost of explaining a large number of child entries when they are not used.
+   * <p>
+   * The function must not have side effects, and must not depend on state that may change.
+   * If the list already exists, the entries are created immediately and appended.
+   * <p>
+   * The resulting map retains the inputs and the function, and thus everything the function captures,
+   * such as a rates provider, until every entry has been accessed. Callers that keep the map for a long
+   * time and do not expect to read the entries should use {@code addListEntry} instead.
+   * <p>
+   * Any exception thrown by the function is not thrown by this method or by {@link #build()}.
+   * Instead, it is thrown when the entry is accessed, for example by {@code List.get}, iteration,
+   * {@code equals}, {@link ExplainMap#explanationString()} or serialization. The entry is not retained,
+   * so the function is invoked again on the next access.
+   * 
+   * @param <T>  the type of the input
+   * @param <R>  the type of the value
+   * @param key  the list key to add to
+   * @param inputs  the inputs, one for each list entry
+   * @param explainFn  the function that receives an input and the list entry builder and adds to it
+   * @return this builder
+   */
+  public <T, R extends List<?>> ExplainMapBuilder addLazyListEntries(
+      ExplainKey<R> key,
+      List<T> inputs,
+      BiConsumer<T, ExplainMapBuilder> explainFn) {
+
+    ArgChecker.notNull(key, "key");
+    ArgChecker.notNull(inputs, "inputs");
+    ArgChecker.notNull(explainFn, "explainFn");
+    if (map.containsKey(key)) {
+      for (T input : inputs) {
+        addListEntry(key, child -> explainFn.accept(input, child));
+      }
+    } else if (!inputs.isEmpty()) {
+      map.put(key, new LazyExplainList<>(inputs, explainFn));
+    }
+    return this;
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Puts a single value into the map.
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.explain;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.BiConsumer;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A list of explanatory maps that are only created when accessed.
+ * <p>
+ * Each entry is defined by an input and a function that populates a builder from the input.
+ * The entry is built the first time it is accessed, and then retained.
+ * This allows the explanation of a large number of child entries, such as payment periods,
+ * to be avoided when only the top level entries are of interest.
+ * <p>
+ * The inputs and the function, together with anything the function captures, are retained
+ * until every entry has been built, at which point they are released.
+ * <p>
+ * The list is unmodifiable and thread-safe.
+ *
+ * @param <T>  the type of the input
+ */
+final class LazyExplainList<T>
+    extends AbstractList<ExplainMap>
+    implements RandomAccess, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The entries that have been built.
+   * Each element is null until built, and never changes once set.
+   */
+  private final transient ExplainMap[] entries;
+  /**
+   * The inputs, one for each entry, null once all entries are built.
+   * Guarded by this object.
+   */
+  private transient ImmutableList<T> inputs;
+  /**
+   * The function that populates the builder of an entry from the input, null once all entries are built.
+   * Guarded by this object.
+   */
+  private transient BiConsumer<T, ExplainMapBuilder> explainFn;
+  /**
+   * The number of entries that have been built.
+   * Guarded by this object.
+   */
+  private transient int builtCount;
+
+  /**
+   * Creates an instance.
+   *
+   * @param inputs  the inputs, one for each entry
+   * @param explainFn  the function that populates the builder of an entry from the input
+   */
+  LazyExplainList(List<T> inputs, BiConsumer<T, ExplainMapBuilder> explainFn) {
+    this.inputs = ImmutableList.copyOf(inputs);
+    this.explainFn = explainFn;
+    this.entries = new ExplainMap[this.inputs.size()];
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public ExplainMap get(int index) {
+    // an entry read without the lock is safe to use, as ExplainMap is immutable
+    ExplainMap entry = entries[index];
+    return entry != null ? entry : build(index);
+  }
+
+  // builds the entry, releasing the inputs and function once all entries are built
+  private synchronized ExplainMap build(int index) {
+    ExplainMap entry = entries[index];
+    if (entry == null) {
+      ExplainMapBuilder builder = new ExplainMapBuilder();
+      explainFn.accept(inputs.get(index), builder);
+      entry = builder.build();
+      entries[index] = entry;
+      if (++builtCount == entries.length) {
+        inputs = null;
+        explainFn = null;
+      }
+    }
+    return entry;
+  }
+
+  @Override
+  public int size() {
+    return entries.length;
+  }
+
+  // serializes the built entries, as the function cannot be serialized
+  private Object writeReplace() {
+    return new ArrayList<>(this);
+  }
+
+}
@@ -30,11 +30,15 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.collect.Guavate;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.collect.tuple.ObjIntPair;
 import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioPerturbation;
 import com.opengamma.strata.market.ShiftType;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurveScenarioArray;
 
 /**
  * A perturbation that applies different shifts to specific points in a parameterized data.
@@ -47,6 +51,9 @@ import com.opengamma.strata.market.ShiftType;
  * <p>
  * When matching the shift to the parameterized data, either the identifier or label parameter may be used.
  * A shift is not applied if there is no point on the parameterized data with a matching identifier.
+ * <p>
+ * When a single {@link InterpolatedNodalCurve} is perturbed, the result is an {@link InterpolatedNodalCurveScenarioArray}
+ * which stores the shifted y-values of all the scenarios in a single matrix.
  *
  * @see ParameterMetadata#getIdentifier()
  */
@@ -123,11 +130,32 @@ public final class PointShifts
 
     log.debug("Applying {} point shift to ParameterizedData '{}'", shiftType,
         marketData.getValue(0).toString());
+    if (marketData.isSingleValue() && marketData.getSingleValue() instanceof InterpolatedNodalCurve) {
+      return applyShifts((InterpolatedNodalCurve) marketData.getSingleValue());
+    }
     return marketData.mapWithIndex(
         shifts.rowCount(),
         (prams, scenarioIndex) -> applyShifts(scenarioIndex, prams));
   }
 
+  // shifts the y-values of all the scenarios into a single matrix, sharing the rest of the curve
+  @SuppressWarnings("unchecked")
+  private MarketDataBox<ParameterizedData> applyShifts(InterpolatedNodalCurve curve) {
+    int scenarioCount = shifts.rowCount();
+    int nodeCount = curve.getParameterCount();
+    int[] columns = new int[nodeCount];
+    for (int i = 0; i < nodeCount; i++) {
+      columns[i] = nodeIndex(curve.getParameterMetadata(i));
+    }
+    DoubleArray yValues = curve.getYValues();
+    DoubleMatrix shiftedValues = DoubleMatrix.of(scenarioCount, nodeCount, (scenarioIndex, i) -> {
+      double shiftAmount = columns[i] < 0 ? 0 : shifts.get(scenarioIndex, columns[i]);
+      return shiftType.applyShift(yValues.get(i), shiftAmount);
+    });
+    ScenarioArray<? extends ParameterizedData> curves = InterpolatedNodalCurveScenarioArray.of(curve, shiftedValues);
+    return MarketDataBox.ofScenarioValue((ScenarioArray<ParameterizedData>) curves);
+  }
+
   private ParameterizedData applyShifts(int scenarioIndex, ParameterizedData prams) {
     return prams.withPerturbation((index, value, meta) -> {
       double shiftAmount = shiftForNode(scenarioIndex, meta);
@@ -141,17 +169,23 @@ public final class PointShifts
   }
 
   private double shiftForNode(int scenarioIndex, ParameterMetadata meta) {
+    int nodeIndex = nodeIndex(meta);
+    return nodeIndex < 0 ? 0 : shifts.get(scenarioIndex, nodeIndex);
+  }
+
+  // the column of the shifts matching the parameter, -1 if none
+  private int nodeIndex(ParameterMetadata meta) {
     Integer nodeIndex = nodeIndices.get(meta.getIdentifier());
 
     if (nodeIndex != null) {
-      return shifts.get(scenarioIndex, nodeIndex);
+      return nodeIndex;
     }
     nodeIndex = nodeIndices.get(meta.getLabel());
 
     if (nodeIndex != null) {
-      return shifts.get(scenarioIndex, nodeIndex);
+      return nodeIndex;
     }
-    return 0;
+    return -1;
   }
 
   @Override
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.amount;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * Test {@link CashFlowBuckets}.
+ */
+@Test
+public class CashFlowBucketsTest {
+
+  private static final List<LocalDate> BUCKETS = ImmutableList.of(date(2015, 1, 1), date(2015, 7, 1), date(2016, 1, 1));
+  private static final CashFlowBuffer BUFFER = new CashFlowBuffer()
+      .add(date(2014, 12, 31), GBP, 1000d, 1d)
+      .add(date(2015, 1, 1), GBP, 100d, 0.9d)
+      .add(date(2015, 6, 30), USD, -50d, 0.8d)
+      .add(date(2015, 7, 1), GBP, 25d, 0.5d)
+      .add(date(2020, 1, 1), GBP, 10d, 0.2d);
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    CashFlowBuckets test = CashFlowBuckets.of(BUCKETS, BUFFER);
+    assertEquals(test.getBucketDates(), BUCKETS);
+    assertEquals(test.getCurrencies(), ImmutableSet.of(GBP, USD));
+    assertEquals(test.getForecastValues(GBP), DoubleArray.of(100d, 25d, 10d));
+    assertEquals(test.getPresentValues(GBP), DoubleArray.of(90d, 12.5d, 2d));
+    assertEquals(test.getForecastValues(USD), DoubleArray.of(-50d, 0d, 0d));
+    assertEquals(test.getPresentValues(USD), DoubleArray.of(-40d, 0d, 0d));
+    assertEquals(test.getForecastValues(EUR), DoubleArray.filled(3));
+  }
+
+  public void test_of_invalidDates() {
+    assertThrowsIllegalArg(() -> CashFlowBuckets.of(ImmutableList.of(), BUFFER));
+    assertThrowsIllegalArg(() -> CashFlowBuckets.of(ImmutableList.of(date(2015, 7, 1), date(2015, 1, 1)), BUFFER));
+  }
+
+  public void test_combinedWith() {
+    CashFlowBuffer other = new CashFlowBuffer()
+        .add(date(2015, 2, 1), EUR, 5d, 0.9d)
+        .add(date(2015, 2, 1), GBP, 5d, 0.9d);
+    CashFlowBuckets test = CashFlowBuckets.of(BUCKETS, BUFFER).combinedWith(CashFlowBuckets.of(BUCKETS, other));
+    assertEquals(test.getCurrencies(), ImmutableSet.of(GBP, USD, EUR));
+    assertEquals(test.getForecastValues(GBP), DoubleArray.of(105d, 25d, 10d));
+    assertEquals(test.getForecastValues(EUR), DoubleArray.of(5d, 0d, 0d));
+    CashFlowBuckets otherBuckets = CashFlowBuckets.of(ImmutableList.of(date(2015, 1, 1)), other);
+    assertThrowsIllegalArg(() -> test.combinedWith(otherBuckets));
+  }
+
+  public void test_builder() {
+    CashFlowBuffer other = new CashFlowBuffer()
+        .add(date(2015, 2, 1), EUR, 5d, 0.9d)
+        .add(date(2015, 2, 1), GBP, 5d, 0.9d);
+    CashFlowBuckets.Builder builder = CashFlowBuckets.builder(BUCKETS).add(BUFFER);
+    CashFlowBuckets first = builder.build();
+    CashFlowBuckets.Builder otherBuilder = CashFlowBuckets.builder(BUCKETS).add(other);
+    CashFlowBuckets test = builder.addAll(otherBuilder).build();
+    assertEquals(test.getCurrencies(), ImmutableSet.of(GBP, USD, EUR));
+    assertEquals(test.getForecastValues(GBP), DoubleArray.of(105d, 25d, 10d));
+    assertEquals(test.getPresentValues(GBP), DoubleArray.of(94.5d, 12.5d, 2d));
+    assertEquals(test.getForecastValues(EUR), DoubleArray.of(5d, 0d, 0d));
+    // sums in place, without changing the instances already built or the other builder
+    assertEquals(builder.add(other).build().getForecastValues(GBP), DoubleArray.of(110d, 25d, 10d));
+    assertEquals(first.getForecastValues(GBP), DoubleArray.of(100d, 25d, 10d));
+    assertEquals(otherBuilder.build().getForecastValues(GBP), DoubleArray.of(5d, 0d, 0d));
+    CashFlowBuckets.Builder otherDates = CashFlowBuckets.builder(ImmutableList.of(date(2015, 1, 1)));
+    assertThrowsIllegalArg(() -> builder.addAll(otherDates));
+  }
+
+}
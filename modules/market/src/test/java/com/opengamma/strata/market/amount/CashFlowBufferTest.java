@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.amount;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Test {@link CashFlowBuffer}.
+ */
+@Test
+public class CashFlowBufferTest {
+
+  private static final LocalDate DATE1 = date(2015, 6, 30);
+  private static final LocalDate DATE2 = date(2015, 9, 30);
+
+  //-------------------------------------------------------------------------
+  public void test_add() {
+    CashFlowBuffer test = new CashFlowBuffer(1);
+    test.add(DATE1, GBP, 100d, 0.9d);
+    test.add(DATE2, USD, -50d, 0.8d);
+    test.add(DATE2, GBP, 25d, 0.7d);
+    assertEquals(test.size(), 3);
+    assertEquals(test.getCurrencies(), ImmutableList.of(GBP, USD));
+    assertEquals(test.getPaymentDateEpochDay(1), (int) DATE2.toEpochDay());
+    assertEquals(test.getCurrencyCode(1), 1);
+    assertEquals(test.getCurrencyCode(2), 0);
+    assertEquals(test.getForecastValue(1), -50d);
+    assertEquals(test.getDiscountFactor(1), 0.8d);
+    assertThrowsIllegalArg(() -> test.getForecastValue(3));
+  }
+
+  public void test_addAll() {
+    CashFlowBuffer first = new CashFlowBuffer().add(DATE1, GBP, 100d, 0.9d);
+    CashFlowBuffer second = new CashFlowBuffer().add(DATE2, USD, -50d, 0.8d).add(DATE2, GBP, 25d, 0.7d);
+    CashFlowBuffer test = first.addAll(second);
+    assertEquals(test.size(), 3);
+    assertEquals(test.getCurrencyCode(1), 1);
+    assertEquals(test.getCurrencyCode(2), 0);
+    assertEquals(test.getForecastValue(2), 25d);
+  }
+
+  public void test_toCashFlows() {
+    CashFlowBuffer test = new CashFlowBuffer()
+        .add(DATE1, GBP, 100d, 0.9d)
+        .add(DATE2, USD, -50d, 0.8d);
+    CashFlows expected = CashFlows.of(ImmutableList.of(
+        CashFlow.ofForecastValue(DATE1, GBP, 100d, 0.9d),
+        CashFlow.ofForecastValue(DATE2, USD, -50d, 0.8d)));
+    assertEquals(test.toCashFlows(), expected);
+    assertEquals(new CashFlowBuffer(0).toCashFlows(), CashFlows.NONE);
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.curve;
+
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.date.DayCounts;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.market.curve.interpolator.CurveExtrapolators;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+
+/**
+ * Test {@link InterpolatedNodalCurveScenarioArray}.
+ */
+@Test
+public class InterpolatedNodalCurveScenarioArrayTest {
+
+  private static final CurveName CURVE_NAME = CurveName.of("Test");
+  private static final CurveMetadata METADATA = Curves.zeroRates(CURVE_NAME, DayCounts.ACT_365F);
+  private static final DoubleArray XVALUES = DoubleArray.of(1d, 2d, 3d);
+  private static final DoubleArray YVALUES = DoubleArray.of(5d, 7d, 8d);
+  private static final InterpolatedNodalCurve CURVE = InterpolatedNodalCurve.of(
+      METADATA, XVALUES, YVALUES, CurveInterpolators.NATURAL_SPLINE, CurveExtrapolators.FLAT, CurveExtrapolators.LINEAR);
+  private static final DoubleMatrix SCENARIO_YVALUES = DoubleMatrix.of(2, 3, 5d, 7d, 8d, 5.5d, 7.2d, 8.1d);
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    InterpolatedNodalCurveScenarioArray test = InterpolatedNodalCurveScenarioArray.of(CURVE, SCENARIO_YVALUES);
+    assertThat(test.getName()).isEqualTo(CURVE_NAME);
+    assertThat(test.getMetadata()).isEqualTo(METADATA);
+    assertThat(test.getXValues()).isEqualTo(XVALUES);
+    assertThat(test.getYValues()).isEqualTo(SCENARIO_YVALUES);
+    assertThat(test.getYValues(1)).isEqualTo(DoubleArray.of(5.5d, 7.2d, 8.1d));
+    assertThat(test.getInterpolator()).isEqualTo(CurveInterpolators.NATURAL_SPLINE);
+    assertThat(test.getExtrapolatorLeft()).isEqualTo(CurveExtrapolators.FLAT);
+    assertThat(test.getExtrapolatorRight()).isEqualTo(CurveExtrapolators.LINEAR);
+    assertThat(test.getScenarioCount()).isEqualTo(2);
+  }
+
+  public void test_of_invalid() {
+    assertThrowsIllegalArg(() -> InterpolatedNodalCurveScenarioArray.of(CURVE, DoubleMatrix.filled(2, 2)));
+    assertThrowsIllegalArg(() -> InterpolatedNodalCurveScenarioArray.of(CURVE, DoubleMatrix.filled(0, 3)));
+  }
+
+  public void test_get() {
+    InterpolatedNodalCurveScenarioArray test = InterpolatedNodalCurveScenarioArray.of(CURVE, SCENARIO_YVALUES);
+    assertThat(test.get(0)).isEqualTo(CURVE);
+    assertThat(test.get(1)).isEqualTo(CURVE.withYValues(DoubleArray.of(5.5d, 7.2d, 8.1d)));
+    assertThat(test.stream().count()).isEqualTo(2);
+    assertThrowsIllegalArg(() -> test.get(2));
+    assertThrowsIllegalArg(() -> test.getYValues(-1));
+  }
+
+  public void test_get_cached() {
+    InterpolatedNodalCurveScenarioArray test = InterpolatedNodalCurveScenarioArray.of(CURVE, SCENARIO_YVALUES);
+    InterpolatedNodalCurve curve0 = test.get(0);
+    InterpolatedNodalCurve curve1 = test.get(1);
+    assertThat(test.get(0)).isSameAs(curve0);
+    assertThat(test.get(1)).isSameAs(curve1);
+    assertThat(curve1).isNotSameAs(curve0);
+    assertThat(test.stream().findFirst().get()).isSameAs(curve0);
+  }
+
+  public void test_marketDataBox() {
+    InterpolatedNodalCurveScenarioArray test = InterpolatedNodalCurveScenarioArray.of(CURVE, SCENARIO_YVALUES);
+    MarketDataBox<Curve> box = MarketDataBox.ofScenarioValue(test);
+    assertThat(box.getScenarioCount()).isEqualTo(2);
+    assertThat(box.getValue(1).yValue(2.5d)).isEqualTo(test.get(1).yValue(2.5d));
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    InterpolatedNodalCurveScenarioArray test = InterpolatedNodalCurveScenarioArray.of(CURVE, SCENARIO_YVALUES);
+    coverImmutableBean(test);
+    InterpolatedNodalCurveScenarioArray test2 = InterpolatedNodalCurveScenarioArray.of(
+        InterpolatedNodalCurve.of(Curves.zeroRates("Other", DayCounts.ACT_360), DoubleArray.of(1d, 2d),
+            DoubleArray.of(1d, 2d), CurveInterpolators.LINEAR, CurveExtrapolators.LINEAR, CurveExtrapolators.FLAT),
+        DoubleMatrix.of(1, 2, 1d, 2d));
+    coverBeanEquals(test, test2);
+  }
+
+  public void serialization() {
+    assertSerialization(InterpolatedNodalCurveScenarioArray.of(CURVE, SCENARIO_YVALUES));
+  }
+
+}
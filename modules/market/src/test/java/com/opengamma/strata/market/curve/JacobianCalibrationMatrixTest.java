@@ -6,6 +6,7 @@
 package com.opengamma.strata.market.curve;
 
 import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
 import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static org.testng.Assert.assertEquals;
@@ -55,6 +56,59 @@ public class JacobianCalibrationMatrixTest {
     assertEquals(test.splitValues(array), ImmutableMap.of(NAME1, array1, NAME2, array2));
   }
 
+  //-------------------------------------------------------------------------
+  public void test_multiply() {
+    // the second curve does not depend on the first, the first depends on the second
+    DoubleMatrix matrix1 = DoubleMatrix.of(3, 5,
+        1d, 2d, 0d, 0.5d, 0d,
+        0d, 1d, 3d, 0d, 0.2d,
+        0d, 0d, 1d, 0d, 0d);
+    DoubleMatrix matrix2 = DoubleMatrix.of(2, 5,
+        0d, 0d, 0d, 1d, 2d,
+        0d, 0d, 0d, 0d, 1d);
+    DoubleArray sensitivity1 = DoubleArray.of(10d, 0d, -3d);
+    DoubleArray sensitivity2 = DoubleArray.of(10d, -3d);
+    JacobianCalibrationMatrix test1 = JacobianCalibrationMatrix.of(CPS, matrix1);
+    JacobianCalibrationMatrix test2 = JacobianCalibrationMatrix.of(CPS, matrix2);
+    assertEquals(test1.multiply(sensitivity1), denseProduct(sensitivity1, matrix1));
+    assertEquals(test2.multiply(sensitivity2), denseProduct(sensitivity2, matrix2));
+    assertEquals(test2.multiply(sensitivity2), DoubleArray.of(0, 0, 0, 10, 17));
+  }
+
+  public void test_multiply_orderNotMatchingColumns() {
+    JacobianCalibrationMatrix test = JacobianCalibrationMatrix.of(CPS, MATRIX);
+    DoubleArray sensitivity = DoubleArray.of(1d, 2d);
+    assertEquals(test.multiply(sensitivity), denseProduct(sensitivity, MATRIX));
+    assertThrowsIllegalArg(() -> test.multiply(DoubleArray.of(1d, 2d, 3d)));
+  }
+
+  public void test_multiply_matrix() {
+    DoubleMatrix matrix = DoubleMatrix.of(2, 5,
+        0d, 0d, 0d, 1d, 2d,
+        0d, 0d, 0d, 0.5d, 1d);
+    JacobianCalibrationMatrix test = JacobianCalibrationMatrix.of(CPS, matrix);
+    DoubleMatrix sensitivities = DoubleMatrix.of(3, 2,
+        10d, -3d,
+        0d, 2d,
+        1.5d, 0d);
+    DoubleMatrix computed = test.multiply(sensitivities);
+    assertEquals(computed.rowCount(), 3);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(computed.row(i), test.multiply(sensitivities.row(i)));
+    }
+    assertThrowsIllegalArg(() -> test.multiply(DoubleMatrix.of(1, 3, 1d, 2d, 3d)));
+  }
+
+  private static DoubleArray denseProduct(DoubleArray vector, DoubleMatrix matrix) {
+    return DoubleArray.of(matrix.columnCount(), j -> {
+      double sum = 0d;
+      for (int i = 0; i < vector.size(); i++) {
+        sum += vector.get(i) * matrix.get(i, j);
+      }
+      return sum;
+    });
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     JacobianCalibrationMatrix test = JacobianCalibrationMatrix.of(CPS, MATRIX);
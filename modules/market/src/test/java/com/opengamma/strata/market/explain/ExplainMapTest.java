@@ -20,7 +20,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 
+import org.joda.beans.ser.JodaBeanSer;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
@@ -106,6 +108,73 @@ public class ExplainMapTest {
     assertEquals(test.get(ExplainKey.LEGS).get().get(1).get(ExplainKey.ACCRUAL_DAYS), Optional.of(3));
   }
 
+  public void test_builder_addLazyListEntries() {
+    List<Integer> built = new ArrayList<>();
+    ExplainMapBuilder base = ExplainMap.builder();
+    ExplainMapBuilder result = base.addLazyListEntries(ExplainKey.LEGS, ImmutableList.of(2, 3), (days, child) -> {
+      built.add(days);
+      child.put(ExplainKey.ACCRUAL_DAYS, days);
+    });
+    ExplainMap test = result.build();
+    assertEquals(built.isEmpty(), true);
+    assertEquals(test.get(ExplainKey.LEGS).get().size(), 2);
+    assertEquals(test.get(ExplainKey.LEGS).get().get(1).get(ExplainKey.ACCRUAL_DAYS), Optional.of(3));
+    assertEquals(built, ImmutableList.of(3));
+    assertEquals(test.get(ExplainKey.LEGS).get().get(1), test.get(ExplainKey.LEGS).get().get(1));
+    assertEquals(built, ImmutableList.of(3));
+    ExplainMap expected = ExplainMap.builder()
+        .addListEntry(ExplainKey.LEGS, child -> child.put(ExplainKey.ACCRUAL_DAYS, 2))
+        .addListEntry(ExplainKey.LEGS, child -> child.put(ExplainKey.ACCRUAL_DAYS, 3))
+        .build();
+    assertEquals(test, expected);
+    assertEquals(expected, test);
+    assertEquals(test.hashCode(), expected.hashCode());
+    assertEquals(test.explanationString(), expected.explanationString());
+    assertSerialization(test);
+  }
+
+  public void test_builder_addLazyListEntries_jodaSerialization() {
+    ExplainMap test = ExplainMap.builder()
+        .put(ExplainKey.PRESENT_VALUE, AMOUNT1)
+        .addLazyListEntries(
+            ExplainKey.LEGS, ImmutableList.of(2, 3), (days, child) -> child.put(ExplainKey.ACCRUAL_DAYS, days))
+        .build();
+    ExplainMap expected = ExplainMap.builder()
+        .put(ExplainKey.PRESENT_VALUE, AMOUNT1)
+        .addListEntry(ExplainKey.LEGS, child -> child.put(ExplainKey.ACCRUAL_DAYS, 2))
+        .addListEntry(ExplainKey.LEGS, child -> child.put(ExplainKey.ACCRUAL_DAYS, 3))
+        .build();
+    String xml = JodaBeanSer.PRETTY.xmlWriter().write(test);
+    assertEquals(xml, JodaBeanSer.PRETTY.xmlWriter().write(expected));
+    assertEquals(JodaBeanSer.PRETTY.xmlReader().read(xml), expected);
+  }
+
+  public void test_builder_addLazyListEntries_failure() {
+    ExplainMap test = ExplainMap.builder()
+        .addLazyListEntries(ExplainKey.LEGS, ImmutableList.of(2), (days, child) -> {
+          throw new IllegalStateException("Failed");
+        })
+        .build();
+    assertEquals(test.get(ExplainKey.LEGS).get().size(), 1);
+    assertThrows(() -> test.get(ExplainKey.LEGS).get().get(0), IllegalStateException.class, "Failed");
+    assertThrows(() -> test.explanationString(), IllegalStateException.class, "Failed");
+  }
+
+  public void test_builder_addLazyListEntries_existing() {
+    BiConsumer<Integer, ExplainMapBuilder> explainFn = (days, child) -> child.put(ExplainKey.ACCRUAL_DAYS, days);
+    ExplainMapBuilder base = ExplainMap.builder()
+        .addLazyListEntries(ExplainKey.LEGS, ImmutableList.of(2), explainFn)
+        .addLazyListEntries(ExplainKey.LEGS, ImmutableList.of(3), explainFn)
+        .addLazyListEntries(ExplainKey.PAYMENT_PERIODS, ImmutableList.of(), explainFn)
+        .addListEntry(ExplainKey.LEGS, child -> child.put(ExplainKey.ACCRUAL_DAYS, 4));
+    ExplainMap test = base.build();
+    assertEquals(test.getMap().size(), 1);
+    assertEquals(test.get(ExplainKey.LEGS).get().size(), 3);
+    assertEquals(test.get(ExplainKey.LEGS).get().get(0).get(ExplainKey.ACCRUAL_DAYS), Optional.of(2));
+    assertEquals(test.get(ExplainKey.LEGS).get().get(1).get(ExplainKey.ACCRUAL_DAYS), Optional.of(3));
+    assertEquals(test.get(ExplainKey.LEGS).get().get(2).get(ExplainKey.ACCRUAL_DAYS), Optional.of(4));
+  }
+
   //-------------------------------------------------------------------------
   public void test_explanationString() {
     Map<ExplainKey<?>, Object> child1map = new LinkedHashMap<>();
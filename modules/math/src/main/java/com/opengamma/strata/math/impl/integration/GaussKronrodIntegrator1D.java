@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.integration;
+
+import java.util.PriorityQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.math.MathException;
+
+/**
+ * Adaptive Gauss-Kronrod integrator, for one integrand or several integrands evaluated together.
+ * <p>
+ * The range is initially divided into a fixed number of intervals.
+ * Each interval is integrated using the 15 point Kronrod rule, with the error estimated
+ * against the embedded 7 point Gauss-Legendre rule. The interval with the largest error is bisected
+ * until the total error is within the tolerance.
+ * The nodes and weights are constants, thus no set-up is required for each integration.
+ * <p>
+ * The integrands are evaluated together, at all the nodes of an interval at once.
+ * This allows work that is common to the integrands and the nodes, such as the evaluation
+ * of a volatility smile, to be shared.
+ * The integrand is a {@code BiConsumer} receiving the points to evaluate at and an array to populate,
+ * indexed by point and then by integrand.
+ * The same nodes are used for all the integrands, thus the subdivision is driven by the
+ * integrand with the largest error.
+ */
+public class GaussKronrodIntegrator1D extends Integrator1D<Double, Double> {
+
+  /**
+   * The non-negative Kronrod nodes on [-1, 1], the odd indices being the Gauss nodes.
+   */
+  private static final double[] NODES = {
+      0.991455371120812639206854697526329,
+      0.949107912342758524526189684047851,
+      0.864864423359769072789712788640926,
+      0.741531185599394439863864773280788,
+      0.586087235467691130294144845693013,
+      0.405845151377397166906606412076961,
+      0.207784955007898467600689403773245,
+      0.000000000000000000000000000000000};
+  /**
+   * The Kronrod weights.
+   */
+  private static final double[] KRONROD_WEIGHTS = {
+      0.022935322010529224963732008058970,
+      0.063092092629978553290700663189204,
+      0.104790010322250183839876322541518,
+      0.140653259715525918745189590510238,
+      0.169004726639267902826583426598550,
+      0.190350578064785409913256402421014,
+      0.204432940075298892414161999234649,
+      0.209482141084727828012999174891714};
+  /**
+   * The Gauss weights, applying to the nodes with odd indices.
+   */
+  private static final double[] GAUSS_WEIGHTS = {
+      0.129484966168869693270611432679082,
+      0.279705391489276667901467771423780,
+      0.381830050505118944950369775488975,
+      0.417959183673469387755102040816327};
+  /**
+   * The number of nodes of the Kronrod rule.
+   */
+  private static final int NODE_COUNT = 15;
+  /**
+   * The maximum number of intervals.
+   */
+  private static final int MAX_INTERVALS = 1000;
+  /**
+   * The number of intervals the integration range is initially divided into.
+   * <p>
+   * This avoids accepting a single interval whose nodes all miss a narrow peak of the integrand,
+   * as happens close to the strike for short expiries.
+   */
+  private static final int INITIAL_INTERVALS = 8;
+
+  /**
+   * The absolute tolerance.
+   */
+  private final double absoluteTolerance;
+  /**
+   * The relative tolerance.
+   */
+  private final double relativeTolerance;
+
+  /**
+   * Creates an instance.
+   *
+   * @param absoluteTolerance  the absolute tolerance
+   * @param relativeTolerance  the relative tolerance
+   */
+  public GaussKronrodIntegrator1D(double absoluteTolerance, double relativeTolerance) {
+    this.absoluteTolerance = ArgChecker.notNegativeOrZero(absoluteTolerance, "absoluteTolerance");
+    this.relativeTolerance = ArgChecker.notNegativeOrZero(relativeTolerance, "relativeTolerance");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the absolute tolerance.
+   *
+   * @return the absolute tolerance
+   */
+  public double getAbsoluteTolerance() {
+    return absoluteTolerance;
+  }
+
+  /**
+   * Gets the relative tolerance.
+   *
+   * @return the relative tolerance
+   */
+  public double getRelativeTolerance() {
+    return relativeTolerance;
+  }
+
+  /**
+   * Integrates the function between the bounds.
+   * <p>
+   * The integration is globally adaptive, see {@link #integrate(BiConsumer, int, double, double)}.
+   *
+   * @param f  the function to integrate, not null
+   * @param lower  the lower bound, not null
+   * @param upper  the upper bound, not null
+   * @return the integral
+   * @throws MathException if the maximum number of intervals is exceeded
+   */
+  @Override
+  public Double integrate(Function<Double, Double> f, Double lower, Double upper) {
+    ArgChecker.notNull(f, "f");
+    ArgChecker.notNull(lower, "lower bound");
+    ArgChecker.notNull(upper, "upper bound");
+    BiConsumer<double[], double[][]> integrand = (points, results) -> {
+      for (int i = 0; i < points.length; i++) {
+        results[i][0] = f.apply(points[i]);
+      }
+    };
+    return integrate(integrand, 1, lower, upper)[0];
+  }
+
+  /**
+   * Integrates the integrands between the bounds.
+   * <p>
+   * The integration is globally adaptive. The interval with the largest error relative to the tolerance
+   * is bisected until, for every integrand, the sum of the differences between the Kronrod and Gauss
+   * estimates is within the absolute tolerance or within the relative tolerance of the integral.
+   *
+   * @param integrand  the integrands, populating the value of each integrand at each point
+   * @param dimension  the number of integrands
+   * @param lower  the lower bound
+   * @param upper  the upper bound
+   * @return the integrals
+   * @throws MathException if the maximum number of intervals is exceeded
+   */
+  public double[] integrate(BiConsumer<double[], double[][]> integrand, int dimension, double lower, double upper) {
+    ArgChecker.notNull(integrand, "integrand");
+    ArgChecker.notNegativeOrZero(dimension, "dimension");
+    if (lower == upper) {
+      return new double[dimension];
+    }
+    Nodes buffer = new Nodes(dimension);
+    double[] values = new double[dimension];
+    double[] errors = new double[dimension];
+    Interval[] initial = new Interval[INITIAL_INTERVALS];
+    double width = (upper - lower) / INITIAL_INTERVALS;
+    for (int i = 0; i < INITIAL_INTERVALS; i++) {
+      double end = i == INITIAL_INTERVALS - 1 ? upper : lower + (i + 1) * width;
+      initial[i] = new Interval(integrand, lower + i * width, end, buffer);
+      for (int j = 0; j < dimension; j++) {
+        values[j] += initial[i].values[j];
+        errors[j] += initial[i].errors[j];
+      }
+    }
+    PriorityQueue<Interval> intervals = new PriorityQueue<>();
+    double[] initialTolerances = tolerances(values);
+    for (Interval interval : initial) {
+      interval.prioritize(initialTolerances);
+      intervals.add(interval);
+    }
+    while (!isConverged(values, errors)) {
+      if (intervals.size() >= MAX_INTERVALS) {
+        throw new MathException("Gauss-Kronrod integration did not converge in " + MAX_INTERVALS + " intervals");
+      }
+      Interval worst = intervals.poll();
+      double middle = 0.5 * (worst.start + worst.end);
+      if (middle <= worst.start || middle >= worst.end) {
+        break;  // the interval cannot be divided further
+      }
+      Interval left = new Interval(integrand, worst.start, middle, buffer);
+      Interval right = new Interval(integrand, middle, worst.end, buffer);
+      for (int j = 0; j < dimension; j++) {
+        values[j] += left.values[j] + right.values[j] - worst.values[j];
+        errors[j] += left.errors[j] + right.errors[j] - worst.errors[j];
+      }
+      double[] tolerances = tolerances(values);
+      left.prioritize(tolerances);
+      right.prioritize(tolerances);
+      intervals.add(left);
+      intervals.add(right);
+    }
+    return values;
+  }
+
+  // the tolerance for each integrand
+  private double[] tolerances(double[] values) {
+    double[] tolerances = new double[values.length];
+    for (int j = 0; j < values.length; j++) {
+      tolerances[j] = Math.max(absoluteTolerance, relativeTolerance * Math.abs(values[j]));
+    }
+    return tolerances;
+  }
+
+  // checks whether the error is acceptable for every integrand
+  private boolean isConverged(double[] values, double[] errors) {
+    double[] tolerances = tolerances(values);
+    for (int j = 0; j < values.length; j++) {
+      if (errors[j] > tolerances[j]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // applies the Kronrod rule to the interval, populating the values and the error estimates
+  private static void kronrod(
+      BiConsumer<double[], double[][]> integrand,
+      double start,
+      double end,
+      double[] values,
+      double[] errors,
+      Nodes buffer) {
+
+    int dimension = values.length;
+    double center = 0.5 * (start + end);
+    double halfLength = 0.5 * (end - start);
+    double[] points = buffer.points;
+    double[][] results = buffer.results;
+    points[0] = center;
+    for (int i = 0; i < 7; i++) {
+      double offset = halfLength * NODES[i];
+      points[2 * i + 1] = center - offset;
+      points[2 * i + 2] = center + offset;
+    }
+    integrand.accept(points, results);
+    double[] gauss = errors;
+    for (int j = 0; j < dimension; j++) {
+      values[j] = KRONROD_WEIGHTS[7] * results[0][j];
+      gauss[j] = GAUSS_WEIGHTS[3] * results[0][j];
+    }
+    for (int i = 0; i < 7; i++) {
+      double kronrodWeight = KRONROD_WEIGHTS[i];
+      double gaussWeight = i % 2 == 1 ? GAUSS_WEIGHTS[i / 2] : 0d;
+      double[] lowerResult = results[2 * i + 1];
+      double[] upperResult = results[2 * i + 2];
+      for (int j = 0; j < dimension; j++) {
+        double sum = lowerResult[j] + upperResult[j];
+        values[j] += kronrodWeight * sum;
+        gauss[j] += gaussWeight * sum;
+      }
+    }
+    for (int j = 0; j < dimension; j++) {
+      values[j] *= halfLength;
+      errors[j] = Math.abs(values[j] - gauss[j] * halfLength);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // the points of an interval and the values of the integrands at them, reused between intervals
+  private static final class Nodes {
+    private final double[] points = new double[NODE_COUNT];
+    private final double[][] results;
+
+    private Nodes(int dimension) {
+      this.results = new double[NODE_COUNT][dimension];
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // an interval with its integrals and error estimates, ordered by decreasing priority
+  private static final class Interval implements Comparable<Interval> {
+    private final double start;
+    private final double end;
+    private final double[] values;
+    private final double[] errors;
+    private double priority;
+
+    private Interval(BiConsumer<double[], double[][]> integrand, double start, double end, Nodes buffer) {
+      this.start = start;
+      this.end = end;
+      int dimension = buffer.results[0].length;
+      this.values = new double[dimension];
+      this.errors = new double[dimension];
+      kronrod(integrand, start, end, values, errors, buffer);
+    }
+
+    // the priority is the largest error relative to the tolerance
+    private void prioritize(double[] tolerances) {
+      for (int j = 0; j < errors.length; j++) {
+        priority = Math.max(priority, errors[j] / tolerances[j]);
+      }
+    }
+
+    @Override
+    public int compareTo(Interval other) {
+      return Double.compare(other.priority, priority);
+    }
+  }
+
+}
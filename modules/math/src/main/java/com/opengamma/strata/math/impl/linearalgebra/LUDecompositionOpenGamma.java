@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+
+/**
+ * OpenGamma implementation of the LU decomposition with partial pivoting.
+ * <p>
+ * The decomposition works directly on a copy of the rows of the {@link DoubleMatrix}.
+ * Row exchanges are performed by swapping row references and the elimination is row oriented,
+ * so that the inner loops run over contiguous memory.
+ */
+// CSOFF: AbbreviationAsWordInName
+public class LUDecompositionOpenGamma implements Decomposition<LUDecompositionResult> {
+
+  /**
+   * The default threshold below which a pivot is considered to be zero, consistent with {@link LUDecompositionCommons}.
+   */
+  public static final double DEFAULT_SINGULARITY_THRESHOLD = 1e-11;
+
+  /**
+   * The singularity threshold.
+   */
+  private final double singularityThreshold;
+
+  /**
+   * Creates an instance with the default singularity threshold.
+   */
+  public LUDecompositionOpenGamma() {
+    this(DEFAULT_SINGULARITY_THRESHOLD);
+  }
+
+  /**
+   * Creates an instance.
+   * 
+   * @param singularityThreshold  the threshold below which the absolute value of a pivot is considered zero
+   */
+  public LUDecompositionOpenGamma(double singularityThreshold) {
+    this.singularityThreshold = singularityThreshold;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public LUDecompositionResult apply(DoubleMatrix x) {
+    ArgChecker.notNull(x, "x");
+    ArgChecker.isTrue(x.isSquare(), "Matrix not square");
+    int n = x.rowCount();
+    double[][] lu = x.toArray();
+    int[] pivot = new int[n];
+    for (int i = 0; i < n; i++) {
+      pivot[i] = i;
+    }
+    boolean even = true;
+    for (int k = 0; k < n; k++) {
+      // find the pivot
+      int max = k;
+      double largest = Math.abs(lu[k][k]);
+      for (int i = k + 1; i < n; i++) {
+        double value = Math.abs(lu[i][k]);
+        if (value > largest) {
+          largest = value;
+          max = i;
+        }
+      }
+      ArgChecker.isTrue(largest >= singularityThreshold, "Matrix is singular; could not perform LU decomposition");
+      if (max != k) {
+        double[] tempRow = lu[max];
+        lu[max] = lu[k];
+        lu[k] = tempRow;
+        int tempPivot = pivot[max];
+        pivot[max] = pivot[k];
+        pivot[k] = tempPivot;
+        even = !even;
+      }
+      // eliminate
+      double[] rowK = lu[k];
+      double pivotInv = 1d / rowK[k];
+      for (int i = k + 1; i < n; i++) {
+        double[] rowI = lu[i];
+        double factor = rowI[k] * pivotInv;
+        rowI[k] = factor;
+        for (int j = k + 1; j < n; j++) {
+          rowI[j] -= factor * rowK[j];
+        }
+      }
+    }
+    return new LUDecompositionOpenGammaResult(lu, pivot, even);
+  }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Results of the OpenGamma implementation of LU decomposition.
+ * <p>
+ * The lower and upper triangular factors are stored in a single packed array,
+ * the unit diagonal of $\mathbf{L}$ being implicit.
+ */
+// CSOFF: AbbreviationAsWordInName
+public class LUDecompositionOpenGammaResult implements LUDecompositionResult {
+
+  /**
+   * The packed L and U factors.
+   */
+  private final double[][] lu;
+  /**
+   * The pivot permutation vector.
+   */
+  private final int[] pivot;
+  /**
+   * The determinant.
+   */
+  private final double determinant;
+
+  /**
+   * Creates an instance.
+   * 
+   * @param lu  the packed L and U factors, the unit diagonal of L being implicit
+   * @param pivot  the pivot permutation vector
+   * @param even  true if the number of row exchanges is even
+   */
+  LUDecompositionOpenGammaResult(double[][] lu, int[] pivot, boolean even) {
+    this.lu = lu;
+    this.pivot = pivot;
+    double det = even ? 1d : -1d;
+    for (int i = 0; i < lu.length; i++) {
+      det *= lu[i][i];
+    }
+    this.determinant = det;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public double getDeterminant() {
+    return determinant;
+  }
+
+  @Override
+  public DoubleMatrix getL() {
+    int n = lu.length;
+    return DoubleMatrix.of(n, n, (i, j) -> i > j ? lu[i][j] : (i == j ? 1d : 0d));
+  }
+
+  @Override
+  public DoubleMatrix getU() {
+    int n = lu.length;
+    return DoubleMatrix.of(n, n, (i, j) -> i <= j ? lu[i][j] : 0d);
+  }
+
+  @Override
+  public DoubleMatrix getP() {
+    int n = lu.length;
+    return DoubleMatrix.of(n, n, (i, j) -> pivot[i] == j ? 1d : 0d);
+  }
+
+  @Override
+  public int[] getPivot() {
+    return pivot.clone();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleArray solve(DoubleArray b) {
+    ArgChecker.notNull(b, "b");
+    return DoubleArray.ofUnsafe(solve(b.toArrayUnsafe()));
+  }
+
+  @Override
+  public double[] solve(double[] b) {
+    ArgChecker.notNull(b, "b");
+    int n = lu.length;
+    ArgChecker.isTrue(b.length == n, "b array of incorrect size");
+    double[] x = new double[n];
+    for (int i = 0; i < n; i++) {
+      x[i] = b[pivot[i]];
+    }
+    // L y = P b
+    for (int i = 0; i < n; i++) {
+      double[] row = lu[i];
+      double sum = x[i];
+      for (int k = 0; k < i; k++) {
+        sum -= row[k] * x[k];
+      }
+      x[i] = sum;
+    }
+    // U x = y
+    for (int i = n - 1; i >= 0; i--) {
+      double[] row = lu[i];
+      double sum = x[i];
+      for (int k = i + 1; k < n; k++) {
+        sum -= row[k] * x[k];
+      }
+      x[i] = sum / row[i];
+    }
+    return x;
+  }
+
+  @Override
+  public DoubleMatrix solve(DoubleMatrix b) {
+    ArgChecker.notNull(b, "b");
+    int n = lu.length;
+    ArgChecker.isTrue(b.rowCount() == n, "b matrix of incorrect size");
+    int nbCol = b.columnCount();
+    double[][] bArray = b.toArrayUnsafe();
+    double[][] x = new double[n][];
+    for (int i = 0; i < n; i++) {
+      x[i] = bArray[pivot[i]].clone();
+    }
+    // L Y = P B, row oriented
+    for (int i = 0; i < n; i++) {
+      double[] row = lu[i];
+      double[] xi = x[i];
+      for (int k = 0; k < i; k++) {
+        double factor = row[k];
+        double[] xk = x[k];
+        for (int j = 0; j < nbCol; j++) {
+          xi[j] -= factor * xk[j];
+        }
+      }
+    }
+    // U X = Y, row oriented
+    for (int i = n - 1; i >= 0; i--) {
+      double[] row = lu[i];
+      double[] xi = x[i];
+      for (int k = i + 1; k < n; k++) {
+        double factor = row[k];
+        double[] xk = x[k];
+        for (int j = 0; j < nbCol; j++) {
+          xi[j] -= factor * xk[j];
+        }
+      }
+      double diagInv = 1d / row[i];
+      for (int j = 0; j < nbCol; j++) {
+        xi[j] *= diagInv;
+      }
+    }
+    return DoubleMatrix.ofUnsafe(x);
+  }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+
+/**
+ * OpenGamma implementation of the QR decomposition using Householder reflections.
+ * <p>
+ * The reflections are applied to the transpose of the matrix, so that each column of the input
+ * is held in a contiguous array and the inner loops run over contiguous memory.
+ */
+// CSOFF: AbbreviationAsWordInName
+public class QRDecompositionOpenGamma implements Decomposition<QRDecompositionResult> {
+
+  @Override
+  public QRDecompositionResult apply(DoubleMatrix x) {
+    ArgChecker.notNull(x, "x");
+    MatrixValidate.notNaNOrInfinite(x);
+    int m = x.rowCount();
+    int n = x.columnCount();
+    double[][] array = x.toArrayUnsafe();
+    // transposed copy, each row holding a column of the input
+    double[][] qrt = new double[n][m];
+    for (int i = 0; i < m; i++) {
+      double[] row = array[i];
+      for (int j = 0; j < n; j++) {
+        qrt[j][i] = row[j];
+      }
+    }
+    int p = Math.min(m, n);
+    double[] rDiag = new double[p];
+    for (int minor = 0; minor < p; minor++) {
+      double[] qrtMinor = qrt[minor];
+      double xNormSqr = 0d;
+      for (int row = minor; row < m; row++) {
+        xNormSqr += qrtMinor[row] * qrtMinor[row];
+      }
+      double a = qrtMinor[minor] > 0 ? -Math.sqrt(xNormSqr) : Math.sqrt(xNormSqr);
+      rDiag[minor] = a;
+      if (a != 0d) {
+        // the Householder vector is stored in place of the column
+        qrtMinor[minor] -= a;
+        double scale = 1d / (a * qrtMinor[minor]);
+        for (int col = minor + 1; col < n; col++) {
+          double[] qrtCol = qrt[col];
+          double alpha = 0d;
+          for (int row = minor; row < m; row++) {
+            alpha -= qrtCol[row] * qrtMinor[row];
+          }
+          alpha *= scale;
+          for (int row = minor; row < m; row++) {
+            qrtCol[row] -= alpha * qrtMinor[row];
+          }
+        }
+      }
+    }
+    return new QRDecompositionOpenGammaResult(qrt, rDiag, m);
+  }
+
+}
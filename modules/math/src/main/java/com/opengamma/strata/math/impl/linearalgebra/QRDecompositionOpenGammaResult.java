@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Results of the OpenGamma implementation of QR decomposition.
+ * <p>
+ * The Householder vectors and the strictly upper part of $\mathbf{R}$ are stored in a packed transposed array.
+ * The matrices $\mathbf{Q}$ and $\mathbf{R}$ are only built when requested.
+ */
+// CSOFF: AbbreviationAsWordInName
+public class QRDecompositionOpenGammaResult implements QRDecompositionResult {
+
+  /**
+   * The packed transposed decomposition, one row per column of the input.
+   */
+  private final double[][] qrt;
+  /**
+   * The diagonal of R.
+   */
+  private final double[] rDiag;
+  /**
+   * The number of rows of the input.
+   */
+  private final int rowCount;
+
+  /**
+   * Creates an instance.
+   * 
+   * @param qrt  the packed transposed decomposition
+   * @param rDiag  the diagonal of R
+   * @param rowCount  the number of rows of the input
+   */
+  QRDecompositionOpenGammaResult(double[][] qrt, double[] rDiag, int rowCount) {
+    this.qrt = qrt;
+    this.rDiag = rDiag;
+    this.rowCount = rowCount;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleMatrix getR() {
+    int n = qrt.length;
+    return DoubleMatrix.of(rowCount, n, (i, j) -> i == j ? rDiag[i] : (i < j ? qrt[j][i] : 0d));
+  }
+
+  @Override
+  public DoubleMatrix getQ() {
+    double[][] qt = qtArray();
+    return DoubleMatrix.of(rowCount, rowCount, (i, j) -> qt[j][i]);
+  }
+
+  @Override
+  public DoubleMatrix getQT() {
+    return DoubleMatrix.ofUnsafe(qtArray());
+  }
+
+  // row j of Q^T is Q e_j, obtained by applying the reflections in reverse order
+  private double[][] qtArray() {
+    int m = rowCount;
+    double[][] qt = new double[m][m];
+    for (int j = 0; j < m; j++) {
+      double[] y = qt[j];
+      y[j] = 1d;
+      for (int minor = rDiag.length - 1; minor >= 0; minor--) {
+        reflect(minor, y);
+      }
+    }
+    return qt;
+  }
+
+  // applies the Householder reflection of index minor to the vector
+  private void reflect(int minor, double[] y) {
+    double[] qrtMinor = qrt[minor];
+    if (qrtMinor[minor] == 0d) {
+      return;
+    }
+    double alpha = 0d;
+    for (int row = minor; row < rowCount; row++) {
+      alpha -= y[row] * qrtMinor[row];
+    }
+    alpha /= rDiag[minor] * qrtMinor[minor];
+    for (int row = minor; row < rowCount; row++) {
+      y[row] -= alpha * qrtMinor[row];
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleArray solve(DoubleArray b) {
+    ArgChecker.notNull(b, "b");
+    return DoubleArray.ofUnsafe(solve(b.toArrayUnsafe()));
+  }
+
+  @Override
+  public double[] solve(double[] b) {
+    ArgChecker.notNull(b, "b");
+    int n = qrt.length;
+    ArgChecker.isTrue(b.length == rowCount, "b array of incorrect size");
+    ArgChecker.isTrue(rowCount >= n, "Least square solution requires at least as many rows as columns");
+    double[] y = b.clone();
+    // Q^T b
+    for (int minor = 0; minor < n; minor++) {
+      reflect(minor, y);
+    }
+    // R x = Q^T b
+    double[] x = new double[n];
+    for (int row = n - 1; row >= 0; row--) {
+      ArgChecker.isFalse(rDiag[row] == 0d, "Matrix is singular");
+      double xRow = y[row] / rDiag[row];
+      x[row] = xRow;
+      double[] qrtRow = qrt[row];
+      for (int i = 0; i < row; i++) {
+        y[i] -= xRow * qrtRow[i];
+      }
+    }
+    return x;
+  }
+
+  @Override
+  public DoubleMatrix solve(DoubleMatrix b) {
+    ArgChecker.notNull(b, "b");
+    ArgChecker.isTrue(b.rowCount() == rowCount, "b matrix of incorrect size");
+    int nbCol = b.columnCount();
+    double[][] solutionColumns = new double[nbCol][];
+    for (int j = 0; j < nbCol; j++) {
+      solutionColumns[j] = solve(b.column(j).toArrayUnsafe());
+    }
+    return DoubleMatrix.of(qrt.length, nbCol, (i, j) -> solutionColumns[j][i]);
+  }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import java.util.Arrays;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.MathException;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+
+/**
+ * OpenGamma implementation of the singular value decomposition using one-sided Jacobi rotations.
+ * <p>
+ * The rotations are applied to the columns of the matrix, held as the rows of a transposed copy,
+ * so that all the inner loops run over contiguous memory.
+ * The decomposition is the thin one: for a matrix of size m x n, with p = min(m, n),
+ * $\mathbf{U}$ is m x p, $\mathbf{S}$ is p x p and $\mathbf{V}$ is n x p.
+ */
+// CSOFF: AbbreviationAsWordInName
+public class SVDecompositionOpenGamma implements Decomposition<SVDecompositionResult> {
+
+  /**
+   * The relative orthogonality threshold used to stop the sweeps.
+   */
+  private static final double EPS = 1e-15;
+  /**
+   * The machine epsilon.
+   */
+  private static final double MACHINE_EPS = 0x1.0p-52;
+  /**
+   * The maximum number of sweeps.
+   */
+  private static final int MAX_SWEEPS = 100;
+
+  @Override
+  public SVDecompositionResult apply(DoubleMatrix x) {
+    ArgChecker.notNull(x, "x");
+    MatrixValidate.notNaNOrInfinite(x);
+    int m = x.rowCount();
+    int n = x.columnCount();
+    boolean transposed = m < n;
+    int rows = transposed ? n : m;
+    int cols = transposed ? m : n;
+    // each row of w holds a column of the (possibly transposed) matrix
+    double[][] array = x.toArrayUnsafe();
+    double[][] w = new double[cols][rows];
+    if (transposed) {
+      for (int i = 0; i < m; i++) {
+        System.arraycopy(array[i], 0, w[i], 0, n);
+      }
+    } else {
+      for (int i = 0; i < m; i++) {
+        double[] row = array[i];
+        for (int j = 0; j < n; j++) {
+          w[j][i] = row[j];
+        }
+      }
+    }
+    double[][] vt = new double[cols][cols];
+    for (int j = 0; j < cols; j++) {
+      vt[j][j] = 1d;
+    }
+    // columns with a norm below this are numerically zero, they are not rotated and their singular value is zero
+    double frobenius = 0d;
+    for (int j = 0; j < cols; j++) {
+      frobenius += dot(w[j], w[j]);
+    }
+    double negligible = Math.sqrt(frobenius) * MACHINE_EPS;
+    sweep(w, vt, negligible * negligible);
+    // singular values, sorted in decreasing order
+    double[] norms = new double[cols];
+    Integer[] order = new Integer[cols];
+    for (int j = 0; j < cols; j++) {
+      double norm = Math.sqrt(dot(w[j], w[j]));
+      norms[j] = norm <= negligible ? 0d : norm;
+      order[j] = j;
+    }
+    Arrays.sort(order, (j1, j2) -> Double.compare(norms[j2], norms[j1]));
+    double[] singularValues = new double[cols];
+    double[][] ut = new double[cols][];
+    double[][] vtSorted = new double[cols][];
+    for (int j = 0; j < cols; j++) {
+      int k = order[j];
+      singularValues[j] = norms[k];
+      vtSorted[j] = vt[k];
+      double[] u = w[k];
+      if (norms[k] > 0d) {
+        double inv = 1d / norms[k];
+        for (int i = 0; i < rows; i++) {
+          u[i] *= inv;
+        }
+      }
+      ut[j] = u;
+    }
+    completeBasis(ut, singularValues);
+    if (transposed) {
+      return new SVDecompositionOpenGammaResult(vtSorted, singularValues, ut, n);
+    }
+    return new SVDecompositionOpenGammaResult(ut, singularValues, vtSorted, m);
+  }
+
+  // Jacobi sweeps until all the columns are orthogonal
+  private static void sweep(double[][] w, double[][] vt, double negligible) {
+    int cols = w.length;
+    for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+      boolean converged = true;
+      for (int j = 0; j < cols - 1; j++) {
+        for (int k = j + 1; k < cols; k++) {
+          double[] wj = w[j];
+          double[] wk = w[k];
+          double alpha = dot(wj, wj);
+          double beta = dot(wk, wk);
+          double gamma = dot(wj, wk);
+          if (alpha <= negligible || beta <= negligible || Math.abs(gamma) <= EPS * Math.sqrt(alpha * beta)) {
+            continue;
+          }
+          converged = false;
+          double zeta = (beta - alpha) / (2d * gamma);
+          double t = (zeta >= 0d ? 1d : -1d) / (Math.abs(zeta) + Math.sqrt(1d + zeta * zeta));
+          double c = 1d / Math.sqrt(1d + t * t);
+          double s = c * t;
+          rotate(wj, wk, c, s);
+          rotate(vt[j], vt[k], c, s);
+        }
+      }
+      if (converged) {
+        return;
+      }
+    }
+    throw new MathException("Singular value decomposition did not converge in " + MAX_SWEEPS + " sweeps");
+  }
+
+  private static void rotate(double[] a, double[] b, double c, double s) {
+    for (int i = 0; i < a.length; i++) {
+      double ai = a[i];
+      double bi = b[i];
+      a[i] = c * ai - s * bi;
+      b[i] = s * ai + c * bi;
+    }
+  }
+
+  private static double dot(double[] a, double[] b) {
+    double sum = 0d;
+    for (int i = 0; i < a.length; i++) {
+      sum += a[i] * b[i];
+    }
+    return sum;
+  }
+
+  // replaces the left singular vectors of zero singular values by an orthonormal completion
+  private static void completeBasis(double[][] ut, double[] singularValues) {
+    int rows = ut.length == 0 ? 0 : ut[0].length;
+    int candidate = 0;
+    for (int j = 0; j < ut.length; j++) {
+      if (singularValues[j] > 0d) {
+        continue;
+      }
+      double[] u = ut[j];
+      while (candidate < rows) {
+        Arrays.fill(u, 0d);
+        u[candidate++] = 1d;
+        for (int k = 0; k < ut.length; k++) {
+          if (k != j && (singularValues[k] > 0d || k < j)) {
+            double projection = dot(ut[k], u);
+            for (int i = 0; i < rows; i++) {
+              u[i] -= projection * ut[k][i];
+            }
+          }
+        }
+        double norm = Math.sqrt(dot(u, u));
+        if (norm > 0.5) {
+          for (int i = 0; i < rows; i++) {
+            u[i] /= norm;
+          }
+          break;
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import java.util.Arrays;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Results of the OpenGamma implementation of singular value decomposition.
+ * <p>
+ * The singular vectors are stored as the rows of $\mathbf{U}^T$ and $\mathbf{V}^T$.
+ * The solver uses the pseudo-inverse, singular values below the tolerance being treated as zero,
+ * with the same tolerance as {@link SVDecompositionCommons}.
+ */
+// CSOFF: AbbreviationAsWordInName
+public class SVDecompositionOpenGammaResult implements SVDecompositionResult {
+
+  /**
+   * The machine epsilon used for the rank tolerance.
+   */
+  private static final double EPS = 0x1.0p-52;
+  /**
+   * The square root of the smallest positive normal double.
+   */
+  private static final double SQRT_SAFE_MIN = Math.sqrt(Double.MIN_NORMAL);
+
+  /**
+   * The left singular vectors, one per row.
+   */
+  private final double[][] ut;
+  /**
+   * The singular values, in decreasing order.
+   */
+  private final double[] singularValues;
+  /**
+   * The right singular vectors, one per row.
+   */
+  private final double[][] vt;
+  /**
+   * The tolerance below which singular values are treated as zero.
+   */
+  private final double tolerance;
+
+  /**
+   * Creates an instance.
+   * 
+   * @param ut  the left singular vectors, one per row
+   * @param singularValues  the singular values, in decreasing order
+   * @param vt  the right singular vectors, one per row
+   * @param maxDimension  the largest dimension of the decomposed matrix
+   */
+  SVDecompositionOpenGammaResult(double[][] ut, double[] singularValues, double[][] vt, int maxDimension) {
+    this.ut = ut;
+    this.singularValues = singularValues;
+    this.vt = vt;
+    double largest = singularValues.length == 0 ? 0d : singularValues[0];
+    this.tolerance = Math.max(maxDimension * largest * EPS, SQRT_SAFE_MIN);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public double getConditionNumber() {
+    return singularValues[0] / singularValues[singularValues.length - 1];
+  }
+
+  @Override
+  public double getNorm() {
+    return singularValues[0];
+  }
+
+  @Override
+  public int getRank() {
+    int rank = 0;
+    for (double value : singularValues) {
+      if (value > tolerance) {
+        rank++;
+      }
+    }
+    return rank;
+  }
+
+  @Override
+  public DoubleMatrix getS() {
+    int p = singularValues.length;
+    return DoubleMatrix.of(p, p, (i, j) -> i == j ? singularValues[i] : 0d);
+  }
+
+  @Override
+  public double[] getSingularValues() {
+    return singularValues.clone();
+  }
+
+  @Override
+  public DoubleMatrix getU() {
+    return DoubleMatrix.of(ut[0].length, ut.length, (i, j) -> ut[j][i]);
+  }
+
+  @Override
+  public DoubleMatrix getUT() {
+    return DoubleMatrix.copyOf(ut);
+  }
+
+  @Override
+  public DoubleMatrix getV() {
+    return DoubleMatrix.of(vt[0].length, vt.length, (i, j) -> vt[j][i]);
+  }
+
+  @Override
+  public DoubleMatrix getVT() {
+    return DoubleMatrix.copyOf(vt);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleArray solve(DoubleArray b) {
+    ArgChecker.notNull(b, "b");
+    return DoubleArray.ofUnsafe(solve(b.toArrayUnsafe()));
+  }
+
+  @Override
+  public double[] solve(double[] b) {
+    ArgChecker.notNull(b, "b");
+    int m = ut[0].length;
+    int n = vt[0].length;
+    ArgChecker.isTrue(b.length == m, "b array of incorrect size");
+    double[] x = new double[n];
+    for (int k = 0; k < singularValues.length; k++) {
+      if (singularValues[k] > tolerance) {
+        double[] u = ut[k];
+        double coef = 0d;
+        for (int i = 0; i < m; i++) {
+          coef += u[i] * b[i];
+        }
+        coef /= singularValues[k];
+        double[] v = vt[k];
+        for (int i = 0; i < n; i++) {
+          x[i] += coef * v[i];
+        }
+      }
+    }
+    return x;
+  }
+
+  @Override
+  public DoubleMatrix solve(DoubleMatrix b) {
+    ArgChecker.notNull(b, "b");
+    int m = ut[0].length;
+    int n = vt[0].length;
+    ArgChecker.isTrue(b.rowCount() == m, "b matrix of incorrect size");
+    int nbCol = b.columnCount();
+    double[][] bArray = b.toArrayUnsafe();
+    double[][] x = new double[n][nbCol];
+    double[] coef = new double[nbCol];
+    for (int k = 0; k < singularValues.length; k++) {
+      if (singularValues[k] > tolerance) {
+        // coef = u_k^T B / s_k, row oriented
+        Arrays.fill(coef, 0d);
+        double[] u = ut[k];
+        for (int i = 0; i < m; i++) {
+          double ui = u[i];
+          double[] bi = bArray[i];
+          for (int j = 0; j < nbCol; j++) {
+            coef[j] += ui * bi[j];
+          }
+        }
+        double sInv = 1d / singularValues[k];
+        double[] v = vt[k];
+        for (int i = 0; i < n; i++) {
+          double vi = v[i] * sInv;
+          double[] xi = x[i];
+          for (int j = 0; j < nbCol; j++) {
+            xi[j] += vi * coef[j];
+          }
+        }
+      }
+    }
+    return DoubleMatrix.ofUnsafe(x);
+  }
+
+}
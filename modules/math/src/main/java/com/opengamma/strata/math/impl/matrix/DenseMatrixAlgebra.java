@@ -0,0 +1,413 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.matrix;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.array.Matrix;
+import com.opengamma.strata.math.impl.linearalgebra.LUDecompositionOpenGamma;
+import com.opengamma.strata.math.impl.linearalgebra.LUDecompositionResult;
+import com.opengamma.strata.math.impl.linearalgebra.SVDecompositionOpenGamma;
+import com.opengamma.strata.math.impl.linearalgebra.SVDecompositionResult;
+import com.opengamma.strata.math.impl.linearalgebra.TridiagonalMatrix;
+
+/**
+ * Provides matrix algebra working directly on the arrays of {@link DoubleMatrix} and {@link DoubleArray}.
+ * <p>
+ * This implements all the operations of {@link CommonsMatrixAlgebra}, with the same semantics,
+ * without converting the matrices to and from the Commons representation.
+ * The multiplications are blocked so that the inner loops run over contiguous rows,
+ * which allows the JIT compiler to vectorize them.
+ * The decompositions used are {@link LUDecompositionOpenGamma} and {@link SVDecompositionOpenGamma}.
+ */
+public class DenseMatrixAlgebra extends MatrixAlgebra {
+
+  /**
+   * The block size used in the multiplication and transposition.
+   */
+  private static final int BLOCK = 64;
+  /**
+   * The LU decomposition.
+   */
+  private static final LUDecompositionOpenGamma LU = new LUDecompositionOpenGamma();
+  /**
+   * The SV decomposition.
+   */
+  private static final SVDecompositionOpenGamma SVD = new SVDecompositionOpenGamma();
+  /**
+   * The minimal algebra, used for the tridiagonal multiplications.
+   */
+  private static final OGMatrixAlgebra OG_ALGEBRA = new OGMatrixAlgebra();
+
+  //-------------------------------------------------------------------------
+  @Override
+  public double getCondition(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleMatrix) {
+      return SVD.apply((DoubleMatrix) m).getConditionNumber();
+    }
+    throw new IllegalArgumentException("Can only find condition number of DoubleMatrix; have " + m.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   * The determinant of a matrix which is singular for the LU decomposition is zero.
+   */
+  @Override
+  public double getDeterminant(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleMatrix) {
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      ArgChecker.isTrue(matrix.isSquare(), "Matrix not square");
+      try {
+        return LU.apply(matrix).getDeterminant();
+      } catch (IllegalArgumentException ex) {
+        return 0d;
+      }
+    }
+    throw new IllegalArgumentException("Can only find determinant of DoubleMatrix; have " + m.getClass());
+  }
+
+  @Override
+  public double getInnerProduct(Matrix m1, Matrix m2) {
+    ArgChecker.notNull(m1, "m1");
+    ArgChecker.notNull(m2, "m2");
+    if (m1 instanceof DoubleArray && m2 instanceof DoubleArray) {
+      double[] a1 = ((DoubleArray) m1).toArrayUnsafe();
+      double[] a2 = ((DoubleArray) m2).toArrayUnsafe();
+      ArgChecker.isTrue(a1.length == a2.length, "Vector size mismatch");
+      double sum = 0d;
+      for (int i = 0; i < a1.length; i++) {
+        sum += a1[i] * a2[i];
+      }
+      return sum;
+    }
+    throw new IllegalArgumentException("Can only find inner product of DoubleArray; have " +
+        m1.getClass() + " and " + m2.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   * Non-singular square matrices are inverted using the LU decomposition.
+   * Other matrices are inverted using the pseudo-inverse from the SV decomposition.
+   */
+  @Override
+  public DoubleMatrix getInverse(Matrix m) {
+    ArgChecker.notNull(m, "matrix was null");
+    if (m instanceof DoubleMatrix) {
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      DoubleMatrix identity = DoubleMatrix.identity(matrix.rowCount());
+      if (matrix.isSquare()) {
+        LUDecompositionResult lu;
+        try {
+          lu = LU.apply(matrix);
+        } catch (IllegalArgumentException ex) {
+          return SVD.apply(matrix).solve(identity);
+        }
+        return lu.solve(identity);
+      }
+      return SVD.apply(matrix).solve(identity);
+    }
+    throw new IllegalArgumentException("Can only find inverse of DoubleMatrix; have " + m.getClass());
+  }
+
+  @Override
+  public double getNorm1(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleArray) {
+      double[] array = ((DoubleArray) m).toArrayUnsafe();
+      double sum = 0d;
+      for (int i = 0; i < array.length; i++) {
+        sum += Math.abs(array[i]);
+      }
+      return sum;
+    } else if (m instanceof DoubleMatrix) {
+      double[][] array = ((DoubleMatrix) m).toArrayUnsafe();
+      int nbCol = ((DoubleMatrix) m).columnCount();
+      double[] columnSums = new double[nbCol];
+      for (double[] row : array) {
+        for (int j = 0; j < nbCol; j++) {
+          columnSums[j] += Math.abs(row[j]);
+        }
+      }
+      double max = 0d;
+      for (int j = 0; j < nbCol; j++) {
+        max = Math.max(max, columnSums[j]);
+      }
+      return max;
+    }
+    throw new IllegalArgumentException("Can only find norm1 of DoubleMatrix; have " + m.getClass());
+  }
+
+  @Override
+  public double getNorm2(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleArray) {
+      double[] array = ((DoubleArray) m).toArrayUnsafe();
+      double sum = 0d;
+      for (int i = 0; i < array.length; i++) {
+        sum += array[i] * array[i];
+      }
+      return Math.sqrt(sum);
+    } else if (m instanceof DoubleMatrix) {
+      return SVD.apply((DoubleMatrix) m).getNorm();
+    }
+    throw new IllegalArgumentException("Can only find norm2 of DoubleMatrix; have " + m.getClass());
+  }
+
+  @Override
+  public double getNormInfinity(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleArray) {
+      double[] array = ((DoubleArray) m).toArrayUnsafe();
+      double max = 0d;
+      for (int i = 0; i < array.length; i++) {
+        max = Math.max(max, Math.abs(array[i]));
+      }
+      return max;
+    } else if (m instanceof DoubleMatrix) {
+      double max = 0d;
+      for (double[] row : ((DoubleMatrix) m).toArrayUnsafe()) {
+        double sum = 0d;
+        for (int j = 0; j < row.length; j++) {
+          sum += Math.abs(row[j]);
+        }
+        max = Math.max(max, sum);
+      }
+      return max;
+    }
+    throw new IllegalArgumentException("Can only find normInfinity of DoubleMatrix; have " + m.getClass());
+  }
+
+  @Override
+  public DoubleMatrix getOuterProduct(Matrix m1, Matrix m2) {
+    ArgChecker.notNull(m1, "m1");
+    ArgChecker.notNull(m2, "m2");
+    if (m1 instanceof DoubleArray && m2 instanceof DoubleArray) {
+      double[] a1 = ((DoubleArray) m1).toArrayUnsafe();
+      double[] a2 = ((DoubleArray) m2).toArrayUnsafe();
+      double[][] result = new double[a1.length][a2.length];
+      for (int i = 0; i < a1.length; i++) {
+        double[] row = result[i];
+        double a1i = a1[i];
+        for (int j = 0; j < a2.length; j++) {
+          row[j] = a1i * a2[j];
+        }
+      }
+      return DoubleMatrix.ofUnsafe(result);
+    }
+    throw new IllegalArgumentException("Can only find outer product of DoubleArray; have " +
+        m1.getClass() + " and " + m2.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   * The power is computed by repeated squaring.
+   */
+  @Override
+  public DoubleMatrix getPower(Matrix m, int p) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleMatrix) {
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      ArgChecker.isTrue(matrix.isSquare(), "Matrix not square");
+      ArgChecker.notNegative(p, "p");
+      double[][] result = null;
+      double[][] square = matrix.toArrayUnsafe();
+      int power = p;
+      while (power > 0) {
+        if ((power & 1) == 1) {
+          result = result == null ? square : multiply(result, square, matrix.columnCount());
+        }
+        power >>= 1;
+        if (power > 0) {
+          square = multiply(square, square, matrix.columnCount());
+        }
+      }
+      return result == null ? DoubleMatrix.identity(matrix.rowCount()) : DoubleMatrix.copyOf(result);
+    }
+    throw new IllegalArgumentException("Can only find powers of DoubleMatrix; have " + m.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public DoubleMatrix getPower(Matrix m, double p) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public double getTrace(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleMatrix) {
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      ArgChecker.isTrue(matrix.isSquare(), "Matrix not square");
+      double[][] array = matrix.toArrayUnsafe();
+      double sum = 0d;
+      for (int i = 0; i < array.length; i++) {
+        sum += array[i][i];
+      }
+      return sum;
+    }
+    throw new IllegalArgumentException("Can only find trace of DoubleMatrix; have " + m.getClass());
+  }
+
+  @Override
+  public DoubleMatrix getTranspose(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleMatrix) {
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      int nbRow = matrix.rowCount();
+      int nbCol = matrix.columnCount();
+      double[][] array = matrix.toArrayUnsafe();
+      double[][] result = new double[nbCol][nbRow];
+      for (int ii = 0; ii < nbRow; ii += BLOCK) {
+        int iMax = Math.min(ii + BLOCK, nbRow);
+        for (int jj = 0; jj < nbCol; jj += BLOCK) {
+          int jMax = Math.min(jj + BLOCK, nbCol);
+          for (int i = ii; i < iMax; i++) {
+            double[] row = array[i];
+            for (int j = jj; j < jMax; j++) {
+              result[j][i] = row[j];
+            }
+          }
+        }
+      }
+      return DoubleMatrix.ofUnsafe(result);
+    }
+    throw new IllegalArgumentException("Can only take transpose of DoubleMatrix; have " + m.getClass());
+  }
+
+  /**
+   * {@inheritDoc} The following combinations of input matrices m1 and m2 are allowed:
+   * <ul>
+   * <li>m1 = 2-D matrix, m2 = 2-D matrix, returns $\mathbf{C} = \mathbf{AB}$
+   * <li>m1 = 2-D matrix, m2 = 1-D matrix, returns $\mathbf{C} = \mathbf{A}b$
+   * <li>m1 = 1-D matrix, m2 = 2-D matrix, returns $\mathbf{C} = a^T\mathbf{B}$
+   * </ul>
+   */
+  @Override
+  public Matrix multiply(Matrix m1, Matrix m2) {
+    ArgChecker.notNull(m1, "m1");
+    ArgChecker.notNull(m2, "m2");
+    if (m1 instanceof TridiagonalMatrix && m2 instanceof DoubleArray) {
+      return OG_ALGEBRA.multiply(m1, m2);
+    } else if (m1 instanceof DoubleArray && m2 instanceof TridiagonalMatrix) {
+      return OG_ALGEBRA.multiply(m1, m2);
+    } else if (m1 instanceof DoubleMatrix && m2 instanceof DoubleMatrix) {
+      return multiply((DoubleMatrix) m1, (DoubleMatrix) m2);
+    } else if (m1 instanceof DoubleMatrix && m2 instanceof DoubleArray) {
+      return multiply((DoubleMatrix) m1, (DoubleArray) m2);
+    } else if (m1 instanceof DoubleArray && m2 instanceof DoubleMatrix) {
+      return multiply((DoubleArray) m1, (DoubleMatrix) m2);
+    }
+    throw new IllegalArgumentException(
+        "Can only multiply two DoubleMatrix; a DoubleMatrix and a DoubleArray; " +
+            "or a DoubleArray and a DoubleMatrix. have " + m1.getClass() + " and " + m2.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   * Only the upper triangle is computed, with the rows of the matrix accumulated in turn.
+   */
+  @Override
+  public DoubleMatrix matrixTransposeMultiplyMatrix(DoubleMatrix a) {
+    ArgChecker.notNull(a, "a");
+    int m = a.columnCount();
+    double[][] data = new double[m][m];
+    for (double[] row : a.toArrayUnsafe()) {
+      for (int i = 0; i < m; i++) {
+        double rowI = row[i];
+        if (rowI != 0d) {
+          double[] dataI = data[i];
+          for (int j = i; j < m; j++) {
+            dataI[j] += rowI * row[j];
+          }
+        }
+      }
+    }
+    for (int i = 0; i < m; i++) {
+      for (int j = i + 1; j < m; j++) {
+        data[j][i] = data[i][j];
+      }
+    }
+    return DoubleMatrix.ofUnsafe(data);
+  }
+
+  //-------------------------------------------------------------------------
+  private DoubleMatrix multiply(DoubleMatrix m1, DoubleMatrix m2) {
+    int p = m2.rowCount();
+    ArgChecker.isTrue(
+        m1.columnCount() == p,
+        "Matrix size mismatch. m1 is " + m1.rowCount() + " by " + m1.columnCount() +
+            ", but m2 is " + m2.rowCount() + " by " + m2.columnCount());
+    return DoubleMatrix.ofUnsafe(multiply(m1.toArrayUnsafe(), m2.toArrayUnsafe(), m2.columnCount()));
+  }
+
+  // blocked i-k-j multiplication, the inner loop runs along a row of the result and a row of the second matrix
+  private static double[][] multiply(double[][] a, double[][] b, int nbCol) {
+    int nbRow = a.length;
+    int p = b.length;
+    double[][] result = new double[nbRow][nbCol];
+    for (int kk = 0; kk < p; kk += BLOCK) {
+      int kMax = Math.min(kk + BLOCK, p);
+      for (int jj = 0; jj < nbCol; jj += BLOCK) {
+        int jMax = Math.min(jj + BLOCK, nbCol);
+        for (int i = 0; i < nbRow; i++) {
+          double[] aI = a[i];
+          double[] resultI = result[i];
+          for (int k = kk; k < kMax; k++) {
+            double aIK = aI[k];
+            if (aIK != 0d) {
+              double[] bK = b[k];
+              for (int j = jj; j < jMax; j++) {
+                resultI[j] += aIK * bK[j];
+              }
+            }
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  private DoubleArray multiply(DoubleMatrix matrix, DoubleArray vector) {
+    double[] x = vector.toArrayUnsafe();
+    int n = x.length;
+    ArgChecker.isTrue(matrix.columnCount() == n, "Matrix/vector size mismatch");
+    double[][] array = matrix.toArrayUnsafe();
+    double[] result = new double[array.length];
+    for (int i = 0; i < array.length; i++) {
+      double[] row = array[i];
+      double sum = 0d;
+      for (int j = 0; j < n; j++) {
+        sum += row[j] * x[j];
+      }
+      result[i] = sum;
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  private DoubleArray multiply(DoubleArray vector, DoubleMatrix matrix) {
+    double[] x = vector.toArrayUnsafe();
+    int n = x.length;
+    ArgChecker.isTrue(matrix.rowCount() == n, "Matrix/vector size mismatch");
+    double[][] array = matrix.toArrayUnsafe();
+    int nbCol = matrix.columnCount();
+    double[] result = new double[nbCol];
+    for (int i = 0; i < n; i++) {
+      double xi = x[i];
+      double[] row = array[i];
+      for (int j = 0; j < nbCol; j++) {
+        result[j] += xi * row[j];
+      }
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+}
@@ -125,6 +125,62 @@ public class UncoupledParameterTransforms implements NonLinearParameterTransform
    * @param functionParameters The function parameters
    * @return matrix of partial derivative of fitting parameter with respect to function parameters
    */
+  /**
+   * Transforms from a set of unconstrained fitting parameters to the function parameters, writing into an array.
+   * <p>
+   * This is equivalent to {@link #inverseTransform(DoubleArray)} without the creation of intermediate objects.
+   * @param fittingParameters The fitting parameters, not modified
+   * @param functionParameters The array to be populated with the function parameters
+   */
+  public void inverseTransform(double[] fittingParameters, double[] functionParameters) {
+    ArgChecker.isTrue(fittingParameters.length == _nFP, "fittingParameter wrong dimension");
+    ArgChecker.isTrue(functionParameters.length == _nMP, "functionParameters wrong dimension");
+    for (int i = 0, j = 0; i < _nMP; i++) {
+      if (_freeParameters[i]) {
+        functionParameters[i] = _transforms[i].inverseTransform(fittingParameters[j]);
+        j++;
+      } else {
+        functionParameters[i] = _startValues.get(i);
+      }
+    }
+  }
+
+  /**
+   * Calculates the non-zero elements of the Jacobian of the inverse transform, writing into an array.
+   * <p>
+   * As the parameters are transformed independently, the j-th fitting parameter only affects one function parameter,
+   * the one given by {@link #getFunctionParameterIndices()}. Element j of the result is the sensitivity
+   * of that function parameter to the j-th fitting parameter.
+   * The other elements of {@link #inverseJacobian(DoubleArray)} are zero.
+   * @param fittingParameters The fitting parameters, not modified
+   * @param jacobianDiagonal The array to be populated with the non-zero elements, one per fitting parameter
+   */
+  public void inverseJacobianDiagonal(double[] fittingParameters, double[] jacobianDiagonal) {
+    ArgChecker.isTrue(fittingParameters.length == _nFP, "fittingParameter wrong dimension");
+    ArgChecker.isTrue(jacobianDiagonal.length == _nFP, "jacobianDiagonal wrong dimension");
+    for (int i = 0, j = 0; i < _nMP; i++) {
+      if (_freeParameters[i]) {
+        jacobianDiagonal[j] = _transforms[i].inverseTransformGradient(fittingParameters[j]);
+        j++;
+      }
+    }
+  }
+
+  /**
+   * Gets the index of the function parameter corresponding to each fitting parameter.
+   * @return The function parameter indices, one per fitting parameter
+   */
+  public int[] getFunctionParameterIndices() {
+    int[] indices = new int[_nFP];
+    for (int i = 0, j = 0; i < _nMP; i++) {
+      if (_freeParameters[i]) {
+        indices[j] = i;
+        j++;
+      }
+    }
+    return indices;
+  }
+
   // TODO not tested
   @Override
   public DoubleMatrix jacobian(DoubleArray functionParameters) {
@@ -0,0 +1,587 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.statistics.leastsquare;
+
+import java.util.function.Function;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.MathException;
+import com.opengamma.strata.math.impl.linearalgebra.DecompositionFactory;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebraFactory;
+import com.opengamma.strata.math.impl.minimization.NonLinearParameterTransforms;
+import com.opengamma.strata.math.impl.minimization.NonLinearTransformFunction;
+import com.opengamma.strata.math.impl.minimization.UncoupledParameterTransforms;
+import com.opengamma.strata.math.linearalgebra.DecompositionResult;
+
+/**
+ * Non linear least square calculator using an in-place Levenberg-Marquardt algorithm.
+ * <p>
+ * The model values and the model Jacobian are written by the model into arrays owned by the solver.
+ * All the work arrays, including the Cholesky factor used to solve the damped normal equations,
+ * are allocated once per call to {@code solve} and reused across the iterations.
+ * The linear algebra is performed directly on {@code double[]} without conversion to other matrix representations.
+ * <p>
+ * The damping strategy and the convergence criterion are the ones of {@link NonLinearLeastSquare}.
+ * The damping term of each parameter is floored at a small fraction of the largest diagonal element
+ * of the curvature matrix, as in Marquardt's method. This ensures the damped normal equations can be solved
+ * when a parameter has no effect on the model, the step in that parameter being zero.
+ * Unlike {@link NonLinearLeastSquare}, no second order check for saddle points is performed on convergence.
+ * <p>
+ * The methods of {@link NonLinearLeastSquare} taking functions are supported, the function results being copied
+ * into the work arrays, so this class can be used wherever a {@code NonLinearLeastSquare} is expected.
+ * The parameters are passed to the functions without being copied, thus the functions must not retain them.
+ * Callers that solve repeatedly should implement {@link Model} instead, which avoids the intermediate
+ * {@code DoubleArray} and {@code DoubleMatrix} instances.
+ */
+public class LevenbergMarquardtLeastSquare extends NonLinearLeastSquare {
+
+  /**
+   * The maximum number of iterations.
+   */
+  private static final int MAX_ATTEMPTS = 10000;
+  /**
+   * The floor of the damping term, relative to the largest diagonal element of the curvature matrix.
+   */
+  private static final double DAMPING_FLOOR = 1e-10;
+
+  /**
+   * The convergence tolerance.
+   */
+  private final double eps;
+
+  /**
+   * Creates an instance with a tolerance of 1e-8.
+   */
+  public LevenbergMarquardtLeastSquare() {
+    this(1e-8);
+  }
+
+  /**
+   * Creates an instance.
+   * <p>
+   * The iteration stops when the relative change in chi-square is smaller than this tolerance.
+   *
+   * @param eps  the tolerance
+   */
+  public LevenbergMarquardtLeastSquare(double eps) {
+    super(DecompositionFactory.SV_COMMONS, MatrixAlgebraFactory.OG_ALGEBRA, eps);
+    this.eps = eps;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A model evaluated in-place.
+   * <p>
+   * The model is a function of its parameters only, the measurement points being known to the model.
+   * The arrays passed to the model are owned by the solver and must not be retained.
+   */
+  public interface Model {
+
+    /**
+     * Computes the model values.
+     *
+     * @param parameters  the parameters, not to be modified
+     * @param values  the array to be populated with the model values
+     */
+    public abstract void values(double[] parameters, double[] values);
+
+    /**
+     * Computes the model sensitivity to its parameters.
+     * <p>
+     * The Jacobian entry {@code [i][j]} is the sensitivity of the i-th model value to the j-th parameter.
+     *
+     * @param parameters  the parameters, not to be modified
+     * @param jacobian  the array to be populated with the Jacobian
+     */
+    public abstract void jacobian(double[] parameters, double[][] jacobian);
+
+    /**
+     * Checks if the parameters are within the constraints of the model.
+     * <p>
+     * By default, the model is unconstrained.
+     *
+     * @param parameters  the parameters, not to be modified
+     * @return true if the parameters are allowed
+     */
+    public default boolean isAllowed(double[] parameters) {
+      return true;
+    }
+
+    /**
+     * Obtains a model of the fitting parameters from a model of the model parameters.
+     * <p>
+     * The solver works with the fitting parameters, which are converted to the model parameters
+     * using the inverse transform. The Jacobian is obtained by the chain rule, as in
+     * {@link NonLinearTransformFunction}. The constraints are checked on the model parameters.
+     * <p>
+     * When the transform is an {@link UncoupledParameterTransforms}, the model parameters and the Jacobian
+     * of the transform are written into arrays held by the returned model, and the chain rule only uses
+     * the non-zero elements of the Jacobian of the transform. Otherwise, the transform is applied using
+     * {@code DoubleArray} and {@code DoubleMatrix}.
+     * <p>
+     * The returned model holds work arrays, thus it must only be used by one solve at a time.
+     *
+     * @param model  the model of the model parameters
+     * @param transform  the transform from model parameters to fitting parameters, and vice versa
+     * @return the model of the fitting parameters
+     */
+    public static Model transformed(Model model, NonLinearParameterTransforms transform) {
+      ArgChecker.notNull(model, "model");
+      ArgChecker.notNull(transform, "transform");
+      if (transform instanceof UncoupledParameterTransforms) {
+        return new UncoupledTransformedModel(model, (UncoupledParameterTransforms) transform);
+      }
+      int nModelParms = transform.getNumberOfModelParameters();
+      return new Model() {
+        private double[][] modelJacobian;
+
+        @Override
+        public void values(double[] parameters, double[] values) {
+          model.values(modelParameters(parameters), values);
+        }
+
+        @Override
+        public void jacobian(double[] parameters, double[][] jacobian) {
+          if (modelJacobian == null) {
+            modelJacobian = new double[jacobian.length][nModelParms];
+          }
+          model.jacobian(modelParameters(parameters), modelJacobian);
+          DoubleMatrix inverseJacobian = transform.inverseJacobian(DoubleArray.ofUnsafe(parameters));
+          for (int i = 0; i < jacobian.length; i++) {
+            double[] row = jacobian[i];
+            double[] modelRow = modelJacobian[i];
+            for (int j = 0; j < parameters.length; j++) {
+              double sum = 0d;
+              for (int k = 0; k < nModelParms; k++) {
+                sum += modelRow[k] * inverseJacobian.get(k, j);
+              }
+              row[j] = sum;
+            }
+          }
+        }
+
+        @Override
+        public boolean isAllowed(double[] parameters) {
+          return model.isAllowed(modelParameters(parameters));
+        }
+
+        private double[] modelParameters(double[] parameters) {
+          return transform.inverseTransform(DoubleArray.ofUnsafe(parameters)).toArrayUnsafe();
+        }
+      };
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A model of the fitting parameters, the model parameters being transformed independently.
+   * <p>
+   * The inverse Jacobian of the transform is diagonal, each fitting parameter affecting one model parameter.
+   * The model parameters, the model Jacobian and the non-zero elements of the inverse Jacobian
+   * are written into work arrays that are reused for every evaluation.
+   */
+  static final class UncoupledTransformedModel implements Model {
+    private final Model model;
+    private final UncoupledParameterTransforms transform;
+    // the model parameter affected by each fitting parameter
+    private final int[] modelIndices;
+    // work arrays
+    private final double[] modelParameters;
+    private final double[] inverseJacobianDiagonal;
+    private double[][] modelJacobian;
+
+    UncoupledTransformedModel(Model model, UncoupledParameterTransforms transform) {
+      this.model = model;
+      this.transform = transform;
+      this.modelIndices = transform.getFunctionParameterIndices();
+      this.modelParameters = new double[transform.getNumberOfModelParameters()];
+      this.inverseJacobianDiagonal = new double[transform.getNumberOfFittingParameters()];
+    }
+
+    @Override
+    public void values(double[] parameters, double[] values) {
+      transform.inverseTransform(parameters, modelParameters);
+      model.values(modelParameters, values);
+    }
+
+    @Override
+    public void jacobian(double[] parameters, double[][] jacobian) {
+      if (modelJacobian == null || modelJacobian.length != jacobian.length) {
+        modelJacobian = new double[jacobian.length][modelParameters.length];
+      }
+      transform.inverseTransform(parameters, modelParameters);
+      model.jacobian(modelParameters, modelJacobian);
+      transform.inverseJacobianDiagonal(parameters, inverseJacobianDiagonal);
+      for (int i = 0; i < jacobian.length; i++) {
+        double[] row = jacobian[i];
+        double[] modelRow = modelJacobian[i];
+        for (int j = 0; j < row.length; j++) {
+          row[j] = modelRow[modelIndices[j]] * inverseJacobianDiagonal[j];
+        }
+      }
+    }
+
+    @Override
+    public boolean isAllowed(double[] parameters) {
+      transform.inverseTransform(parameters, modelParameters);
+      return model.isAllowed(modelParameters);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public LeastSquareResults solve(
+      DoubleArray observedValues,
+      DoubleArray sigma,
+      Function<DoubleArray, DoubleArray> func,
+      Function<DoubleArray, DoubleMatrix> jac,
+      DoubleArray startPos,
+      Function<DoubleArray, Boolean> constraints,
+      DoubleArray maxJumps) {
+
+    ArgChecker.notNull(observedValues, "observedValues");
+    ArgChecker.notNull(sigma, "sigma");
+    ArgChecker.notNull(func, "func");
+    ArgChecker.notNull(jac, "jac");
+    ArgChecker.notNull(startPos, "startPos");
+    ArgChecker.notNull(constraints, "constraints");
+    Model model = new Model() {
+      @Override
+      public void values(double[] parameters, double[] values) {
+        DoubleArray modelValues = func.apply(DoubleArray.ofUnsafe(parameters));
+        ArgChecker.isTrue(modelValues.size() == values.length,
+            "Number of data points different between model ({}) and observed ({})", modelValues.size(), values.length);
+        modelValues.copyInto(values, 0);
+      }
+
+      @Override
+      public void jacobian(double[] parameters, double[][] jacobian) {
+        DoubleMatrix modelJacobian = jac.apply(DoubleArray.ofUnsafe(parameters));
+        ArgChecker.isTrue(modelJacobian.rowCount() == jacobian.length, "Jacobian is wrong size");
+        ArgChecker.isTrue(modelJacobian.columnCount() == parameters.length, "Jacobian is wrong size");
+        for (int i = 0; i < jacobian.length; i++) {
+          modelJacobian.row(i).copyInto(jacobian[i], 0);
+        }
+      }
+
+      @Override
+      public boolean isAllowed(double[] parameters) {
+        return constraints.apply(DoubleArray.ofUnsafe(parameters));
+      }
+    };
+    return solve(
+        observedValues.toArrayUnsafe(),
+        sigma.toArrayUnsafe(),
+        model,
+        startPos.toArrayUnsafe(),
+        maxJumps == null ? null : maxJumps.toArrayUnsafe());
+  }
+
+  /**
+   * Solves the least square problem for a model evaluated in-place.
+   * <p>
+   * The input arrays are not modified.
+   *
+   * @param observedValues  the measurement values
+   * @param sigma  the measurement errors
+   * @param model  the model
+   * @param startPos  the initial value of the parameters
+   * @param maxJumps  the maximum absolute allowed step in each direction in each iteration, null if no limit
+   * @return the least square results
+   */
+  public LeastSquareResults solve(
+      double[] observedValues,
+      double[] sigma,
+      Model model,
+      double[] startPos,
+      double[] maxJumps) {
+
+    ArgChecker.notNull(observedValues, "observedValues");
+    ArgChecker.notNull(sigma, "sigma");
+    ArgChecker.notNull(model, "model");
+    ArgChecker.notNull(startPos, "startPos");
+    int nObs = observedValues.length;
+    int nParms = startPos.length;
+    ArgChecker.isTrue(nObs == sigma.length, "observedValues and sigma must be same length");
+    ArgChecker.isTrue(nObs >= nParms,
+        "must have data points greater or equal to number of parameters. #date points = {}, #parameters = {}", nObs, nParms);
+    ArgChecker.isTrue(maxJumps == null || maxJumps.length == nParms, "maxJumps must be same length as startPos");
+    ArgChecker.isTrue(model.isAllowed(startPos),
+        "The inital value of the parameters (startPos) is {} - this is not an allowed value", DoubleArray.copyOf(startPos));
+    Workspace ws = new Workspace(nObs, nParms);
+    System.arraycopy(startPos, 0, ws.theta, 0, nParms);
+    for (int i = 0; i < nObs; i++) {
+      ws.sigmaInv[i] = 1d / sigma[i];
+    }
+    double oldChiSqr = error(model, observedValues, ws, ws.theta, ws.error);
+    jacobian(model, ws);
+    curvature(ws);
+    // if we start at the solution we are done
+    if (oldChiSqr == 0d) {
+      return finish(ws, ws.theta, oldChiSqr);
+    }
+
+    double lambda = 0d;
+    for (int count = 0; count < MAX_ATTEMPTS; count++) {
+      if (!solveDamped(ws, lambda)) {
+        lambda = increaseLambda(lambda);
+        continue;
+      }
+      for (int j = 0; j < nParms; j++) {
+        ws.trialTheta[j] = ws.theta[j] + ws.deltaTheta[j];
+      }
+      // acceptable step is found
+      if (!model.isAllowed(ws.trialTheta) || !allowJump(ws.deltaTheta, maxJumps)) {
+        lambda = increaseLambda(lambda);
+        continue;
+      }
+      double newChiSqr = error(model, observedValues, ws, ws.trialTheta, ws.trialError);
+      // check for convergence when no improvement in chiSqr occurs
+      if (Math.abs(newChiSqr - oldChiSqr) / (1 + oldChiSqr) < eps) {
+        return finish(ws, ws.trialTheta, newChiSqr);
+      }
+      if (newChiSqr < oldChiSqr) {
+        lambda = decreaseLambda(lambda);
+        ws.acceptTrial();
+        jacobian(model, ws);
+        curvature(ws);
+        oldChiSqr = newChiSqr;
+      } else {
+        lambda = increaseLambda(lambda);
+      }
+    }
+    throw new MathException("Could not converge in " + MAX_ATTEMPTS + " attempts");
+  }
+
+  //-------------------------------------------------------------------------
+  private double decreaseLambda(double lambda) {
+    return lambda / 10;
+  }
+
+  private double increaseLambda(double lambda) {
+    if (lambda == 0d) { // this will happen the first time a full quadratic step fails
+      return 0.1;
+    }
+    return lambda * 10;
+  }
+
+  private boolean allowJump(double[] deltaTheta, double[] maxJumps) {
+    if (maxJumps == null) {
+      return true;
+    }
+    for (int i = 0; i < deltaTheta.length; i++) {
+      if (Math.abs(deltaTheta[i]) > maxJumps[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // populates the weighted error and returns the chi-square
+  private double error(Model model, double[] observedValues, Workspace ws, double[] theta, double[] error) {
+    model.values(theta, ws.modelValues);
+    double chiSqr = 0d;
+    for (int i = 0; i < error.length; i++) {
+      error[i] = (observedValues[i] - ws.modelValues[i]) * ws.sigmaInv[i];
+      chiSqr += error[i] * error[i];
+    }
+    return chiSqr;
+  }
+
+  // populates the weighted Jacobian at theta
+  private void jacobian(Model model, Workspace ws) {
+    model.jacobian(ws.theta, ws.jacobian);
+    for (int i = 0; i < ws.jacobian.length; i++) {
+      double[] row = ws.jacobian[i];
+      double sigmaInv = ws.sigmaInv[i];
+      for (int j = 0; j < row.length; j++) {
+        row[j] *= sigmaInv;
+      }
+    }
+  }
+
+  // populates the curvature matrix J^T J (upper triangle), the chi-square gradient J^T e and the damping terms
+  private void curvature(Workspace ws) {
+    int nParms = ws.theta.length;
+    for (int j = 0; j < nParms; j++) {
+      ws.beta[j] = 0d;
+      for (int k = j; k < nParms; k++) {
+        ws.alpha[j][k] = 0d;
+      }
+    }
+    for (int i = 0; i < ws.jacobian.length; i++) {
+      double[] row = ws.jacobian[i];
+      double e = ws.error[i];
+      for (int j = 0; j < nParms; j++) {
+        double rj = row[j];
+        ws.beta[j] += e * rj;
+        double[] alphaRow = ws.alpha[j];
+        for (int k = j; k < nParms; k++) {
+          alphaRow[k] += rj * row[k];
+        }
+      }
+    }
+    double maxDiagonal = 0d;
+    for (int j = 0; j < nParms; j++) {
+      maxDiagonal = Math.max(maxDiagonal, ws.alpha[j][j]);
+    }
+    double floor = maxDiagonal > 0d ? maxDiagonal * DAMPING_FLOOR : 1d;
+    for (int j = 0; j < nParms; j++) {
+      ws.damping[j] = Math.max(ws.alpha[j][j], floor);
+    }
+  }
+
+  // solves (J^T J + lambda D) delta = J^T e using the Cholesky factor stored in the workspace
+  // D is the diagonal of J^T J, floored so that parameters having no effect do not make the system singular
+  private boolean solveDamped(Workspace ws, double lambda) {
+    if (!factorize(ws, lambda)) {
+      return false;
+    }
+    System.arraycopy(ws.beta, 0, ws.deltaTheta, 0, ws.beta.length);
+    substitute(ws.cholesky, ws.deltaTheta);
+    return true;
+  }
+
+  // in-place Cholesky decomposition of the damped curvature matrix, L stored in the lower triangle
+  private boolean factorize(Workspace ws, double lambda) {
+    int nParms = ws.theta.length;
+    double[][] l = ws.cholesky;
+    for (int j = 0; j < nParms; j++) {
+      double[] lj = l[j];
+      double diagonal = ws.alpha[j][j] + lambda * ws.damping[j];
+      for (int k = 0; k < j; k++) {
+        diagonal -= lj[k] * lj[k];
+      }
+      if (!(diagonal > 0d)) {
+        return false;
+      }
+      double ljj = Math.sqrt(diagonal);
+      lj[j] = ljj;
+      for (int i = j + 1; i < nParms; i++) {
+        double[] li = l[i];
+        double sum = ws.alpha[j][i];
+        for (int k = 0; k < j; k++) {
+          sum -= li[k] * lj[k];
+        }
+        li[j] = sum / ljj;
+      }
+    }
+    return true;
+  }
+
+  // solves L L^T x = b in-place, b being replaced by x
+  private static void substitute(double[][] l, double[] b) {
+    int n = b.length;
+    for (int i = 0; i < n; i++) {
+      double[] li = l[i];
+      double sum = b[i];
+      for (int k = 0; k < i; k++) {
+        sum -= li[k] * b[k];
+      }
+      b[i] = sum / li[i];
+    }
+    for (int i = n - 1; i >= 0; i--) {
+      double sum = b[i];
+      for (int k = i + 1; k < n; k++) {
+        sum -= l[k][i] * b[k];
+      }
+      b[i] = sum / l[i][i];
+    }
+  }
+
+  // computes the covariance and the inverse Jacobian from the undamped curvature matrix
+  private LeastSquareResults finish(Workspace ws, double[] theta, double chiSqr) {
+    int nObs = ws.jacobian.length;
+    int nParms = theta.length;
+    double[][] covariance = new double[nParms][nParms];
+    if (factorize(ws, 0d)) {
+      for (int j = 0; j < nParms; j++) {
+        double[] column = new double[nParms];
+        column[j] = 1d;
+        substitute(ws.cholesky, column);
+        for (int k = 0; k < nParms; k++) {
+          covariance[k][j] = column[k];
+        }
+      }
+    } else {
+      // singular curvature matrix, use the pseudo-inverse
+      double[][] alpha = new double[nParms][nParms];
+      for (int j = 0; j < nParms; j++) {
+        for (int k = j; k < nParms; k++) {
+          alpha[j][k] = ws.alpha[j][k];
+          alpha[k][j] = ws.alpha[j][k];
+        }
+      }
+      DecompositionResult decmp = DecompositionFactory.SV_COMMONS.apply(DoubleMatrix.ofUnsafe(alpha));
+      covariance = decmp.solve(DoubleMatrix.identity(nParms)).toArrayUnsafe();
+    }
+    double[][] inverseJacobian = new double[nParms][nObs];
+    for (int i = 0; i < nObs; i++) {
+      double[] row = ws.jacobian[i];
+      double sigmaInv = ws.sigmaInv[i];
+      for (int k = 0; k < nParms; k++) {
+        double[] covarianceRow = covariance[k];
+        double sum = 0d;
+        for (int j = 0; j < nParms; j++) {
+          sum += covarianceRow[j] * row[j];
+        }
+        inverseJacobian[k][i] = sum * sigmaInv;
+      }
+    }
+    return new LeastSquareResults(
+        chiSqr,
+        DoubleArray.copyOf(theta),
+        DoubleMatrix.ofUnsafe(covariance),
+        DoubleMatrix.ofUnsafe(inverseJacobian));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The work arrays of one solve.
+   */
+  private static final class Workspace {
+    private final double[] sigmaInv;
+    private final double[] modelValues;
+    private double[] theta;
+    private double[] trialTheta;
+    private double[] error;
+    private double[] trialError;
+    private final double[] deltaTheta;
+    private final double[] beta;
+    private final double[] damping;
+    private final double[][] jacobian;
+    private final double[][] alpha;
+    private final double[][] cholesky;
+
+    private Workspace(int nObs, int nParms) {
+      this.sigmaInv = new double[nObs];
+      this.modelValues = new double[nObs];
+      this.theta = new double[nParms];
+      this.trialTheta = new double[nParms];
+      this.error = new double[nObs];
+      this.trialError = new double[nObs];
+      this.deltaTheta = new double[nParms];
+      this.beta = new double[nParms];
+      this.damping = new double[nParms];
+      this.jacobian = new double[nObs][nParms];
+      this.alpha = new double[nParms][nParms];
+      this.cholesky = new double[nParms][nParms];
+    }
+
+    // swaps the trial buffers with the current ones
+    private void acceptTrial() {
+      double[] temp = theta;
+      theta = trialTheta;
+      trialTheta = temp;
+      temp = error;
+      error = trialError;
+      trialError = temp;
+    }
+  }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.integration;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.function.BiConsumer;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.math.MathException;
+
+/**
+ * Test {@link GaussKronrodIntegrator1D}.
+ */
+@Test
+public class GaussKronrodIntegrator1DTest extends Integrator1DTestCase {
+
+  private static final GaussKronrodIntegrator1D INTEGRATOR = new GaussKronrodIntegrator1D(1e-12, 1e-12);
+  private static final double TOL = 1e-11;
+
+  @Override
+  protected Integrator1D<Double, Double> getIntegrator() {
+    return INTEGRATOR;
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_integrate_knownIntegrals() {
+    // polynomials up to degree 22 are integrated exactly by the 15 point Kronrod rule
+    assertThat(INTEGRATOR.integrate(x -> Math.pow(x, 22), -1d, 2d))
+        .isCloseTo((Math.pow(2d, 23) + 1d) / 23d, offset(TOL * Math.pow(2d, 23)));
+    assertThat(INTEGRATOR.integrate(Math::sin, 0d, Math.PI)).isCloseTo(2d, offset(TOL));
+    assertThat(INTEGRATOR.integrate(x -> 1d / (1d + x * x), 0d, 1d)).isCloseTo(Math.PI / 4d, offset(TOL));
+    assertThat(INTEGRATOR.integrate(x -> Math.exp(-x * x), -10d, 10d)).isCloseTo(Math.sqrt(Math.PI), offset(TOL));
+    assertThat(INTEGRATOR.integrate(Math::log, 1d, Math.E)).isCloseTo(1d, offset(TOL));
+    // integrable singularity at the lower bound
+    assertThat(INTEGRATOR.integrate(x -> 1d / Math.sqrt(x), 0d, 1d)).isCloseTo(2d, offset(1e-10));
+  }
+
+  public void test_integrate_divergent() {
+    assertThrows(() -> INTEGRATOR.integrate(x -> 1d / x, 0d, 1d), MathException.class);
+  }
+
+  public void test_integrate_several() {
+    BiConsumer<double[], double[][]> integrand = (x, result) -> {
+      assertThat(x.length).isEqualTo(15);
+      for (int i = 0; i < x.length; i++) {
+        result[i][0] = x[i] * x[i];
+        result[i][1] = Math.exp(-x[i]);
+        result[i][2] = Math.sin(x[i]);
+      }
+    };
+    double[] computed = INTEGRATOR.integrate(integrand, 3, 0d, 2d);
+    assertThat(computed[0]).isCloseTo(8d / 3d, offset(TOL));
+    assertThat(computed[1]).isCloseTo(1d - Math.exp(-2d), offset(TOL));
+    assertThat(computed[2]).isCloseTo(1d - Math.cos(2d), offset(TOL));
+  }
+
+  public void test_integrate_narrowPeak() {
+    double width = 1e-3;
+    BiConsumer<double[], double[][]> integrand = (x, result) -> {
+      for (int i = 0; i < x.length; i++) {
+        result[i][0] = Math.exp(-(1d - x[i]) / width);
+      }
+    };
+    double computed = INTEGRATOR.integrate(integrand, 1, -1d, 1d)[0];
+    assertThat(computed).isCloseTo(width * (1d - Math.exp(-2d / width)), offset(TOL));
+  }
+
+  public void test_integrate_emptyRange() {
+    BiConsumer<double[], double[][]> integrand = (x, result) -> {
+      for (int i = 0; i < x.length; i++) {
+        result[i][0] = 1d;
+      }
+    };
+    assertThat(INTEGRATOR.integrate(integrand, 1, 1d, 1d)[0]).isEqualTo(0d);
+    assertThat(INTEGRATOR.integrate(integrand, 1, 2d, 1d)[0]).isCloseTo(-1d, offset(TOL));
+  }
+
+  public void test_tolerance() {
+    assertThat(INTEGRATOR.getAbsoluteTolerance()).isEqualTo(1e-12);
+    assertThat(INTEGRATOR.getRelativeTolerance()).isEqualTo(1e-12);
+    assertThrows(() -> new GaussKronrodIntegrator1D(0d, 1e-10), IllegalArgumentException.class);
+    assertThrows(() -> new GaussKronrodIntegrator1D(1e-10, -1d), IllegalArgumentException.class);
+  }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.matrix.DenseMatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+
+/**
+ * Test {@link LUDecompositionOpenGamma}.
+ */
+@Test
+public class LUDecompositionOpenGammaTest {
+
+  private static final MatrixAlgebra ALGEBRA = new DenseMatrixAlgebra();
+  private static final Decomposition<LUDecompositionResult> LU = new LUDecompositionOpenGamma();
+  private static final Decomposition<LUDecompositionResult> LU_COMMONS = new LUDecompositionCommons();
+  private static final DoubleMatrix A = DoubleMatrix.copyOf(
+      new double[][] {{1, 2, -1, 0.5}, {4, 3, 1, -2}, {2, 2, 3, 1}, {-1, 5, 0, 2}});
+  private static final double TOL = 1e-12;
+
+  public void test_recoverOriginal() {
+    LUDecompositionResult lu = LU.apply(A);
+    DoubleMatrix a = (DoubleMatrix) ALGEBRA.multiply(lu.getL(), lu.getU());
+    assertMatrixEquals(a, (DoubleMatrix) ALGEBRA.multiply(lu.getP(), A));
+  }
+
+  public void test_compareCommons() {
+    LUDecompositionResult computed = LU.apply(A);
+    LUDecompositionResult expected = LU_COMMONS.apply(A);
+    assertMatrixEquals(computed.getL(), expected.getL());
+    assertMatrixEquals(computed.getU(), expected.getU());
+    assertMatrixEquals(computed.getP(), expected.getP());
+    assertEquals(computed.getPivot(), expected.getPivot());
+    assertEquals(computed.getDeterminant(), expected.getDeterminant(), TOL);
+    DoubleArray b = DoubleArray.of(1, -2, 0.5, 3);
+    assertTrue(computed.solve(b).equalWithTolerance(expected.solve(b), TOL));
+    assertTrue(DoubleArray.ofUnsafe(computed.solve(b.toArray())).equalWithTolerance(expected.solve(b), TOL));
+    DoubleMatrix bMatrix = DoubleMatrix.of(4, 3, (i, j) -> i * j - 1d);
+    assertMatrixEquals(computed.solve(bMatrix), expected.solve(bMatrix));
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> LU.apply(null));
+    assertThrowsIllegalArg(() -> LU.apply(DoubleMatrix.filled(2, 3)));
+    assertThrowsIllegalArg(() -> LU.apply(DoubleMatrix.copyOf(new double[][] {{1, 2}, {2, 4}})));
+    assertThrowsIllegalArg(() -> LU.apply(A).solve(DoubleArray.filled(3)));
+  }
+
+  //-------------------------------------------------------------------------
+  private static void assertMatrixEquals(DoubleMatrix computed, DoubleMatrix expected) {
+    assertEquals(computed.rowCount(), expected.rowCount());
+    assertEquals(computed.columnCount(), expected.columnCount());
+    for (int i = 0; i < expected.rowCount(); i++) {
+      assertTrue(computed.row(i).equalWithTolerance(expected.row(i), TOL));
+    }
+  }
+
+}
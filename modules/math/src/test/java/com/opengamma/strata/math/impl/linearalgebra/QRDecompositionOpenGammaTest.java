@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.matrix.DenseMatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+
+/**
+ * Test {@link QRDecompositionOpenGamma}.
+ */
+@Test
+public class QRDecompositionOpenGammaTest {
+
+  private static final MatrixAlgebra ALGEBRA = new DenseMatrixAlgebra();
+  private static final Decomposition<QRDecompositionResult> QR = new QRDecompositionOpenGamma();
+  private static final Decomposition<QRDecompositionResult> QR_COMMONS = new QRDecompositionCommons();
+  private static final DoubleMatrix SQUARE = DoubleMatrix.copyOf(
+      new double[][] {{1, 2, 3}, {4, 5, 6}, {7, 8, 10}});
+  private static final DoubleMatrix TALL = DoubleMatrix.copyOf(
+      new double[][] {{1, 2, 3}, {4, -5, 6}, {7, 8, 10}, {0.5, 1, -1}, {2, 0, 1}});
+  private static final double TOL = 1e-12;
+
+  public void test_recoverOriginal() {
+    for (DoubleMatrix matrix : new DoubleMatrix[] {SQUARE, TALL, TALL.transpose()}) {
+      QRDecompositionResult qr = QR.apply(matrix);
+      assertMatrixEquals((DoubleMatrix) ALGEBRA.multiply(qr.getQ(), qr.getR()), matrix);
+      assertMatrixEquals(qr.getQT(), qr.getQ().transpose());
+      int m = matrix.rowCount();
+      assertMatrixEquals((DoubleMatrix) ALGEBRA.multiply(qr.getQT(), qr.getQ()), DoubleMatrix.identity(m));
+    }
+  }
+
+  public void test_compareCommons() {
+    for (DoubleMatrix matrix : new DoubleMatrix[] {SQUARE, TALL}) {
+      QRDecompositionResult computed = QR.apply(matrix);
+      QRDecompositionResult expected = QR_COMMONS.apply(matrix);
+      assertMatrixEquals(computed.getQ(), expected.getQ());
+      assertMatrixEquals(computed.getR(), expected.getR());
+      DoubleArray b = DoubleArray.of(matrix.rowCount(), i -> 1d - 0.5 * i);
+      assertTrue(computed.solve(b).equalWithTolerance(expected.solve(b), TOL));
+      DoubleMatrix bMatrix = DoubleMatrix.of(matrix.rowCount(), 2, (i, j) -> i + 2d * j);
+      assertMatrixEquals(computed.solve(bMatrix), expected.solve(bMatrix));
+    }
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> QR.apply(null));
+    assertThrowsIllegalArg(() -> QR.apply(TALL).solve(DoubleArray.filled(3)));
+  }
+
+  //-------------------------------------------------------------------------
+  private static void assertMatrixEquals(DoubleMatrix computed, DoubleMatrix expected) {
+    assertEquals(computed.rowCount(), expected.rowCount());
+    assertEquals(computed.columnCount(), expected.columnCount());
+    for (int i = 0; i < expected.rowCount(); i++) {
+      assertTrue(computed.row(i).equalWithTolerance(expected.row(i), TOL));
+    }
+  }
+
+}
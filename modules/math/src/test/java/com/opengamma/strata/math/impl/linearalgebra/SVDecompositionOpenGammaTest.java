@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.matrix.DenseMatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+
+/**
+ * Test {@link SVDecompositionOpenGamma}.
+ */
+@Test
+public class SVDecompositionOpenGammaTest extends SVDecompositionCalculationTestCase {
+
+  private static final MatrixAlgebra ALGEBRA = new DenseMatrixAlgebra();
+  private static final Decomposition<SVDecompositionResult> SVD = new SVDecompositionOpenGamma();
+  private static final Decomposition<SVDecompositionResult> SVD_COMMONS = new SVDecompositionCommons();
+  private static final DoubleMatrix TALL = DoubleMatrix.copyOf(
+      new double[][] {{1, 2, 3}, {-3.4, -1, 4}, {1, 6, 1}, {0.5, -2, 7}, {2, 2, 2}});
+  private static final DoubleMatrix SINGULAR = DoubleMatrix.copyOf(
+      new double[][] {{1, 2, 3}, {2, 4, 6}, {1, 0, 1}, {0, 0, 0}});
+  private static final double TOL = 1e-10;
+
+  @Override
+  protected MatrixAlgebra getAlgebra() {
+    return ALGEBRA;
+  }
+
+  @Override
+  protected Decomposition<SVDecompositionResult> getSVD() {
+    return SVD;
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_compareCommons() {
+    for (DoubleMatrix matrix : new DoubleMatrix[] {TALL, TALL.transpose(), SINGULAR, SINGULAR.transpose()}) {
+      SVDecompositionResult expected = SVD_COMMONS.apply(matrix);
+      SVDecompositionResult computed = SVD.apply(matrix);
+      assertTrue(DoubleArray.ofUnsafe(computed.getSingularValues())
+          .equalWithTolerance(DoubleArray.ofUnsafe(expected.getSingularValues()), TOL));
+      assertEquals(computed.getRank(), expected.getRank());
+      assertEquals(computed.getNorm(), expected.getNorm(), TOL);
+      // recover the original matrix
+      DoubleMatrix recovered = (DoubleMatrix) ALGEBRA.multiply(
+          ALGEBRA.multiply(computed.getU(), computed.getS()), computed.getVT());
+      assertMatrixEquals(recovered, matrix);
+      // orthonormal singular vectors
+      int p = computed.getSingularValues().length;
+      assertMatrixEquals((DoubleMatrix) ALGEBRA.multiply(computed.getUT(), computed.getU()), DoubleMatrix.identity(p));
+      assertMatrixEquals((DoubleMatrix) ALGEBRA.multiply(computed.getVT(), computed.getV()), DoubleMatrix.identity(p));
+      // pseudo-inverse solve
+      DoubleArray b = DoubleArray.of(matrix.rowCount(), i -> 1d + 0.5 * i);
+      assertTrue(computed.solve(b).equalWithTolerance(expected.solve(b), TOL));
+      DoubleMatrix bMatrix = DoubleMatrix.of(matrix.rowCount(), 2, (i, j) -> i - 0.25 * j);
+      assertMatrixEquals(computed.solve(bMatrix), expected.solve(bMatrix));
+    }
+  }
+
+  public void test_conditionNumber() {
+    assertEquals(SVD.apply(TALL).getConditionNumber(), SVD_COMMONS.apply(TALL).getConditionNumber(), 1e-8);
+  }
+
+  //-------------------------------------------------------------------------
+  private static void assertMatrixEquals(DoubleMatrix computed, DoubleMatrix expected) {
+    assertEquals(computed.rowCount(), expected.rowCount());
+    assertEquals(computed.columnCount(), expected.columnCount());
+    for (int i = 0; i < expected.rowCount(); i++) {
+      assertTrue(computed.row(i).equalWithTolerance(expected.row(i), TOL));
+    }
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.matrix;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.linearalgebra.TridiagonalMatrix;
+
+/**
+ * Test {@link DenseMatrixAlgebra}.
+ */
+@Test
+public class DenseMatrixAlgebraTest {
+
+  private static final MatrixAlgebra DENSE = MatrixAlgebraFactory.DENSE_ALGEBRA;
+  private static final MatrixAlgebra COMMONS = MatrixAlgebraFactory.COMMONS_ALGEBRA;
+  private static final MatrixAlgebra OG = MatrixAlgebraFactory.OG_ALGEBRA;
+  private static final DoubleMatrix A = DoubleMatrix.copyOf(
+      new double[][] {{1., 2., 3.}, {-1., 1., 0.}, {-2., 1., -2.}});
+  private static final DoubleMatrix B = DoubleMatrix.copyOf(new double[][] {{1, 1}, {2, -2}, {3, 1}});
+  private static final DoubleMatrix SINGULAR = DoubleMatrix.copyOf(
+      new double[][] {{1., 2., 3.}, {2., 4., 6.}, {-2., 1., -2.}});
+  private static final DoubleArray E = DoubleArray.of(-1, 2, 3);
+  private static final DoubleArray F = DoubleArray.of(2, -2, 1);
+  // large enough to cover several blocks
+  private static final DoubleMatrix LARGE_1 = DoubleMatrix.of(150, 70, (i, j) -> Math.sin(i + 2d * j));
+  private static final DoubleMatrix LARGE_2 = DoubleMatrix.of(70, 90, (i, j) -> Math.cos(3d * i - j));
+  private static final double TOL = 1e-12;
+
+  public void test_multiply() {
+    assertMatrixEquals((DoubleMatrix) DENSE.multiply(A, B), (DoubleMatrix) COMMONS.multiply(A, B));
+    assertMatrixEquals((DoubleMatrix) DENSE.multiply(LARGE_1, LARGE_2), (DoubleMatrix) COMMONS.multiply(LARGE_1, LARGE_2));
+    assertTrue(((DoubleArray) DENSE.multiply(A, E)).equalWithTolerance((DoubleArray) OG.multiply(A, E), TOL));
+    assertTrue(((DoubleArray) DENSE.multiply(E, A)).equalWithTolerance((DoubleArray) OG.multiply(E, A), TOL));
+    TridiagonalMatrix tri = new TridiagonalMatrix(new double[] {1, 2, 3}, new double[] {4, 5}, new double[] {6, 7});
+    assertEquals(DENSE.multiply(tri, E), OG.multiply(tri, E));
+    assertEquals(DENSE.multiply(E, tri), OG.multiply(E, tri));
+    assertThrowsIllegalArg(() -> DENSE.multiply(B, A));
+    assertThrowsIllegalArg(() -> DENSE.multiply(B, F));
+    assertThrowsIllegalArg(() -> DENSE.multiply(E, F));
+  }
+
+  public void test_matrixTransposeMultiplyMatrix() {
+    assertMatrixEquals(DENSE.matrixTransposeMultiplyMatrix(LARGE_1), COMMONS.matrixTransposeMultiplyMatrix(LARGE_1));
+    assertMatrixEquals(DENSE.matrixTransposeMultiplyMatrix(B), COMMONS.matrixTransposeMultiplyMatrix(B));
+  }
+
+  public void test_transpose() {
+    assertEquals(DENSE.getTranspose(LARGE_1), LARGE_1.transpose());
+    assertEquals(DENSE.getTranspose(B), B.transpose());
+    assertThrowsIllegalArg(() -> DENSE.getTranspose(E));
+  }
+
+  public void test_products() {
+    assertEquals(DENSE.getInnerProduct(E, F), COMMONS.getInnerProduct(E, F), TOL);
+    assertMatrixEquals(DENSE.getOuterProduct(E, F), COMMONS.getOuterProduct(E, F));
+    assertThrowsIllegalArg(() -> DENSE.getInnerProduct(E, A));
+    assertThrowsIllegalArg(() -> DENSE.getInnerProduct(E, DoubleArray.of(1, 2)));
+    assertThrowsIllegalArg(() -> DENSE.getOuterProduct(E, A));
+  }
+
+  public void test_norms() {
+    for (DoubleMatrix matrix : new DoubleMatrix[] {A, B, LARGE_1}) {
+      assertEquals(DENSE.getNorm1(matrix), COMMONS.getNorm1(matrix), TOL);
+      assertEquals(DENSE.getNorm2(matrix), COMMONS.getNorm2(matrix), 1e-10);
+      assertEquals(DENSE.getNormInfinity(matrix), COMMONS.getNormInfinity(matrix), TOL);
+    }
+    assertEquals(DENSE.getNorm1(E), COMMONS.getNorm1(E), TOL);
+    assertEquals(DENSE.getNorm2(E), COMMONS.getNorm2(E), TOL);
+    assertEquals(DENSE.getNormInfinity(E), COMMONS.getNormInfinity(E), TOL);
+  }
+
+  public void test_determinant_trace_condition() {
+    assertEquals(DENSE.getDeterminant(A), COMMONS.getDeterminant(A), TOL);
+    assertEquals(DENSE.getDeterminant(SINGULAR), 0d);
+    assertEquals(DENSE.getTrace(A), COMMONS.getTrace(A), TOL);
+    assertEquals(DENSE.getCondition(A), COMMONS.getCondition(A), 1e-10);
+    assertThrowsIllegalArg(() -> DENSE.getDeterminant(B));
+    assertThrowsIllegalArg(() -> DENSE.getTrace(B));
+    assertThrowsIllegalArg(() -> DENSE.getCondition(E));
+  }
+
+  public void test_inverse() {
+    assertMatrixEquals(DENSE.getInverse(A), COMMONS.getInverse(A));
+    assertMatrixEquals(DENSE.getInverse(SINGULAR), COMMONS.getInverse(SINGULAR));
+    assertMatrixEquals(DENSE.getInverse(B), COMMONS.getInverse(B));
+    assertThrowsIllegalArg(() -> DENSE.getInverse(E));
+  }
+
+  public void test_power() {
+    for (int p = 0; p < 6; p++) {
+      assertMatrixEquals(DENSE.getPower(A, p), COMMONS.getPower(A, p));
+    }
+    assertThrowsIllegalArg(() -> DENSE.getPower(A, -1));
+    assertThrowsIllegalArg(() -> DENSE.getPower(B, 2));
+  }
+
+  //-------------------------------------------------------------------------
+  private static void assertMatrixEquals(DoubleMatrix computed, DoubleMatrix expected) {
+    assertEquals(computed.rowCount(), expected.rowCount());
+    assertEquals(computed.columnCount(), expected.columnCount());
+    for (int i = 0; i < expected.rowCount(); i++) {
+      assertTrue(computed.row(i).equalWithTolerance(expected.row(i), TOL));
+    }
+  }
+
+}
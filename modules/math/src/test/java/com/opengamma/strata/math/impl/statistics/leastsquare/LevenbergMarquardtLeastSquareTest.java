@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.statistics.leastsquare;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.cern.MersenneTwister;
+import com.opengamma.strata.math.impl.cern.MersenneTwister64;
+import com.opengamma.strata.math.impl.function.ParameterizedFunction;
+import com.opengamma.strata.math.impl.minimization.DoubleRangeLimitTransform;
+import com.opengamma.strata.math.impl.minimization.NonLinearTransformFunction;
+import com.opengamma.strata.math.impl.minimization.NullTransform;
+import com.opengamma.strata.math.impl.minimization.ParameterLimitsTransform;
+import com.opengamma.strata.math.impl.minimization.ParameterLimitsTransform.LimitType;
+import com.opengamma.strata.math.impl.minimization.SingleRangeLimitTransform;
+import com.opengamma.strata.math.impl.minimization.UncoupledParameterTransforms;
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
+
+/**
+ * Test {@link LevenbergMarquardtLeastSquare}.
+ */
+@Test
+public class LevenbergMarquardtLeastSquareTest {
+
+  private static final NormalDistribution NORMAL =
+      new NormalDistribution(0, 1.0, new MersenneTwister64(MersenneTwister.DEFAULT_SEED));
+  private static final int NB_POINTS = 20;
+  private static final double[] X = DoubleArray.of(NB_POINTS, i -> -Math.PI + i * Math.PI / 10).toArray();
+  private static final double[] Y = DoubleArray.of(NB_POINTS, i -> Math.sin(X[i])).toArray();
+  private static final double[] SIGMA = DoubleArray.of(NB_POINTS, i -> 0.1 * Math.exp(Math.abs(X[i]) / Math.PI)).toArray();
+  private static final double TOL = 1e-8;
+
+  // a * sin(b * x + c) + d
+  private static final LevenbergMarquardtLeastSquare.Model MODEL = new LevenbergMarquardtLeastSquare.Model() {
+    @Override
+    public void values(double[] parameters, double[] values) {
+      for (int i = 0; i < NB_POINTS; i++) {
+        values[i] = parameters[0] * Math.sin(parameters[1] * X[i] + parameters[2]) + parameters[3];
+      }
+    }
+
+    @Override
+    public void jacobian(double[] parameters, double[][] jacobian) {
+      for (int i = 0; i < NB_POINTS; i++) {
+        double arg = parameters[1] * X[i] + parameters[2];
+        jacobian[i][0] = Math.sin(arg);
+        jacobian[i][2] = parameters[0] * Math.cos(arg);
+        jacobian[i][1] = X[i] * jacobian[i][2];
+        jacobian[i][3] = 1d;
+      }
+    }
+  };
+
+  private static final ParameterizedFunction<Double, DoubleArray, Double> PARAM_FUNCTION =
+      new ParameterizedFunction<Double, DoubleArray, Double>() {
+        @Override
+        public Double evaluate(Double x, DoubleArray a) {
+          return a.get(0) * Math.sin(a.get(1) * x + a.get(2)) + a.get(3);
+        }
+
+        @Override
+        public int getNumberOfParameters() {
+          return 4;
+        }
+      };
+
+  private static final ParameterizedFunction<Double, DoubleArray, DoubleArray> PARAM_GRAD =
+      new ParameterizedFunction<Double, DoubleArray, DoubleArray>() {
+        @Override
+        public DoubleArray evaluate(Double x, DoubleArray a) {
+          double arg = a.get(1) * x + a.get(2);
+          double cos = a.get(0) * Math.cos(arg);
+          return DoubleArray.of(Math.sin(arg), x * cos, cos, 1d);
+        }
+
+        @Override
+        public int getNumberOfParameters() {
+          return 4;
+        }
+      };
+
+  //-------------------------------------------------------------------------
+  public void test_solve_exact() {
+    LevenbergMarquardtLeastSquare solver = new LevenbergMarquardtLeastSquare();
+    double[] start = {1.2, 0.8, -0.2, -0.3};
+    LeastSquareResults result = solver.solve(Y, SIGMA, MODEL, start, null);
+    assertEquals(result.getChiSq(), 0d, TOL);
+    assertTrue(result.getFitParameters().equalWithTolerance(DoubleArray.of(1d, 1d, 0d, 0d), TOL));
+    assertEquals(start[0], 1.2); // input not modified
+  }
+
+  public void test_solve_exact_function() {
+    LevenbergMarquardtLeastSquare solver = new LevenbergMarquardtLeastSquare();
+    DoubleArray start = DoubleArray.of(1.2, 0.8, -0.2, -0.3);
+    LeastSquareResults result = solver.solve(
+        DoubleArray.ofUnsafe(X), DoubleArray.ofUnsafe(Y), DoubleArray.ofUnsafe(SIGMA), PARAM_FUNCTION, PARAM_GRAD, start);
+    assertEquals(result.getChiSq(), 0d, TOL);
+    assertTrue(result.getFitParameters().equalWithTolerance(DoubleArray.of(1d, 1d, 0d, 0d), TOL));
+  }
+
+  public void test_solve_noise_compare() {
+    double[] y = new double[NB_POINTS];
+    for (int i = 0; i < NB_POINTS; i++) {
+      y[i] = Y[i] + SIGMA[i] * NORMAL.nextRandom();
+    }
+    DoubleArray start = DoubleArray.of(0.7, 1.4, 0.2, -0.3);
+    LeastSquareResults expected = new NonLinearLeastSquare().solve(
+        DoubleArray.ofUnsafe(X), DoubleArray.ofUnsafe(y), DoubleArray.ofUnsafe(SIGMA), PARAM_FUNCTION, PARAM_GRAD, start);
+    LeastSquareResults computed = new LevenbergMarquardtLeastSquare().solve(y, SIGMA, MODEL, start.toArray(), null);
+    assertEquals(computed.getChiSq(), expected.getChiSq(), 1e-6);
+    assertTrue(computed.getFitParameters().equalWithTolerance(expected.getFitParameters(), 1e-4));
+    assertMatrixEquals(computed.getCovariance(), expected.getCovariance(), 1e-4);
+    assertMatrixEquals(computed.getFittingParameterSensitivityToData(), expected.getFittingParameterSensitivityToData(), 1e-4);
+  }
+
+  public void test_solve_maxJumps() {
+    LevenbergMarquardtLeastSquare solver = new LevenbergMarquardtLeastSquare();
+    double[] start = {1.2, 0.8, -0.2, -0.3};
+    double[] maxJumps = {0.05, 0.05, 0.05, 0.05};
+    LeastSquareResults result = solver.solve(Y, SIGMA, MODEL, start, maxJumps);
+    assertTrue(result.getFitParameters().equalWithTolerance(DoubleArray.of(1d, 1d, 0d, 0d), 1e-6));
+  }
+
+  public void test_solve_insensitiveParameter() {
+    // the last parameter has no effect on the model, so the curvature matrix is singular
+    LevenbergMarquardtLeastSquare.Model insensitive = new LevenbergMarquardtLeastSquare.Model() {
+      @Override
+      public void values(double[] parameters, double[] values) {
+        MODEL.values(parameters, values);
+      }
+
+      @Override
+      public void jacobian(double[] parameters, double[][] jacobian) {
+        MODEL.jacobian(parameters, jacobian);
+        for (int i = 0; i < NB_POINTS; i++) {
+          jacobian[i][4] = 0d;
+        }
+      }
+    };
+    LevenbergMarquardtLeastSquare solver = new LevenbergMarquardtLeastSquare();
+    double[] start = {1.2, 0.8, -0.2, -0.3, 0.5};
+    LeastSquareResults result = solver.solve(Y, SIGMA, insensitive, start, null);
+    assertEquals(result.getChiSq(), 0d, TOL);
+    assertTrue(result.getFitParameters().equalWithTolerance(DoubleArray.of(1d, 1d, 0d, 0d, 0.5), TOL));
+    assertEquals(result.getCovariance().get(4, 4), 0d);
+  }
+
+  public void test_solve_transformed() {
+    ParameterLimitsTransform[] limits = new ParameterLimitsTransform[] {
+        new SingleRangeLimitTransform(0d, LimitType.GREATER_THAN),
+        new DoubleRangeLimitTransform(0d, 2d),
+        new NullTransform(),
+        new NullTransform()};
+    DoubleArray start = DoubleArray.of(1.2, 0.8, -0.2, -0.3);
+    UncoupledParameterTransforms transform = new UncoupledParameterTransforms(start, limits, new BitSet());
+    LevenbergMarquardtLeastSquare.Model model = LevenbergMarquardtLeastSquare.Model.transformed(MODEL, transform);
+    LevenbergMarquardtLeastSquare solver = new LevenbergMarquardtLeastSquare();
+    LeastSquareResults computed = solver.solve(Y, SIGMA, model, transform.transform(start).toArray(), null);
+    assertEquals(computed.getChiSq(), 0d, TOL);
+    assertTrue(transform.inverseTransform(computed.getFitParameters())
+        .equalWithTolerance(DoubleArray.of(1d, 1d, 0d, 0d), TOL));
+    // same as the function based transform
+    double[][] modelJacobian = new double[NB_POINTS][4];
+    NonLinearTransformFunction function = new NonLinearTransformFunction(
+        x -> {
+          double[] values = new double[NB_POINTS];
+          MODEL.values(x.toArray(), values);
+          return DoubleArray.ofUnsafe(values);
+        },
+        x -> {
+          double[][] values = new double[NB_POINTS][4];
+          MODEL.jacobian(x.toArray(), values);
+          return DoubleMatrix.ofUnsafe(values);
+        },
+        transform);
+    DoubleArray fitting = transform.transform(start);
+    model.jacobian(fitting.toArray(), modelJacobian);
+    DoubleMatrix expected = function.getFittingJacobian().apply(fitting);
+    assertMatrixEquals(DoubleMatrix.ofUnsafe(modelJacobian), expected, 1e-12);
+  }
+
+  public void test_transformed_fixedParameter() {
+    ParameterLimitsTransform[] limits = new ParameterLimitsTransform[] {
+        new SingleRangeLimitTransform(0d, LimitType.GREATER_THAN),
+        new DoubleRangeLimitTransform(0d, 2d),
+        new NullTransform(),
+        new NullTransform()};
+    DoubleArray start = DoubleArray.of(1.2, 0.8, -0.2, -0.3);
+    BitSet fixed = new BitSet();
+    fixed.set(1);
+    UncoupledParameterTransforms transform = new UncoupledParameterTransforms(start, limits, fixed);
+    LevenbergMarquardtLeastSquare.Model model = LevenbergMarquardtLeastSquare.Model.transformed(MODEL, transform);
+    DoubleArray fitting = DoubleArray.of(0.3, 0.1, -0.4);
+    double[] values = new double[NB_POINTS];
+    double[][] jacobian = new double[NB_POINTS][3];
+    model.values(fitting.toArray(), values);
+    model.jacobian(fitting.toArray(), jacobian);
+    // expected from the model parameters and the dense inverse Jacobian of the transform
+    double[] modelParameters = transform.inverseTransform(fitting).toArray();
+    double[] expectedValues = new double[NB_POINTS];
+    double[][] modelJacobian = new double[NB_POINTS][4];
+    MODEL.values(modelParameters, expectedValues);
+    MODEL.jacobian(modelParameters, modelJacobian);
+    DoubleMatrix inverseJacobian = transform.inverseJacobian(fitting);
+    DoubleMatrix expectedJacobian = DoubleMatrix.of(NB_POINTS, 3, (i, j) -> {
+      double sum = 0d;
+      for (int k = 0; k < 4; k++) {
+        sum += modelJacobian[i][k] * inverseJacobian.get(k, j);
+      }
+      return sum;
+    });
+    assertTrue(DoubleArray.ofUnsafe(values).equalWithTolerance(DoubleArray.ofUnsafe(expectedValues), 1e-14));
+    assertMatrixEquals(DoubleMatrix.ofUnsafe(jacobian), expectedJacobian, 1e-14);
+  }
+
+  // the arrays passed to the model are the work arrays of the solver and of the transformed model,
+  // allocated once per solve and reused by every evaluation
+  public void test_solve_workArraysReused() {
+    ParameterLimitsTransform[] limits = new ParameterLimitsTransform[] {
+        new SingleRangeLimitTransform(0d, LimitType.GREATER_THAN),
+        new DoubleRangeLimitTransform(0d, 2d),
+        new NullTransform(),
+        new NullTransform()};
+    DoubleArray start = DoubleArray.of(1.2, 0.8, -0.2, -0.3);
+    UncoupledParameterTransforms transform = new UncoupledParameterTransforms(start, limits, new BitSet());
+    Set<Object> parameterArrays = Collections.newSetFromMap(new IdentityHashMap<>());
+    Set<Object> valueArrays = Collections.newSetFromMap(new IdentityHashMap<>());
+    Set<Object> jacobianArrays = Collections.newSetFromMap(new IdentityHashMap<>());
+    int[] calls = new int[1];
+    LevenbergMarquardtLeastSquare.Model recording = new LevenbergMarquardtLeastSquare.Model() {
+      @Override
+      public void values(double[] parameters, double[] values) {
+        calls[0]++;
+        parameterArrays.add(parameters);
+        valueArrays.add(values);
+        MODEL.values(parameters, values);
+      }
+
+      @Override
+      public void jacobian(double[] parameters, double[][] jacobian) {
+        calls[0]++;
+        parameterArrays.add(parameters);
+        jacobianArrays.add(jacobian);
+        MODEL.jacobian(parameters, jacobian);
+      }
+
+      @Override
+      public boolean isAllowed(double[] parameters) {
+        parameterArrays.add(parameters);
+        return true;
+      }
+    };
+    LevenbergMarquardtLeastSquare.Model model = LevenbergMarquardtLeastSquare.Model.transformed(recording, transform);
+    LevenbergMarquardtLeastSquare solver = new LevenbergMarquardtLeastSquare();
+    solver.solve(Y, SIGMA, model, transform.transform(start).toArray(), null);
+    assertTrue(calls[0] > 4);
+    assertEquals(parameterArrays.size(), 1);
+    assertEquals(valueArrays.size(), 1);
+    assertEquals(jacobianArrays.size(), 1);
+  }
+
+  public void test_solve_invalid() {
+    LevenbergMarquardtLeastSquare solver = new LevenbergMarquardtLeastSquare();
+    assertThrowsIllegalArg(() -> solver.solve(Y, new double[2], MODEL, new double[4], null));
+    assertThrowsIllegalArg(() -> solver.solve(new double[2], new double[2], MODEL, new double[4], null));
+    assertThrowsIllegalArg(() -> solver.solve(Y, SIGMA, MODEL, new double[4], new double[2]));
+    LevenbergMarquardtLeastSquare.Model constrained = new LevenbergMarquardtLeastSquare.Model() {
+      @Override
+      public void values(double[] parameters, double[] values) {
+        MODEL.values(parameters, values);
+      }
+
+      @Override
+      public void jacobian(double[] parameters, double[][] jacobian) {
+        MODEL.jacobian(parameters, jacobian);
+      }
+
+      @Override
+      public boolean isAllowed(double[] parameters) {
+        return parameters[0] > 0d;
+      }
+    };
+    assertThrowsIllegalArg(() -> solver.solve(Y, SIGMA, constrained, new double[] {-1d, 1d, 0d, 0d}, null));
+    assertThrowsIllegalArg(() -> solver.solve(
+        DoubleArray.ofUnsafe(Y), DoubleArray.ofUnsafe(SIGMA), x -> DoubleArray.filled(2), x -> DoubleMatrix.filled(2, 4),
+        DoubleArray.filled(4)));
+  }
+
+  //-------------------------------------------------------------------------
+  private void assertMatrixEquals(DoubleMatrix computed, DoubleMatrix expected, double tolerance) {
+    assertEquals(computed.rowCount(), expected.rowCount());
+    for (int i = 0; i < expected.rowCount(); i++) {
+      assertTrue(computed.row(i).equalWithTolerance(expected.row(i), tolerance));
+    }
+  }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.Resolvable;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.calc.runner.CalculationParameter;
+import com.opengamma.strata.calc.runner.CalculationParameters;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.product.AttributeType;
+import com.opengamma.strata.product.PortfolioItem;
+
+/**
+ * A bounded cache of resolved trades and positions that can be shared between calculation runs.
+ * <p>
+ * Resolving a trade builds the schedules, applies the holiday calendars and creates the rate
+ * computations of the product. When the same portfolio is valued repeatedly, such as intraday,
+ * this work can be performed once and the resolved form reused.
+ * <p>
+ * Entries are held separately for each {@code ReferenceData} instance, compared by identity.
+ * Within that, they are keyed by the type of the trade or position, its identifier and its version.
+ * The version is the {@link AttributeType#VERSION} attribute.
+ * If there is no version, a cached entry is only used if the trade or position is equal to the one
+ * that was originally resolved. Trades and positions without an identifier are not cached.
+ * Supplying a new {@code ReferenceData} instance, for example after a holiday calendar change,
+ * causes the trades to be resolved again. The reference data is only weakly referenced, so the entries
+ * resolved against an instance that is no longer in use are discarded.
+ * <p>
+ * The standard calculation functions use the cache when it is available as a calculation parameter.
+ * See {@link #resolve(PortfolioItem, CalculationParameters, ReferenceData)}.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class ResolvedTradeCache implements CalculationParameter {
+
+  /**
+   * The maximum number of entries for each reference data instance.
+   */
+  private final int maximumSize;
+  /**
+   * The underlying caches, keyed by the identity of the reference data.
+   */
+  private final Cache<ReferenceData, Cache<Key, Entry>> caches;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance holding at most the specified number of resolved trades.
+   * <p>
+   * The limit applies separately to each reference data instance.
+   * When the limit is reached, the least recently used entries are evicted.
+   *
+   * @param maximumSize  the maximum number of entries
+   * @return the cache
+   */
+  public static ResolvedTradeCache of(int maximumSize) {
+    ArgChecker.notNegativeOrZero(maximumSize, "maximumSize");
+    return new ResolvedTradeCache(maximumSize);
+  }
+
+  // restricted constructor
+  private ResolvedTradeCache(int maximumSize) {
+    this.maximumSize = maximumSize;
+    this.caches = CacheBuilder.newBuilder()
+        .weakKeys()
+        .build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Resolves the target, using the cache in the parameters if available.
+   * <p>
+   * If the parameters contain a {@code ResolvedTradeCache}, it is used to resolve the target.
+   * Otherwise, the target is resolved directly.
+   *
+   * @param <T>  the type of the target
+   * @param <R>  the type of the resolved target
+   * @param target  the trade or position to resolve
+   * @param parameters  the calculation parameters
+   * @param refData  the reference data to use when resolving
+   * @return the resolved target
+   */
+  public static <T extends PortfolioItem & Resolvable<R>, R> R resolve(
+      T target,
+      CalculationParameters parameters,
+      ReferenceData refData) {
+
+    Optional<ResolvedTradeCache> cache = parameters.findParameter(ResolvedTradeCache.class);
+    return cache.isPresent() ? cache.get().resolve(target, refData) : target.resolve(refData);
+  }
+
+  /**
+   * Resolves the target, returning the cached resolved form if available.
+   *
+   * @param <T>  the type of the target
+   * @param <R>  the type of the resolved target
+   * @param target  the trade or position to resolve
+   * @param refData  the reference data to use when resolving
+   * @return the resolved target
+   */
+  public <T extends PortfolioItem & Resolvable<R>, R> R resolve(T target, ReferenceData refData) {
+    Optional<StandardId> id = target.getId();
+    if (!id.isPresent()) {
+      return target.resolve(refData);
+    }
+    Optional<String> version = target.getInfo().findAttribute(AttributeType.VERSION);
+    Cache<Key, Entry> cache = cache(refData);
+    Key key = new Key(target.getClass(), id.get(), version.orElse(null));
+    Entry entry = cache.getIfPresent(key);
+    if (entry != null && (version.isPresent() || entry.target.equals(target))) {
+      // the key includes the type of the target, so the resolved form has the expected type
+      @SuppressWarnings("unchecked")
+      R resolved = (R) entry.resolved;
+      return resolved;
+    }
+    R resolved = target.resolve(refData);
+    cache.put(key, new Entry(target, resolved));
+    return resolved;
+  }
+
+  // finds the cache for the reference data, weak keys are compared by identity
+  private Cache<Key, Entry> cache(ReferenceData refData) {
+    try {
+      return caches.get(refData, () -> CacheBuilder.newBuilder()
+          .maximumSize(maximumSize)
+          .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+          .build());
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the approximate number of entries in the cache.
+   *
+   * @return the number of entries
+   */
+  public long size() {
+    return caches.asMap().values().stream().mapToLong(Cache::size).sum();
+  }
+
+  /**
+   * Removes all entries from the cache.
+   */
+  public void clear() {
+    caches.invalidateAll();
+  }
+
+  @Override
+  public String toString() {
+    return "ResolvedTradeCache[size=" + size() + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  // the cache key within a single reference data instance
+  private static final class Key {
+    private final Class<?> type;
+    private final StandardId id;
+    private final String version;
+
+    private Key(Class<?> type, StandardId id, String version) {
+      this.type = type;
+      this.id = id;
+      this.version = version;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (obj instanceof Key) {
+        Key other = (Key) obj;
+        return type == other.type && id.equals(other.id) && Objects.equals(version, other.version);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return (type.hashCode() * 31 + id.hashCode()) * 31 + Objects.hashCode(version);
+    }
+  }
+
+  // the cache entry, retaining the target to validate unversioned entries
+  private static final class Entry {
+    private final Object target;
+    private final Object resolved;
+
+    private Entry(Object target, Object resolved) {
+      this.target = target;
+      this.resolved = resolved;
+    }
+  }
+
+}
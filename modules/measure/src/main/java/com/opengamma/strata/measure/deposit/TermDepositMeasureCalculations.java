@@ -5,6 +5,8 @@
  */
 package com.opengamma.strata.measure.deposit;
 
+import java.util.Optional;
+
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.collect.ArgChecker;
@@ -15,6 +17,7 @@ import com.opengamma.strata.data.scenario.ScenarioArray;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.measure.rate.RatesScenarioMarketData;
+import com.opengamma.strata.pricer.LinearScenarioCashFlows;
 import com.opengamma.strata.pricer.deposit.DiscountingTermDepositTradePricer;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.sensitivity.MarketQuoteSensitivityCalculator;
@@ -62,6 +65,13 @@ final class TermDepositMeasureCalculations {
       ResolvedTermDepositTrade trade,
       RatesScenarioMarketData marketData) {
 
+    // the deposit cash flows are projected once and then priced in bulk
+    if (tradePricer == DiscountingTermDepositTradePricer.DEFAULT) {
+      Optional<LinearScenarioCashFlows> cashFlows = LinearScenarioCashFlows.of(trade.getProduct());
+      if (cashFlows.isPresent()) {
+        return cashFlows.get().presentValue(marketData.getScenarioCount(), i -> marketData.scenario(i).ratesProvider());
+      }
+    }
     return CurrencyScenarioArray.of(
         marketData.getScenarioCount(),
         i -> presentValue(trade, marketData.scenario(i).ratesProvider()));
@@ -7,6 +7,7 @@ package com.opengamma.strata.measure.fra;
 
 import static com.opengamma.strata.collect.Guavate.toImmutableSet;
 
+import java.util.Optional;
 import java.util.Set;
 
 import com.google.common.collect.ImmutableSet;
@@ -34,6 +35,7 @@ import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.measure.rate.RatesMarketData;
 import com.opengamma.strata.measure.rate.RatesScenarioMarketData;
+import com.opengamma.strata.pricer.LinearScenarioCashFlows;
 import com.opengamma.strata.pricer.fra.DiscountingFraTradePricer;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.sensitivity.CurveGammaCalculator;
@@ -86,6 +88,13 @@ final class FraMeasureCalculations {
       ResolvedFraTrade trade,
       RatesScenarioMarketData marketData) {
 
+    // FRAs with an Ibor index are projected once and then priced in bulk
+    if (tradePricer == DiscountingFraTradePricer.DEFAULT) {
+      Optional<LinearScenarioCashFlows> cashFlows = LinearScenarioCashFlows.of(trade.getProduct());
+      if (cashFlows.isPresent()) {
+        return cashFlows.get().presentValue(marketData.getScenarioCount(), i -> marketData.scenario(i).ratesProvider());
+      }
+    }
     return CurrencyScenarioArray.of(
         marketData.getScenarioCount(),
         i -> presentValue(trade, marketData.scenario(i).ratesProvider()));
@@ -14,6 +14,7 @@ import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import org.joda.beans.ImmutableBean;
@@ -63,6 +64,10 @@ import com.opengamma.strata.pricer.rate.RatesProvider;
  * A rates provider based on a rates lookup.
  * <p>
  * This uses a {@link DefaultRatesMarketDataLookup} to provide a view on {@link MarketData}.
+ * <p>
+ * An instance is created for each scenario and shared by all the trades priced against it.
+ * The discount factors, index rates and price index values are created once for each currency
+ * or index on first use and then reused.
  */
 @BeanDefinition(style = "light")
 final class DefaultLookupRatesProvider
@@ -82,6 +87,22 @@ final class DefaultLookupRatesProvider
    * The FX rate provider.
    */
   private final transient FxRateProvider fxRateProvider;  // derived
+  /**
+   * The discount factors, keyed by currency.
+   */
+  private final transient Map<Currency, DiscountFactors> discountFactors;  // derived
+  /**
+   * The Ibor index rates, keyed by index.
+   */
+  private final transient Map<IborIndex, IborIndexRates> iborIndexRates;  // derived
+  /**
+   * The Overnight index rates, keyed by index.
+   */
+  private final transient Map<OvernightIndex, OvernightIndexRates> overnightIndexRates;  // derived
+  /**
+   * The price index values, keyed by index.
+   */
+  private final transient Map<PriceIndex, PriceIndexValues> priceIndexValues;  // derived
 
   //-------------------------------------------------------------------------
   /**
@@ -103,6 +124,10 @@ final class DefaultLookupRatesProvider
     this.lookup = ArgChecker.notNull(lookup, "lookup");
     this.marketData = ArgChecker.notNull(marketData, "marketData");
     this.fxRateProvider = lookup.fxRateProvider(marketData);
+    this.discountFactors = new ConcurrentHashMap<>();
+    this.iborIndexRates = new ConcurrentHashMap<>();
+    this.overnightIndexRates = new ConcurrentHashMap<>();
+    this.priceIndexValues = new ConcurrentHashMap<>();
   }
 
   // ensure standard constructor is invoked
@@ -180,6 +205,11 @@ final class DefaultLookupRatesProvider
   //-------------------------------------------------------------------------
   @Override
   public DiscountFactors discountFactors(Currency currency) {
+    return discountFactors.computeIfAbsent(currency, this::createDiscountFactors);
+  }
+
+  // creates the discount factors, not cached if the curve is not found
+  private DiscountFactors createDiscountFactors(Currency currency) {
     CurveId curveId = lookup.getDiscountCurves().get(currency);
     if (curveId == null) {
       throw new MarketDataNotFoundException(lookup.msgCurrencyNotFound(currency));
@@ -208,6 +238,11 @@ final class DefaultLookupRatesProvider
   //-------------------------------------------------------------------------
   @Override
   public IborIndexRates iborIndexRates(IborIndex index) {
+    return iborIndexRates.computeIfAbsent(index, this::createIborIndexRates);
+  }
+
+  // creates the Ibor index rates, not cached if the curve is not found
+  private IborIndexRates createIborIndexRates(IborIndex index) {
     CurveId curveId = lookup.getForwardCurves().get(index);
     if (curveId == null) {
       return historicCurve(index);
@@ -227,6 +262,11 @@ final class DefaultLookupRatesProvider
   //-------------------------------------------------------------------------
   @Override
   public OvernightIndexRates overnightIndexRates(OvernightIndex index) {
+    return overnightIndexRates.computeIfAbsent(index, this::createOvernightIndexRates);
+  }
+
+  // creates the Overnight index rates, not cached if the curve is not found
+  private OvernightIndexRates createOvernightIndexRates(OvernightIndex index) {
     CurveId curveId = lookup.getForwardCurves().get(index);
     if (curveId == null) {
       return historicCurve(index);
@@ -246,6 +286,11 @@ final class DefaultLookupRatesProvider
   //-------------------------------------------------------------------------
   @Override
   public PriceIndexValues priceIndexValues(PriceIndex index) {
+    return priceIndexValues.computeIfAbsent(index, this::createPriceIndexValues);
+  }
+
+  // creates the price index values, not cached if the curve is not found
+  private PriceIndexValues createPriceIndexValues(PriceIndex index) {
     CurveId curveId = lookup.getForwardCurves().get(index);
     if (curveId == null) {
       return historicCurve(index);
@@ -32,6 +32,7 @@ import com.opengamma.strata.calc.CalculationRules;
 import com.opengamma.strata.calc.runner.CalculationParameter;
 import com.opengamma.strata.calc.runner.FunctionRequirements;
 import com.opengamma.strata.calc.runner.FxRateLookup;
+import com.opengamma.strata.calc.runner.RunScopedMarketData;
 import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.MarketDataId;
@@ -176,6 +177,22 @@ final class DefaultRatesMarketDataLookup
   }
 
   //-------------------------------------------------------------------------
+  /**
+   * Obtains a filtered view of the complete set of market data.
+   * <p>
+   * During a calculation run, the view is shared by all the targets of the run using {@link RunScopedMarketData}.
+   * This allows the rates provider of each scenario, and the discount factors and index rates it creates,
+   * to be shared by all the targets priced against that scenario. The view is discarded with the run.
+   *
+   * @param marketData  the complete set of market data for all scenarios
+   * @return the filtered market data
+   */
+  @Override
+  public RatesScenarioMarketData marketDataView(ScenarioMarketData marketData) {
+    return RunScopedMarketData.computeIfAbsent(
+        marketData, this, lookup -> DefaultRatesScenarioMarketData.of(lookup, marketData));
+  }
+
   @Override
   public RatesProvider ratesProvider(MarketData marketData) {
     return DefaultLookupRatesProvider.of(this, marketData);
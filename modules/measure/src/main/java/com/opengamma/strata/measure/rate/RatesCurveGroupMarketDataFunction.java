@@ -6,13 +6,16 @@
 package com.opengamma.strata.measure.rate;
 
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.marketdata.MarketDataConfig;
 import com.opengamma.strata.calc.marketdata.MarketDataFunction;
@@ -27,8 +30,10 @@ import com.opengamma.strata.data.ObservableId;
 import com.opengamma.strata.data.ObservableSource;
 import com.opengamma.strata.data.scenario.MarketDataBox;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
+import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveDefinition;
 import com.opengamma.strata.market.curve.CurveGroupName;
+import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.RatesCurveGroup;
 import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
 import com.opengamma.strata.market.curve.RatesCurveGroupId;
@@ -44,6 +49,11 @@ import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
  * Market data function that builds a curve group.
  * <p>
  * This function calibrates curves, turning a {@link RatesCurveGroupDefinition} into a {@link RatesCurveGroup}.
+ * <p>
+ * When the market data contains multiple scenarios, one curve group is calibrated for each scenario.
+ * By default, the scenarios are calibrated one after the other.
+ * If parallel scenario calibration is enabled, the first scenario, typically the base scenario, is calibrated first.
+ * The other scenarios are then calibrated in parallel, each root-finding starting from the curves of the first scenario.
  */
 public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<RatesCurveGroup, RatesCurveGroupId> {
 
@@ -51,6 +61,10 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
    * The default analytics object that performs the curve calibration.
    */
   private final CalibrationMeasures calibrationMeasures;
+  /**
+   * Whether the scenarios are calibrated in parallel.
+   */
+  private final boolean parallelScenarios;
 
   //-------------------------------------------------------------------------
   /**
@@ -73,7 +87,25 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
    * @param calibrationMeasures  the calibration measures to be used in the calibrator
    */
   public RatesCurveGroupMarketDataFunction(CalibrationMeasures calibrationMeasures) {
+    this(calibrationMeasures, false);
+  }
+
+  /**
+   * Creates a new function for building curve groups, specifying whether the scenarios are calibrated in parallel.
+   * <p>
+   * The default calibrator is specified. The {@link MarketDataConfig} may contain a
+   * {@link RootFinderConfig} that alters the tolerances used in calibration.
+   * <p>
+   * If {@code parallelScenarios} is true, the first scenario is calibrated first, then the other scenarios
+   * are calibrated in parallel, starting from the curves of the first scenario.
+   * The parallel calibration uses the common fork-join pool.
+   *
+   * @param calibrationMeasures  the calibration measures to be used in the calibrator
+   * @param parallelScenarios  whether the scenarios are calibrated in parallel
+   */
+  public RatesCurveGroupMarketDataFunction(CalibrationMeasures calibrationMeasures, boolean parallelScenarios) {
     this.calibrationMeasures = ArgChecker.notNull(calibrationMeasures, "calibrationMeasures");
+    this.parallelScenarios = parallelScenarios;
   }
 
   //-------------------------------------------------------------------------
@@ -177,19 +209,65 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
       ReferenceData refData) {
 
     int scenarioCount = scenarioCount(valuationDateBox, inputBoxes);
+    if (parallelScenarios) {
+      return buildMultipleCurveGroupsParallel(
+          configuredGroup, calibrator, valuationDateBox, inputBoxes, fixings, refData, scenarioCount);
+    }
     ImmutableList.Builder<RatesCurveGroup> builder = ImmutableList.builder();
 
     for (int i = 0; i < scenarioCount; i++) {
-      LocalDate valuationDate = valuationDateBox.getValue(i);
-      RatesCurveGroupDefinition filteredGroup = configuredGroup.filtered(valuationDate, refData);
-      List<RatesCurveInputs> curveInputsList = inputsForScenario(inputBoxes, i);
-      MarketData inputs = inputsByKey(valuationDate, curveInputsList, fixings);
-      builder.add(buildGroup(filteredGroup, calibrator, inputs, refData));
+      builder.add(buildScenarioGroup(
+          configuredGroup, calibrator, valuationDateBox, inputBoxes, fixings, refData, i, ImmutableMap.of()));
     }
     ImmutableList<RatesCurveGroup> curveGroups = builder.build();
     return MarketDataBox.ofScenarioValues(curveGroups);
   }
 
+  // calibrates the first scenario, then the others in parallel starting from the curves of the first one
+  private MarketDataBox<RatesCurveGroup> buildMultipleCurveGroupsParallel(
+      RatesCurveGroupDefinition configuredGroup,
+      RatesCurveCalibrator calibrator,
+      MarketDataBox<LocalDate> valuationDateBox,
+      List<MarketDataBox<RatesCurveInputs>> inputBoxes,
+      Map<ObservableId, LocalDateDoubleTimeSeries> fixings,
+      ReferenceData refData,
+      int scenarioCount) {
+
+    RatesCurveGroup baseGroup = buildScenarioGroup(
+        configuredGroup, calibrator, valuationDateBox, inputBoxes, fixings, refData, 0, ImmutableMap.of());
+    Map<CurveName, Curve> startingCurves = baseGroup.stream()
+        .distinct()
+        .collect(toImmutableMap(Curve::getName));
+    List<RatesCurveGroup> otherGroups = IntStream.range(1, scenarioCount)
+        .parallel()
+        .mapToObj(i -> buildScenarioGroup(
+            configuredGroup, calibrator, valuationDateBox, inputBoxes, fixings, refData, i, startingCurves))
+        .collect(toImmutableList());
+    ImmutableList<RatesCurveGroup> curveGroups = ImmutableList.<RatesCurveGroup>builder()
+        .add(baseGroup)
+        .addAll(otherGroups)
+        .build();
+    return MarketDataBox.ofScenarioValues(curveGroups);
+  }
+
+  // calibrates the curve group of one scenario
+  private RatesCurveGroup buildScenarioGroup(
+      RatesCurveGroupDefinition configuredGroup,
+      RatesCurveCalibrator calibrator,
+      MarketDataBox<LocalDate> valuationDateBox,
+      List<MarketDataBox<RatesCurveInputs>> inputBoxes,
+      Map<ObservableId, LocalDateDoubleTimeSeries> fixings,
+      ReferenceData refData,
+      int scenarioIndex,
+      Map<CurveName, Curve> startingCurves) {
+
+    LocalDate valuationDate = valuationDateBox.getValue(scenarioIndex);
+    RatesCurveGroupDefinition filteredGroup = configuredGroup.filtered(valuationDate, refData);
+    List<RatesCurveInputs> curveInputsList = inputsForScenario(inputBoxes, scenarioIndex);
+    MarketData inputs = inputsByKey(valuationDate, curveInputsList, fixings);
+    return buildGroup(filteredGroup, calibrator, inputs, refData, startingCurves);
+  }
+
   private static List<RatesCurveInputs> inputsForScenario(List<MarketDataBox<RatesCurveInputs>> boxes, int scenarioIndex) {
     return boxes.stream()
         .map(box -> box.getValue(scenarioIndex))
@@ -208,7 +286,7 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
     RatesCurveGroupDefinition filteredGroup = configuredGroup.filtered(valuationDate, refData);
     List<RatesCurveInputs> inputs = inputBoxes.stream().map(MarketDataBox::getSingleValue).collect(toImmutableList());
     MarketData inputValues = inputsByKey(valuationDate, inputs, fixings);
-    RatesCurveGroup curveGroup = buildGroup(filteredGroup, calibrator, inputValues, refData);
+    RatesCurveGroup curveGroup = buildGroup(filteredGroup, calibrator, inputValues, refData, ImmutableMap.of());
     return MarketDataBox.ofSingleValue(curveGroup);
   }
 
@@ -253,13 +331,15 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
       RatesCurveGroupDefinition groupDefn,
       RatesCurveCalibrator calibrator,
       MarketData marketData,
-      ReferenceData refData) {
+      ReferenceData refData,
+      Map<CurveName, Curve> startingCurves) {
 
     // perform the calibration
     ImmutableRatesProvider calibratedProvider = calibrator.calibrate(
         groupDefn,
         marketData,
-        refData);
+        refData,
+        startingCurves);
 
     return RatesCurveGroup.of(
         groupDefn.getName(),
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure;
+
+import static com.opengamma.strata.basics.index.IborIndices.GBP_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.ImmutableReferenceData;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.calc.runner.CalculationParameters;
+import com.opengamma.strata.product.AttributeType;
+import com.opengamma.strata.product.TradeInfo;
+import com.opengamma.strata.product.deposit.ResolvedTermDepositTrade;
+import com.opengamma.strata.product.deposit.TermDepositTrade;
+import com.opengamma.strata.product.deposit.type.TermDepositConventions;
+import com.opengamma.strata.product.deposit.type.TermDepositTemplate;
+import com.opengamma.strata.product.fra.FraTrade;
+import com.opengamma.strata.product.fra.ResolvedFraTrade;
+import com.opengamma.strata.product.fra.type.FraTemplate;
+
+/**
+ * Test {@link ResolvedTradeCache}.
+ */
+@Test
+public class ResolvedTradeCacheTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate TRADE_DATE = LocalDate.of(2018, 6, 12);
+  private static final StandardId ID = StandardId.of("OG", "123");
+  private static final FraTrade TRADE = FraTemplate.of(Period.ofMonths(3), GBP_LIBOR_3M)
+      .createTrade(TRADE_DATE, BUY, 1_000_000d, 0.015, REF_DATA)
+      .withInfo(TradeInfo.builder().id(ID).tradeDate(TRADE_DATE).build());
+  private static final FraTrade TRADE_VERSIONED =
+      TRADE.withInfo(TRADE.getInfo().withAttribute(AttributeType.VERSION, "1"));
+
+  //-------------------------------------------------------------------------
+  public void test_of_invalid() {
+    assertThrowsIllegalArg(() -> ResolvedTradeCache.of(0));
+  }
+
+  public void test_resolve_cached() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(10);
+    ResolvedFraTrade resolved = test.resolve(TRADE, REF_DATA);
+    assertThat(resolved).isEqualTo(TRADE.resolve(REF_DATA));
+    assertThat(test.resolve(TRADE, REF_DATA)).isSameAs(resolved);
+    assertThat(test.size()).isEqualTo(1);
+    test.clear();
+    assertThat(test.size()).isEqualTo(0);
+    assertThat(test.resolve(TRADE, REF_DATA)).isNotSameAs(resolved);
+  }
+
+  public void test_resolve_noId() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(10);
+    FraTrade trade = TRADE.withInfo(TradeInfo.of(TRADE_DATE));
+    assertThat(test.resolve(trade, REF_DATA)).isEqualTo(trade.resolve(REF_DATA));
+    assertThat(test.size()).isEqualTo(0);
+  }
+
+  public void test_resolve_amendedUnversioned() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(10);
+    ResolvedFraTrade resolved = test.resolve(TRADE, REF_DATA);
+    FraTrade amended = TRADE.toBuilder().product(TRADE.getProduct().toBuilder().fixedRate(0.02).build()).build();
+    ResolvedFraTrade resolvedAmended = test.resolve(amended, REF_DATA);
+    assertThat(resolvedAmended).isNotEqualTo(resolved);
+    assertThat(resolvedAmended.getProduct().getFixedRate()).isEqualTo(0.02);
+  }
+
+  public void test_resolve_versioned() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(10);
+    ResolvedFraTrade resolved = test.resolve(TRADE_VERSIONED, REF_DATA);
+    // the version is trusted, so an equal version returns the cached entry
+    FraTrade sameVersion = TRADE_VERSIONED.toBuilder()
+        .product(TRADE.getProduct().toBuilder().fixedRate(0.02).build())
+        .build();
+    assertThat(test.resolve(sameVersion, REF_DATA)).isSameAs(resolved);
+    FraTrade newVersion = sameVersion.withInfo(TRADE.getInfo().withAttribute(AttributeType.VERSION, "2"));
+    assertThat(test.resolve(newVersion, REF_DATA).getProduct().getFixedRate()).isEqualTo(0.02);
+    assertThat(test.size()).isEqualTo(2);
+  }
+
+  public void test_resolve_referenceDataIdentity() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(10);
+    ResolvedFraTrade resolved = test.resolve(TRADE, REF_DATA);
+    ReferenceData otherRefData = ImmutableReferenceData.empty().combinedWith(REF_DATA);
+    assertThat(test.resolve(TRADE, otherRefData)).isNotSameAs(resolved);
+    assertThat(test.size()).isEqualTo(2);
+  }
+
+  public void test_resolve_sameIdDifferentType() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(10);
+    TermDepositTrade deposit = TermDepositTemplate.of(Period.ofMonths(3), TermDepositConventions.GBP_SHORT_DEPOSIT_T0)
+        .createTrade(TRADE_DATE, BUY, 1_000_000d, 0.015, REF_DATA)
+        .withInfo(TRADE.getInfo());
+    ResolvedFraTrade resolvedFra = test.resolve(TRADE, REF_DATA);
+    ResolvedTermDepositTrade resolvedDeposit = test.resolve(deposit, REF_DATA);
+    assertThat(resolvedDeposit).isEqualTo(deposit.resolve(REF_DATA));
+    assertThat(test.resolve(TRADE, REF_DATA)).isSameAs(resolvedFra);
+    assertThat(test.resolve(deposit, REF_DATA)).isSameAs(resolvedDeposit);
+    assertThat(test.size()).isEqualTo(2);
+  }
+
+  public void test_resolve_bounded() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(2);
+    for (int i = 0; i < 5; i++) {
+      test.resolve(TRADE.withInfo(TradeInfo.of(TRADE_DATE).withId(StandardId.of("OG", "T" + i))), REF_DATA);
+    }
+    assertThat(test.size()).isEqualTo(2);
+  }
+
+  public void test_resolve_parameters() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(10);
+    ResolvedFraTrade resolved = ResolvedTradeCache.resolve(TRADE, CalculationParameters.of(test), REF_DATA);
+    assertThat(test.resolve(TRADE, REF_DATA)).isSameAs(resolved);
+    assertThat(ResolvedTradeCache.resolve(TRADE, CalculationParameters.empty(), REF_DATA)).isNotSameAs(resolved);
+    assertThat(test.toString()).isEqualTo("ResolvedTradeCache[size=1]");
+  }
+
+}
@@ -15,6 +15,7 @@ import static org.assertj.core.api.Assertions.offset;
 
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -63,6 +64,7 @@ import com.opengamma.strata.market.observable.IndexQuoteId;
 import com.opengamma.strata.market.observable.QuoteId;
 import com.opengamma.strata.market.param.ParameterMetadata;
 import com.opengamma.strata.measure.curve.TestMarketDataMap;
+import com.opengamma.strata.pricer.curve.CalibrationMeasures;
 import com.opengamma.strata.pricer.curve.RatesCurveCalibrator;
 import com.opengamma.strata.pricer.fra.DiscountingFraTradePricer;
 import com.opengamma.strata.pricer.rate.RatesProvider;
@@ -186,6 +188,54 @@ public class RatesCurveGroupMarketDataFunctionTest {
     checkSwapPvIsZero((FixedIborSwapCurveNode) nodes.get(4), ratesProvider, marketData);
   }
 
+  /**
+   * Tests that calibrating the scenarios in parallel gives the same curves as calibrating them sequentially.
+   */
+  public void parallelScenarios() {
+    CurveGroupName groupName = CurveGroupName.of("Curve Group");
+    InterpolatedNodalCurveDefinition curveDefn = CurveTestUtils.fraSwapCurveDefinition();
+    CurveName curveName = curveDefn.getName();
+    List<CurveNode> nodes = curveDefn.getNodes();
+
+    RatesCurveGroupDefinition groupDefn = RatesCurveGroupDefinition.builder()
+        .name(groupName)
+        .addCurve(curveDefn, Currency.USD, IborIndices.USD_LIBOR_3M)
+        .build();
+
+    double[] rates = {0.0037, 0.0054, 0.005, 0.0087, 0.012};
+    int scenarioCount = 5;
+    List<RatesCurveInputs> scenarioInputs = new ArrayList<>();
+    for (int i = 0; i < scenarioCount; i++) {
+      ImmutableMap.Builder<MarketDataId<?>, Double> inputData = ImmutableMap.builder();
+      for (int j = 0; j < nodes.size(); j++) {
+        inputData.put(CurveTestUtils.key(nodes.get(j)), rates[j] + i * 0.0005);
+      }
+      scenarioInputs.add(RatesCurveInputs.of(inputData.build(), DefaultCurveMetadata.of(curveName)));
+    }
+    LocalDate valuationDate = date(2011, 3, 8);
+    ScenarioMarketData inputMarketData = ImmutableScenarioMarketData.builder(valuationDate)
+        .addScenarioValue(RatesCurveInputsId.of(groupName, curveName, ObservableSource.NONE), scenarioInputs)
+        .build();
+
+    RatesCurveGroupMarketDataFunction sequential = new RatesCurveGroupMarketDataFunction();
+    RatesCurveGroupMarketDataFunction parallel =
+        new RatesCurveGroupMarketDataFunction(CalibrationMeasures.PAR_SPREAD, true);
+    MarketDataBox<RatesCurveGroup> expected =
+        sequential.buildCurveGroup(groupDefn, CALIBRATOR, inputMarketData, REF_DATA, ObservableSource.NONE);
+    MarketDataBox<RatesCurveGroup> computed =
+        parallel.buildCurveGroup(groupDefn, CALIBRATOR, inputMarketData, REF_DATA, ObservableSource.NONE);
+
+    assertThat(computed.getScenarioCount()).isEqualTo(scenarioCount);
+    for (int i = 0; i < scenarioCount; i++) {
+      Curve expectedCurve = expected.getValue(i).findDiscountCurve(Currency.USD).get();
+      Curve computedCurve = computed.getValue(i).findDiscountCurve(Currency.USD).get();
+      assertThat(computedCurve.getName()).isEqualTo(curveName);
+      for (int j = 0; j < expectedCurve.getParameterCount(); j++) {
+        assertThat(computedCurve.getParameter(j)).isCloseTo(expectedCurve.getParameter(j), offset(1e-10));
+      }
+    }
+  }
+
   /**
    * Tests that par rates and ibor index are required for curves.
    */
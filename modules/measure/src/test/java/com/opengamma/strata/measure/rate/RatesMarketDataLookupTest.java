@@ -23,25 +23,43 @@ import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static org.mockito.Mockito.mock;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 
+import java.lang.ref.WeakReference;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.joda.beans.ImmutableBean;
 import org.joda.beans.ser.JodaBeanSer;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.FxRate;
 import com.opengamma.strata.basics.currency.FxRateProvider;
 import com.opengamma.strata.basics.index.IborIndex;
 import com.opengamma.strata.basics.index.Index;
 import com.opengamma.strata.basics.index.OvernightIndex;
+import com.opengamma.strata.calc.CalculationRules;
+import com.opengamma.strata.calc.CalculationRunner;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.ReportingCurrency;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.runner.CalculationFunction;
+import com.opengamma.strata.calc.runner.CalculationFunctions;
+import com.opengamma.strata.calc.runner.CalculationParameters;
 import com.opengamma.strata.calc.runner.FunctionRequirements;
 import com.opengamma.strata.calc.runner.FxRateLookup;
+import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.data.FxRateId;
 import com.opengamma.strata.data.ImmutableMarketData;
@@ -50,6 +68,7 @@ import com.opengamma.strata.data.MarketDataFxRateProvider;
 import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.MarketDataNotFoundException;
 import com.opengamma.strata.data.ObservableSource;
+import com.opengamma.strata.data.scenario.ScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 import com.opengamma.strata.market.curve.ConstantCurve;
 import com.opengamma.strata.market.curve.Curve;
@@ -58,7 +77,9 @@ import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.Curves;
 import com.opengamma.strata.market.curve.RatesCurveGroup;
 import com.opengamma.strata.market.observable.IndexQuoteId;
+import com.opengamma.strata.measure.Measures;
 import com.opengamma.strata.measure.curve.TestMarketDataMap;
+import com.opengamma.strata.pricer.DiscountFactors;
 import com.opengamma.strata.pricer.SimpleDiscountFactors;
 import com.opengamma.strata.pricer.rate.DiscountIborIndexRates;
 import com.opengamma.strata.pricer.rate.DiscountOvernightIndexRates;
@@ -78,6 +99,7 @@ public class RatesMarketDataLookupTest {
   private static final ObservableSource OBS_SOURCE = ObservableSource.of("Vendor");
   private static final MarketData MOCK_MARKET_DATA = mock(MarketData.class);
   private static final ScenarioMarketData MOCK_CALC_MARKET_DATA = mock(ScenarioMarketData.class);
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
 
   //-------------------------------------------------------------------------
   @SuppressWarnings("deprecation")
@@ -161,6 +183,8 @@ public class RatesMarketDataLookupTest {
     assertEquals(scenario.getLookup(), test);
     assertEquals(scenario.getMarketData(), md.scenario(0));
     assertEquals(scenario.getValuationDate(), valDate);
+    // outside a calculation run the view is not retained
+    assertNotSame(test.marketDataView(md), multiScenario);
   }
 
   public void test_ratesProvider() {
@@ -220,6 +244,75 @@ public class RatesMarketDataLookupTest {
     assertEquals(ratesProvider.toImmutableRatesProvider(), expectedImmutable);
   }
 
+  public void test_ratesProvider_reuse() {
+    ImmutableMap<Currency, CurveId> discounts = ImmutableMap.of(USD, CURVE_ID_DSC);
+    ImmutableMap<Index, CurveId> forwards = ImmutableMap.of(USD_FED_FUND, CURVE_ID_DSC, USD_LIBOR_3M, CURVE_ID_FWD);
+    RatesMarketDataLookup test = RatesMarketDataLookup.of(discounts, forwards);
+    LocalDate valDate = date(2015, 6, 30);
+    Curve dscCurve = ConstantCurve.of(Curves.discountFactors(CURVE_ID_DSC.getCurveName(), ACT_360), 1d);
+    Curve fwdCurve = ConstantCurve.of(Curves.discountFactors(CURVE_ID_FWD.getCurveName(), ACT_360), 2d);
+    MarketData md = ImmutableMarketData.builder(valDate)
+        .addValue(CURVE_ID_DSC, dscCurve)
+        .addValue(CURVE_ID_FWD, fwdCurve)
+        .build();
+    RatesProvider ratesProvider = test.ratesProvider(md);
+    assertSame(ratesProvider.discountFactors(USD), ratesProvider.discountFactors(USD));
+    assertSame(ratesProvider.iborIndexRates(USD_LIBOR_3M), ratesProvider.iborIndexRates(USD_LIBOR_3M));
+    assertSame(ratesProvider.overnightIndexRates(USD_FED_FUND), ratesProvider.overnightIndexRates(USD_FED_FUND));
+    assertThrowsIllegalArg(() -> ratesProvider.discountFactors(GBP));
+    assertThrowsIllegalArg(() -> ratesProvider.discountFactors(GBP));
+    // each rates provider holds its own instances
+    assertNotSame(test.ratesProvider(md).discountFactors(USD), ratesProvider.discountFactors(USD));
+  }
+
+  public void test_ratesProvider_sharedInRun() {
+    ImmutableMap<Currency, CurveId> discounts = ImmutableMap.of(USD, CURVE_ID_DSC);
+    RatesMarketDataLookup lookup = RatesMarketDataLookup.of(discounts, ImmutableMap.of());
+    Curve dscCurve = ConstantCurve.of(Curves.discountFactors(CURVE_ID_DSC.getCurveName(), ACT_360), 1d);
+    MarketData md = ImmutableMarketData.builder(date(2015, 6, 30))
+        .addValue(CURVE_ID_DSC, dscCurve)
+        .build();
+    CalculationFunctions functions = CalculationFunctions.of(new DiscountFactorsFunction());
+    CalculationRules rules =
+        CalculationRules.of(functions, ReportingCurrency.NATURAL, CalculationParameters.of(lookup));
+    List<TestTarget> targets = ImmutableList.of(new TestTarget(), new TestTarget());
+    List<Column> columns = ImmutableList.of(Column.of(Measures.PRESENT_VALUE));
+    Results results;
+    try (CalculationRunner runner = CalculationRunner.ofMultiThreaded()) {
+      results = runner.calculate(rules, targets, columns, md, REF_DATA);
+    }
+    assertSame(results.get(0, 0).getValue(), results.get(1, 0).getValue());
+  }
+
+  public void test_ratesProvider_sharedInRun_notRetained() throws InterruptedException {
+    ImmutableMap<Currency, CurveId> discounts = ImmutableMap.of(USD, CURVE_ID_DSC);
+    RatesMarketDataLookup lookup = RatesMarketDataLookup.of(discounts, ImmutableMap.of());
+    Curve dscCurve = ConstantCurve.of(Curves.discountFactors(CURVE_ID_DSC.getCurveName(), ACT_360), 1d);
+    MarketData md = ImmutableMarketData.builder(date(2015, 6, 30))
+        .addValue(CURVE_ID_DSC, dscCurve)
+        .build();
+    WeakReference<MarketData> mdRef = new WeakReference<>(md);
+    CalculationFunctions functions = CalculationFunctions.of(new DiscountFactorsFunction());
+    CalculationRules rules =
+        CalculationRules.of(functions, ReportingCurrency.NATURAL, CalculationParameters.of(lookup));
+    List<TestTarget> targets = ImmutableList.of(new TestTarget(), new TestTarget());
+    List<Column> columns = ImmutableList.of(Column.of(Measures.PRESENT_VALUE));
+    Results results;
+    try (CalculationRunner runner = CalculationRunner.ofMultiThreaded()) {
+      results = runner.calculate(rules, targets, columns, md, REF_DATA);
+    }
+    md = null;
+
+    // the lookup and the results are still referenced, but the market data of the run is not
+    for (int i = 0; i < 100 && mdRef.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertEquals(mdRef.get(), null);
+    assertEquals(results.getCells().size(), 2);
+    assertEquals(lookup.getDiscountCurrencies(), ImmutableSet.of(USD));
+  }
+
   public void test_fxProvider() {
     RatesMarketDataLookup test = RatesMarketDataLookup.of(ImmutableMap.of(), ImmutableMap.of());
     LocalDate valDate = date(2015, 6, 30);
@@ -282,4 +375,52 @@ public class RatesMarketDataLookupTest {
     assertEquals(xml.contains("<effectiveDateOffset>"), false);
   }
 
+
+  //-------------------------------------------------------------------------
+  private static final class TestTarget implements CalculationTarget {
+  }
+
+  // returns the discount factors of the rates provider as the result
+  private static final class DiscountFactorsFunction implements CalculationFunction<TestTarget> {
+
+    @Override
+    public Class<TestTarget> targetType() {
+      return TestTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(Measures.PRESENT_VALUE);
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return parameters.getParameter(RatesMarketDataLookup.class).requirements(USD);
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      RatesScenarioMarketData ratesMarketData =
+          parameters.getParameter(RatesMarketDataLookup.class).marketDataView(marketData);
+      DiscountFactors discountFactors = ratesMarketData.scenario(0).ratesProvider().discountFactors(USD);
+      return ImmutableMap.of(Measures.PRESENT_VALUE, Result.success(ScenarioArray.of(discountFactors)));
+    }
+  }
+
 }
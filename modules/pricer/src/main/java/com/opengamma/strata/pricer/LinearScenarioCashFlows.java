@@ -0,0 +1,452 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.index.IborIndex;
+import com.opengamma.strata.basics.index.IborIndexObservation;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.pricer.rate.IborIndexRates;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.product.deposit.ResolvedTermDeposit;
+import com.opengamma.strata.product.fra.ResolvedFra;
+import com.opengamma.strata.product.rate.FixedRateComputation;
+import com.opengamma.strata.product.rate.IborRateComputation;
+import com.opengamma.strata.product.rate.RateComputation;
+import com.opengamma.strata.product.swap.KnownAmountSwapPaymentPeriod;
+import com.opengamma.strata.product.swap.NegativeRateMethod;
+import com.opengamma.strata.product.swap.NotionalExchange;
+import com.opengamma.strata.product.swap.RateAccrualPeriod;
+import com.opengamma.strata.product.swap.RatePaymentPeriod;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapPaymentEvent;
+import com.opengamma.strata.product.swap.SwapPaymentPeriod;
+
+/**
+ * The cash flows of a linear rates product, projected once and priced for many scenarios.
+ * <p>
+ * The cash flow structure of swaps, FRAs and term deposits does not depend on the market data.
+ * This class extracts the payment dates, accrual data and Ibor observations of a product once.
+ * The present value of all the scenarios is then computed by a single loop over primitive arrays,
+ * querying each scenario only once for the discount factors and the Ibor index rates.
+ * <p>
+ * The present values are identical to those of the discounting pricers,
+ * {@code DiscountingSwapProductPricer}, {@code DiscountingFraProductPricer} and
+ * {@code DiscountingTermDepositProductPricer}.
+ * Only the common cash flow types are supported. The factory methods return empty
+ * if the product contains other types, in which case the product pricer should be used.
+ */
+public final class LinearScenarioCashFlows {
+
+  /**
+   * Cash flow of a known amount.
+   */
+  private static final int KNOWN_AMOUNT = 0;
+  /**
+   * Coupon paying a rate, fixed or Ibor, with gearing and spread.
+   */
+  private static final int COUPON = 1;
+  /**
+   * FRA with no discounting.
+   */
+  private static final int FRA_NONE = 2;
+  /**
+   * FRA with ISDA discounting.
+   */
+  private static final int FRA_ISDA = 3;
+  /**
+   * FRA with AFMA discounting.
+   */
+  private static final int FRA_AFMA = 4;
+
+  /**
+   * The currency of all the cash flows.
+   */
+  private final Currency currency;
+  /**
+   * The Ibor indices observed by the cash flows.
+   */
+  private final IborIndex[] indices;
+  /**
+   * The type of each cash flow.
+   */
+  private final int[] types;
+  /**
+   * The payment date of each cash flow.
+   */
+  private final LocalDate[] paymentDates;
+  /**
+   * The amount of each known amount cash flow, the notional of the other cash flows.
+   */
+  private final double[] notionals;
+  /**
+   * The year fraction of each cash flow, not used for known amounts.
+   */
+  private final double[] yearFractions;
+  /**
+   * The fixed rate of each cash flow, the fixed rate of the coupon or of the FRA, not used for known amounts.
+   */
+  private final double[] fixedRates;
+  /**
+   * The gearing of each coupon.
+   */
+  private final double[] gearings;
+  /**
+   * The spread of each coupon.
+   */
+  private final double[] spreads;
+  /**
+   * The negative rate method of each coupon.
+   */
+  private final NegativeRateMethod[] negativeRateMethods;
+  /**
+   * The Ibor observation of each cash flow, null if none.
+   */
+  private final IborIndexObservation[] observations;
+  /**
+   * The position in {@code indices} of the index of each observation, -1 if none.
+   */
+  private final int[] indexPositions;
+  /**
+   * The end, exclusive, of each group of cash flows.
+   * The values of the cash flows of a group are summed.
+   */
+  private final int[] groupEnds;
+  /**
+   * The end, exclusive, of each leg of groups.
+   * The values of the groups of a leg are summed, then the values of the legs are summed.
+   */
+  private final int[] legEnds;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Projects the cash flows of a swap.
+   * <p>
+   * The swap must be single currency. The payment periods must be known amounts or rate payment periods
+   * with a single accrual period, no FX reset, and a fixed or Ibor rate.
+   * The payment events must be notional exchanges.
+   *
+   * @param swap  the swap
+   * @return the cash flows, empty if the swap is not supported
+   */
+  public static Optional<LinearScenarioCashFlows> of(ResolvedSwap swap) {
+    if (swap.isCrossCurrency()) {
+      return Optional.empty();
+    }
+    Builder builder = new Builder(swap.getLegs().get(0).getCurrency());
+    for (ResolvedSwapLeg leg : swap.getLegs()) {
+      for (SwapPaymentPeriod period : leg.getPaymentPeriods()) {
+        if (!builder.addPeriod(period)) {
+          return Optional.empty();
+        }
+      }
+      builder.endGroup();
+      for (SwapPaymentEvent event : leg.getPaymentEvents()) {
+        if (!(event instanceof NotionalExchange)) {
+          return Optional.empty();
+        }
+        NotionalExchange exchange = (NotionalExchange) event;
+        builder.addKnownAmount(exchange.getPaymentDate(), exchange.getPayment().getAmount());
+      }
+      builder.endGroup();
+      builder.endLeg();
+    }
+    return Optional.of(builder.build());
+  }
+
+  /**
+   * Projects the cash flows of a FRA.
+   * <p>
+   * The floating rate must be a single Ibor rate.
+   *
+   * @param fra  the FRA
+   * @return the cash flows, empty if the FRA is not supported
+   */
+  public static Optional<LinearScenarioCashFlows> of(ResolvedFra fra) {
+    if (!(fra.getFloatingRate() instanceof IborRateComputation)) {
+      return Optional.empty();
+    }
+    Builder builder = new Builder(fra.getCurrency());
+    builder.addFra(fra, ((IborRateComputation) fra.getFloatingRate()).getObservation());
+    builder.endGroup();
+    builder.endLeg();
+    return Optional.of(builder.build());
+  }
+
+  /**
+   * Projects the cash flows of a term deposit.
+   * <p>
+   * The deposit is represented by the final payment of the principal and interest
+   * and the initial payment of the principal.
+   *
+   * @param deposit  the term deposit
+   * @return the cash flows
+   */
+  public static Optional<LinearScenarioCashFlows> of(ResolvedTermDeposit deposit) {
+    Builder builder = new Builder(deposit.getCurrency());
+    builder.addKnownAmount(deposit.getEndDate(), deposit.getNotional() + deposit.getInterest());
+    builder.endGroup();
+    builder.addKnownAmount(deposit.getStartDate(), -deposit.getNotional());
+    builder.endGroup();
+    builder.endLeg();
+    return Optional.of(builder.build());
+  }
+
+  //-------------------------------------------------------------------------
+  // creates an instance
+  private LinearScenarioCashFlows(Builder builder) {
+    this.currency = builder.currency;
+    this.indices = builder.indices.toArray(new IborIndex[0]);
+    this.types = Ints.toArray(builder.types);
+    this.paymentDates = builder.paymentDates.toArray(new LocalDate[0]);
+    this.notionals = Doubles.toArray(builder.notionals);
+    this.yearFractions = Doubles.toArray(builder.yearFractions);
+    this.fixedRates = Doubles.toArray(builder.fixedRates);
+    this.gearings = Doubles.toArray(builder.gearings);
+    this.spreads = Doubles.toArray(builder.spreads);
+    this.negativeRateMethods = builder.negativeRateMethods.toArray(new NegativeRateMethod[0]);
+    this.observations = builder.observations.toArray(new IborIndexObservation[0]);
+    this.indexPositions = Ints.toArray(builder.indexPositions);
+    this.groupEnds = Ints.toArray(builder.groupEnds);
+    this.legEnds = Ints.toArray(builder.legEnds);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the currency of the cash flows.
+   *
+   * @return the currency
+   */
+  public Currency getCurrency() {
+    return currency;
+  }
+
+  /**
+   * Gets the number of cash flows.
+   *
+   * @return the number of cash flows
+   */
+  public int size() {
+    return types.length;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value of the cash flows for multiple scenarios.
+   * <p>
+   * The rates provider of each scenario is requested once.
+   *
+   * @param scenarioCount  the number of scenarios
+   * @param providerFunction  the function returning the rates provider of a scenario
+   * @return the present values, one for each scenario
+   */
+  public CurrencyScenarioArray presentValue(int scenarioCount, IntFunction<? extends RatesProvider> providerFunction) {
+    ArgChecker.notNegative(scenarioCount, "scenarioCount");
+    double[] values = new double[scenarioCount];
+    IborIndexRates[] rates = new IborIndexRates[indices.length];
+    for (int scenarioIndex = 0; scenarioIndex < scenarioCount; scenarioIndex++) {
+      values[scenarioIndex] = presentValue(providerFunction.apply(scenarioIndex), rates);
+    }
+    return CurrencyScenarioArray.of(currency, DoubleArray.ofUnsafe(values));
+  }
+
+  /**
+   * Calculates the present value of the cash flows for a single scenario.
+   *
+   * @param provider  the rates provider
+   * @return the present value
+   */
+  public CurrencyAmount presentValue(RatesProvider provider) {
+    return CurrencyAmount.of(currency, presentValue(provider, new IborIndexRates[indices.length]));
+  }
+
+  // the present value for one scenario, the array of rates is work space
+  private double presentValue(RatesProvider provider, IborIndexRates[] rates) {
+    LocalDate valuationDate = provider.getValuationDate();
+    DiscountFactors discountFactors = provider.discountFactors(currency);
+    for (int i = 0; i < indices.length; i++) {
+      rates[i] = provider.iborIndexRates(indices[i]);
+    }
+    // same order of summation as the product pricers, the cash flows paid in the past are ignored
+    double total = 0d;
+    int flow = 0;
+    int group = 0;
+    for (int leg = 0; leg < legEnds.length; leg++) {
+      double legTotal = 0d;
+      for (; group < legEnds[leg]; group++) {
+        double groupTotal = 0d;
+        for (; flow < groupEnds[group]; flow++) {
+          if (!paymentDates[flow].isBefore(valuationDate)) {
+            double forward = indexPositions[flow] < 0 ? 0d : rates[indexPositions[flow]].rate(observations[flow]);
+            groupTotal += forecastValue(flow, forward) * discountFactors.discountFactor(paymentDates[flow]);
+          }
+        }
+        legTotal += groupTotal;
+      }
+      total += legTotal;
+    }
+    return total;
+  }
+
+  // the forecast value of a cash flow, the forward rate is ignored if not applicable
+  private double forecastValue(int flow, double forward) {
+    double notional = notionals[flow];
+    double yearFraction = yearFractions[flow];
+    double fixedRate = fixedRates[flow];
+    switch (types[flow]) {
+      case KNOWN_AMOUNT:
+        return notional;
+      case COUPON:
+        double rawRate = indexPositions[flow] >= 0 ? forward : fixedRate;
+        double treatedRate = rawRate * gearings[flow] + spreads[flow];
+        return negativeRateMethods[flow].adjust(treatedRate * yearFraction) * notional;
+      case FRA_NONE:
+        return notional * ((forward - fixedRate) * yearFraction);
+      case FRA_ISDA:
+        return notional * (((forward - fixedRate) / (1.0 + forward * yearFraction)) * yearFraction);
+      case FRA_AFMA:
+        return notional * ((1.0 / (1.0 + fixedRate * yearFraction)) - (1.0 / (1.0 + forward * yearFraction)));
+      default:
+        throw new IllegalStateException("Unknown cash flow type: " + types[flow]);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // accumulates the cash flows
+  private static final class Builder {
+    private final Currency currency;
+    private final List<IborIndex> indices = new ArrayList<>();
+    private final List<Integer> types = new ArrayList<>();
+    private final List<LocalDate> paymentDates = new ArrayList<>();
+    private final List<Double> notionals = new ArrayList<>();
+    private final List<Double> yearFractions = new ArrayList<>();
+    private final List<Double> fixedRates = new ArrayList<>();
+    private final List<Double> gearings = new ArrayList<>();
+    private final List<Double> spreads = new ArrayList<>();
+    private final List<NegativeRateMethod> negativeRateMethods = new ArrayList<>();
+    private final List<IborIndexObservation> observations = new ArrayList<>();
+    private final List<Integer> indexPositions = new ArrayList<>();
+    private final List<Integer> groupEnds = new ArrayList<>();
+    private final List<Integer> legEnds = new ArrayList<>();
+
+    private Builder(Currency currency) {
+      this.currency = currency;
+    }
+
+    // adds a swap payment period, returning false if not supported
+    private boolean addPeriod(SwapPaymentPeriod period) {
+      if (period instanceof KnownAmountSwapPaymentPeriod) {
+        KnownAmountSwapPaymentPeriod knownAmount = (KnownAmountSwapPaymentPeriod) period;
+        addKnownAmount(knownAmount.getPaymentDate(), knownAmount.getPayment().getAmount());
+        return true;
+      }
+      if (!(period instanceof RatePaymentPeriod)) {
+        return false;
+      }
+      RatePaymentPeriod ratePeriod = (RatePaymentPeriod) period;
+      if (ratePeriod.getFxReset().isPresent() || ratePeriod.getAccrualPeriods().size() != 1) {
+        return false;
+      }
+      RateAccrualPeriod accrualPeriod = ratePeriod.getAccrualPeriods().get(0);
+      RateComputation computation = accrualPeriod.getRateComputation();
+      if (computation instanceof FixedRateComputation) {
+        add(COUPON, ratePeriod.getPaymentDate(), ratePeriod.getNotional(), accrualPeriod.getYearFraction(),
+            ((FixedRateComputation) computation).getRate(), accrualPeriod.getGearing(), accrualPeriod.getSpread(),
+            accrualPeriod.getNegativeRateMethod(), null);
+        return true;
+      }
+      if (computation instanceof IborRateComputation) {
+        add(COUPON, ratePeriod.getPaymentDate(), ratePeriod.getNotional(), accrualPeriod.getYearFraction(),
+            0d, accrualPeriod.getGearing(), accrualPeriod.getSpread(),
+            accrualPeriod.getNegativeRateMethod(), ((IborRateComputation) computation).getObservation());
+        return true;
+      }
+      return false;
+    }
+
+    // adds a FRA
+    private void addFra(ResolvedFra fra, IborIndexObservation observation) {
+      int type;
+      switch (fra.getDiscounting()) {
+        case NONE:
+          type = FRA_NONE;
+          break;
+        case ISDA:
+          type = FRA_ISDA;
+          break;
+        case AFMA:
+          type = FRA_AFMA;
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown FraDiscounting value: " + fra.getDiscounting());
+      }
+      add(type, fra.getPaymentDate(), fra.getNotional(), fra.getYearFraction(), fra.getFixedRate(), 0d, 0d,
+          NegativeRateMethod.ALLOW_NEGATIVE, observation);
+    }
+
+    // adds a known amount
+    private void addKnownAmount(LocalDate paymentDate, double amount) {
+      add(KNOWN_AMOUNT, paymentDate, amount, 0d, 0d, 0d, 0d, NegativeRateMethod.ALLOW_NEGATIVE, null);
+    }
+
+    private void add(
+        int type,
+        LocalDate paymentDate,
+        double notional,
+        double yearFraction,
+        double fixedRate,
+        double gearing,
+        double spread,
+        NegativeRateMethod negativeRateMethod,
+        IborIndexObservation observation) {
+
+      types.add(type);
+      paymentDates.add(paymentDate);
+      notionals.add(notional);
+      yearFractions.add(yearFraction);
+      fixedRates.add(fixedRate);
+      gearings.add(gearing);
+      spreads.add(spread);
+      negativeRateMethods.add(negativeRateMethod);
+      observations.add(observation);
+      if (observation == null) {
+        indexPositions.add(-1);
+      } else {
+        int position = indices.indexOf(observation.getIndex());
+        if (position < 0) {
+          position = indices.size();
+          indices.add(observation.getIndex());
+        }
+        indexPositions.add(position);
+      }
+    }
+
+    private void endGroup() {
+      groupEnds.add(types.size());
+    }
+
+    private void endLeg() {
+      legEnds.add(groupEnds.size());
+    }
+
+    private LinearScenarioCashFlows build() {
+      return new LinearScenarioCashFlows(this);
+    }
+  }
+
+}
@@ -11,6 +11,7 @@ import static com.opengamma.strata.product.bond.FixedCouponBondYieldConvention.J
 import static com.opengamma.strata.product.bond.FixedCouponBondYieldConvention.US_STREET;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.function.Function;
 
 import com.google.common.collect.ImmutableList;
@@ -23,6 +24,7 @@ import com.opengamma.strata.math.impl.rootfinding.BracketRoot;
 import com.opengamma.strata.math.impl.rootfinding.BrentSingleRootFinder;
 import com.opengamma.strata.math.impl.rootfinding.RealSingleRootFinder;
 import com.opengamma.strata.pricer.CompoundedRateType;
+import com.opengamma.strata.pricer.DiscountFactors;
 import com.opengamma.strata.pricer.DiscountingPaymentPricer;
 import com.opengamma.strata.pricer.ZeroRateSensitivity;
 import com.opengamma.strata.product.Security;
@@ -56,6 +58,14 @@ public class DiscountingFixedCouponBondProductPricer {
    * Brackets a root.
    */
   private static final BracketRoot ROOT_BRACKETER = new BracketRoot();
+  /**
+   * The maximum number of iterations of Newton's method.
+   */
+  private static final int MAX_ITERATIONS = 50;
+  /**
+   * The absolute tolerance of Newton's method.
+   */
+  private static final double TOLERANCE = 1e-15;
 
   /**
    * Pricer for {@link Payment}.
@@ -311,13 +321,76 @@ public class DiscountingFixedCouponBondProductPricer {
       CompoundedRateType compoundedRateType,
       int periodsPerYear) {
 
-    final Function<Double, Double> residual = new Function<Double, Double>() {
-      @Override
-      public Double apply(final Double z) {
-        return dirtyPriceFromCurvesWithZSpread(
-            bond, provider, refData, z, compoundedRateType, periodsPerYear) - dirtyPrice;
+    // the cash-flows are extracted once, the dirty price is then a function of the year fractions and amounts
+    LocalDate settlementDate = bond.getSettlementDateOffset().adjust(provider.getValuationDate(), refData);
+    IssuerCurveDiscountFactors issuerDf = issuerCurveDf(bond, provider);
+    DiscountFactors discountFactors = issuerDf.getDiscountFactors();
+    double scale = 1d / (repoCurveDf(bond, provider).discountFactor(settlementDate) * bond.getNotional());
+    ImmutableList<FixedCouponBondPaymentPeriod> periods = bond.getPeriodicPayments();
+    double[] yearFractions = new double[periods.size() + 1];
+    double[] amounts = new double[periods.size() + 1];
+    int count = 0;
+    for (FixedCouponBondPaymentPeriod period : periods) {
+      if (period.getDetachmentDate().isAfter(settlementDate) &&
+          !period.getPaymentDate().isBefore(discountFactors.getValuationDate())) {
+        yearFractions[count] = discountFactors.relativeYearFraction(period.getPaymentDate());
+        amounts[count] = period.getFixedRate() * period.getNotional() * period.getYearFraction() * scale;
+        count++;
       }
+    }
+    Payment nominal = bond.getNominalPayment();
+    if (!discountFactors.getValuationDate().isAfter(nominal.getDate())) {
+      yearFractions[count] = discountFactors.relativeYearFraction(nominal.getDate());
+      amounts[count] = nominal.getAmount() * scale;
+      count++;
+    }
+    return zSpreadFromCashFlows(
+        discountFactors, yearFractions, amounts, count, dirtyPrice, compoundedRateType, periodsPerYear);
+  }
+
+  // solves for the z-spread using Newton's method, with the analytic derivative of the discount factors
+  private double zSpreadFromCashFlows(
+      DiscountFactors discountFactors,
+      double[] yearFractions,
+      double[] amounts,
+      int count,
+      double dirtyPrice,
+      CompoundedRateType compoundedRateType,
+      int periodsPerYear) {
+
+    Function<Double, Double> residual = z -> {
+      double price = 0d;
+      for (int i = 0; i < count; i++) {
+        price += amounts[i] * discountFactors.discountFactorWithSpread(
+            yearFractions[i], z, compoundedRateType, periodsPerYear);
+      }
+      return price - dirtyPrice;
     };
+    double zSpread = 0d;
+    for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+      double price = 0d;
+      double derivative = 0d;
+      for (int i = 0; i < count; i++) {
+        double yearFraction = yearFractions[i];
+        double df = discountFactors.discountFactorWithSpread(yearFraction, zSpread, compoundedRateType, periodsPerYear);
+        price += amounts[i] * df;
+        if (yearFraction != 0d) {
+          double dfDerivative = -yearFraction * df;
+          if (compoundedRateType.equals(CompoundedRateType.PERIODIC)) {
+            dfDerivative *= Math.pow(df, 1d / (periodsPerYear * yearFraction));
+          }
+          derivative += amounts[i] * dfDerivative;
+        }
+      }
+      double step = (price - dirtyPrice) / derivative;
+      if (!Double.isFinite(step)) {
+        break;
+      }
+      zSpread -= step;
+      if (Math.abs(step) < TOLERANCE) {
+        return zSpread;
+      }
+    }
     double[] range = ROOT_BRACKETER.getBracketedPoints(residual, -0.01, 0.01); // Starting range is [-1%, 1%]
     return ROOT_FINDER.getRoot(residual, range[0], range[1]);
   }
@@ -532,52 +605,7 @@ public class DiscountingFixedCouponBondProductPricer {
    * @return the dirty price of the product 
    */
   public double dirtyPriceFromYield(ResolvedFixedCouponBond bond, LocalDate settlementDate, double yield) {
-    ImmutableList<FixedCouponBondPaymentPeriod> payments = bond.getPeriodicPayments();
-    int nCoupon = payments.size() - couponIndex(payments, settlementDate);
-    FixedCouponBondYieldConvention yieldConv = bond.getYieldConvention();
-    if (nCoupon == 1) {
-      if (yieldConv.equals(US_STREET) || yieldConv.equals(DE_BONDS)) {
-        FixedCouponBondPaymentPeriod payment = payments.get(payments.size() - 1);
-        return (1d + payment.getFixedRate() * payment.getYearFraction()) /
-            (1d + factorToNextCoupon(bond, settlementDate) * yield /
-                ((double) bond.getFrequency().eventsPerYear()));
-      }
-    }
-    if ((yieldConv.equals(US_STREET)) || (yieldConv.equals(GB_BUMP_DMO)) || (yieldConv.equals(DE_BONDS))) {
-      return dirtyPriceFromYieldStandard(bond, settlementDate, yield);
-    }
-    if (yieldConv.equals(JP_SIMPLE)) {
-      LocalDate maturityDate = bond.getUnadjustedEndDate();
-      if (settlementDate.isAfter(maturityDate)) {
-        return 0d;
-      }
-      double maturity = bond.getDayCount().relativeYearFraction(settlementDate, maturityDate);
-      double cleanPrice = (1d + bond.getFixedRate() * maturity) / (1d + yield * maturity);
-      return dirtyPriceFromCleanPrice(bond, settlementDate, cleanPrice);
-    }
-    throw new UnsupportedOperationException("The convention " + yieldConv.name() + " is not supported.");
-  }
-
-  private double dirtyPriceFromYieldStandard(
-      ResolvedFixedCouponBond bond,
-      LocalDate settlementDate,
-      double yield) {
-
-    int nbCoupon = bond.getPeriodicPayments().size();
-    double factorOnPeriod = 1 + yield / ((double) bond.getFrequency().eventsPerYear());
-    double fixedRate = bond.getFixedRate();
-    double pvAtFirstCoupon = 0;
-    int pow = 0;
-    for (int loopcpn = 0; loopcpn < nbCoupon; loopcpn++) {
-      FixedCouponBondPaymentPeriod period = bond.getPeriodicPayments().get(loopcpn);
-      if ((period.hasExCouponPeriod() && !settlementDate.isAfter(period.getDetachmentDate())) ||
-          (!period.hasExCouponPeriod() && period.getPaymentDate().isAfter(settlementDate))) {
-        pvAtFirstCoupon += fixedRate * period.getYearFraction() / Math.pow(factorOnPeriod, pow);
-        ++pow;
-      }
-    }
-    pvAtFirstCoupon += 1d / Math.pow(factorOnPeriod, pow - 1);
-    return pvAtFirstCoupon * Math.pow(factorOnPeriod, -factorToNextCoupon(bond, settlementDate));
+    return analytics(bond, settlementDate).dirtyPriceFromYield(yield);
   }
 
   /**
@@ -585,31 +613,18 @@ public class DiscountingFixedCouponBondProductPricer {
    * <p>
    * The dirty price must be fractional.
    * If the analytic formula is not available, the yield is computed by solving
-   * a root-finding problem with {@link #dirtyPriceFromYield(ResolvedFixedCouponBond, LocalDate, double)}.  
+   * a root-finding problem with {@link #dirtyPriceFromYield(ResolvedFixedCouponBond, LocalDate, double)},
+   * using the analytic derivative of the dirty price.
    * The result is also expressed in fraction.
    * 
    * @param bond  the product
    * @param settlementDate  the settlement date
    * @param dirtyPrice  the dirty price
    * @return the yield of the product 
+   * @throws IllegalArgumentException if the settlement date is after maturity, for the 'JP-Simple' convention
    */
   public double yieldFromDirtyPrice(ResolvedFixedCouponBond bond, LocalDate settlementDate, double dirtyPrice) {
-    if (bond.getYieldConvention().equals(JP_SIMPLE)) {
-      double cleanPrice = cleanPriceFromDirtyPrice(bond, settlementDate, dirtyPrice);
-      LocalDate maturityDate = bond.getUnadjustedEndDate();
-      double maturity = bond.getDayCount().relativeYearFraction(settlementDate, maturityDate);
-      return (bond.getFixedRate() + (1d - cleanPrice) / maturity) / cleanPrice;
-    }
-
-    final Function<Double, Double> priceResidual = new Function<Double, Double>() {
-      @Override
-      public Double apply(final Double y) {
-        return dirtyPriceFromYield(bond, settlementDate, y) - dirtyPrice;
-      }
-    };
-    double[] range = ROOT_BRACKETER.getBracketedPoints(priceResidual, 0.00, 0.20);
-    double yield = ROOT_FINDER.getRoot(priceResidual, range[0], range[1]);
-    return yield;
+    return analytics(bond, settlementDate).yieldFromDirtyPrice(dirtyPrice);
   }
 
   //-------------------------------------------------------------------------
@@ -628,64 +643,7 @@ public class DiscountingFixedCouponBondProductPricer {
    * @return the modified duration of the product 
    */
   public double modifiedDurationFromYield(ResolvedFixedCouponBond bond, LocalDate settlementDate, double yield) {
-    ImmutableList<FixedCouponBondPaymentPeriod> payments = bond.getPeriodicPayments();
-    int nCoupon = payments.size() - couponIndex(payments, settlementDate);
-    FixedCouponBondYieldConvention yieldConv = bond.getYieldConvention();
-    if (nCoupon == 1) {
-      if (yieldConv.equals(US_STREET) || yieldConv.equals(DE_BONDS)) {
-        double couponPerYear = bond.getFrequency().eventsPerYear();
-        double factor = factorToNextCoupon(bond, settlementDate);
-        return factor / couponPerYear / (1d + factor * yield / couponPerYear);
-      }
-    }
-    if (yieldConv.equals(US_STREET) || yieldConv.equals(GB_BUMP_DMO) || yieldConv.equals(DE_BONDS)) {
-      return modifiedDurationFromYieldStandard(bond, settlementDate, yield);
-    }
-    if (yieldConv.equals(JP_SIMPLE)) {
-      LocalDate maturityDate = bond.getUnadjustedEndDate();
-      if (settlementDate.isAfter(maturityDate)) {
-        return 0d;
-      }
-      double maturity = bond.getDayCount().relativeYearFraction(settlementDate, maturityDate);
-      double num = 1d + bond.getFixedRate() * maturity;
-      double den = 1d + yield * maturity;
-      double dirtyPrice = dirtyPriceFromCleanPrice(bond, settlementDate, num / den);
-      return num * maturity / den / den / dirtyPrice;
-    }
-    throw new UnsupportedOperationException("The convention " + yieldConv.name() + " is not supported.");
-  }
-
-  private double modifiedDurationFromYieldStandard(
-      ResolvedFixedCouponBond bond,
-      LocalDate settlementDate,
-      double yield) {
-
-    int nbCoupon = bond.getPeriodicPayments().size();
-    double couponPerYear = bond.getFrequency().eventsPerYear();
-    double factorToNextCoupon = factorToNextCoupon(bond, settlementDate);
-    double factorOnPeriod = 1 + yield / couponPerYear;
-    double nominal = bond.getNotional();
-    double fixedRate = bond.getFixedRate();
-    double mdAtFirstCoupon = 0d;
-    double pvAtFirstCoupon = 0d;
-    int pow = 0;
-    for (int loopcpn = 0; loopcpn < nbCoupon; loopcpn++) {
-      FixedCouponBondPaymentPeriod period = bond.getPeriodicPayments().get(loopcpn);
-      if ((period.hasExCouponPeriod() && !settlementDate.isAfter(period.getDetachmentDate())) ||
-          (!period.hasExCouponPeriod() && period.getPaymentDate().isAfter(settlementDate))) {
-        mdAtFirstCoupon += period.getYearFraction() / Math.pow(factorOnPeriod, pow + 1) *
-            (pow + factorToNextCoupon) / couponPerYear;
-        pvAtFirstCoupon += period.getYearFraction() / Math.pow(factorOnPeriod, pow);
-        ++pow;
-      }
-    }
-    mdAtFirstCoupon *= fixedRate * nominal;
-    pvAtFirstCoupon *= fixedRate * nominal;
-    mdAtFirstCoupon += nominal / Math.pow(factorOnPeriod, pow) * (pow - 1 + factorToNextCoupon) /
-        couponPerYear;
-    pvAtFirstCoupon += nominal / Math.pow(factorOnPeriod, pow - 1);
-    double md = mdAtFirstCoupon / pvAtFirstCoupon;
-    return md;
+    return analytics(bond, settlementDate).modifiedDurationFromYield(yield);
   }
 
   /**
@@ -702,18 +660,7 @@ public class DiscountingFixedCouponBondProductPricer {
    * @return the modified duration of the product 
    */
   public double macaulayDurationFromYield(ResolvedFixedCouponBond bond, LocalDate settlementDate, double yield) {
-    ImmutableList<FixedCouponBondPaymentPeriod> payments = bond.getPeriodicPayments();
-    int nCoupon = payments.size() - couponIndex(payments, settlementDate);
-    FixedCouponBondYieldConvention yieldConv = bond.getYieldConvention();
-    if ((yieldConv.equals(US_STREET)) && (nCoupon == 1)) {
-      return factorToNextCoupon(bond, settlementDate) /
-          bond.getFrequency().eventsPerYear();
-    }
-    if ((yieldConv.equals(US_STREET)) || (yieldConv.equals(GB_BUMP_DMO)) || (yieldConv.equals(DE_BONDS))) {
-      return modifiedDurationFromYield(bond, settlementDate, yield) *
-          (1d + yield / bond.getFrequency().eventsPerYear());
-    }
-    throw new UnsupportedOperationException("The convention " + yieldConv.name() + " is not supported.");
+    return analytics(bond, settlementDate).macaulayDurationFromYield(yield);
   }
 
   /**
@@ -731,68 +678,62 @@ public class DiscountingFixedCouponBondProductPricer {
    * @return the convexity of the product 
    */
   public double convexityFromYield(ResolvedFixedCouponBond bond, LocalDate settlementDate, double yield) {
-    ImmutableList<FixedCouponBondPaymentPeriod> payments = bond.getPeriodicPayments();
-    int nCoupon = payments.size() - couponIndex(payments, settlementDate);
+    return analytics(bond, settlementDate).convexityFromYield(yield);
+  }
+
+  /**
+   * Obtains the yield based analytics of the fixed coupon bond product for the settlement date.
+   * <p>
+   * The remaining cash-flows of the bond are precomputed, allowing the dirty price, yield, durations
+   * and convexity to be computed repeatedly for the settlement date without further date arithmetic.
+   * The results are the same as those of the corresponding methods on this pricer.
+   * 
+   * @param bond  the product
+   * @param settlementDate  the settlement date
+   * @return the analytics of the product for the settlement date
+   */
+  public FixedCouponBondAnalytics analytics(ResolvedFixedCouponBond bond, LocalDate settlementDate) {
     FixedCouponBondYieldConvention yieldConv = bond.getYieldConvention();
-    if (nCoupon == 1) {
-      if (yieldConv.equals(US_STREET) || yieldConv.equals(DE_BONDS)) {
-        double couponPerYear = bond.getFrequency().eventsPerYear();
-        double factorToNextCoupon = factorToNextCoupon(bond, settlementDate);
-        double timeToPay = factorToNextCoupon / couponPerYear;
-        double disc = (1d + factorToNextCoupon * yield / couponPerYear);
-        return 2d * timeToPay * timeToPay / (disc * disc);
-      }
-    }
-    if (yieldConv.equals(US_STREET) || yieldConv.equals(GB_BUMP_DMO) || yieldConv.equals(DE_BONDS)) {
-      return convexityFromYieldStandard(bond, settlementDate, yield);
-    }
+    double couponsPerYear = bond.getFrequency().eventsPerYear();
+    double fixedRate = bond.getFixedRate();
     if (yieldConv.equals(JP_SIMPLE)) {
       LocalDate maturityDate = bond.getUnadjustedEndDate();
       if (settlementDate.isAfter(maturityDate)) {
-        return 0d;
+        return FixedCouponBondAnalytics.ofJapaneseSimpleMatured();
       }
       double maturity = bond.getDayCount().relativeYearFraction(settlementDate, maturityDate);
-      double num = 1d + bond.getFixedRate() * maturity;
-      double den = 1d + yield * maturity;
-      double dirtyPrice = dirtyPriceFromCleanPrice(bond, settlementDate, num / den);
-      return 2d * num * Math.pow(maturity, 2) * Math.pow(den, -3) / dirtyPrice;
+      double accruedInterest = accruedYearFraction(bond, settlementDate) * fixedRate;
+      return FixedCouponBondAnalytics.ofJapaneseSimple(fixedRate, maturity, accruedInterest);
     }
-    throw new UnsupportedOperationException("The convention " + yieldConv.name() + " is not supported.");
-  }
-
-  // assumes notional and coupon rate are constant across the payments.
-  private double convexityFromYieldStandard(
-      ResolvedFixedCouponBond bond,
-      LocalDate settlementDate,
-      double yield) {
-
-    int nbCoupon = bond.getPeriodicPayments().size();
-    double couponPerYear = bond.getFrequency().eventsPerYear();
+    if (!yieldConv.equals(US_STREET) && !yieldConv.equals(GB_BUMP_DMO) && !yieldConv.equals(DE_BONDS)) {
+      throw new UnsupportedOperationException("The convention " + yieldConv.name() + " is not supported.");
+    }
+    ImmutableList<FixedCouponBondPaymentPeriod> payments = bond.getPeriodicPayments();
+    int nbCoupon = payments.size();
+    boolean singleCoupon = nbCoupon - couponIndex(payments, settlementDate) == 1;
     double factorToNextCoupon = factorToNextCoupon(bond, settlementDate);
-    double factorOnPeriod = 1 + yield / couponPerYear;
-    double nominal = bond.getNotional();
-    double fixedRate = bond.getFixedRate();
-    double cvAtFirstCoupon = 0;
-    double pvAtFirstCoupon = 0;
+    if (singleCoupon && (yieldConv.equals(US_STREET) || yieldConv.equals(DE_BONDS))) {
+      FixedCouponBondPaymentPeriod payment = payments.get(nbCoupon - 1);
+      double amount = 1d + payment.getFixedRate() * payment.getYearFraction();
+      return FixedCouponBondAnalytics.ofSimpleLastCoupon(yieldConv, couponsPerYear, factorToNextCoupon, amount);
+    }
+    // each remaining coupon, followed by the repayment of the notional with the last coupon
+    double[] amounts = new double[nbCoupon + 1];
+    double[] exponents = new double[nbCoupon + 1];
     int pow = 0;
     for (int loopcpn = 0; loopcpn < nbCoupon; loopcpn++) {
-      FixedCouponBondPaymentPeriod period = bond.getPeriodicPayments().get(loopcpn);
+      FixedCouponBondPaymentPeriod period = payments.get(loopcpn);
       if ((period.hasExCouponPeriod() && !settlementDate.isAfter(period.getDetachmentDate())) ||
           (!period.hasExCouponPeriod() && period.getPaymentDate().isAfter(settlementDate))) {
-        cvAtFirstCoupon += period.getYearFraction() / Math.pow(factorOnPeriod, pow + 2) *
-            (pow + factorToNextCoupon) * (pow + factorToNextCoupon + 1);
-        pvAtFirstCoupon += period.getYearFraction() / Math.pow(factorOnPeriod, pow);
+        amounts[pow] = fixedRate * period.getYearFraction();
+        exponents[pow] = pow + factorToNextCoupon;
         ++pow;
       }
     }
-    cvAtFirstCoupon *= fixedRate * nominal / (couponPerYear * couponPerYear);
-    pvAtFirstCoupon *= fixedRate * nominal;
-    cvAtFirstCoupon += nominal / Math.pow(factorOnPeriod, pow + 1) * (pow - 1 + factorToNextCoupon) *
-        (pow + factorToNextCoupon) / (couponPerYear * couponPerYear);
-    pvAtFirstCoupon += nominal / Math.pow(factorOnPeriod, pow - 1);
-    final double pv = pvAtFirstCoupon * Math.pow(factorOnPeriod, -factorToNextCoupon);
-    final double cv = cvAtFirstCoupon * Math.pow(factorOnPeriod, -factorToNextCoupon) / pv;
-    return cv;
+    amounts[pow] = 1d;
+    exponents[pow] = pow - 1 + factorToNextCoupon;
+    return FixedCouponBondAnalytics.ofPeriodic(
+        yieldConv, couponsPerYear, Arrays.copyOf(amounts, pow + 1), Arrays.copyOf(exponents, pow + 1));
   }
 
   //-------------------------------------------------------------------------
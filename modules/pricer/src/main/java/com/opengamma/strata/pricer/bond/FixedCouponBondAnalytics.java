@@ -0,0 +1,404 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.bond;
+
+import static com.opengamma.strata.product.bond.FixedCouponBondYieldConvention.JP_SIMPLE;
+import static com.opengamma.strata.product.bond.FixedCouponBondYieldConvention.US_STREET;
+
+import java.util.function.Function;
+
+import com.opengamma.strata.math.impl.rootfinding.BracketRoot;
+import com.opengamma.strata.math.impl.rootfinding.BrentSingleRootFinder;
+import com.opengamma.strata.math.impl.rootfinding.RealSingleRootFinder;
+import com.opengamma.strata.product.bond.FixedCouponBondYieldConvention;
+import com.opengamma.strata.product.bond.ResolvedFixedCouponBond;
+
+/**
+ * Yield based analytics of a fixed coupon bond for a single settlement date.
+ * <p>
+ * The remaining cash-flows of the bond are reduced to primitive arrays of amounts and discounting exponents
+ * when this object is created. The dirty price, modified duration, Macaulay duration and convexity
+ * can then be computed from a yield in a single pass over the arrays, without any date arithmetic.
+ * The yield is found from a dirty price by Newton's method using the analytic derivative of the price.
+ * <p>
+ * There is one implementation for each way of computing the price from the yield:
+ * periodic compounding, simple compounding of the last coupon, the Japanese simple yield,
+ * and a Japanese simple yield bond that has matured.
+ * <p>
+ * This is intended to be used when many yield calculations are performed for the same bond and settlement date.
+ * The results match those of {@link DiscountingFixedCouponBondProductPricer}, which uses this class internally.
+ * Instances are obtained using {@link DiscountingFixedCouponBondProductPricer#analytics(ResolvedFixedCouponBond,
+ * java.time.LocalDate)}.
+ * <p>
+ * Prices are expressed as decimal prices, and yields are fractional.
+ * Implementations are immutable and thread-safe.
+ */
+public abstract class FixedCouponBondAnalytics {
+
+  /**
+   * The root finder, used if Newton's method does not converge.
+   */
+  private static final RealSingleRootFinder ROOT_FINDER = new BrentSingleRootFinder();
+  /**
+   * Brackets a root.
+   */
+  private static final BracketRoot ROOT_BRACKETER = new BracketRoot();
+  /**
+   * The maximum number of iterations of Newton's method.
+   */
+  private static final int MAX_ITERATIONS = 50;
+  /**
+   * The absolute tolerance of the yield in Newton's method.
+   */
+  private static final double TOLERANCE = 1e-15;
+
+  /**
+   * The yield convention.
+   */
+  final FixedCouponBondYieldConvention yieldConvention;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance discounting each cash-flow with periodic compounding.
+   * <p>
+   * This applies to the 'US-Street', 'GB-Bump-DMO' and 'DE-Bonds' conventions.
+   *
+   * @param yieldConvention  the yield convention
+   * @param couponsPerYear  the number of coupons per year
+   * @param amounts  the amounts of the remaining cash-flows, per unit notional, including the final repayment
+   * @param exponents  the time of each cash-flow from settlement, expressed as a number of coupon periods
+   * @return the analytics
+   */
+  static FixedCouponBondAnalytics ofPeriodic(
+      FixedCouponBondYieldConvention yieldConvention,
+      double couponsPerYear,
+      double[] amounts,
+      double[] exponents) {
+
+    return new Periodic(yieldConvention, couponsPerYear, amounts, exponents);
+  }
+
+  /**
+   * Obtains an instance discounting the last coupon and the repayment with simple compounding.
+   * <p>
+   * This applies to the 'US-Street' and 'DE-Bonds' conventions when a single coupon remains.
+   *
+   * @param yieldConvention  the yield convention
+   * @param couponsPerYear  the number of coupons per year
+   * @param factorToNextCoupon  the fraction of the current coupon period remaining until the last coupon
+   * @param amount  the amount of the last coupon and the repayment, per unit notional
+   * @return the analytics
+   */
+  static FixedCouponBondAnalytics ofSimpleLastCoupon(
+      FixedCouponBondYieldConvention yieldConvention,
+      double couponsPerYear,
+      double factorToNextCoupon,
+      double amount) {
+
+    return new SimpleLastCoupon(yieldConvention, couponsPerYear, factorToNextCoupon, amount);
+  }
+
+  /**
+   * Obtains an instance using the Japanese simple yield.
+   * <p>
+   * This applies to the 'JP-Simple' convention.
+   *
+   * @param fixedRate  the fixed coupon rate
+   * @param maturity  the time from settlement to maturity
+   * @param accruedInterest  the accrued interest per unit notional
+   * @return the analytics
+   */
+  static FixedCouponBondAnalytics ofJapaneseSimple(double fixedRate, double maturity, double accruedInterest) {
+    return new JapaneseSimple(fixedRate, maturity, accruedInterest);
+  }
+
+  /**
+   * Obtains an instance using the Japanese simple yield, where the settlement date is after maturity.
+   * <p>
+   * This applies to the 'JP-Simple' convention.
+   * The price, duration and convexity are zero, and the yield cannot be computed.
+   *
+   * @return the analytics
+   */
+  static FixedCouponBondAnalytics ofJapaneseSimpleMatured() {
+    return new JapaneseSimpleMatured();
+  }
+
+  // restricted constructor
+  private FixedCouponBondAnalytics(FixedCouponBondYieldConvention yieldConvention) {
+    this.yieldConvention = yieldConvention;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the dirty price from the yield.
+   *
+   * @param yield  the yield
+   * @return the dirty price
+   */
+  public abstract double dirtyPriceFromYield(double yield);
+
+  /**
+   * Calculates the yield from the dirty price.
+   *
+   * @param dirtyPrice  the dirty price
+   * @return the yield
+   * @throws IllegalArgumentException if the bond has matured, for the 'JP-Simple' convention
+   */
+  public abstract double yieldFromDirtyPrice(double dirtyPrice);
+
+  /**
+   * Calculates the modified duration from the yield.
+   * <p>
+   * The modified duration is the minus of the first derivative of dirty price with respect to yield,
+   * divided by the dirty price.
+   *
+   * @param yield  the yield
+   * @return the modified duration
+   */
+  public abstract double modifiedDurationFromYield(double yield);
+
+  /**
+   * Calculates the Macaulay duration from the yield.
+   *
+   * @param yield  the yield
+   * @return the Macaulay duration
+   * @throws UnsupportedOperationException if the convention is 'JP-Simple'
+   */
+  public double macaulayDurationFromYield(double yield) {
+    throw new UnsupportedOperationException("The convention " + yieldConvention.name() + " is not supported.");
+  }
+
+  /**
+   * Calculates the convexity from the yield.
+   * <p>
+   * The convexity is the second derivative of dirty price with respect to yield, divided by the dirty price.
+   *
+   * @param yield  the yield
+   * @return the convexity
+   */
+  public abstract double convexityFromYield(double yield);
+
+  //-------------------------------------------------------------------------
+  // compounded conventions, where the yield is found by Newton's method
+  private abstract static class Compounded extends FixedCouponBondAnalytics {
+    final double couponsPerYear;
+
+    private Compounded(FixedCouponBondYieldConvention yieldConvention, double couponsPerYear) {
+      super(yieldConvention);
+      this.couponsPerYear = couponsPerYear;
+    }
+
+    @Override
+    public double yieldFromDirtyPrice(double dirtyPrice) {
+      // the price is decreasing and convex in the yield, thus Newton's method converges from a reasonable start
+      double yield = 0.05;
+      for (int i = 0; i < MAX_ITERATIONS; i++) {
+        double[] priceAndDerivative = priceAndDerivatives(yield);
+        double step = (priceAndDerivative[0] - dirtyPrice) / priceAndDerivative[1];
+        if (!Double.isFinite(step)) {
+          break;
+        }
+        yield -= step;
+        if (Math.abs(step) < TOLERANCE) {
+          return yield;
+        }
+      }
+      Function<Double, Double> priceResidual = y -> dirtyPriceFromYield(y) - dirtyPrice;
+      double[] range = ROOT_BRACKETER.getBracketedPoints(priceResidual, 0.00, 0.20);
+      return ROOT_FINDER.getRoot(priceResidual, range[0], range[1]);
+    }
+
+    @Override
+    public double modifiedDurationFromYield(double yield) {
+      double[] priceAndDerivatives = priceAndDerivatives(yield);
+      return -priceAndDerivatives[1] / priceAndDerivatives[0];
+    }
+
+    @Override
+    public double macaulayDurationFromYield(double yield) {
+      return modifiedDurationFromYield(yield) * (1d + yield / couponsPerYear);
+    }
+
+    @Override
+    public double convexityFromYield(double yield) {
+      double[] priceAndDerivatives = priceAndDerivatives(yield);
+      return priceAndDerivatives[2] / priceAndDerivatives[0];
+    }
+
+    // the dirty price and its first and second derivatives with respect to yield
+    abstract double[] priceAndDerivatives(double yield);
+  }
+
+  //-------------------------------------------------------------------------
+  // periodic compounding of each cash-flow
+  private static final class Periodic extends Compounded {
+    private final double[] amounts;
+    private final double[] exponents;
+
+    private Periodic(
+        FixedCouponBondYieldConvention yieldConvention,
+        double couponsPerYear,
+        double[] amounts,
+        double[] exponents) {
+
+      super(yieldConvention, couponsPerYear);
+      this.amounts = amounts;
+      this.exponents = exponents;
+    }
+
+    @Override
+    public double dirtyPriceFromYield(double yield) {
+      double factorOnPeriod = 1d + yield / couponsPerYear;
+      double price = 0d;
+      for (int i = 0; i < amounts.length; i++) {
+        price += amounts[i] * Math.pow(factorOnPeriod, -exponents[i]);
+      }
+      return price;
+    }
+
+    @Override
+    double[] priceAndDerivatives(double yield) {
+      double factorOnPeriod = 1d + yield / couponsPerYear;
+      double price = 0d;
+      double firstDerivative = 0d;
+      double secondDerivative = 0d;
+      for (int i = 0; i < amounts.length; i++) {
+        double exponent = exponents[i];
+        double pv = amounts[i] * Math.pow(factorOnPeriod, -exponent);
+        price += pv;
+        firstDerivative += pv * exponent;
+        secondDerivative += pv * exponent * (exponent + 1d);
+      }
+      firstDerivative *= -1d / (couponsPerYear * factorOnPeriod);
+      secondDerivative /= couponsPerYear * couponsPerYear * factorOnPeriod * factorOnPeriod;
+      return new double[] {price, firstDerivative, secondDerivative};
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // simple compounding of the last coupon and the repayment
+  private static final class SimpleLastCoupon extends Compounded {
+    private final double factorToNextCoupon;
+    private final double amount;
+
+    private SimpleLastCoupon(
+        FixedCouponBondYieldConvention yieldConvention,
+        double couponsPerYear,
+        double factorToNextCoupon,
+        double amount) {
+
+      super(yieldConvention, couponsPerYear);
+      this.factorToNextCoupon = factorToNextCoupon;
+      this.amount = amount;
+    }
+
+    @Override
+    public double dirtyPriceFromYield(double yield) {
+      return amount / (1d + factorToNextCoupon * yield / couponsPerYear);
+    }
+
+    @Override
+    public double modifiedDurationFromYield(double yield) {
+      double factor = factorToNextCoupon / couponsPerYear;
+      return factor / (1d + factorToNextCoupon * yield / couponsPerYear);
+    }
+
+    @Override
+    public double macaulayDurationFromYield(double yield) {
+      if (yieldConvention.equals(US_STREET)) {
+        return factorToNextCoupon / couponsPerYear;
+      }
+      return super.macaulayDurationFromYield(yield);
+    }
+
+    @Override
+    public double convexityFromYield(double yield) {
+      double timeToPay = factorToNextCoupon / couponsPerYear;
+      double disc = 1d + factorToNextCoupon * yield / couponsPerYear;
+      return 2d * timeToPay * timeToPay / (disc * disc);
+    }
+
+    @Override
+    double[] priceAndDerivatives(double yield) {
+      double time = factorToNextCoupon / couponsPerYear;
+      double disc = 1d / (1d + time * yield);
+      double price = amount * disc;
+      return new double[] {price, -price * time * disc, 2d * price * time * time * disc * disc};
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // the Japanese simple yield
+  private static final class JapaneseSimple extends FixedCouponBondAnalytics {
+    private final double fixedRate;
+    private final double maturity;
+    private final double accruedInterest;
+
+    private JapaneseSimple(double fixedRate, double maturity, double accruedInterest) {
+      super(JP_SIMPLE);
+      this.fixedRate = fixedRate;
+      this.maturity = maturity;
+      this.accruedInterest = accruedInterest;
+    }
+
+    @Override
+    public double dirtyPriceFromYield(double yield) {
+      return (1d + fixedRate * maturity) / (1d + yield * maturity) + accruedInterest;
+    }
+
+    @Override
+    public double yieldFromDirtyPrice(double dirtyPrice) {
+      double cleanPrice = dirtyPrice - accruedInterest;
+      return (fixedRate + (1d - cleanPrice) / maturity) / cleanPrice;
+    }
+
+    @Override
+    public double modifiedDurationFromYield(double yield) {
+      double num = 1d + fixedRate * maturity;
+      double den = 1d + yield * maturity;
+      return num * maturity / den / den / (num / den + accruedInterest);
+    }
+
+    @Override
+    public double convexityFromYield(double yield) {
+      double num = 1d + fixedRate * maturity;
+      double den = 1d + yield * maturity;
+      return 2d * num * maturity * maturity / (den * den * den) / (num / den + accruedInterest);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // the Japanese simple yield, where the settlement date is after maturity
+  private static final class JapaneseSimpleMatured extends FixedCouponBondAnalytics {
+
+    private JapaneseSimpleMatured() {
+      super(JP_SIMPLE);
+    }
+
+    @Override
+    public double dirtyPriceFromYield(double yield) {
+      return 0d;
+    }
+
+    @Override
+    public double yieldFromDirtyPrice(double dirtyPrice) {
+      // the accrued interest, and thus the clean price, is not defined after maturity
+      throw new IllegalArgumentException("Date outside range of bond");
+    }
+
+    @Override
+    public double modifiedDurationFromYield(double yield) {
+      return 0d;
+    }
+
+    @Override
+    public double convexityFromYield(double yield) {
+      return 0d;
+    }
+  }
+
+}
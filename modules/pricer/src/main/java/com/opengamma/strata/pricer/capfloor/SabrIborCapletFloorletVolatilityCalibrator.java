@@ -38,6 +38,7 @@ import com.opengamma.strata.math.impl.minimization.SingleRangeLimitTransform;
 import com.opengamma.strata.math.impl.minimization.UncoupledParameterTransforms;
 import com.opengamma.strata.math.impl.statistics.leastsquare.LeastSquareResults;
 import com.opengamma.strata.math.impl.statistics.leastsquare.LeastSquareResultsWithTransform;
+import com.opengamma.strata.math.impl.statistics.leastsquare.LevenbergMarquardtLeastSquare;
 import com.opengamma.strata.math.impl.statistics.leastsquare.NonLinearLeastSquare;
 import com.opengamma.strata.pricer.model.SabrParameters;
 import com.opengamma.strata.pricer.option.RawOptionData;
@@ -113,6 +114,26 @@ public class SabrIborCapletFloorletVolatilityCalibrator
     return new SabrIborCapletFloorletVolatilityCalibrator(pricer, sabrPricer, solver, referenceData);
   }
 
+  /**
+   * Creates an instance using the specified least square solver.
+   * <p>
+   * This allows, for example, {@link LevenbergMarquardtLeastSquare} to be used.
+   * 
+   * @param pricer  the cap pricer
+   * @param sabrPricer  the SABR cap pricer
+   * @param solver  the least square solver
+   * @param referenceData  the reference data
+   * @return the instance
+   */
+  public static SabrIborCapletFloorletVolatilityCalibrator of(
+      VolatilityIborCapFloorLegPricer pricer,
+      SabrIborCapFloorLegPricer sabrPricer,
+      NonLinearLeastSquare solver,
+      ReferenceData referenceData) {
+
+    return new SabrIborCapletFloorletVolatilityCalibrator(pricer, sabrPricer, solver, referenceData);
+  }
+
   // private constructor
   private SabrIborCapletFloorletVolatilityCalibrator(
       VolatilityIborCapFloorLegPricer pricer,
@@ -183,83 +204,33 @@ public class SabrIborCapletFloorletVolatilityCalibrator
     // solve least square
     UncoupledParameterTransforms transform = new UncoupledParameterTransforms(
         initialValues, sabrDefinition.createFullTransform(TRANSFORMS), new BitSet());
-    Function<DoubleArray, DoubleArray> valueFunction = createPriceFunction(
-        sabrDefinition, ratesProvider, vols, capList, priceList);
-    Function<DoubleArray, DoubleMatrix> jacobianFunction = createJacobianFunction(
-        sabrDefinition, ratesProvider, vols, capList, priceList, index.getCurrency());
-    NonLinearTransformFunction transFunc = new NonLinearTransformFunction(valueFunction, jacobianFunction, transform);
-    LeastSquareResults res = solver.solve(
-        DoubleArray.filled(priceList.size(), 1d),
-        DoubleArray.copyOf(errorList),
-        transFunc.getFittingFunction(),
-        transFunc.getFittingJacobian(),
-        transform.transform(initialValues));
+    CapletModel model = new CapletModel(sabrDefinition, ratesProvider, vols, capList, priceList, index.getCurrency());
+    DoubleArray observedValues = DoubleArray.filled(priceList.size(), 1d);
+    DoubleArray errors = DoubleArray.copyOf(errorList);
+    LeastSquareResults res;
+    if (solver instanceof LevenbergMarquardtLeastSquare) {
+      res = ((LevenbergMarquardtLeastSquare) solver).solve(
+          observedValues.toArrayUnsafe(),
+          errors.toArrayUnsafe(),
+          LevenbergMarquardtLeastSquare.Model.transformed(model, transform),
+          transform.transform(initialValues).toArrayUnsafe(),
+          null);
+    } else {
+      NonLinearTransformFunction transFunc = new NonLinearTransformFunction(
+          model.valueFunction(), model.jacobianFunction(), transform);
+      res = solver.solve(
+          observedValues,
+          errors,
+          transFunc.getFittingFunction(),
+          transFunc.getFittingJacobian(),
+          transform.transform(initialValues));
+    }
     LeastSquareResultsWithTransform resTransform = new LeastSquareResultsWithTransform(res, transform);
     vols = updateParameters(sabrDefinition, vols, resTransform.getModelParameters());
 
     return IborCapletFloorletVolatilityCalibrationResult.ofLeastSquare(vols, res.getChiSq());
   }
 
-  // price function
-  private Function<DoubleArray, DoubleArray> createPriceFunction(
-      SabrIborCapletFloorletVolatilityCalibrationDefinition sabrDefinition,
-      RatesProvider ratesProvider,
-      SabrParametersIborCapletFloorletVolatilities volatilities,
-      List<ResolvedIborCapFloorLeg> capList,
-      List<Double> priceList) {
-
-    Function<DoubleArray, DoubleArray> priceFunction = new Function<DoubleArray, DoubleArray>() {
-      @Override
-      public DoubleArray apply(DoubleArray x) {
-        SabrParametersIborCapletFloorletVolatilities volsNew = updateParameters(sabrDefinition, volatilities, x);
-        return DoubleArray.of(capList.size(),
-            n -> sabrPricer.presentValue(capList.get(n), ratesProvider, volsNew).getAmount() / priceList.get(n));
-      }
-    };
-    return priceFunction;
-  }
-
-  // node sensitivity function
-  private Function<DoubleArray, DoubleMatrix> createJacobianFunction(
-      SabrIborCapletFloorletVolatilityCalibrationDefinition sabrDefinition,
-      RatesProvider ratesProvider,
-      SabrParametersIborCapletFloorletVolatilities volatilities,
-      List<ResolvedIborCapFloorLeg> capList,
-      List<Double> priceList,
-      Currency currency) {
-
-    int nCaps = capList.size();
-    SabrParameters sabrParams = volatilities.getParameters();
-    CurveName alphaName = sabrParams.getAlphaCurve().getName();
-    CurveName betaName = sabrParams.getBetaCurve().getName();
-    CurveName rhoName = sabrParams.getRhoCurve().getName();
-    CurveName nuName = sabrParams.getNuCurve().getName();
-    Function<DoubleArray, DoubleMatrix> jacobianFunction = new Function<DoubleArray, DoubleMatrix>() {
-      @Override
-      public DoubleMatrix apply(DoubleArray x) {
-        SabrParametersIborCapletFloorletVolatilities volsNew = updateParameters(sabrDefinition, volatilities, x);
-        double[][] jacobian = new double[nCaps][];
-        for (int i = 0; i < nCaps; ++i) {
-          PointSensitivities point =
-              sabrPricer.presentValueSensitivityModelParamsSabr(capList.get(i), ratesProvider, volsNew).build();
-          CurrencyParameterSensitivities sensi = volsNew.parameterSensitivity(point);
-          double targetPriceInv = 1d / priceList.get(i);
-          DoubleArray sensitivities = sensi.getSensitivity(alphaName, currency).getSensitivity();
-          if (sabrDefinition.getBetaCurve().isPresent()) { // beta fixed
-            sensitivities = sensitivities.concat(sensi.getSensitivity(rhoName, currency).getSensitivity());
-          } else { // rho fixed
-            sensitivities = sensitivities.concat(sensi.getSensitivity(betaName, currency).getSensitivity());
-          }
-          jacobian[i] = sensitivities.concat(sensi.getSensitivity(nuName, currency).getSensitivity())
-              .multipliedBy(targetPriceInv)
-              .toArray();
-        }
-        return DoubleMatrix.ofUnsafe(jacobian);
-      }
-    };
-    return jacobianFunction;
-  }
-
   // update vols
   private SabrParametersIborCapletFloorletVolatilities updateParameters(
       SabrIborCapletFloorletVolatilityCalibrationDefinition sabrDefinition,
@@ -285,4 +256,88 @@ public class SabrIborCapletFloorletVolatilityCalibrator
     return newVols;
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * The prices of the caps, relative to the target prices, as a function of the SABR parameters.
+   * <p>
+   * The prices and their sensitivities are written directly into the arrays of the solver.
+   */
+  private final class CapletModel implements LevenbergMarquardtLeastSquare.Model {
+    private final SabrIborCapletFloorletVolatilityCalibrationDefinition sabrDefinition;
+    private final RatesProvider ratesProvider;
+    private final SabrParametersIborCapletFloorletVolatilities volatilities;
+    private final List<ResolvedIborCapFloorLeg> capList;
+    private final List<Double> priceList;
+    private final Currency currency;
+
+    private CapletModel(
+        SabrIborCapletFloorletVolatilityCalibrationDefinition sabrDefinition,
+        RatesProvider ratesProvider,
+        SabrParametersIborCapletFloorletVolatilities volatilities,
+        List<ResolvedIborCapFloorLeg> capList,
+        List<Double> priceList,
+        Currency currency) {
+
+      this.sabrDefinition = sabrDefinition;
+      this.ratesProvider = ratesProvider;
+      this.volatilities = volatilities;
+      this.capList = capList;
+      this.priceList = priceList;
+      this.currency = currency;
+    }
+
+    @Override
+    public void values(double[] parameters, double[] values) {
+      SabrParametersIborCapletFloorletVolatilities volsNew =
+          updateParameters(sabrDefinition, volatilities, DoubleArray.ofUnsafe(parameters));
+      for (int n = 0; n < values.length; n++) {
+        values[n] = sabrPricer.presentValue(capList.get(n), ratesProvider, volsNew).getAmount() / priceList.get(n);
+      }
+    }
+
+    @Override
+    public void jacobian(double[] parameters, double[][] jacobian) {
+      SabrParametersIborCapletFloorletVolatilities volsNew =
+          updateParameters(sabrDefinition, volatilities, DoubleArray.ofUnsafe(parameters));
+      SabrParameters sabrParams = volatilities.getParameters();
+      CurveName alphaName = sabrParams.getAlphaCurve().getName();
+      CurveName betaName = sabrParams.getBetaCurve().getName();
+      CurveName rhoName = sabrParams.getRhoCurve().getName();
+      CurveName nuName = sabrParams.getNuCurve().getName();
+      for (int i = 0; i < jacobian.length; ++i) {
+        PointSensitivities point =
+            sabrPricer.presentValueSensitivityModelParamsSabr(capList.get(i), ratesProvider, volsNew).build();
+        CurrencyParameterSensitivities sensi = volsNew.parameterSensitivity(point);
+        double targetPriceInv = 1d / priceList.get(i);
+        DoubleArray sensitivities = sensi.getSensitivity(alphaName, currency).getSensitivity();
+        if (sabrDefinition.getBetaCurve().isPresent()) { // beta fixed
+          sensitivities = sensitivities.concat(sensi.getSensitivity(rhoName, currency).getSensitivity());
+        } else { // rho fixed
+          sensitivities = sensitivities.concat(sensi.getSensitivity(betaName, currency).getSensitivity());
+        }
+        sensitivities.concat(sensi.getSensitivity(nuName, currency).getSensitivity())
+            .multipliedBy(targetPriceInv)
+            .copyInto(jacobian[i], 0);
+      }
+    }
+
+    // the price function, for solvers other than LevenbergMarquardtLeastSquare
+    private Function<DoubleArray, DoubleArray> valueFunction() {
+      return x -> {
+        double[] values = new double[capList.size()];
+        values(x.toArrayUnsafe(), values);
+        return DoubleArray.ofUnsafe(values);
+      };
+    }
+
+    // the node sensitivity function, for solvers other than LevenbergMarquardtLeastSquare
+    private Function<DoubleArray, DoubleMatrix> jacobianFunction() {
+      return x -> {
+        double[][] jacobian = new double[capList.size()][x.size()];
+        jacobian(x.toArrayUnsafe(), jacobian);
+        return DoubleMatrix.ofUnsafe(jacobian);
+      };
+    }
+  }
+
 }
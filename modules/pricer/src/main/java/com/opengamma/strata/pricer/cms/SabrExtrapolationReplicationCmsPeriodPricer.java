@@ -13,7 +13,7 @@ import static com.opengamma.strata.market.model.SabrParameterType.RHO;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.OptionalDouble;
-import java.util.function.Function;
+import java.util.function.BiConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,12 +22,11 @@ import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
-import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.market.explain.ExplainKey;
 import com.opengamma.strata.market.explain.ExplainMapBuilder;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.math.MathException;
-import com.opengamma.strata.math.impl.integration.RungeKuttaIntegrator1D;
+import com.opengamma.strata.math.impl.integration.GaussKronrodIntegrator1D;
 import com.opengamma.strata.pricer.impl.option.SabrExtrapolationRightFunction;
 import com.opengamma.strata.pricer.impl.volatility.smile.SabrFormulaData;
 import com.opengamma.strata.pricer.rate.RatesProvider;
@@ -50,7 +49,8 @@ import com.opengamma.strata.product.swap.SwapLegType;
  *  The extrapolation is done on call prices above a certain strike. See {@link SabrExtrapolationRightFunction} for
  *  more details on the extrapolation method.
  *  <p>
- *  The replication requires numerical integration. This is completed by {@link RungeKuttaIntegrator1D}.
+ *  The replication requires numerical integration. This is completed by adaptive Gauss-Kronrod quadrature,
+ *  where the integrands that share the same smile evaluations are integrated together.
  *  <p>
  *  The consistency between {@code RatesProvider} and {@code SabrParametersSwaptionVolatilities} is not checked in this 
  *  class, but validated only once in {@link SabrExtrapolationReplicationCmsLegPricer}.
@@ -67,15 +67,11 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
    */
   private static final Logger log = LoggerFactory.getLogger(SabrExtrapolationReplicationCmsPeriodPricer.class);
 
-  /**
-   * The minimal number of iterations for the numerical integration.
-   */
-  private static final int NUM_ITER = 10;
   /** The relative tolerance for the numerical integration in PV computation. */
   private static final double REL_TOL = 1.0e-10;
   /** The absolute tolerance for the numerical integration in PV computation.
-   * The numerical integration stops when the difference between two steps is below the absolute tolerance
-   * plus the relative tolerance multiplied by the value.*/
+   * The numerical integration stops when the difference between the Gauss and Kronrod estimates is below
+   * the absolute tolerance or the relative tolerance multiplied by the value.*/
   private static final double ABS_TOL = 1.0e-8;
   /**
    * The relative tolerance for the numerical integration in sensitivity computation.
@@ -204,15 +200,15 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
         cmsPeriod, swap, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor, cutOffStrike, eta);
     double factor = dfPayment / intProv.h(forward) * intProv.g(forward);
     double strikePart = factor * intProv.k(strikeCpn) * intProv.bs(strikeCpn);
-    RungeKuttaIntegrator1D integrator = new RungeKuttaIntegrator1D(ABS_TOL, REL_TOL, NUM_ITER);
+    GaussKronrodIntegrator1D integrator = new GaussKronrodIntegrator1D(ABS_TOL, REL_TOL);
     double integralPart = 0d;
-    Function<Double, Double> integrant = intProv.integrant();
+    BiConsumer<double[], double[][]> integrant = intProv.integrant();
     try {
       if (intProv.getPutCall().isCall()) {
         integralPart = dfPayment *
-            integrateCall(integrator, integrant, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor);
+            integrateCall(integrator, integrant, 1, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor)[0];
       } else {
-        integralPart = -dfPayment * integrator.integrate(integrant, -shift + ZERO_SHIFT, strikeCpn);
+        integralPart = -dfPayment * integrator.integrate(integrant, 1, -shift + ZERO_SHIFT, strikeCpn)[0];
       }
     } catch (Exception e) {
       throw new MathException(e);
@@ -324,23 +320,25 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
         .relativeYearFraction(cmsPeriod.getPaymentDate(), swap.getStartDate());
     CmsDeltaIntegrantProvider intProv = new CmsDeltaIntegrantProvider(
         cmsPeriod, swap, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor, cutOffStrike, eta);
-    RungeKuttaIntegrator1D integrator = new RungeKuttaIntegrator1D(ABS_TOL, REL_TOL, NUM_ITER);
+    GaussKronrodIntegrator1D integrator = new GaussKronrodIntegrator1D(ABS_TOL, REL_TOL);
     double[] bs = intProv.bsbsp(strikeCpn);
     double[] n = intProv.getNnp();
     double strikePartPrice = intProv.k(strikeCpn) * n[0] * bs[0];
     double integralPartPrice = 0d;
     double integralPart = 0d;
-    Function<Double, Double> integrant = intProv.integrant();
-    Function<Double, Double> integrantDelta = intProv.integrantDelta();
+    // the price and delta integrands share the evaluation of the smile
+    BiConsumer<double[], double[][]> integrantPriceDelta = intProv.integrantPriceDelta();
     try {
       if (intProv.getPutCall().isCall()) {
-        integralPartPrice =
-            integrateCall(integrator, integrant, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor);
-        integralPart = dfPayment *
-            integrateCall(integrator, integrantDelta, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor);
+        double[] integrals = integrateCall(
+            integrator, integrantPriceDelta, 2, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor);
+        integralPartPrice = integrals[0];
+        integralPart = dfPayment * integrals[1];
       } else {
-        integralPartPrice = -integrator.integrate(integrant, -shift + ZERO_SHIFT, strikeCpn);
-        integralPart = -dfPayment * integrator.integrate(integrantDelta, -shift, strikeCpn);
+        double[] integrals = integrator.integrate(integrantPriceDelta, 2, -shift + ZERO_SHIFT, strikeCpn);
+        double[] integralsZero = integrator.integrate(integrantPriceDelta, 2, -shift, -shift + ZERO_SHIFT);
+        integralPartPrice = -integrals[0];
+        integralPart = -dfPayment * (integrals[1] + integralsZero[1]);
       }
     } catch (Exception e) {
       throw new MathException(e);
@@ -404,21 +402,26 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
     double[] strikePartPrice = intProv.getSabrExtrapolation()
         .priceAdjointSabr(Math.max(0d, strikeCpn + shift), intProv.getPutCall()) // handle tiny but negative number
         .getDerivatives().multipliedBy(factor2).toArray();
-    RungeKuttaIntegrator1D integrator = new RungeKuttaIntegrator1D(ABS_TOL, REL_TOL_VEGA, NUM_ITER);
-    double[] totalSensi = new double[4];
-    for (int loopparameter = 0; loopparameter < 4; loopparameter++) {
-      double integralPart = 0d;
-      Function<Double, Double> integrant = intProv.integrantVega(loopparameter);
-      try {
-        if (intProv.getPutCall().isCall()) {
-          integralPart = dfPayment *
-              integrateCall(integrator, integrant, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor);
-        } else {
-          integralPart = -dfPayment * integrator.integrate(integrant, -shift + ZERO_SHIFT, strikeCpn);
+    GaussKronrodIntegrator1D integrator = new GaussKronrodIntegrator1D(ABS_TOL, REL_TOL_VEGA);
+    // the four SABR parameter integrands share the evaluation of the smile
+    BiConsumer<double[], double[][]> integrant = intProv.integrantVega();
+    double[] integralParts;
+    try {
+      if (intProv.getPutCall().isCall()) {
+        integralParts =
+            integrateCall(integrator, integrant, 4, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor);
+      } else {
+        integralParts = integrator.integrate(integrant, 4, -shift + ZERO_SHIFT, strikeCpn);
+        for (int loopparameter = 0; loopparameter < 4; loopparameter++) {
+          integralParts[loopparameter] = -integralParts[loopparameter];
         }
-      } catch (Exception e) {
-        throw new RuntimeException(e);
       }
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+    double[] totalSensi = new double[4];
+    for (int loopparameter = 0; loopparameter < 4; loopparameter++) {
+      double integralPart = dfPayment * integralParts[loopparameter];
       totalSensi[loopparameter] =
           (strikePartPrice[loopparameter] + integralPart) * cmsPeriod.getNotional() * cmsPeriod.getYearFraction();
     }
@@ -486,17 +489,17 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
     CmsIntegrantProvider intProv = new CmsIntegrantProvider(
         cmsPeriod, swap, swaptionVolatilities, forward, strike, expiryTime, tenor, cutOffStrike, eta);
     double factor = dfPayment * intProv.g(forward) / intProv.h(forward);
-    RungeKuttaIntegrator1D integrator = new RungeKuttaIntegrator1D(ABS_TOL, REL_TOL_STRIKE, NUM_ITER);
+    GaussKronrodIntegrator1D integrator = new GaussKronrodIntegrator1D(ABS_TOL, REL_TOL_STRIKE);
     double[] kpkpp = intProv.kpkpp(strike);
     double firstPart;
     double thirdPart;
-    Function<Double, Double> integrant = intProv.integrantDualDelta();
+    BiConsumer<double[], double[][]> integrant = intProv.integrantDualDelta();
     if (intProv.getPutCall().isCall()) {
       firstPart = -kpkpp[0] * intProv.bs(strike);
-      thirdPart = integrateCall(integrator, integrant, swaptionVolatilities, forward, strike, expiryTime, tenor);
+      thirdPart = integrateCall(integrator, integrant, 1, swaptionVolatilities, forward, strike, expiryTime, tenor)[0];
     } else {
       firstPart = -kpkpp[0] * intProv.bs(strike);
-      thirdPart = -integrator.integrate(integrant, -shift + ZERO_SHIFT, strike);
+      thirdPart = -integrator.integrate(integrant, 1, -shift + ZERO_SHIFT, strike)[0];
     }
     double secondPart =
         intProv.k(strike) * intProv.getSabrExtrapolation().priceDerivativeStrike(strike + shift, intProv.getPutCall());
@@ -521,30 +524,33 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
     return payoff;
   }
 
-  private double integrateCall(
-      RungeKuttaIntegrator1D integrator,
-      Function<Double, Double> integrant,
+  // integrates from the strike, extending the upper bound until the remainder of each integral is small
+  private double[] integrateCall(
+      GaussKronrodIntegrator1D integrator,
+      BiConsumer<double[], double[][]> integrant,
+      int dimension,
       SabrSwaptionVolatilities swaptionVolatilities,
       double forward,
       double strike,
       double expiryTime,
       double tenor) {
 
-    double res;
     double vol = swaptionVolatilities.volatility(expiryTime, tenor, forward, forward);
     double upper0 = Math.max(
         forward * Math.exp(6d * vol * Math.sqrt(expiryTime)),
         Math.max(cutOffStrike, 2d * strike));  // To ensure that the integral covers a good part of the smile
     double upper = Math.min(upper0, 1d); // To ensure that we don't miss the meaningful part
-    res = integrator.integrate(integrant, strike, upper);
-    double reminder = integrant.apply(upper) * upper;
-    double error = reminder / res;
+    double[] res = integrator.integrate(integrant, dimension, strike, upper);
+    double[][] reminder = new double[1][dimension];
+    integrant.accept(new double[] {upper}, reminder);
     int count = 0;
-    while (Math.abs(error) > integrator.getRelativeTolerance() && count < MAX_COUNT) {
-      res += integrator.integrate(integrant, upper, 2d * upper);
+    while (maxError(reminder[0], upper, res) > integrator.getRelativeTolerance() && count < MAX_COUNT) {
+      double[] extra = integrator.integrate(integrant, dimension, upper, 2d * upper);
+      for (int i = 0; i < dimension; i++) {
+        res[i] += extra[i];
+      }
       upper *= 2d;
-      reminder = integrant.apply(upper) * upper;
-      error = reminder / res;
+      integrant.accept(new double[] {upper}, reminder);
       ++count;
       if (count == MAX_COUNT) {
         log.info("Maximum iteration count, " + MAX_COUNT + ", has been reached. Relative error is greater than " +
@@ -554,6 +560,19 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
     return res;
   }
 
+  // the largest relative error of the integrals, estimated from the integrand at the upper bound
+  private static double maxError(double[] integrand, double upper, double[] integrals) {
+    double maxError = 0d;
+    for (int i = 0; i < integrals.length; i++) {
+      double error = Math.abs(integrand[i] * upper / integrals[i]);
+      // a NaN error, from a zero integral and integrand, is treated as converged
+      if (error > maxError) {
+        maxError = error;
+      }
+    }
+    return maxError;
+  }
+
   /**
    * Explains the present value of the CMS period.
    * <p>
@@ -650,6 +669,15 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
       return shift;
     }
 
+    /**
+     * Gets the factor field.
+     * 
+     * @return the factor
+     */
+    protected double getFactor() {
+      return factor;
+    }
+
     /**
      * Gets the sabrExtrapolation field.
      * 
@@ -699,32 +727,35 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
      * 
      * @return the integrant
      */
-    Function<Double, Double> integrant() {
-      return new Function<Double, Double>() {
-        @Override
-        public Double apply(Double x) {
-          double[] kD = kpkpp(x);
+    BiConsumer<double[], double[][]> integrant() {
+      return (x, result) -> {
+        double[] bs = bs(x);
+        for (int i = 0; i < x.length; i++) {
+          double[] kD = kpkpp(x[i]);
           // Implementation note: kD[0] contains the first derivative of k; kD[1] the second derivative of k.
-          return factor * (kD[1] * (x - strike) + 2d * kD[0]) * bs(x);
+          result[i][0] = factor * (kD[1] * (x[i] - strike) + 2d * kD[0]) * bs[i];
         }
       };
     }
 
     /**
-     * Obtains the integrant sensitivity to the i-th SABR parameter.
+     * Obtains the integrant sensitivity to the SABR parameters.
+     * <p>
+     * The four integrants are the sensitivities to alpha, beta, rho and nu.
      * 
-     * @param i  the index of SABR parameters
      * @return the vega integrant
      */
-    Function<Double, Double> integrantVega(int i) {
-      return new Function<Double, Double>() {
-        @Override
-        public Double apply(Double x) {
-          double[] kD = kpkpp(x);
+    BiConsumer<double[], double[][]> integrantVega() {
+      return (x, result) -> {
+        double[][] priceDerivativeSabr = new double[x.length][4];
+        sabrExtrapolation.pricesAdjoint(shifted(x), putCall, null, priceDerivativeSabr);
+        for (int i = 0; i < x.length; i++) {
+          double[] kD = kpkpp(x[i]);
           // Implementation note: kD[0] contains the first derivative of k; kD[1] the second derivative of k.
-          double xShifted = Math.max(x + shift, 0d); // handle tiny but negative number
-          DoubleArray priceDerivativeSabr = getSabrExtrapolation().priceAdjointSabr(xShifted, putCall).getDerivatives();
-          return priceDerivativeSabr.get(i) * (factor * (kD[1] * (x - strike) + 2d * kD[0]));
+          double kFactor = factor * (kD[1] * (x[i] - strike) + 2d * kD[0]);
+          for (int j = 0; j < 4; j++) {
+            result[i][j] = priceDerivativeSabr[i][j] * kFactor;
+          }
         }
       };
     }
@@ -734,13 +765,13 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
      * 
      * @return the dual delta integrant
      */
-    Function<Double, Double> integrantDualDelta() {
-      return new Function<Double, Double>() {
-        @Override
-        public Double apply(Double x) {
-          double[] kD = kpkpp(x);
+    BiConsumer<double[], double[][]> integrantDualDelta() {
+      return (x, result) -> {
+        double[] bs = bs(x);
+        for (int i = 0; i < x.length; i++) {
+          double[] kD = kpkpp(x[i]);
           // Implementation note: kD[0] contains the first derivative of k; kD[1] the second derivative of k.
-          return -kD[1] * bs(x);
+          result[i][0] = -kD[1] * bs[i];
         }
       };
     }
@@ -839,6 +870,30 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
       double strikeShifted = Math.max(strike + getShift(), 0d); // handle tiny but negative number
       return sabrExtrapolation.price(strikeShifted, putCall);
     }
+
+    /**
+     * The Black prices with numeraire 1 for a set of strikes, evaluating the smile together.
+     * 
+     * @param strikes  the strikes.
+     * @return the Black prices.
+     */
+    double[] bs(double[] strikes) {
+      return sabrExtrapolation.prices(shifted(strikes), putCall);
+    }
+
+    /**
+     * The shifted strikes, as used by the smile.
+     * 
+     * @param strikes  the strikes.
+     * @return the shifted strikes.
+     */
+    double[] shifted(double[] strikes) {
+      double[] strikesShifted = new double[strikes.length];
+      for (int i = 0; i < strikes.length; i++) {
+        strikesShifted[i] = Math.max(strikes[i] + shift, 0d); // handle tiny but negative number
+      }
+      return strikesShifted;
+    }
   }
 
   /**
@@ -872,18 +927,20 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
     }
 
     /**
-     * Obtains the integrant sensitivity to forward.
+     * Obtains the integrant used in price replication and the integrant sensitivity to forward.
      * 
-     * @return the delta integrant
+     * @return the price and delta integrant
      */
-    Function<Double, Double> integrantDelta() {
-      return new Function<Double, Double>() {
-        @Override
-        public Double apply(Double x) {
-          double[] kD = kpkpp(x);
+    BiConsumer<double[], double[][]> integrantPriceDelta() {
+      return (x, result) -> {
+        double[] bsp = new double[x.length];
+        double[] bs = getSabrExtrapolation().pricesAdjoint(shifted(x), getPutCall(), bsp, null);
+        for (int i = 0; i < x.length; i++) {
+          double[] kD = kpkpp(x[i]);
           // Implementation note: kD[0] contains the first derivative of k; kD[1] the second derivative of k.
-          double[] bs = bsbsp(x);
-          return (kD[1] * (x - getStrike()) + 2d * kD[0]) * (nnp[1] * bs[0] + nnp[0] * bs[1]);
+          double kFactor = kD[1] * (x[i] - getStrike()) + 2d * kD[0];
+          result[i][0] = getFactor() * kFactor * bs[i];
+          result[i][1] = kFactor * (nnp[1] * bs[i] + nnp[0] * bsp[i]);
         }
       };
     }
@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.credit;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.product.credit.CreditCouponPaymentPeriod;
+import com.opengamma.strata.product.credit.ResolvedCds;
+import com.opengamma.strata.product.credit.ResolvedCdsIndex;
+
+/**
+ * Pricer for the constituents of a CDS index based on ISDA standard model.
+ * <p>
+ * Each legal entity of the index is valued as a single-name CDS with the terms of the index,
+ * using the survival probabilities and recovery rate of the legal entity.
+ * The results are the same as those of {@link IsdaCdsProductPricer} applied to each constituent.
+ * <p>
+ * The premium schedule, discount factors and integration grids are shared by the constituents,
+ * rather than being rebuilt for each name. Constituents whose credit curves have the same nodes,
+ * which is typical of curves calibrated to a common set of tenors, also share the evaluation of
+ * the discount curve on the integration grid.
+ * <p>
+ * The resulting {@link IsdaCdsIndexConstituentValues} provides the intrinsic index spread and price.
+ * The basis between the index par spread and the intrinsic par spread is also available.
+ */
+public class IsdaCdsIndexConstituentPricer {
+
+  /**
+   * Default implementation.
+   */
+  public static final IsdaCdsIndexConstituentPricer DEFAULT =
+      new IsdaCdsIndexConstituentPricer(AccrualOnDefaultFormula.ORIGINAL_ISDA);
+
+  /**
+   * The formula
+   */
+  private final AccrualOnDefaultFormula formula;
+  /**
+   * The pricer for a single constituent, providing the integration of the protection and accrual-on-default legs.
+   */
+  private final IsdaCdsProductPricer productPricer;
+  /**
+   * The pricer for the index, using the index credit curve.
+   */
+  private final IsdaHomogenousCdsIndexProductPricer indexPricer;
+
+  /**
+   * Constructor specifying the formula to use for the accrued on default calculation.
+   *
+   * @param formula  the formula
+   */
+  public IsdaCdsIndexConstituentPricer(AccrualOnDefaultFormula formula) {
+    this.formula = ArgChecker.notNull(formula, "formula");
+    this.productPricer = new IsdaCdsProductPricer(formula);
+    this.indexPricer = new IsdaHomogenousCdsIndexProductPricer(formula);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the accrual-on-default formula used in this pricer.
+   *
+   * @return the formula
+   */
+  public AccrualOnDefaultFormula getAccrualOnDefaultFormula() {
+    return formula;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the values of the constituents of the CDS index.
+   * <p>
+   * The protection leg and risky annuity are computed for each legal entity of the index,
+   * per unit notional of the constituent.
+   * The survival probabilities and recovery rates of the legal entities must be available
+   * in the rates provider.
+   *
+   * @param cdsIndex  the product
+   * @param ratesProvider  the rates provider
+   * @param referenceDate  the reference date
+   * @param refData  the reference data
+   * @return the constituent values
+   */
+  public IsdaCdsIndexConstituentValues constituentValues(
+      ResolvedCdsIndex cdsIndex,
+      CreditRatesProvider ratesProvider,
+      LocalDate referenceDate,
+      ReferenceData refData) {
+
+    ArgChecker.isTrue(cdsIndex.getProtectionEndDate().isAfter(ratesProvider.getValuationDate()),
+        "CDS index already expired");
+    ResolvedCds cds = cdsIndex.toSingleNameCds();
+    LocalDate stepinDate = cds.getStepinDateOffset().adjust(ratesProvider.getValuationDate(), refData);
+    LocalDate effectiveStartDate = cds.calculateEffectiveStartDate(stepinDate);
+    Currency currency = cds.getCurrency();
+    CreditDiscountFactors discountFactors = ratesProvider.discountFactors(currency);
+    ArgChecker.isTrue(discountFactors.isIsdaCompliant(),
+        "discount factors must be IsdaCompliantZeroRateDiscountFactors");
+    double df = discountFactors.discountFactor(referenceDate);
+
+    // premium leg schedule, shared by all the constituents
+    List<CreditCouponPaymentPeriod> coupons = cds.getPaymentPeriods().stream()
+        .filter(coupon -> stepinDate.isBefore(coupon.getEndDate()))
+        .collect(toImmutableList());
+    int nCoupons = coupons.size();
+    double[] discountedYearFractions = new double[nCoupons];
+    for (int k = 0; k < nCoupons; ++k) {
+      CreditCouponPaymentPeriod coupon = coupons.get(k);
+      discountedYearFractions[k] = coupon.getYearFraction() * discountFactors.discountFactor(coupon.getPaymentDate());
+    }
+
+    ImmutableList<StandardId> legalEntityIds = cdsIndex.getLegalEntityIds();
+    int nNames = legalEntityIds.size();
+    double[] protectionLegs = new double[nNames];
+    double[] riskyAnnuities = new double[nNames];
+    Map<DoubleArray, ConstituentGrid> grids = new HashMap<>();
+    for (int i = 0; i < nNames; ++i) {
+      StandardId legalEntityId = legalEntityIds.get(i);
+      LegalEntitySurvivalProbabilities survivalProbabilities =
+          survivalProbabilities(legalEntityId, currency, discountFactors, ratesProvider);
+      double recoveryRate = recoveryRate(legalEntityId, cds.getProtectionEndDate(), ratesProvider);
+      ConstituentGrid grid = grids.computeIfAbsent(
+          survivalProbabilities.getParameterKeys(),
+          keys -> new ConstituentGrid(cds, discountFactors, keys, effectiveStartDate));
+
+      protectionLegs[i] = (1d - recoveryRate) * (grid.protectionFull(survivalProbabilities) / df);
+      double pv = 0d;
+      for (int k = 0; k < nCoupons; ++k) {
+        double q = survivalProbabilities.survivalProbability(coupons.get(k).getEffectiveEndDate());
+        pv += discountedYearFractions[k] * q;
+      }
+      if (cds.getPaymentOnDefault().isAccruedInterest()) {
+        for (int k = 0; k < grid.couponCount(); ++k) {
+          pv += grid.singlePeriodAccrualOnDefault(k, survivalProbabilities);
+        }
+      }
+      riskyAnnuities[i] = pv / df;
+    }
+    return new IsdaCdsIndexConstituentValues(
+        legalEntityIds,
+        DoubleArray.ofUnsafe(protectionLegs),
+        DoubleArray.ofUnsafe(riskyAnnuities),
+        cds.accruedYearFraction(stepinDate),
+        cds.getFixedRate());
+  }
+
+  /**
+   * Calculates the par spread basis of the CDS index.
+   * <p>
+   * The basis is the par spread of the index, computed from the index credit curve by
+   * {@link IsdaHomogenousCdsIndexProductPricer}, minus the intrinsic par spread of the constituents.
+   * The rates provider must therefore contain the credit curve of the index as well as
+   * those of the constituents.
+   *
+   * @param cdsIndex  the product
+   * @param ratesProvider  the rates provider
+   * @param referenceDate  the reference date
+   * @param refData  the reference data
+   * @return the par spread basis
+   */
+  public double parSpreadBasis(
+      ResolvedCdsIndex cdsIndex,
+      CreditRatesProvider ratesProvider,
+      LocalDate referenceDate,
+      ReferenceData refData) {
+
+    double indexSpread = indexPricer.parSpread(cdsIndex, ratesProvider, referenceDate, refData);
+    return indexSpread - constituentValues(cdsIndex, ratesProvider, referenceDate, refData).getIntrinsicParSpread();
+  }
+
+  //-------------------------------------------------------------------------
+  private static LegalEntitySurvivalProbabilities survivalProbabilities(
+      StandardId legalEntityId,
+      Currency currency,
+      CreditDiscountFactors discountFactors,
+      CreditRatesProvider ratesProvider) {
+
+    LegalEntitySurvivalProbabilities survivalProbabilities =
+        ratesProvider.survivalProbabilities(legalEntityId, currency);
+    ArgChecker.isTrue(survivalProbabilities.getSurvivalProbabilities().isIsdaCompliant(),
+        "survival probabilities must be IsdaCompliantZeroRateDiscountFactors");
+    ArgChecker.isTrue(
+        discountFactors.getDayCount().equals(survivalProbabilities.getSurvivalProbabilities().getDayCount()),
+        "day count conventions of discounting curve and credit curve must be the same");
+    return survivalProbabilities;
+  }
+
+  private static double recoveryRate(StandardId legalEntityId, LocalDate date, CreditRatesProvider ratesProvider) {
+    RecoveryRates recoveryRates = ratesProvider.recoveryRates(legalEntityId);
+    ArgChecker.isTrue(recoveryRates instanceof ConstantRecoveryRates, "recoveryRates must be ConstantRecoveryRates");
+    return recoveryRates.recoveryRate(date);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The integration grids for the constituents whose credit curves share the same nodes.
+   * <p>
+   * The grids and the discount curve evaluated on the grids are computed once,
+   * leaving only the credit curve to be evaluated for each constituent.
+   */
+  private final class ConstituentGrid {
+
+    // protection leg integration points and discount exponents
+    private final double[] protectionTimes;
+    private final double[] protectionRt;
+    // accrual-on-default integration points and discount exponents for each coupon, null if the coupon has expired
+    private final double[][] couponTimes;
+    private final double[][] couponRt;
+    private final double[] couponEffectiveStarts;
+    private final double[] couponYearFractions;
+    private final double[] couponCurveYearFractions;
+
+    ConstituentGrid(
+        ResolvedCds cds,
+        CreditDiscountFactors discountFactors,
+        DoubleArray survivalKeys,
+        LocalDate effectiveStartDate) {
+
+      DoubleArray protectionSchedule = DoublesScheduleGenerator.getIntegrationsPoints(
+          discountFactors.relativeYearFraction(effectiveStartDate),
+          discountFactors.relativeYearFraction(cds.getProtectionEndDate()),
+          discountFactors.getParameterKeys(),
+          survivalKeys);
+      this.protectionTimes = protectionSchedule.toArrayUnsafe();
+      this.protectionRt = IsdaCdsProductPricer.discountExponents(protectionTimes, discountFactors);
+
+      List<CreditCouponPaymentPeriod> coupons = cds.getPaymentPeriods();
+      int nCoupons = coupons.size();
+      this.couponTimes = new double[nCoupons][];
+      this.couponRt = new double[nCoupons][];
+      this.couponEffectiveStarts = new double[nCoupons];
+      this.couponYearFractions = new double[nCoupons];
+      this.couponCurveYearFractions = new double[nCoupons];
+      if (!cds.getPaymentOnDefault().isAccruedInterest()) {
+        return;
+      }
+      // This is needed so that the code is consistent with ISDA C when the Markit `fix' is used.
+      LocalDate start = nCoupons == 1 ? effectiveStartDate : cds.getAccrualStartDate();
+      DoubleArray integrationSchedule = DoublesScheduleGenerator.getIntegrationsPoints(
+          discountFactors.relativeYearFraction(start),
+          discountFactors.relativeYearFraction(cds.getProtectionEndDate()),
+          discountFactors.getParameterKeys(),
+          survivalKeys);
+      for (int k = 0; k < nCoupons; ++k) {
+        CreditCouponPaymentPeriod coupon = coupons.get(k);
+        LocalDate couponStart = coupon.getEffectiveStartDate().isBefore(effectiveStartDate) ?
+            effectiveStartDate :
+            coupon.getEffectiveStartDate();
+        if (!couponStart.isBefore(coupon.getEffectiveEndDate())) {
+          continue; // this coupon has already expired
+        }
+        DoubleArray knots = DoublesScheduleGenerator.truncateSetInclusive(
+            discountFactors.relativeYearFraction(couponStart),
+            discountFactors.relativeYearFraction(coupon.getEffectiveEndDate()),
+            integrationSchedule);
+        couponTimes[k] = knots.toArrayUnsafe();
+        couponRt[k] = IsdaCdsProductPricer.discountExponents(couponTimes[k], discountFactors);
+        couponEffectiveStarts[k] = discountFactors.relativeYearFraction(coupon.getEffectiveStartDate());
+        couponYearFractions[k] = coupon.getYearFraction();
+        couponCurveYearFractions[k] =
+            discountFactors.getDayCount().relativeYearFraction(coupon.getStartDate(), coupon.getEndDate());
+      }
+    }
+
+    // computes protection leg pv, without loss-given-default rate multiplied and before rolling to the reference date
+    double protectionFull(LegalEntitySurvivalProbabilities survivalProbabilities) {
+      return IsdaCdsProductPricer.protectionIntegral(protectionTimes, protectionRt, survivalProbabilities);
+    }
+
+    // the number of payment periods
+    int couponCount() {
+      return couponTimes.length;
+    }
+
+    // computes accrual-on-default pv for a single payment period, before rolling to the reference date
+    double singlePeriodAccrualOnDefault(int k, LegalEntitySurvivalProbabilities survivalProbabilities) {
+      double[] knots = couponTimes[k];
+      if (knots == null) {
+        return 0d; // this coupon has already expired
+      }
+      double pv = productPricer.accrualOnDefaultIntegral(
+          knots, couponRt[k], couponEffectiveStarts[k], survivalProbabilities);
+      return couponYearFractions[k] * pv / couponCurveYearFractions[k];
+    }
+  }
+
+}
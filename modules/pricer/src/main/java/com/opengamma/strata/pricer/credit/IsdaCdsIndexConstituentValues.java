@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.credit;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.pricer.common.PriceType;
+
+/**
+ * The values of the constituents of a CDS index.
+ * <p>
+ * This holds the protection leg and risky annuity of each legal entity of the index, per unit notional,
+ * as computed by {@link IsdaCdsIndexConstituentPricer}.
+ * The constituents are weighted equally when computing the intrinsic index spread and price.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class IsdaCdsIndexConstituentValues {
+
+  /**
+   * The legal entity identifiers of the constituents.
+   */
+  private final ImmutableList<StandardId> legalEntityIds;
+  /**
+   * The protection legs, including the loss-given-default rate.
+   */
+  private final DoubleArray protectionLegs;
+  /**
+   * The dirty risky annuities.
+   */
+  private final DoubleArray riskyAnnuities;
+  /**
+   * The accrued year fraction at the step-in date.
+   */
+  private final double accruedYearFraction;
+  /**
+   * The fixed coupon rate of the index.
+   */
+  private final double fixedRate;
+
+  /**
+   * Creates an instance.
+   *
+   * @param legalEntityIds  the legal entity identifiers of the constituents
+   * @param protectionLegs  the protection legs, one for each constituent
+   * @param riskyAnnuities  the dirty risky annuities, one for each constituent
+   * @param accruedYearFraction  the accrued year fraction at the step-in date
+   * @param fixedRate  the fixed coupon rate of the index
+   */
+  IsdaCdsIndexConstituentValues(
+      List<StandardId> legalEntityIds,
+      DoubleArray protectionLegs,
+      DoubleArray riskyAnnuities,
+      double accruedYearFraction,
+      double fixedRate) {
+
+    ArgChecker.isTrue(protectionLegs.size() == legalEntityIds.size(), "Protection legs must match legal entities");
+    ArgChecker.isTrue(riskyAnnuities.size() == legalEntityIds.size(), "Risky annuities must match legal entities");
+    this.legalEntityIds = ImmutableList.copyOf(legalEntityIds);
+    this.protectionLegs = protectionLegs;
+    this.riskyAnnuities = riskyAnnuities;
+    this.accruedYearFraction = accruedYearFraction;
+    this.fixedRate = fixedRate;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the legal entity identifiers of the constituents.
+   *
+   * @return the legal entity identifiers
+   */
+  public ImmutableList<StandardId> getLegalEntityIds() {
+    return legalEntityIds;
+  }
+
+  /**
+   * Gets the protection legs of the constituents.
+   * <p>
+   * The protection leg is the present value per unit notional, including the loss-given-default rate.
+   *
+   * @return the protection legs, one for each constituent
+   */
+  public DoubleArray getProtectionLegs() {
+    return protectionLegs;
+  }
+
+  /**
+   * Gets the risky annuities of the constituents.
+   * <p>
+   * If calculating the clean value, the accrued year fraction at the step-in date is subtracted.
+   *
+   * @param priceType  the price type
+   * @return the risky annuities, one for each constituent
+   */
+  public DoubleArray getRiskyAnnuities(PriceType priceType) {
+    return priceType.isCleanPrice() ? riskyAnnuities.minus(accruedYearFraction) : riskyAnnuities;
+  }
+
+  /**
+   * Gets the par spreads of the constituents.
+   *
+   * @return the par spreads, one for each constituent
+   */
+  public DoubleArray getParSpreads() {
+    return protectionLegs.dividedBy(getRiskyAnnuities(PriceType.CLEAN));
+  }
+
+  /**
+   * Gets the prices of the constituents.
+   * <p>
+   * The price is the present value per unit notional of buying protection at the fixed rate of the index.
+   *
+   * @param priceType  the price type
+   * @return the prices, one for each constituent
+   */
+  public DoubleArray getPrices(PriceType priceType) {
+    return protectionLegs.minus(getRiskyAnnuities(priceType).multipliedBy(fixedRate));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the intrinsic par spread of the index.
+   * <p>
+   * This is the spread at which the sum of the constituent prices is zero,
+   * being the ratio of the summed protection legs to the summed clean risky annuities.
+   *
+   * @return the intrinsic par spread
+   */
+  public double getIntrinsicParSpread() {
+    return protectionLegs.sum() / getRiskyAnnuities(PriceType.CLEAN).sum();
+  }
+
+  /**
+   * Gets the intrinsic price of the index.
+   * <p>
+   * This is the average of the prices of the constituents.
+   *
+   * @param priceType  the price type
+   * @return the intrinsic price
+   */
+  public double getIntrinsicPrice(PriceType priceType) {
+    return getPrices(priceType).sum() / legalEntityIds.size();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "IsdaCdsIndexConstituentValues[constituents=" + legalEntityIds.size() + "]";
+  }
+
+}
@@ -489,15 +489,30 @@ public class IsdaCdsProductPricer {
         discountFactors.relativeYearFraction(cds.getProtectionEndDate()),
         discountFactors.getParameterKeys(),
         survivalProbabilities.getParameterKeys());
+    double[] times = integrationSchedule.toArrayUnsafe();
+    double pv = protectionIntegral(times, discountExponents(times, discountFactors), survivalProbabilities);
+
+    // roll to the cash settle date
+    double df = discountFactors.discountFactor(referenceDate);
+
+    return pv / df;
+  }
+
+  // computes protection leg pv per unit notional on the integration points, without loss-given-default rate
+  // multiplied and before rolling to the reference date
+  // the discount curve exponents, r(t) * t, are supplied for each integration point
+  static double protectionIntegral(
+      double[] times,
+      double[] rt,
+      LegalEntitySurvivalProbabilities survivalProbabilities) {
 
     double pv = 0d;
-    double ht0 = survivalProbabilities.zeroRate(integrationSchedule.get(0)) * integrationSchedule.get(0);
-    double rt0 = discountFactors.zeroRate(integrationSchedule.get(0)) * integrationSchedule.get(0);
+    double ht0 = survivalProbabilities.zeroRate(times[0]) * times[0];
+    double rt0 = rt[0];
     double b0 = Math.exp(-ht0 - rt0);
-    int n = integrationSchedule.size();
-    for (int i = 1; i < n; ++i) {
-      double ht1 = survivalProbabilities.zeroRate(integrationSchedule.get(i)) * integrationSchedule.get(i);
-      double rt1 = discountFactors.zeroRate(integrationSchedule.get(i)) * integrationSchedule.get(i);
+    for (int i = 1; i < times.length; ++i) {
+      double ht1 = survivalProbabilities.zeroRate(times[i]) * times[i];
+      double rt1 = rt[i];
       double b1 = Math.exp(-ht1 - rt1);
       double dht = ht1 - ht0;
       double drt = rt1 - rt0;
@@ -515,10 +530,16 @@ public class IsdaCdsProductPricer {
       rt0 = rt1;
       b0 = b1;
     }
-    // roll to the cash settle date
-    double df = discountFactors.discountFactor(referenceDate);
+    return pv;
+  }
 
-    return pv / df;
+  // evaluates the discount curve exponents, r(t) * t, at the specified times
+  static double[] discountExponents(double[] times, CreditDiscountFactors discountFactors) {
+    double[] rt = new double[times.length];
+    for (int i = 0; i < times.length; ++i) {
+      rt[i] = discountFactors.zeroRate(times[i]) * times[i];
+    }
+    return rt;
   }
 
   // computes risky annuity
@@ -580,23 +601,39 @@ public class IsdaCdsProductPricer {
 
     DoubleArray knots = DoublesScheduleGenerator.truncateSetInclusive(discountFactors.relativeYearFraction(start),
         discountFactors.relativeYearFraction(coupon.getEffectiveEndDate()), integrationSchedule);
+    double[] times = knots.toArrayUnsafe();
+    double effStart = discountFactors.relativeYearFraction(coupon.getEffectiveStartDate());
+    double pv = accrualOnDefaultIntegral(
+        times, discountExponents(times, discountFactors), effStart, survivalProbabilities);
+
+    double yearFractionCurve =
+        discountFactors.getDayCount().relativeYearFraction(coupon.getStartDate(), coupon.getEndDate());
+    return coupon.getYearFraction() * pv / yearFractionCurve;
+  }
+
+  // computes accrual-on-default pv per unit notional for a single payment period on the knots,
+  // before adjusting for the accrual year fraction and before rolling to the reference date
+  // the discount curve exponents, r(t) * t, are supplied for each knot
+  double accrualOnDefaultIntegral(
+      double[] knots,
+      double[] rt,
+      double effStart,
+      LegalEntitySurvivalProbabilities survivalProbabilities) {
 
-    double t0Knot = knots.get(0);
+    double t0Knot = knots[0];
     double ht0 = survivalProbabilities.zeroRate(t0Knot) * t0Knot;
-    double rt0 = discountFactors.zeroRate(t0Knot) * t0Knot;
+    double rt0 = rt[0];
     double b0 = Math.exp(-rt0 - ht0);
 
-    double effStart = discountFactors.relativeYearFraction(coupon.getEffectiveStartDate());
     double t0 = t0Knot - effStart + omega;
     double pv = 0d;
-    final int nItems = knots.size();
-    for (int j = 1; j < nItems; ++j) {
-      double t = knots.get(j);
+    for (int j = 1; j < knots.length; ++j) {
+      double t = knots[j];
       double ht1 = survivalProbabilities.zeroRate(t) * t;
-      double rt1 = discountFactors.zeroRate(t) * t;
+      double rt1 = rt[j];
       double b1 = Math.exp(-rt1 - ht1);
 
-      double dt = knots.get(j) - knots.get(j - 1);
+      double dt = knots[j] - knots[j - 1];
 
       double dht = ht1 - ht0;
       double drt = rt1 - rt0;
@@ -624,10 +661,7 @@ public class IsdaCdsProductPricer {
       rt0 = rt1;
       b0 = b1;
     }
-
-    double yearFractionCurve =
-        discountFactors.getDayCount().relativeYearFraction(coupon.getStartDate(), coupon.getEndDate());
-    return coupon.getYearFraction() * pv / yearFractionCurve;
+    return pv;
   }
 
   //-------------------------------------------------------------------------
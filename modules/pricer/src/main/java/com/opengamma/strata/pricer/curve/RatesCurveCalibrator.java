@@ -25,6 +25,8 @@ import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.MarketDataFxRateProvider;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveDefinition;
 import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.CurveNode;
 import com.opengamma.strata.market.curve.CurveParameterSize;
@@ -216,6 +218,32 @@ public final class RatesCurveCalibrator {
       MarketData marketData,
       ReferenceData refData) {
 
+    return calibrate(curveGroupDefn, marketData, refData, ImmutableMap.of());
+  }
+
+  /**
+   * Calibrates a single curve group, containing one or more curves, starting from existing curves.
+   * <p>
+   * This is identical to {@link #calibrate(RatesCurveGroupDefinition, MarketData, ReferenceData)}
+   * except that the root-finding starts from the parameters of the starting curves
+   * instead of the initial guesses of the curve definitions.
+   * A starting curve is used only if it has the same name and number of parameters as the curve definition.
+   * <p>
+   * This is typically used to calibrate curves to perturbed market data, starting from the curves
+   * calibrated to the base market data, which reduces the number of iterations of the root-finder.
+   *
+   * @param curveGroupDefn  the curve group definition
+   * @param marketData  the market data required to build a trade for the instrument, including time-series
+   * @param refData  the reference data, used to resolve the trades
+   * @param startingCurves  the curves from which the calibration starts, keyed by name
+   * @return the rates provider resulting from the calibration
+   */
+  public ImmutableRatesProvider calibrate(
+      RatesCurveGroupDefinition curveGroupDefn,
+      MarketData marketData,
+      ReferenceData refData,
+      Map<CurveName, ? extends Curve> startingCurves) {
+
     Map<Index, LocalDateDoubleTimeSeries> timeSeries = marketData.getTimeSeriesIds().stream()
         .flatMap(filtering(IndexQuoteId.class))
         .collect(toImmutableMap(id -> id.getIndex(), id -> marketData.getTimeSeries(id)));
@@ -223,7 +251,7 @@ public final class RatesCurveCalibrator {
         .fxRateProvider(MarketDataFxRateProvider.of(marketData))
         .timeSeries(timeSeries)
         .build();
-    return calibrate(ImmutableList.of(curveGroupDefn), knownData, marketData, refData);
+    return calibrate(ImmutableList.of(curveGroupDefn), knownData, marketData, refData, startingCurves);
   }
 
   /**
@@ -245,6 +273,31 @@ public final class RatesCurveCalibrator {
       ImmutableRatesProvider knownData,
       MarketData marketData,
       ReferenceData refData) {
+
+    return calibrate(allGroupsDefn, knownData, marketData, refData, ImmutableMap.of());
+  }
+
+  /**
+   * Calibrates a list of curve groups, each containing one or more curves, starting from existing curves.
+   * <p>
+   * This is identical to {@link #calibrate(List, ImmutableRatesProvider, MarketData, ReferenceData)}
+   * except that the root-finding starts from the parameters of the starting curves
+   * instead of the initial guesses of the curve definitions.
+   * A starting curve is used only if it has the same name and number of parameters as the curve definition.
+   *
+   * @param allGroupsDefn  the curve group definitions
+   * @param knownData  the starting data for the calibration
+   * @param marketData  the market data required to build a trade for the instrument
+   * @param refData  the reference data, used to resolve the trades
+   * @param startingCurves  the curves from which the calibration starts, keyed by name
+   * @return the rates provider resulting from the calibration
+   */
+  public ImmutableRatesProvider calibrate(
+      List<RatesCurveGroupDefinition> allGroupsDefn,
+      ImmutableRatesProvider knownData,
+      MarketData marketData,
+      ReferenceData refData,
+      Map<CurveName, ? extends Curve> startingCurves) {
     // this method effectively takes one CurveGroupDefinition
     // the list is a split of the definition, not multiple independent definitions
 
@@ -264,7 +317,7 @@ public final class RatesCurveCalibrator {
           groupDefn.bindTimeSeries(knownData.getValuationDate(), knownData.getTimeSeries());
       // combine all data in the group into flat lists
       ImmutableList<ResolvedTrade> trades = groupDefnBound.resolvedTrades(marketData, refData);
-      ImmutableList<Double> initialGuesses = groupDefnBound.initialGuesses(marketData);
+      ImmutableList<Double> initialGuesses = initialGuesses(groupDefnBound, marketData, startingCurves);
       ImmutableList<CurveParameterSize> orderGroup = toOrder(groupDefnBound);
       ImmutableList<CurveParameterSize> orderPrevAndGroup = ImmutableList.<CurveParameterSize>builder()
           .addAll(orderPrev)
@@ -300,6 +353,29 @@ public final class RatesCurveCalibrator {
     return groupDefn.getCurveDefinitions().stream().map(def -> def.toCurveParameterSize()).collect(toImmutableList());
   }
 
+  // the initial guesses, taken from the starting curves when they match the definitions
+  private static ImmutableList<Double> initialGuesses(
+      RatesCurveGroupDefinition groupDefn,
+      MarketData marketData,
+      Map<CurveName, ? extends Curve> startingCurves) {
+
+    if (startingCurves.isEmpty()) {
+      return groupDefn.initialGuesses(marketData);
+    }
+    ImmutableList.Builder<Double> result = ImmutableList.builder();
+    for (CurveDefinition defn : groupDefn.getCurveDefinitions()) {
+      Curve curve = startingCurves.get(defn.getName());
+      if (curve != null && curve.getParameterCount() == defn.getParameterCount()) {
+        for (int i = 0; i < curve.getParameterCount(); i++) {
+          result.add(curve.getParameter(i));
+        }
+      } else {
+        result.addAll(defn.initialGuess(marketData));
+      }
+    }
+    return result.build();
+  }
+
   //-------------------------------------------------------------------------
   // calibrates a single group
   private DoubleArray calibrateGroup(
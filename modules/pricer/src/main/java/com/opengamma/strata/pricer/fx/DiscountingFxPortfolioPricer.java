@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.fx;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.CurrencyPair;
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.basics.currency.Payment;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivity;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.product.fx.ResolvedFxSingle;
+import com.opengamma.strata.product.fx.ResolvedFxSwap;
+
+/**
+ * Pricer for portfolios of foreign exchange transactions.
+ * <p>
+ * This provides the total present value, present value sensitivity and currency exposure of many
+ * FX single products, consistent with {@link DiscountingFxSingleProductPricer}.
+ * FX swaps are priced by passing their near and far legs, see {@link #swapLegs(List)}.
+ * <p>
+ * The payments of the products are aggregated by currency and payment date before discounting.
+ * A typical FX book has a small number of distinct payment dates, thus the discount factors
+ * and their sensitivities are looked up once per currency and date rather than once per payment.
+ * <p>
+ * As the amounts are summed in a different order, the results are equal within floating-point rounding,
+ * rather than exactly equal, to the sum of the results of the single product pricer.
+ */
+public class DiscountingFxPortfolioPricer {
+
+  /**
+   * Default implementation.
+   */
+  public static final DiscountingFxPortfolioPricer DEFAULT = new DiscountingFxPortfolioPricer();
+
+  /**
+   * Creates an instance.
+   */
+  public DiscountingFxPortfolioPricer() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains the near and far legs of FX swap products.
+   * <p>
+   * The present value, sensitivity and currency exposure of an FX swap are those of its two legs,
+   * thus the legs can be passed to the other methods of this pricer.
+   *
+   * @param swaps  the FX swap products
+   * @return the near and far legs of the products
+   */
+  public static ImmutableList<ResolvedFxSingle> swapLegs(List<ResolvedFxSwap> swaps) {
+    return swaps.stream()
+        .flatMap(swap -> Stream.of(swap.getNearLeg(), swap.getFarLeg()))
+        .collect(toImmutableList());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the total present value of the FX products.
+   * <p>
+   * This discounts each payment in its own currency.
+   * The result is equal, within floating-point rounding, to the sum of the present values
+   * of the products computed by
+   * {@link DiscountingFxSingleProductPricer#presentValue(ResolvedFxSingle, RatesProvider)}.
+   *
+   * @param products  the products
+   * @param provider  the rates provider
+   * @return the present value in the currencies of the payments
+   */
+  public MultiCurrencyAmount presentValue(List<ResolvedFxSingle> products, RatesProvider provider) {
+    Map<Currency, PaymentBuckets> buckets = buckets(products, provider.getValuationDate());
+    List<CurrencyAmount> amounts = new ArrayList<>(buckets.size());
+    for (PaymentBuckets bucket : buckets.values()) {
+      DiscountFactors discountFactors = provider.discountFactors(bucket.currency);
+      double pv = 0d;
+      for (int i = 0; i < bucket.size; i++) {
+        pv += bucket.amounts[i] * discountFactors.discountFactor(bucket.dates.get(i));
+      }
+      amounts.add(CurrencyAmount.of(bucket.currency, pv));
+    }
+    return MultiCurrencyAmount.of(amounts);
+  }
+
+  /**
+   * Calculates the total present value sensitivity of the FX products.
+   * <p>
+   * The present value sensitivity is the sensitivity of the present value to the underlying curves.
+   * There is one point sensitivity for each currency and payment date.
+   *
+   * @param products  the products
+   * @param provider  the rates provider
+   * @return the present value sensitivity
+   */
+  public PointSensitivities presentValueSensitivity(List<ResolvedFxSingle> products, RatesProvider provider) {
+    Map<Currency, PaymentBuckets> buckets = buckets(products, provider.getValuationDate());
+    List<PointSensitivity> sensitivities = new ArrayList<>();
+    for (PaymentBuckets bucket : buckets.values()) {
+      DiscountFactors discountFactors = provider.discountFactors(bucket.currency);
+      for (int i = 0; i < bucket.size; i++) {
+        LocalDate date = bucket.dates.get(i);
+        sensitivities.add(discountFactors.zeroRatePointSensitivity(date).multipliedBy(bucket.amounts[i]));
+      }
+    }
+    return PointSensitivities.of(sensitivities);
+  }
+
+  /**
+   * Calculates the total currency exposure of the FX products.
+   * <p>
+   * This discounts each payment in its own currency.
+   *
+   * @param products  the products
+   * @param provider  the rates provider
+   * @return the currency exposure
+   */
+  public MultiCurrencyAmount currencyExposure(List<ResolvedFxSingle> products, RatesProvider provider) {
+    return presentValue(products, provider);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the forward exchange rate of each FX product.
+   * <p>
+   * The result is the same as calling
+   * {@link DiscountingFxSingleProductPricer#forwardFxRate(ResolvedFxSingle, RatesProvider)}
+   * for each product, in the same order.
+   * The rate is computed once for each currency pair and payment date.
+   *
+   * @param products  the products
+   * @param provider  the rates provider
+   * @return the forward rates, one for each product
+   */
+  public ImmutableList<FxRate> forwardFxRates(List<ResolvedFxSingle> products, RatesProvider provider) {
+    Map<CurrencyPair, FxForwardRates> forwardRates = new HashMap<>();
+    Map<Pair<CurrencyPair, LocalDate>, FxRate> rates = new HashMap<>();
+    ImmutableList.Builder<FxRate> result = ImmutableList.builder();
+    for (ResolvedFxSingle fx : products) {
+      CurrencyPair pair = fx.getCurrencyPair();
+      FxRate rate = rates.computeIfAbsent(Pair.of(pair, fx.getPaymentDate()), key -> {
+        FxForwardRates fxForwardRates = forwardRates.computeIfAbsent(pair, provider::fxForwardRates);
+        return FxRate.of(pair, fxForwardRates.rate(pair.getBase(), fx.getPaymentDate()));
+      });
+      result.add(rate);
+    }
+    return result.build();
+  }
+
+  //-------------------------------------------------------------------------
+  // aggregates the payments by currency and payment date, excluding products paid before the valuation date
+  private static Map<Currency, PaymentBuckets> buckets(List<ResolvedFxSingle> products, LocalDate valuationDate) {
+    Map<Currency, PaymentBuckets> buckets = new LinkedHashMap<>();
+    for (ResolvedFxSingle fx : products) {
+      if (valuationDate.isAfter(fx.getPaymentDate())) {
+        continue;
+      }
+      add(buckets, fx.getBaseCurrencyPayment());
+      add(buckets, fx.getCounterCurrencyPayment());
+    }
+    return buckets;
+  }
+
+  // adds a payment to the buckets
+  private static void add(Map<Currency, PaymentBuckets> buckets, Payment payment) {
+    buckets.computeIfAbsent(payment.getCurrency(), PaymentBuckets::new).add(payment.getDate(), payment.getAmount());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The sum of the payment amounts in a single currency, by payment date.
+   */
+  private static final class PaymentBuckets {
+    private final Currency currency;
+    private final Map<LocalDate, Integer> indices = new HashMap<>();
+    private final List<LocalDate> dates = new ArrayList<>();
+    private double[] amounts = new double[8];
+    private int size;
+
+    private PaymentBuckets(Currency currency) {
+      this.currency = currency;
+    }
+
+    private void add(LocalDate date, double amount) {
+      Integer index = indices.get(date);
+      if (index == null) {
+        if (size == amounts.length) {
+          amounts = Arrays.copyOf(amounts, size * 2);
+        }
+        index = size++;
+        indices.put(date, index);
+        dates.add(date);
+      }
+      amounts[index] += amount;
+    }
+  }
+
+}
@@ -290,6 +290,124 @@ public final class SabrExtrapolationRightFunction {
     return ValueDerivatives.of(price, DoubleArray.ofUnsafe(priceDerivativeSabr));
   }
 
+  /**
+   * Computes the option prices with numeraire=1 for a set of strikes.
+   * <p>
+   * The result is the same as calling {@link #price(double, PutCall)} for each strike.
+   * The SABR volatilities of the strikes below the cut-off strike are computed together.
+   * 
+   * @param strikes  the strikes of the options
+   * @param putCall  whether the options are put or call
+   * @return the option prices, one per strike
+   */
+  public double[] prices(double[] strikes, PutCall putCall) {
+    ArgChecker.notNull(strikes, "strikes");
+    double[] volatilities = sabrFunction.volatilities(forward, sabrStrikes(strikes), timeToExpiry, sabrData);
+    double[] prices = new double[strikes.length];
+    for (int i = 0, k = 0; i < strikes.length; i++) {
+      double strike = strikes[i];
+      if (strike <= cutOffStrike) {
+        prices[i] = BlackFormulaRepository.price(forward, strike, timeToExpiry, volatilities[k++], putCall.isCall());
+      } else {
+        double price = extrapolation(strike);
+        prices[i] = putCall.isCall() ? price : price - forward + strike; // Put by call/put parity
+      }
+    }
+    return prices;
+  }
+
+  /**
+   * Computes the option prices with numeraire=1 and their derivatives for a set of strikes.
+   * <p>
+   * The result is the same as calling {@link #priceDerivativeForward(double, PutCall)} and
+   * {@link #priceAdjointSabr(double, PutCall)} for each strike.
+   * The SABR volatilities and their adjoints of the strikes below the cut-off strike are computed together.
+   * <p>
+   * The derivatives with respect to the forward are stored in {@code derivativesForward}, one per strike.
+   * The derivatives with respect to the SABR parameters are stored in {@code derivativesSabr}, one row of
+   * four per strike, in the order alpha, beta, rho, nu.
+   * Either array may be null if the derivatives are not required.
+   * 
+   * @param strikes  the strikes of the options
+   * @param putCall  whether the options are put or call
+   * @param derivativesForward  the array used to return the derivatives with respect to the forward, may be null
+   * @param derivativesSabr  the array used to return the derivatives with respect to the SABR parameters, may be null
+   * @return the option prices, one per strike
+   */
+  public double[] pricesAdjoint(
+      double[] strikes,
+      PutCall putCall,
+      double[] derivativesForward,
+      double[][] derivativesSabr) {
+
+    ArgChecker.notNull(strikes, "strikes");
+    double[] sabrStrikes = sabrStrikes(strikes);
+    double[][] volatilitiesD = new double[sabrStrikes.length][6];
+    double[] volatilities =
+        sabrFunction.volatilitiesAdjoint(forward, sabrStrikes, timeToExpiry, sabrData, volatilitiesD);
+    double[] prices = new double[strikes.length];
+    for (int i = 0, k = 0; i < strikes.length; i++) {
+      double strike = strikes[i];
+      if (strike <= cutOffStrike) { // Uses Hagan et al SABR function.
+        ValueDerivatives pA = BlackFormulaRepository.priceAdjoint(
+            forward, strike, timeToExpiry, volatilities[k], putCall.isCall());
+        prices[i] = pA.getValue();
+        if (derivativesForward != null) {
+          derivativesForward[i] = pA.getDerivative(0) + pA.getDerivative(3) * volatilitiesD[k][0];
+        }
+        if (derivativesSabr != null) {
+          for (int loopparam = 0; loopparam < 4; loopparam++) {
+            derivativesSabr[i][loopparam] = pA.getDerivative(3) * volatilitiesD[k][loopparam + 2];
+          }
+        }
+        k++;
+      } else { // Uses extrapolation for call.
+        double f = extrapolation(strike);
+        double fDa = f;
+        double fDb = f / strike;
+        double fDc = fDb / strike;
+        prices[i] = putCall.isCall() ? f : f - forward + strike; // Put by call/put parity
+        if (derivativesForward != null) {
+          if (parameterDerivativeForward == null) {
+            parameterDerivativeForward = computesParametersDerivativeForward();
+          }
+          derivativesForward[i] = fDa * parameterDerivativeForward[0] +
+              fDb * parameterDerivativeForward[1] + fDc * parameterDerivativeForward[2] - (putCall.isPut() ? 1d : 0d);
+        }
+        if (derivativesSabr != null) {
+          if (parameterDerivativeSabr == null) {
+            parameterDerivativeSabr = computesParametersDerivativeSabr();
+          }
+          for (int loopparam = 0; loopparam < 4; loopparam++) {
+            derivativesSabr[i][loopparam] = fDa * parameterDerivativeSabr[loopparam][0] +
+                fDb * parameterDerivativeSabr[loopparam][1] + fDc * parameterDerivativeSabr[loopparam][2];
+          }
+        }
+      }
+    }
+    return prices;
+  }
+
+  // the strikes that are priced using the SABR function, in order
+  private double[] sabrStrikes(double[] strikes) {
+    int count = 0;
+    for (double strike : strikes) {
+      if (strike <= cutOffStrike) {
+        count++;
+      }
+    }
+    if (count == strikes.length) {
+      return strikes;
+    }
+    double[] sabrStrikes = new double[count];
+    for (int i = 0, k = 0; k < count; i++) {
+      if (strikes[i] <= cutOffStrike) {
+        sabrStrikes[k++] = strikes[i];
+      }
+    }
+    return sabrStrikes;
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Gets the underlying SABR data.
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.opengamma.strata.basics.date.DayCount;
+import com.opengamma.strata.basics.date.HolidayCalendar;
+import com.opengamma.strata.basics.index.OvernightIndex;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.product.rate.OvernightRateComputation;
+
+/**
+ * Cumulative values derived from the fixings of an overnight index.
+ * <p>
+ * For each fixing in the time-series, in date order, this holds the cumulative sum of the logarithms
+ * of the compounding factors, in the manner of a published compounded index, and the cumulative sum
+ * of the fixings weighted by the number of calendar days until the next fixing date.
+ * The compounded factor and the weighted sum of a sequence of fixings are then derived from the
+ * difference of two cumulative sums.
+ * <p>
+ * The cumulative sums are held in two parts, with the second holding the rounding error of the first.
+ * As such, the result for a sequence of fixings is accurate to a few units in the last place,
+ * however long the history is, rather than drifting with the number of earlier fixings.
+ * <p>
+ * The cumulative values are only meaningful over a run of fixing dates where each date is the
+ * next business day of the fixing calendar after the previous one. The end of each run is held
+ * so that callers can ensure no fixing is missing.
+ * <p>
+ * Instances are cached for each time-series, keyed by identity and held weakly.
+ * The cache only helps callers that reuse the same time-series instance, such as the pricing of
+ * many trades against the same market data. A time-series that is equal, but a different instance,
+ * causes the cumulative values to be created again.
+ */
+final class CumulativeOvernightFixings {
+
+  /**
+   * The cache, keyed by time-series identity, as the weak keys of Guava compare by identity.
+   */
+  private static final Cache<LocalDateDoubleTimeSeries, CumulativeOvernightFixings> CACHE =
+      CacheBuilder.newBuilder().weakKeys().build();
+
+  /**
+   * The index.
+   */
+  private final OvernightIndex index;
+  /**
+   * The fixing calendar.
+   */
+  private final HolidayCalendar fixingCalendar;
+  /**
+   * The fixing dates, as epoch days.
+   */
+  private final int[] epochDays;
+  /**
+   * The fixings.
+   */
+  private final double[] fixings;
+  /**
+   * The index of the last fixing date in the run containing each fixing date.
+   */
+  private final int[] runEnds;
+  /**
+   * The sum of the logarithms of the compounding factors of all earlier fixings,
+   * one more than the number of fixings.
+   */
+  private final double[] logFactors;
+  /**
+   * The rounding error of each entry in {@code logFactors}.
+   */
+  private final double[] logFactorErrors;
+  /**
+   * The sum of the weighted fixings of all earlier fixings, one more than the number of fixings.
+   */
+  private final double[] weightedSums;
+  /**
+   * The rounding error of each entry in {@code weightedSums}.
+   */
+  private final double[] weightedSumErrors;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains the cumulative fixings for the specified time-series.
+   * <p>
+   * The computation defines the index and the fixing calendar.
+   *
+   * @param computation  the computation
+   * @param fixings  the time-series of fixings
+   * @return the cumulative fixings
+   */
+  static CumulativeOvernightFixings of(OvernightRateComputation computation, LocalDateDoubleTimeSeries fixings) {
+    CumulativeOvernightFixings cached = CACHE.getIfPresent(fixings);
+    if (cached != null && cached.matches(computation)) {
+      return cached;
+    }
+    CumulativeOvernightFixings created = new CumulativeOvernightFixings(computation, fixings);
+    CACHE.put(fixings, created);
+    return created;
+  }
+
+  // creates an instance
+  private CumulativeOvernightFixings(OvernightRateComputation computation, LocalDateDoubleTimeSeries series) {
+    this.index = computation.getIndex();
+    this.fixingCalendar = computation.getFixingCalendar();
+    DayCount dayCount = index.getDayCount();
+    int size = series.size();
+    this.epochDays = new int[size];
+    this.fixings = new double[size];
+    this.runEnds = new int[size];
+    this.logFactors = new double[size + 1];
+    this.logFactorErrors = new double[size + 1];
+    this.weightedSums = new double[size + 1];
+    this.weightedSumErrors = new double[size + 1];
+    LocalDate[] dates = series.dates().toArray(LocalDate[]::new);
+    for (int i = 0; i < size; i++) {
+      LocalDate fixingDate = dates[i];
+      double fixing = series.get(fixingDate).getAsDouble();
+      LocalDate effectiveDate = computation.calculateEffectiveFromFixing(fixingDate);
+      LocalDate maturityDate = computation.calculateMaturityFromEffective(effectiveDate);
+      double accrualFactor = dayCount.yearFraction(effectiveDate, maturityDate);
+      LocalDate nextFixingDate = fixingCalendar.next(fixingDate);
+      epochDays[i] = (int) fixingDate.toEpochDay();
+      fixings[i] = fixing;
+      accumulate(logFactors, logFactorErrors, i, Math.log1p(accrualFactor * fixing));
+      accumulate(weightedSums, weightedSumErrors, i, fixing * (nextFixingDate.toEpochDay() - fixingDate.toEpochDay()));
+      // a run ends when the next business day is not the next fixing date
+      runEnds[i] = i + 1 < size && dates[i + 1].equals(nextFixingDate) ? -1 : i;
+    }
+    for (int i = size - 2; i >= 0; i--) {
+      if (runEnds[i] < 0) {
+        runEnds[i] = runEnds[i + 1];
+      }
+    }
+  }
+
+  // adds the value to the cumulative sum at the position, capturing the rounding error (Neumaier)
+  private static void accumulate(double[] sums, double[] errors, int position, double value) {
+    double sum = sums[position];
+    double total = sum + value;
+    double error = Math.abs(sum) >= Math.abs(value) ? (sum - total) + value : (value - total) + sum;
+    sums[position + 1] = total;
+    errors[position + 1] = errors[position] + error;
+  }
+
+  // the difference between two cumulative sums, using the rounding errors
+  private static double difference(double[] sums, double[] errors, int startInclusive, int endExclusive) {
+    return (sums[endExclusive] - sums[startInclusive]) + (errors[endExclusive] - errors[startInclusive]);
+  }
+
+  // checks if this instance applies to the computation
+  private boolean matches(OvernightRateComputation computation) {
+    return index.equals(computation.getIndex()) &&
+        (fixingCalendar == computation.getFixingCalendar() || fixingCalendar.equals(computation.getFixingCalendar()));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Finds the position of the fixing date.
+   *
+   * @param fixingDate  the fixing date
+   * @return the position, negative if there is no fixing on the date
+   */
+  int position(LocalDate fixingDate) {
+    int found = Arrays.binarySearch(epochDays, (int) fixingDate.toEpochDay());
+    return found < 0 ? -1 : found;
+  }
+
+  /**
+   * Gets the fixing date at the position.
+   *
+   * @param position  the position
+   * @return the fixing date
+   */
+  LocalDate date(int position) {
+    return LocalDate.ofEpochDay(epochDays[position]);
+  }
+
+  /**
+   * Gets the fixing at the position.
+   *
+   * @param position  the position
+   * @return the fixing
+   */
+  double fixing(int position) {
+    return fixings[position];
+  }
+
+  /**
+   * Counts the consecutive fixing dates from the position that match the predicate.
+   * <p>
+   * The count stops at the end of the run containing the position.
+   * The predicate must be true for all dates before a date, and false for all dates from it.
+   *
+   * @param position  the starting position
+   * @param predicate  the predicate
+   * @return the number of fixing dates matching the predicate
+   */
+  int countWhile(int position, Predicate<LocalDate> predicate) {
+    int low = position;
+    int high = runEnds[position] + 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (predicate.test(date(mid))) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low - position;
+  }
+
+  /**
+   * Gets the compounded factor of the fixings in a range of positions.
+   *
+   * @param startInclusive  the first position
+   * @param endExclusive  the position after the last
+   * @return the compounded factor
+   */
+  double compoundedFactor(int startInclusive, int endExclusive) {
+    return startInclusive == endExclusive ?
+        1d :
+        Math.exp(difference(logFactors, logFactorErrors, startInclusive, endExclusive));
+  }
+
+  /**
+   * Gets the sum of the fixings in a range of positions, each weighted by the number of
+   * calendar days until the next business day.
+   *
+   * @param startInclusive  the first position
+   * @param endExclusive  the position after the last
+   * @return the weighted sum
+   */
+  double weightedSum(int startInclusive, int endExclusive) {
+    return difference(weightedSums, weightedSumErrors, startInclusive, endExclusive);
+  }
+
+}
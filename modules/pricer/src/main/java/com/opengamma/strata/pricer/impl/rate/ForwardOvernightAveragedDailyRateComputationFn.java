@@ -5,10 +5,14 @@
  */
 package com.opengamma.strata.pricer.impl.rate;
 
+import static java.time.temporal.ChronoUnit.DAYS;
+
 import java.time.LocalDate;
 
+import com.opengamma.strata.basics.date.HolidayCalendar;
 import com.opengamma.strata.basics.index.OvernightIndex;
 import com.opengamma.strata.basics.index.OvernightIndexObservation;
+import com.opengamma.strata.collect.tuple.ObjDoublePair;
 import com.opengamma.strata.market.explain.ExplainKey;
 import com.opengamma.strata.market.explain.ExplainMapBuilder;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
@@ -49,9 +53,10 @@ public class ForwardOvernightAveragedDailyRateComputationFn
     OvernightIndex index = computation.getIndex();
     OvernightIndexRates rates = provider.overnightIndexRates(index);
     LocalDate lastFixingDate = computation.getEndDate();
-    double interestSum = 0d;
-    int numberOfDays = 0;
-    LocalDate currentFixingDate = computation.getStartDate();
+    ObjDoublePair<LocalDate> past = pastFixings(computation, rates);
+    double interestSum = past.getSecond();
+    int numberOfDays = (int) DAYS.between(computation.getStartDate(), past.getFirst());
+    LocalDate currentFixingDate = past.getFirst();
     while (!currentFixingDate.isAfter(lastFixingDate)) {
       LocalDate referenceFixingDate = computation.getFixingCalendar().previousOrSame(currentFixingDate);
       OvernightIndexObservation indexObs = computation.observeOn(referenceFixingDate);
@@ -75,8 +80,9 @@ public class ForwardOvernightAveragedDailyRateComputationFn
     OvernightIndexRates rates = provider.overnightIndexRates(index);
     LocalDate lastFixingDate = computation.getEndDate();
     PointSensitivityBuilder pointSensitivityBuilder = PointSensitivityBuilder.none();
-    int numberOfDays = 0;
-    LocalDate currentFixingDate = computation.getStartDate();
+    // the known fixings have no sensitivity
+    LocalDate currentFixingDate = pastFixings(computation, rates).getFirst();
+    int numberOfDays = (int) DAYS.between(computation.getStartDate(), currentFixingDate);
     while (!currentFixingDate.isAfter(lastFixingDate)) {
       LocalDate referenceFixingDate = computation.getFixingCalendar().previousOrSame(currentFixingDate);
       OvernightIndexObservation indexObs = computation.observeOn(referenceFixingDate);
@@ -102,4 +108,40 @@ public class ForwardOvernightAveragedDailyRateComputationFn
     return rate;
   }
 
+  //-------------------------------------------------------------------------
+  // sums the known fixings at the start of the period, using the cumulative sums of the fixings
+  // returns the first date that is not included and the sum of the rates of the dates before it
+  private ObjDoublePair<LocalDate> pastFixings(
+      OvernightAveragedDailyRateComputation computation,
+      OvernightIndexRates rates) {
+
+    LocalDate valuationDate = rates.getValuationDate();
+    LocalDate firstFixingDate = computation.getStartDate();
+    LocalDate lastFixingDate = computation.getEndDate();
+    HolidayCalendar calendar = computation.getFixingCalendar();
+    LocalDate firstReferenceDate = calendar.previousOrSame(firstFixingDate);
+    if (!computation.calculatePublicationFromFixing(firstReferenceDate).isBefore(valuationDate)) {
+      return ObjDoublePair.of(firstFixingDate, 0d);
+    }
+    CumulativeOvernightFixings cumulative = CumulativeOvernightFixings.of(computation, rates.getFixings());
+    int start = cumulative.position(firstReferenceDate);
+    if (start < 0) {
+      return ObjDoublePair.of(firstFixingDate, 0d);
+    }
+    LocalDate lastReferenceDate = calendar.previousOrSame(lastFixingDate);
+    int count = cumulative.countWhile(start, fixingDate -> !fixingDate.isAfter(lastReferenceDate) &&
+        computation.calculatePublicationFromFixing(fixingDate).isBefore(valuationDate));
+    if (count == 0) {
+      return ObjDoublePair.of(firstFixingDate, 0d);
+    }
+    // each fixing applies until the next business day, which is the next fixing in the run
+    int last = start + count - 1;
+    LocalDate nextReferenceDate = calendar.next(cumulative.date(last));
+    LocalDate endDate = nextReferenceDate.isAfter(lastFixingDate) ? lastFixingDate.plusDays(1) : nextReferenceDate;
+    double interestSum = cumulative.weightedSum(start, last + 1) -
+        cumulative.fixing(start) * DAYS.between(firstReferenceDate, firstFixingDate) -
+        cumulative.fixing(last) * DAYS.between(endDate, nextReferenceDate);
+    return ObjDoublePair.of(endDate, interestSum);
+  }
+
 }
@@ -128,6 +128,20 @@ public class ForwardOvernightCompoundedRateComputationFn
       double compositionFactor = 1.0d;
       LocalDate currentFixing = firstFixing;
       LocalDate currentPublication = computation.calculatePublicationFromFixing(currentFixing);
+      if (currentFixing.isBefore(lastFixingNonCutoff) && rates.getValuationDate().isAfter(currentPublication)) {
+        // the known fixings are compounded using the cumulative factors, the loop handles any that are missing
+        CumulativeOvernightFixings cumulative = CumulativeOvernightFixings.of(computation, indexFixingDateSeries);
+        int start = cumulative.position(currentFixing);
+        if (start >= 0) {
+          int count = cumulative.countWhile(start, fixing -> fixing.isBefore(lastFixingNonCutoff) &&
+              rates.getValuationDate().isAfter(computation.calculatePublicationFromFixing(fixing)));
+          if (count > 0) {
+            compositionFactor = cumulative.compoundedFactor(start, start + count);
+            currentFixing = computation.getFixingCalendar().next(cumulative.date(start + count - 1));
+            currentPublication = computation.calculatePublicationFromFixing(currentFixing);
+          }
+        }
+      }
       while ((currentFixing.isBefore(lastFixingNonCutoff)) && // fixing in the non-cutoff period
           rates.getValuationDate().isAfter(currentPublication)) { // publication before valuation
         LocalDate effectiveDate = computation.calculateEffectiveFromFixing(currentFixing);
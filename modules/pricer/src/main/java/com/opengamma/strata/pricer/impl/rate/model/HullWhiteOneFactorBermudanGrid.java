@@ -0,0 +1,335 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
+import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * Grid used for the backward induction of options with multiple exercise dates
+ * in the Hull-White one factor model with piecewise constant volatility.
+ * <p>
+ * In the numeraire {@code P(t, theta)}, the bond price ratios are
+ * {@code P(t, u) / P(t, theta) = P(0, u) / P(0, theta) exp(-H(u) Z(t) - H(u)^2 v(t) / 2)}
+ * where {@code H(u) = (exp(-a theta) - exp(-a u)) / a} and {@code Z} is a Gaussian martingale with variance
+ * {@code v(t)}, the integral of {@code sigma(s)^2 exp(2 a s)}. The variance does not depend on the numeraire time.
+ * <p>
+ * The grid is a uniform grid on the state variable {@code Z}, centered on zero.
+ * The conditional expectations between exercise dates are computed by integrating the piecewise linear interpolation
+ * of the values exactly against the Gaussian transition density. The integration weights only depend on the distance
+ * between the nodes, so they are computed once per exercise period when the grid is created.
+ * <p>
+ * The grid only depends on the model parameters and the exercise times.
+ * It can be reused to price all the options sharing these.
+ * <p>
+ * Reference: Henrard, "M. Bermudan Swaptions in Gaussian HJM One-Factor Model: Analytical and Numerical Approaches".
+ * SSRN, October 2008. Available at SSRN: http://ssrn.com/abstract=1287982
+ */
+public final class HullWhiteOneFactorBermudanGrid {
+
+  /**
+   * Normal distribution function.
+   */
+  private static final ProbabilityDistribution<Double> NORMAL = new NormalDistribution(0, 1);
+  /**
+   * The default number of grid points per standard deviation of the shortest exercise period.
+   */
+  public static final int DEFAULT_POINTS_PER_STANDARD_DEVIATION = 20;
+  /**
+   * The default number of standard deviations covered by the grid.
+   */
+  public static final double DEFAULT_STANDARD_DEVIATIONS = 8d;
+  /**
+   * The maximal number of grid points on each side of zero.
+   */
+  private static final int MAX_HALF_SIZE = 2000;
+  /**
+   * The model.
+   */
+  private static final HullWhiteOneFactorPiecewiseConstantInterestRateModel MODEL =
+      HullWhiteOneFactorPiecewiseConstantInterestRateModel.DEFAULT;
+
+  /**
+   * The model parameters.
+   */
+  private final HullWhiteOneFactorPiecewiseConstantParameters parameters;
+  /**
+   * The exercise times, in increasing order.
+   */
+  private final double[] exerciseTimes;
+  /**
+   * The variances of the state variable at the exercise times.
+   */
+  private final double[] variances;
+  /**
+   * The values of the state variable on the grid.
+   */
+  private final double[] states;
+  /**
+   * The integration weights from the node zero at time zero to the first exercise time.
+   * The weight at index {@code width + d} applies to the node at distance {@code d} from zero.
+   */
+  private final double[] initialWeights;
+  /**
+   * The integration weights from each exercise time to the next one, for the node distances
+   * from {@code -width} to {@code width}.
+   */
+  private final double[][] weights;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance with the default grid density.
+   *
+   * @param parameters  the Hull-White model parameters
+   * @param exerciseTimes  the exercise times, in increasing order and not negative
+   * @return the grid
+   */
+  public static HullWhiteOneFactorBermudanGrid of(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      DoubleArray exerciseTimes) {
+
+    return of(parameters, exerciseTimes, DEFAULT_POINTS_PER_STANDARD_DEVIATION, DEFAULT_STANDARD_DEVIATIONS);
+  }
+
+  /**
+   * Obtains an instance.
+   * <p>
+   * The grid step is the shortest exercise period standard deviation divided by {@code pointsPerStandardDeviation}.
+   * The grid covers {@code standardDeviations} standard deviations of the state variable at the last exercise time.
+   * The number of points is capped; the step is increased if necessary.
+   *
+   * @param parameters  the Hull-White model parameters
+   * @param exerciseTimes  the exercise times, in increasing order and not negative
+   * @param pointsPerStandardDeviation  the number of grid points per standard deviation
+   * @param standardDeviations  the number of standard deviations covered by the grid
+   * @return the grid
+   */
+  public static HullWhiteOneFactorBermudanGrid of(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      DoubleArray exerciseTimes,
+      int pointsPerStandardDeviation,
+      double standardDeviations) {
+
+    ArgChecker.notNull(parameters, "parameters");
+    ArgChecker.notNull(exerciseTimes, "exerciseTimes");
+    ArgChecker.isTrue(exerciseTimes.size() > 0, "exerciseTimes must not be empty");
+    ArgChecker.notNegativeOrZero(pointsPerStandardDeviation, "pointsPerStandardDeviation");
+    ArgChecker.notNegativeOrZero(standardDeviations, "standardDeviations");
+    ArgChecker.notNegative(exerciseTimes.get(0), "exerciseTimes");
+    for (int i = 1; i < exerciseTimes.size(); i++) {
+      ArgChecker.isTrue(exerciseTimes.get(i - 1) < exerciseTimes.get(i), "exercise times should be increasing");
+    }
+    return new HullWhiteOneFactorBermudanGrid(
+        parameters, exerciseTimes.toArray(), pointsPerStandardDeviation, standardDeviations);
+  }
+
+  // creates the grid and the integration weights
+  private HullWhiteOneFactorBermudanGrid(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      double[] exerciseTimes,
+      int pointsPerStandardDeviation,
+      double standardDeviations) {
+
+    int nbExercise = exerciseTimes.length;
+    this.parameters = parameters;
+    this.exerciseTimes = exerciseTimes;
+    this.variances = new double[nbExercise];
+    double minDeviation = Double.POSITIVE_INFINITY;
+    double previous = 0d;
+    for (int i = 0; i < nbExercise; i++) {
+      double beta = MODEL.beta(parameters, 0d, exerciseTimes[i]);
+      variances[i] = Math.max(beta * beta, previous);
+      double deviation = Math.sqrt(variances[i] - previous);
+      if (deviation > 0d) {
+        minDeviation = Math.min(minDeviation, deviation);
+      }
+      previous = variances[i];
+    }
+    double range = standardDeviations * Math.sqrt(variances[nbExercise - 1]);
+    int halfSize = 0;
+    double step = 1d;
+    if (range > 0d) {
+      step = minDeviation / pointsPerStandardDeviation;
+      halfSize = (int) Math.ceil(range / step);
+      if (halfSize > MAX_HALF_SIZE) {
+        halfSize = MAX_HALF_SIZE;
+        step = range / halfSize;
+      }
+    }
+    this.states = new double[2 * halfSize + 1];
+    for (int k = 0; k < states.length; k++) {
+      states[k] = (k - halfSize) * step;
+    }
+    this.initialWeights = integrationWeights(Math.sqrt(variances[0]), step, standardDeviations, halfSize);
+    this.weights = new double[nbExercise - 1][];
+    for (int i = 1; i < nbExercise; i++) {
+      weights[i - 1] = integrationWeights(
+          Math.sqrt(variances[i] - variances[i - 1]), step, standardDeviations, 2 * halfSize);
+    }
+  }
+
+  // weights of the nodes at distance -width to width, for a linear interpolation integrated against a normal density
+  private static double[] integrationWeights(double deviation, double step, double standardDeviations, int maxWidth) {
+    if (deviation == 0d) {
+      return new double[] {1d};
+    }
+    int width = Math.min((int) Math.ceil(standardDeviations * deviation / step), maxWidth);
+    double[] callValues = new double[2 * width + 3];
+    for (int d = -width - 1; d <= width + 1; d++) {
+      callValues[d + width + 1] = normalCall(d * step, deviation);
+    }
+    double[] result = new double[2 * width + 1];
+    for (int d = -width; d <= width; d++) {
+      int index = d + width + 1;
+      result[d + width] = (callValues[index - 1] - 2d * callValues[index] + callValues[index + 1]) / step;
+    }
+    return result;
+  }
+
+  // E[(X - strike)^+] for X normal centered with the given standard deviation
+  private static double normalCall(double strike, double deviation) {
+    double x = strike / deviation;
+    return deviation * NORMAL.getPDF(x) - strike * NORMAL.getCDF(-x);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the model parameters.
+   *
+   * @return the parameters
+   */
+  public HullWhiteOneFactorPiecewiseConstantParameters getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Gets the exercise times.
+   *
+   * @return the exercise times
+   */
+  public DoubleArray getExerciseTimes() {
+    return DoubleArray.copyOf(exerciseTimes);
+  }
+
+  /**
+   * Gets the variances of the state variable at the exercise times.
+   *
+   * @return the variances
+   */
+  public DoubleArray getVariances() {
+    return DoubleArray.copyOf(variances);
+  }
+
+  /**
+   * Gets the values of the state variable on the grid.
+   *
+   * @return the state values
+   */
+  public DoubleArray getStates() {
+    return DoubleArray.copyOf(states);
+  }
+
+  /**
+   * Gets the number of exercise times.
+   *
+   * @return the number of exercise times
+   */
+  public int getExerciseCount() {
+    return exerciseTimes.length;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates, on the grid, the value of a set of cash flows at an exercise time.
+   * <p>
+   * The value is expressed in the numeraire {@code P(t, theta)} and multiplied by {@code P(0, theta)}.
+   *
+   * @param exerciseIndex  the index of the exercise time
+   * @param numeraireTime  the numeraire time, theta, common to all the exercise dates
+   * @param discountedCashFlows  the cash flows, discounted to the valuation date
+   * @param paymentTimes  the payment times of the cash flows
+   * @return the values on the grid
+   */
+  public double[] cashFlowValues(
+      int exerciseIndex,
+      double numeraireTime,
+      double[] discountedCashFlows,
+      double[] paymentTimes) {
+
+    ArgChecker.isTrue(discountedCashFlows.length == paymentTimes.length, "Length should be equal");
+    double a = parameters.getMeanReversion();
+    double expTheta = Math.exp(-a * numeraireTime);
+    double variance = variances[exerciseIndex];
+    double step = states.length > 1 ? states[1] - states[0] : 0d;
+    double[] values = new double[states.length];
+    for (int j = 0; j < discountedCashFlows.length; j++) {
+      double h = (expTheta - Math.exp(-a * paymentTimes[j])) / a;
+      double value = discountedCashFlows[j] * Math.exp(-h * states[0] - 0.5 * h * h * variance);
+      double ratio = Math.exp(-h * step);
+      for (int k = 0; k < states.length; k++) {
+        values[k] += value;
+        value *= ratio;
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Calculates the present value of the option by backward induction.
+   * <p>
+   * At each exercise date, the holder receives the largest of the exercise value and of the continuation value.
+   * The exercise values must be expressed as in {@link #cashFlowValues(int, double, double[], double[])}.
+   *
+   * @param exerciseValues  the values on the grid received on exercise, one array per exercise time
+   * @return the present value
+   */
+  public double presentValue(double[][] exerciseValues) {
+    int nbExercise = exerciseTimes.length;
+    ArgChecker.isTrue(exerciseValues.length == nbExercise, "one exercise value array is required per exercise time");
+    int size = states.length;
+    double[] value = new double[size];
+    double[] continuation = new double[size];
+    double[] last = exerciseValues[nbExercise - 1];
+    ArgChecker.isTrue(last.length == size, "exercise values must be on the grid");
+    for (int k = 0; k < size; k++) {
+      value[k] = Math.max(last[k], 0d);
+    }
+    for (int i = nbExercise - 2; i >= 0; i--) {
+      double[] exercise = exerciseValues[i];
+      ArgChecker.isTrue(exercise.length == size, "exercise values must be on the grid");
+      convolve(value, weights[i], continuation);
+      for (int k = 0; k < size; k++) {
+        value[k] = Math.max(continuation[k], exercise[k]);
+      }
+    }
+    int halfSize = size / 2;
+    int width = initialWeights.length / 2;
+    double pv = 0d;
+    for (int d = -width; d <= width; d++) {
+      pv += initialWeights[d + width] * value[halfSize + d];
+    }
+    return pv;
+  }
+
+  // conditional expectation on the grid, the values outside the grid are zero
+  private static void convolve(double[] values, double[] kernel, double[] result) {
+    int size = values.length;
+    int width = kernel.length / 2;
+    for (int k = 0; k < size; k++) {
+      int dMin = Math.max(-width, -k);
+      int dMax = Math.min(width, size - 1 - k);
+      double sum = 0d;
+      for (int d = dMin; d <= dMax; d++) {
+        sum += kernel[d + width] * values[k + d];
+      }
+      result[k] = sum;
+    }
+  }
+
+}
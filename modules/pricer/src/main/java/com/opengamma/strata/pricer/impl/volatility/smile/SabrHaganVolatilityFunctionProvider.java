@@ -7,6 +7,7 @@ package com.opengamma.strata.pricer.impl.volatility.smile;
 
 import java.io.Serializable;
 import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
 
 import org.joda.beans.ImmutableBean;
 import org.joda.beans.MetaBean;
@@ -132,6 +133,86 @@ public final class SabrHaganVolatilityFunctionProvider
     return Math.max(MIN_VOL, vol);
   }
 
+  /**
+   * Computes the implied volatilities in the SABR model for a set of strikes.
+   * <p>
+   * The SABR parameters are read and validated once for the smile, and the terms that do not depend on the strike,
+   * such as the at-the-money volatility and the powers of the parameters, are computed once.
+   * The results are identical to the ones obtained strike by strike.
+   * 
+   * @param forward  the forward value of the underlying
+   * @param strikes  the strike values of the options
+   * @param timeToExpiry  the time to expiry of the options
+   * @param data  the SABR data
+   * @param volatilities  the array used to return the volatilities, one per strike
+   */
+  @Override
+  public void volatilities(
+      double forward,
+      double[] strikes,
+      double timeToExpiry,
+      SabrFormulaData data,
+      double[] volatilities) {
+
+    ArgChecker.notNull(strikes, "strikes");
+    ArgChecker.notNull(data, "data");
+    ArgChecker.notNull(volatilities, "volatilities");
+    ArgChecker.isTrue(volatilities.length == strikes.length, "volatilities must have one element per strike");
+    ArgChecker.isTrue(forward > 0.0, "forward must be greater than zero");
+    ArgChecker.isTrue(timeToExpiry >= 0.0, "timeToExpiry must be greater than zero");
+    for (int i = 0; i < strikes.length; i++) {
+      ArgChecker.isTrue(strikes[i] >= 0.0, "strike must be greater than zero");
+    }
+    double alpha = data.getAlpha();
+    double beta = data.getBeta();
+    double rho = data.getRho();
+    double nu = data.getNu();
+    if (alpha == 0.0) {
+      Arrays.fill(volatilities, 0d);
+      return;
+    }
+    // terms independent of the strike
+    double beta1 = 1 - beta;
+    double nuSqTerm = nu * nu * (2 - 3 * rho * rho);
+    double nuSqTermOver24 = nuSqTerm / 24;
+    double f1Atm = Math.pow(forward, beta1);
+    double volAtm = alpha *
+        (1 + timeToExpiry * (beta1 * beta1 * alpha * alpha / 24 / f1Atm / f1Atm + rho * alpha * beta * nu / 4 / f1Atm +
+            nuSqTermOver24)) / f1Atm;
+    boolean betaZero = DoubleMath.fuzzyEquals(beta, 0, BETA_EPS);
+    boolean betaOne = DoubleMath.fuzzyEquals(beta, 1, BETA_EPS);
+    double alphaSqOverForward = alpha * alpha / forward;
+    double betaOneTerm = 1 + timeToExpiry * (rho * alpha * nu / 4 + nuSqTermOver24);
+    double beta1SqAlphaSqOver24 = beta1 * beta1 * alpha * alpha / 24;
+    double rhoNuBetaAlphaOver4 = rho * nu * beta * alpha / 4;
+    for (int i = 0; i < strikes.length; i++) {
+      double k = cutoffStrike(forward, strikes[i]);
+      double vol;
+      if (DoubleMath.fuzzyEquals(forward, k, ATM_EPS)) {
+        vol = volAtm;
+      } else {
+        double ln = Math.log(forward / k);
+        if (betaZero) {
+          double z = nu * Math.sqrt(forward * k) * ln / alpha;
+          vol = alpha * ln * getZOverChi(rho, z) *
+              (1 + timeToExpiry * (alphaSqOverForward / k + nuSqTerm) / 24) / (forward - k);
+        } else if (betaOne) {
+          double z = nu * ln / alpha;
+          vol = alpha * getZOverChi(rho, z) * betaOneTerm;
+        } else {
+          double f1 = Math.pow(forward * k, beta1);
+          double f1Sqrt = Math.sqrt(f1);
+          double lnBetaSq = Math.pow(beta1 * ln, 2);
+          double z = nu * f1Sqrt * ln / alpha;
+          double first = alpha / (f1Sqrt * (1 + lnBetaSq / 24 + lnBetaSq * lnBetaSq / 1920));
+          double third = 1 + timeToExpiry * (beta1SqAlphaSqOver24 / f1 + rhoNuBetaAlphaOver4 / f1Sqrt + nuSqTermOver24);
+          vol = first * getZOverChi(rho, z) * third;
+        }
+      }
+      volatilities[i] = Math.max(MIN_VOL, vol);
+    }
+  }
+
   /**
    * Computes the implied volatility in the SABR model and its derivatives.
    * <p>
@@ -196,16 +277,92 @@ public final class SabrHaganVolatilityFunctionProvider
     ArgChecker.isTrue(forward > 0.0, "forward must be greater than zero");
     ArgChecker.isTrue(strike >= 0.0, "strike must be greater than zero");
     ArgChecker.isTrue(timeToExpiry >= 0.0, "timeToExpiry must be greater than zero");
-    double cutoff = forward * CUTOFF_MONEYNESS;
-    double k = strike;
-    if (k < cutoff) {
-      log.info(
-          "Given strike of {} is less than cutoff at {}, therefore the strike is taken as {}",
-          new Object[] {k, cutoff, cutoff});
-      k = cutoff;
+    double k = cutoffStrike(forward, strike);
+    double[] derivatives = new double[6];
+    double volatility = volatilityAdjoint(
+        forward,
+        k,
+        timeToExpiry,
+        new AdjointTerms(alpha, beta, rho, nu),
+        Math.pow(forward * k, (1 - beta) / 2),
+        Math.log(forward / k),
+        Math.log(forward * k),
+        derivatives);
+    return ValueDerivatives.of(volatility, DoubleArray.ofUnsafe(derivatives));
+  }
+
+  /**
+   * Computes the implied volatility in the SABR model and its derivatives for a set of strikes.
+   * <p>
+   * The SABR parameters are read and validated once for the smile, and the terms that do not depend on the strike,
+   * such as the powers of the parameters, are computed once.
+   * The derivatives are written directly into the provided array, avoiding the creation of objects for each strike.
+   * The results are identical to the ones obtained strike by strike.
+   * <p>
+   * The first order derivatives are stored in the input array {@code volatilitiesD}, one row per strike.
+   * Each row contains [0] the derivative w.r.t the forward, [1] the derivative w.r.t the strike,
+   * [2] the derivative w.r.t. to alpha, [3] the derivative w.r.t. to beta, [4] the derivative w.r.t. to rho,
+   * and [5] the derivative w.r.t. to nu. Thus the size should be (number of strikes) x 6.
+   * 
+   * @param forward  the forward value of the underlying
+   * @param strikes  the strike values of the options
+   * @param timeToExpiry  the time to expiry of the options
+   * @param data  the SABR data
+   * @param volatilities  the array used to return the volatilities, one per strike
+   * @param volatilitiesD  the array of array used to return the first order derivatives
+   */
+  @Override
+  public void volatilitiesAdjoint(
+      double forward,
+      double[] strikes,
+      double timeToExpiry,
+      SabrFormulaData data,
+      double[] volatilities,
+      double[][] volatilitiesD) {
+
+    ArgChecker.notNull(strikes, "strikes");
+    ArgChecker.notNull(data, "data");
+    ArgChecker.notNull(volatilities, "volatilities");
+    ArgChecker.notNull(volatilitiesD, "volatilitiesD");
+    ArgChecker.isTrue(volatilities.length == strikes.length, "volatilities must have one element per strike");
+    ArgChecker.isTrue(volatilitiesD.length == strikes.length, "volatilitiesD must have one row per strike");
+    ArgChecker.isTrue(forward > 0.0, "forward must be greater than zero");
+    ArgChecker.isTrue(timeToExpiry >= 0.0, "timeToExpiry must be greater than zero");
+    AdjointTerms terms = new AdjointTerms(data.getAlpha(), data.getBeta(), data.getRho(), data.getNu());
+    double halfBetaStar = (1 - data.getBeta()) / 2;
+    for (int i = 0; i < strikes.length; i++) {
+      ArgChecker.isTrue(strikes[i] >= 0.0, "strike must be greater than zero");
+      ArgChecker.isTrue(volatilitiesD[i].length == 6, "volatilitiesD rows must be of length 6");
+      double k = cutoffStrike(forward, strikes[i]);
+      volatilities[i] = volatilityAdjoint(
+          forward,
+          k,
+          timeToExpiry,
+          terms,
+          Math.pow(forward * k, halfBetaStar),
+          Math.log(forward / k),
+          Math.log(forward * k),
+          volatilitiesD[i]);
     }
-    double betaStar = 1 - beta;
-    double rhoStar = 1.0 - rho;
+  }
+
+  // computes the volatility and writes its derivatives into the array
+  // sfK = (forward * k)^((1-beta)/2), lnrfK = ln(forward / k) and lnfK = ln(forward * k) are provided by the caller
+  private double volatilityAdjoint(
+      double forward,
+      double k,
+      double timeToExpiry,
+      AdjointTerms terms,
+      double sfK,
+      double lnrfK,
+      double lnfK,
+      double[] derivatives) {
+
+    double alpha = terms.alpha;
+    double rho = terms.rho;
+    double nu = terms.nu;
+    double betaStar = terms.betaStar;
+    double rhoStar = terms.rhoStar;
 
     if (alpha == 0.0) {
       double alphaBar;
@@ -216,13 +373,17 @@ public final class SabrHaganVolatilityFunctionProvider
         // so we return an arbitrary large number
         alphaBar = 1e7;
       }
-      return ValueDerivatives.of(0d, DoubleArray.of(0, 0, alphaBar, 0, 0, 0));
+      derivatives[0] = 0d;
+      derivatives[1] = 0d;
+      derivatives[2] = alphaBar;
+      derivatives[3] = 0d;
+      derivatives[4] = 0d;
+      derivatives[5] = 0d;
+      return 0d;
     }
 
     // Implementation note: Forward sweep.
-    double sfK = Math.pow(forward * k, betaStar / 2);
-    double lnrfK = Math.log(forward / k);
-    double z = nu / alpha * sfK * lnrfK;
+    double z = terms.nuOverAlpha * sfK * lnrfK;
     double rzxz;
     double xz = 0;
     if (DoubleMath.fuzzyEquals(z, 0.0, SMALL_Z)) {
@@ -252,9 +413,9 @@ public final class SabrHaganVolatilityFunctionProvider
         }
       }
     }
-    double sf1 = sfK * (1 + betaStar * betaStar / 24 * (lnrfK * lnrfK) + Math.pow(betaStar, 4) / 1920 * Math.pow(lnrfK, 4));
-    double sf2 = (1 + (Math.pow(betaStar * alpha / sfK, 2) / 24 + (rho * beta * nu * alpha) /
-        (4 * sfK) + (2 - 3 * rho * rho) * nu * nu / 24) * timeToExpiry);
+    double sf1 = sfK * (1 + terms.betaStarSqOver24 * (lnrfK * lnrfK) + terms.betaStar4Over1920 * Math.pow(lnrfK, 4));
+    double sf2 = (1 + (Math.pow(terms.betaStarAlpha / sfK, 2) / 24 + terms.rhoBetaNuAlpha /
+        (4 * sfK) + terms.nuSqTermOver24) * timeToExpiry);
     double volatility = Math.max(MIN_VOL, alpha / sf1 * rzxz * sf2);
 
     // Implementation note: Backward sweep.
@@ -287,15 +448,15 @@ public final class SabrHaganVolatilityFunctionProvider
       }
     }
 
-    double lnrfKBar = sfK * (betaStar * betaStar / 12 * lnrfK + Math.pow(betaStar, 4) / 1920 * 4 * Math.pow(lnrfK, 3)) * sf1Bar +
-        nu / alpha * sfK * zBar;
-    double sfKBar = nu / alpha * lnrfK * zBar + sf1 / sfK * sf1Bar -
-        (Math.pow(betaStar * alpha, 2) / Math.pow(sfK, 3) / 12 + (rho * beta * nu * alpha) / 4 / (sfK * sfK)) * timeToExpiry *
+    double lnrfKBar = sfK * (terms.betaStarSqOver12 * lnrfK + terms.betaStar4Over480 * Math.pow(lnrfK, 3)) * sf1Bar +
+        terms.nuOverAlpha * sfK * zBar;
+    double sfKBar = terms.nuOverAlpha * lnrfK * zBar + sf1 / sfK * sf1Bar -
+        (terms.betaStarAlphaSq / Math.pow(sfK, 3) / 12 + terms.rhoBetaNuAlpha / 4 / (sfK * sfK)) * timeToExpiry *
             sf2Bar;
     double strikeBar = -1 / k * lnrfKBar + betaStar * sfK / (2 * k) * sfKBar;
     double forwardBar = 1 / forward * lnrfKBar + betaStar * sfK / (2 * forward) * sfKBar;
-    double nuBar = 1 / alpha * sfK * lnrfK * zBar +
-        ((rho * beta * alpha) / (4 * sfK) + (2 - 3 * rho * rho) * nu / 12) * timeToExpiry * sf2Bar;
+    double nuBar = terms.oneOverAlpha * sfK * lnrfK * zBar +
+        (terms.rhoBetaAlpha / (4 * sfK) + terms.nuTermOver12) * timeToExpiry * sf2Bar;
 
     double rhoBar;
     if (Math.abs(forward - k) < ATM_EPS) {
@@ -317,16 +478,34 @@ public final class SabrHaganVolatilityFunctionProvider
             (-Math.pow(1 - 2 * rho * z + z * z, -0.5) * z - 1) + 1 / rhoStar) * xzBar;
       }
     }
-    rhoBar += ((beta * nu * alpha) / (4 * sfK) - rho * nu * nu / 4) * timeToExpiry * sf2Bar;
+    rhoBar += (terms.betaNuAlpha / (4 * sfK) - terms.rhoNuSqOver4) * timeToExpiry * sf2Bar;
 
-    double alphaBar = -nu / (alpha * alpha) * sfK * lnrfK * zBar +
-        ((betaStar * alpha / sfK) * (betaStar / sfK) / 12 + (rho * beta * nu) / (4 * sfK)) * timeToExpiry * sf2Bar +
+    double alphaBar = terms.minusNuOverAlphaSq * sfK * lnrfK * zBar +
+        ((terms.betaStarAlpha / sfK) * (betaStar / sfK) / 12 + terms.rhoBetaNu / (4 * sfK)) * timeToExpiry * sf2Bar +
         1 / sf1 * rzxz * sf2 * vBar;
-    double betaBar = -0.5 * Math.log(forward * k) * sfK * sfKBar - sfK *
-        (betaStar / 12 * (lnrfK * lnrfK) + Math.pow(betaStar, 3) / 480 * Math.pow(lnrfK, 4)) * sf1Bar +
-        (-betaStar * alpha * alpha / sfK / sfK / 12 + rho * nu * alpha / 4 / sfK) * timeToExpiry * sf2Bar;
+    double betaBar = -0.5 * lnfK * sfK * sfKBar - sfK *
+        (terms.betaStarOver12 * (lnrfK * lnrfK) + terms.betaStar3Over480 * Math.pow(lnrfK, 4)) * sf1Bar +
+        (terms.minusBetaStarAlphaSq / sfK / sfK / 12 + terms.rhoNuAlphaOver4 / sfK) * timeToExpiry * sf2Bar;
+
+    derivatives[0] = forwardBar;
+    derivatives[1] = strikeBar;
+    derivatives[2] = alphaBar;
+    derivatives[3] = betaBar;
+    derivatives[4] = rhoBar;
+    derivatives[5] = nuBar;
+    return volatility;
+  }
 
-    return ValueDerivatives.of(volatility, DoubleArray.of(forwardBar, strikeBar, alphaBar, betaBar, rhoBar, nuBar));
+  // floors the strike at a small fraction of the forward, the volatility is infinite at zero strike
+  private double cutoffStrike(double forward, double strike) {
+    double cutoff = forward * CUTOFF_MONEYNESS;
+    if (strike < cutoff) {
+      log.info(
+          "Given strike of {} is less than cutoff at {}, therefore the strike is taken as {}",
+          new Object[] {strike, cutoff, cutoff});
+      return cutoff;
+    }
+    return strike;
   }
 
   /**
@@ -361,11 +540,88 @@ public final class SabrHaganVolatilityFunctionProvider
       SabrFormulaData data,
       double[] volatilityD,
       double[][] volatilityD2) {
-    double k = Math.max(strike, 0.000001);
+    return volatilityAdjoint2(
+        forward,
+        Math.max(strike, 0.000001),
+        timeToExpiry,
+        data.getAlpha(),
+        data.getBeta(),
+        data.getRho(),
+        data.getNu(),
+        volatilityD,
+        volatilityD2);
+  }
+
+  /**
+   * Computes the first and second order derivatives of the Black implied volatility in the SABR model
+   * for a set of strikes.
+   * <p>
+   * The SABR parameters are read and validated once for the smile,
+   * and the derivatives are written directly into the provided arrays.
+   * The results are identical to the ones obtained strike by strike.
+   * <p>
+   * The first derivative values will be stored in the input array {@code volatilitiesD}, one row per strike,
+   * each row being of length 6. The second derivative values will be stored in the input array
+   * {@code volatilitiesD2}, one 2 x 2 matrix per strike. The content of each row and matrix is the same as for
+   * {@link #volatilityAdjoint2(double, double, double, SabrFormulaData, double[], double[][])}.
+   * 
+   * @param forward  the forward value of the underlying
+   * @param strikes  the strike values of the options
+   * @param timeToExpiry  the time to expiry of the options
+   * @param data  the SABR data
+   * @param volatilities  the array used to return the volatilities, one per strike
+   * @param volatilitiesD  the array of array used to return the first order derivatives
+   * @param volatilitiesD2  the array of matrices used to return the second order derivatives
+   */
+  @Override
+  public void volatilitiesAdjoint2(
+      double forward,
+      double[] strikes,
+      double timeToExpiry,
+      SabrFormulaData data,
+      double[] volatilities,
+      double[][] volatilitiesD,
+      double[][][] volatilitiesD2) {
+
+    ArgChecker.notNull(strikes, "strikes");
+    ArgChecker.notNull(data, "data");
+    ArgChecker.notNull(volatilities, "volatilities");
+    ArgChecker.notNull(volatilitiesD, "volatilitiesD");
+    ArgChecker.notNull(volatilitiesD2, "volatilitiesD2");
+    ArgChecker.isTrue(volatilities.length == strikes.length, "volatilities must have one element per strike");
+    ArgChecker.isTrue(volatilitiesD.length == strikes.length, "volatilitiesD must have one row per strike");
+    ArgChecker.isTrue(volatilitiesD2.length == strikes.length, "volatilitiesD2 must have one matrix per strike");
     double alpha = data.getAlpha();
     double beta = data.getBeta();
     double rho = data.getRho();
     double nu = data.getNu();
+    for (int i = 0; i < strikes.length; i++) {
+      volatilities[i] = volatilityAdjoint2(
+          forward,
+          Math.max(strikes[i], 0.000001),
+          timeToExpiry,
+          alpha,
+          beta,
+          rho,
+          nu,
+          volatilitiesD[i],
+          volatilitiesD2[i]);
+    }
+  }
+
+  // computes the volatility and writes its first and second order derivatives into the arrays
+  // the intermediate derivatives are held in local variables rather than arrays to avoid allocation
+  private double volatilityAdjoint2(
+      double forward,
+      double k,
+      double timeToExpiry,
+      double alpha,
+      double beta,
+      double rho,
+      double nu,
+      double[] volatilityD,
+      double[][] volatilityD2) {
+
     // Forward
     double h0 = (1 - beta) / 2;
     double h1 = forward * k;
@@ -409,85 +665,78 @@ public final class SabrHaganVolatilityFunctionProvider
     double sigmaDf3 = alpha / f1 * f2x * timeToExpiry;
     double sigmaDf4 = f2x / f1 * (1 + f3 * timeToExpiry);
     double sigmaDx = -alpha / f1 * f2 / (x * x) * (1 + f3 * timeToExpiry);
-    double[][] sigmaD2ff = new double[3][3];
-    sigmaD2ff[0][0] = -sigmaDf1 / f1 + sigma / (f1 * f1); //OK
-    sigmaD2ff[0][1] = -sigmaDf2 / f1;
-    sigmaD2ff[0][2] = -sigmaDf3 / f1;
+    double sigmaD2ff00 = -sigmaDf1 / f1 + sigma / (f1 * f1); //OK
+    double sigmaD2ff01 = -sigmaDf2 / f1;
+    double sigmaD2ff02 = -sigmaDf3 / f1;
+    double sigmaD2ff11 = 0.0;
+    double sigmaD2ff12 = 0.0;
     if (DoubleMath.fuzzyEquals(f2, 0.0, SMALL_Z)) {
-      sigmaD2ff[1][2] = alpha / f1 * -0.5 * rho * timeToExpiry;
+      sigmaD2ff12 = alpha / f1 * -0.5 * rho * timeToExpiry;
     } else {
-      sigmaD2ff[1][1] = alpha / f1 * (1 + f3 * timeToExpiry) *
+      sigmaD2ff11 = alpha / f1 * (1 + f3 * timeToExpiry) *
           (-2 * xp / (x * x) - f2 * xpp / (x * x) + 2 * f2 * xp * xp / (x * x * x));
-      sigmaD2ff[1][2] = alpha / f1 * timeToExpiry * (1.0 / x - f2 * xp / (x * x));
+      sigmaD2ff12 = alpha / f1 * timeToExpiry * (1.0 / x - f2 * xp / (x * x));
     }
-    sigmaD2ff[2][2] = 0.0;
+    double sigmaD2ff22 = 0.0;
     //      double sigma = alpha / f1 * f2x * (1 + f3 * theta);
     // Second level
-    double[] f1Dh = new double[3];
-    double[] f2Dh = new double[3];
-    double[] f3Dh = new double[3];
-    f1Dh[0] = h1h0 * (h0 * (h22 / 3.0 + h0 * h0 / 40.0 * h24)) + Math.log(h1) * f1;
-    f1Dh[1] = h0 * f1 / h1;
-    f1Dh[2] = h1h0 * (h0 * h0 / 6.0 * (2.0 * h2 + h0 * h0 / 5.0 * h23));
-    f2Dh[0] = Math.log(h1) * f2;
-    f2Dh[1] = h0 * f2 / h1;
-    f2Dh[2] = nu / alpha * h1h0;
-    f3Dh[0] = h0 / 3.0 * alpha * alpha / h12 - 2 * h0 * h0 / 6.0 * alpha * alpha / h12 * Math.log(h1) - rho * beta *
-        nu * alpha / 4.0 / h1h0 * Math.log(h1);
-    f3Dh[1] = -2 * h0 * h0 / 6.0 * alpha * alpha / h12 * h0 / h1 - rho * beta * nu * alpha / 4.0 / h1h0 * h0 / h1;
-    f3Dh[2] = 0.0;
-    double[] f1Dp = new double[4]; // Derivative to sabr parameters
-    double[] f2Dp = new double[4];
-    double[] f3Dp = new double[4];
-    double[] f4Dp = new double[4];
-    f1Dp[0] = 0.0;
-    f1Dp[1] = f1Dh[0] * h0Dbeta;
-    f1Dp[2] = 0.0;
-    f1Dp[3] = 0.0;
-    f2Dp[0] = -f2 / alpha;
-    f2Dp[1] = f2Dh[0] * h0Dbeta;
-    f2Dp[2] = 0.0;
-    f2Dp[3] = h1h0 * h2 / alpha;
-    f3Dp[0] = h0 * h0 / 3.0 * alpha / h12 + rho * beta * nu / 4.0 / h1h0;
-    f3Dp[1] = rho * nu * alpha / 4.0 / h1h0 + f3Dh[0] * h0Dbeta;
-    f3Dp[2] = beta * nu * alpha / 4.0 / h1h0 - rho / 4.0 * nu * nu;
-    f3Dp[3] = rho * beta * alpha / 4.0 / h1h0 + (2 - 3 * rho * rho) / 12.0 * nu;
-    f4Dp[0] = 1.0;
-    f4Dp[1] = 0.0;
-    f4Dp[2] = 0.0;
-    f4Dp[3] = 0.0;
-    double sigmaDh1 = sigmaDf1 * f1Dh[1] + sigmaDf2 * f2Dh[1] + sigmaDf3 * f3Dh[1];
-    double sigmaDh2 = sigmaDf1 * f1Dh[2] + sigmaDf2 * f2Dh[2] + sigmaDf3 * f3Dh[2];
-    double[][] f1D2hh = new double[2][2]; // No h0
-    double[][] f2D2hh = new double[2][2];
-    double[][] f3D2hh = new double[2][2];
-    f1D2hh[0][0] = h0 * (h0 - 1) * f1 / (h1 * h1);
-    f1D2hh[0][1] = h0 * h1h0 / h1 * h0 * h0 / 6.0 * (2.0 * h2 + 4.0 * h0 * h0 / 20.0 * h23);
-    f1D2hh[1][1] = h1h0 * (h0 * h0 / 6.0 * (2.0 + 12.0 * h0 * h0 / 20.0 * h2));
-    f2D2hh[0][0] = h0 * (h0 - 1) * f2 / (h1 * h1);
-    f2D2hh[0][1] = nu / alpha * h0 * h1h0 / h1;
-    f2D2hh[1][1] = 0.0;
-    f3D2hh[0][0] = 2 * h0 * (2 * h0 + 1) * h0 * h0 / 6.0 * alpha * alpha / (h12 * h1 * h1) + h0 * (h0 + 1) * rho *
+    double f1Dh0 = h1h0 * (h0 * (h22 / 3.0 + h0 * h0 / 40.0 * h24)) + Math.log(h1) * f1;
+    double f1Dh1 = h0 * f1 / h1;
+    double f1Dh2 = h1h0 * (h0 * h0 / 6.0 * (2.0 * h2 + h0 * h0 / 5.0 * h23));
+    double f2Dh0 = Math.log(h1) * f2;
+    double f2Dh1 = h0 * f2 / h1;
+    double f2Dh2 = nu / alpha * h1h0;
+    double f3Dh0 = h0 / 3.0 * alpha * alpha / h12 - 2 * h0 * h0 / 6.0 * alpha * alpha / h12 * Math.log(h1) -
+        rho * beta * nu * alpha / 4.0 / h1h0 * Math.log(h1);
+    double f3Dh1 = -2 * h0 * h0 / 6.0 * alpha * alpha / h12 * h0 / h1 - rho * beta * nu * alpha / 4.0 / h1h0 * h0 / h1;
+    double f3Dh2 = 0.0;
+    // Derivative to sabr parameters
+    double f1Dp0 = 0.0;
+    double f1Dp1 = f1Dh0 * h0Dbeta;
+    double f1Dp2 = 0.0;
+    double f1Dp3 = 0.0;
+    double f2Dp0 = -f2 / alpha;
+    double f2Dp1 = f2Dh0 * h0Dbeta;
+    double f2Dp3 = h1h0 * h2 / alpha;
+    double f3Dp0 = h0 * h0 / 3.0 * alpha / h12 + rho * beta * nu / 4.0 / h1h0;
+    double f3Dp1 = rho * nu * alpha / 4.0 / h1h0 + f3Dh0 * h0Dbeta;
+    double f3Dp2 = beta * nu * alpha / 4.0 / h1h0 - rho / 4.0 * nu * nu;
+    double f3Dp3 = rho * beta * alpha / 4.0 / h1h0 + (2 - 3 * rho * rho) / 12.0 * nu;
+    double f4Dp0 = 1.0;
+    double f4Dp1 = 0.0;
+    double f4Dp2 = 0.0;
+    double f4Dp3 = 0.0;
+    double sigmaDh1 = sigmaDf1 * f1Dh1 + sigmaDf2 * f2Dh1 + sigmaDf3 * f3Dh1;
+    double sigmaDh2 = sigmaDf1 * f1Dh2 + sigmaDf2 * f2Dh2 + sigmaDf3 * f3Dh2;
+    // No h0
+    double f1D2hh00 = h0 * (h0 - 1) * f1 / (h1 * h1);
+    double f1D2hh01 = h0 * h1h0 / h1 * h0 * h0 / 6.0 * (2.0 * h2 + 4.0 * h0 * h0 / 20.0 * h23);
+    double f1D2hh11 = h1h0 * (h0 * h0 / 6.0 * (2.0 + 12.0 * h0 * h0 / 20.0 * h2));
+    double f2D2hh00 = h0 * (h0 - 1) * f2 / (h1 * h1);
+    double f2D2hh01 = nu / alpha * h0 * h1h0 / h1;
+    double f2D2hh11 = 0.0;
+    double f3D2hh00 = 2 * h0 * (2 * h0 + 1) * h0 * h0 / 6.0 * alpha * alpha / (h12 * h1 * h1) + h0 * (h0 + 1) * rho *
         beta * nu * alpha / 4.0 / (h1h0 * h1 * h1);
-    f3D2hh[0][1] = 0.0;
-    f3D2hh[1][1] = 0.0;
-    double[][] sigmaD2hh = new double[2][2]; // No h0
-    for (int loopx = 0; loopx < 2; loopx++) {
-      for (int loopy = loopx; loopy < 2; loopy++) {
-        sigmaD2hh[loopx][loopy] = (sigmaD2ff[0][0] * f1Dh[loopy + 1] + sigmaD2ff[0][1] * f2Dh[loopy + 1] + sigmaD2ff[0][2] *
-            f3Dh[loopy + 1]) *
-            f1Dh[loopx + 1] +
-            sigmaDf1 *
-                f1D2hh[loopx][loopy] +
-            (sigmaD2ff[0][1] * f1Dh[loopy + 1] + sigmaD2ff[1][1] * f2Dh[loopy + 1] + sigmaD2ff[1][2] * f3Dh[loopy + 1]) *
-                f2Dh[loopx + 1] +
-            sigmaDf2 *
-                f2D2hh[loopx][loopy] +
-            (sigmaD2ff[0][2] * f1Dh[loopy + 1] + sigmaD2ff[1][2] * f2Dh[loopy + 1] + sigmaD2ff[2][2] * f3Dh[loopy + 1]) *
-                f3Dh[loopx + 1] +
-            sigmaDf3 * f3D2hh[loopx][loopy];
-      }
-    }
+    double f3D2hh01 = 0.0;
+    double f3D2hh11 = 0.0;
+    double sigmaD2hh00 = (sigmaD2ff00 * f1Dh1 + sigmaD2ff01 * f2Dh1 + sigmaD2ff02 * f3Dh1) * f1Dh1 +
+        sigmaDf1 * f1D2hh00 +
+        (sigmaD2ff01 * f1Dh1 + sigmaD2ff11 * f2Dh1 + sigmaD2ff12 * f3Dh1) * f2Dh1 +
+        sigmaDf2 * f2D2hh00 +
+        (sigmaD2ff02 * f1Dh1 + sigmaD2ff12 * f2Dh1 + sigmaD2ff22 * f3Dh1) * f3Dh1 +
+        sigmaDf3 * f3D2hh00;
+    double sigmaD2hh01 = (sigmaD2ff00 * f1Dh2 + sigmaD2ff01 * f2Dh2 + sigmaD2ff02 * f3Dh2) * f1Dh1 +
+        sigmaDf1 * f1D2hh01 +
+        (sigmaD2ff01 * f1Dh2 + sigmaD2ff11 * f2Dh2 + sigmaD2ff12 * f3Dh2) * f2Dh1 +
+        sigmaDf2 * f2D2hh01 +
+        (sigmaD2ff02 * f1Dh2 + sigmaD2ff12 * f2Dh2 + sigmaD2ff22 * f3Dh2) * f3Dh1 +
+        sigmaDf3 * f3D2hh01;
+    double sigmaD2hh11 = (sigmaD2ff00 * f1Dh2 + sigmaD2ff01 * f2Dh2 + sigmaD2ff02 * f3Dh2) * f1Dh2 +
+        sigmaDf1 * f1D2hh11 +
+        (sigmaD2ff01 * f1Dh2 + sigmaD2ff11 * f2Dh2 + sigmaD2ff12 * f3Dh2) * f2Dh2 +
+        sigmaDf2 * f2D2hh11 +
+        (sigmaD2ff02 * f1Dh2 + sigmaD2ff12 * f2Dh2 + sigmaD2ff22 * f3Dh2) * f3Dh2 +
+        sigmaDf3 * f3D2hh11;
     // Third level
     double h1Df = k;
     double h1Dk = forward;
@@ -501,10 +750,10 @@ public final class SabrHaganVolatilityFunctionProvider
     double h2D2kk = 1.0 / (k * k);
     volatilityD[0] = sigmaDh1 * h1Df + sigmaDh2 * h2Df;
     volatilityD[1] = sigmaDh1 * h1Dk + sigmaDh2 * h2Dk;
-    volatilityD[2] = sigmaDf1 * f1Dp[0] + sigmaDf2 * f2Dp[0] + sigmaDf3 * f3Dp[0] + sigmaDf4 * f4Dp[0];
-    volatilityD[3] = sigmaDf1 * f1Dp[1] + sigmaDf2 * f2Dp[1] + sigmaDf3 * f3Dp[1] + sigmaDf4 * f4Dp[1];
+    volatilityD[2] = sigmaDf1 * f1Dp0 + sigmaDf2 * f2Dp0 + sigmaDf3 * f3Dp0 + sigmaDf4 * f4Dp0;
+    volatilityD[3] = sigmaDf1 * f1Dp1 + sigmaDf2 * f2Dp1 + sigmaDf3 * f3Dp1 + sigmaDf4 * f4Dp1;
     if (DoubleMath.fuzzyEquals(f2, 0.0, SMALL_Z)) {
-      volatilityD[4] = -0.5 * f2 + sigmaDf3 * f3Dp[2];
+      volatilityD[4] = -0.5 * f2 + sigmaDf3 * f3Dp2;
     } else {
       double xDr;
       if (DoubleMath.fuzzyEquals(rho, 1.0, RHO_EPS)) {
@@ -515,23 +764,23 @@ public final class SabrHaganVolatilityFunctionProvider
                 0.25 * (f2 - 4.0) * Math.pow(f2 / (f2 - 1.0), 3) / (f2 - 1.0) *
                     (1.0 - rho);
         if (Doubles.isFinite(xDr)) {
-          volatilityD[4] = sigmaDf1 * f1Dp[2] + sigmaDx * xDr + sigmaDf3 * f3Dp[2] + sigmaDf4 * f4Dp[2];
+          volatilityD[4] = sigmaDf1 * f1Dp2 + sigmaDx * xDr + sigmaDf3 * f3Dp2 + sigmaDf4 * f4Dp2;
         } else {
           volatilityD[4] = Double.NEGATIVE_INFINITY;
         }
       } else {
         xDr = (-f2 / sqrtf2 - 1 + (sqrtf2 + f2 - rho) / (1 - rho)) / (sqrtf2 + f2 - rho);
-        volatilityD[4] = sigmaDf1 * f1Dp[2] + sigmaDx * xDr + sigmaDf3 * f3Dp[2] + sigmaDf4 * f4Dp[2];
+        volatilityD[4] = sigmaDf1 * f1Dp2 + sigmaDx * xDr + sigmaDf3 * f3Dp2 + sigmaDf4 * f4Dp2;
       }
     }
-    volatilityD[5] = sigmaDf1 * f1Dp[3] + sigmaDf2 * f2Dp[3] + sigmaDf3 * f3Dp[3] + sigmaDf4 * f4Dp[3];
-    volatilityD2[0][0] = (sigmaD2hh[0][0] * h1Df + sigmaD2hh[0][1] * h2Df) * h1Df + sigmaDh1 * h1D2ff +
-        (sigmaD2hh[0][1] * h1Df + sigmaD2hh[1][1] * h2Df) * h2Df + sigmaDh2 * h2D2ff;
-    volatilityD2[0][1] = (sigmaD2hh[0][0] * h1Dk + sigmaD2hh[0][1] * h2Dk) * h1Df + sigmaDh1 * h1D2kf +
-        (sigmaD2hh[0][1] * h1Dk + sigmaD2hh[1][1] * h2Dk) * h2Df + sigmaDh2 * h2D2fk;
+    volatilityD[5] = sigmaDf1 * f1Dp3 + sigmaDf2 * f2Dp3 + sigmaDf3 * f3Dp3 + sigmaDf4 * f4Dp3;
+    volatilityD2[0][0] = (sigmaD2hh00 * h1Df + sigmaD2hh01 * h2Df) * h1Df + sigmaDh1 * h1D2ff +
+        (sigmaD2hh01 * h1Df + sigmaD2hh11 * h2Df) * h2Df + sigmaDh2 * h2D2ff;
+    volatilityD2[0][1] = (sigmaD2hh00 * h1Dk + sigmaD2hh01 * h2Dk) * h1Df + sigmaDh1 * h1D2kf +
+        (sigmaD2hh01 * h1Dk + sigmaD2hh11 * h2Dk) * h2Df + sigmaDh2 * h2D2fk;
     volatilityD2[1][0] = volatilityD2[0][1];
-    volatilityD2[1][1] = (sigmaD2hh[0][0] * h1Dk + sigmaD2hh[0][1] * h2Dk) * h1Dk + sigmaDh1 * h1D2kk +
-        (sigmaD2hh[0][1] * h1Dk + sigmaD2hh[1][1] * h2Dk) * h2Dk + sigmaDh2 * h2D2kk;
+    volatilityD2[1][1] = (sigmaD2hh00 * h1Dk + sigmaD2hh01 * h2Dk) * h1Dk + sigmaDh1 * h1D2kk +
+        (sigmaD2hh01 * h1Dk + sigmaD2hh11 * h2Dk) * h2Dk + sigmaDh2 * h2D2kk;
     return sigma;
   }
 
@@ -583,6 +832,69 @@ public final class SabrHaganVolatilityFunctionProvider
     return z / chi;
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * The terms of the volatility adjoint that only depend on the SABR parameters.
+   * <p>
+   * These are computed once and shared between the strikes of a smile.
+   * Each term is evaluated in the same order as in the formula, such that the result is unchanged.
+   */
+  private static final class AdjointTerms {
+    private final double alpha;
+    private final double rho;
+    private final double nu;
+    private final double betaStar;
+    private final double rhoStar;
+    private final double oneOverAlpha;
+    private final double nuOverAlpha;
+    private final double minusNuOverAlphaSq;
+    private final double betaStarAlpha;
+    private final double betaStarAlphaSq;
+    private final double minusBetaStarAlphaSq;
+    private final double betaStarOver12;
+    private final double betaStarSqOver12;
+    private final double betaStarSqOver24;
+    private final double betaStar3Over480;
+    private final double betaStar4Over480;
+    private final double betaStar4Over1920;
+    private final double rhoBetaNu;
+    private final double rhoBetaAlpha;
+    private final double betaNuAlpha;
+    private final double rhoBetaNuAlpha;
+    private final double rhoNuAlphaOver4;
+    private final double rhoNuSqOver4;
+    private final double nuSqTermOver24;
+    private final double nuTermOver12;
+
+    private AdjointTerms(double alpha, double beta, double rho, double nu) {
+      this.alpha = alpha;
+      this.rho = rho;
+      this.nu = nu;
+      this.betaStar = 1 - beta;
+      this.rhoStar = 1.0 - rho;
+      this.oneOverAlpha = 1 / alpha;
+      this.nuOverAlpha = nu / alpha;
+      this.minusNuOverAlphaSq = -nu / (alpha * alpha);
+      this.betaStarAlpha = betaStar * alpha;
+      this.betaStarAlphaSq = Math.pow(betaStar * alpha, 2);
+      this.minusBetaStarAlphaSq = -betaStar * alpha * alpha;
+      this.betaStarOver12 = betaStar / 12;
+      this.betaStarSqOver12 = betaStar * betaStar / 12;
+      this.betaStarSqOver24 = betaStar * betaStar / 24;
+      this.betaStar3Over480 = Math.pow(betaStar, 3) / 480;
+      this.betaStar4Over480 = Math.pow(betaStar, 4) / 1920 * 4;
+      this.betaStar4Over1920 = Math.pow(betaStar, 4) / 1920;
+      this.rhoBetaNu = rho * beta * nu;
+      this.rhoBetaAlpha = rho * beta * alpha;
+      this.betaNuAlpha = beta * nu * alpha;
+      this.rhoBetaNuAlpha = rho * beta * nu * alpha;
+      this.rhoNuAlphaOver4 = rho * nu * alpha / 4;
+      this.rhoNuSqOver4 = rho * nu * nu / 4;
+      this.nuSqTermOver24 = (2 - 3 * rho * rho) * nu * nu / 24;
+      this.nuTermOver12 = (2 - 3 * rho * rho) * nu / 12;
+    }
+  }
+
   @Override
   public int hashCode() {
     return toString().hashCode();
@@ -14,6 +14,7 @@ import com.opengamma.strata.math.impl.minimization.ParameterLimitsTransform;
 import com.opengamma.strata.math.impl.minimization.ParameterLimitsTransform.LimitType;
 import com.opengamma.strata.math.impl.minimization.SingleRangeLimitTransform;
 import com.opengamma.strata.math.impl.minimization.UncoupledParameterTransforms;
+import com.opengamma.strata.math.impl.statistics.leastsquare.NonLinearLeastSquare;
 import com.opengamma.strata.pricer.model.SabrVolatilityFormula;
 
 /**
@@ -92,10 +93,44 @@ public final class SabrModelFitter extends SmileModelFitter<SabrFormulaData> {
     super(forward, strikes, timeToExpiry, impliedVols, error, model);
   }
 
+  /**
+   * Constructs SABR model fitter from forward, strikes, time to expiry, implied volatilities, error values
+   * and the least square solver.
+   * <p>
+   * {@code strikes}, {@code impliedVols} and {@code error} should be the same length and ordered coherently.
+   * 
+   * @param forward  the forward value of the underlying
+   * @param strikes  the ordered values of strikes
+   * @param timeToExpiry  the time-to-expiry
+   * @param impliedVols  the market implied volatilities
+   * @param error  the 'measurement' error to apply to the market volatility of a particular option
+   * @param sabrVolatilityFormula  the volatility formula
+   * @param solver  the least square solver
+   */
+  @SuppressWarnings("unchecked")
+  public SabrModelFitter(
+      double forward,
+      DoubleArray strikes,
+      double timeToExpiry,
+      DoubleArray impliedVols,
+      DoubleArray error,
+      SabrVolatilityFormula sabrVolatilityFormula,
+      NonLinearLeastSquare solver) {
+
+    super(
+        forward,
+        strikes,
+        timeToExpiry,
+        impliedVols,
+        error,
+        (VolatilityFunctionProvider<SabrFormulaData>) sabrVolatilityFormula,
+        solver);
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public SabrFormulaData toSmileModelData(DoubleArray modelParameters) {
-    return SabrFormulaData.of(modelParameters.toArray());
+    return SabrFormulaData.of(modelParameters.toArrayUnsafe());
   }
 
   @Override
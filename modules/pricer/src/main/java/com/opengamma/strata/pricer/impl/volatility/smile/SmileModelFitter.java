@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.pricer.impl.volatility.smile;
 
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.function.Function;
 
@@ -18,6 +19,7 @@ import com.opengamma.strata.math.impl.minimization.NonLinearParameterTransforms;
 import com.opengamma.strata.math.impl.minimization.NonLinearTransformFunction;
 import com.opengamma.strata.math.impl.statistics.leastsquare.LeastSquareResults;
 import com.opengamma.strata.math.impl.statistics.leastsquare.LeastSquareResultsWithTransform;
+import com.opengamma.strata.math.impl.statistics.leastsquare.LevenbergMarquardtLeastSquare;
 import com.opengamma.strata.math.impl.statistics.leastsquare.NonLinearLeastSquare;
 
 /**
@@ -40,11 +42,15 @@ public abstract class SmileModelFitter<T extends SmileModelData> {
     }
   };
 
+  private final NonLinearLeastSquare solver;
   private final VolatilityFunctionProvider<T> model;
   private final Function<DoubleArray, DoubleArray> volFunc;
   private final Function<DoubleArray, DoubleMatrix> volAdjointFunc;
   private final DoubleArray marketValues;
   private final DoubleArray errors;
+  private final double forward;
+  private final double[] strikes;
+  private final double timeToExpiry;
 
   /**
    * Constructs smile model fitter from forward, strikes, time to expiry, implied volatilities and error values.
@@ -65,10 +71,37 @@ public abstract class SmileModelFitter<T extends SmileModelData> {
       DoubleArray impliedVols,
       DoubleArray error,
       VolatilityFunctionProvider<T> model) {
+
+    this(forward, strikes, timeToExpiry, impliedVols, error, model, SOLVER);
+  }
+
+  /**
+   * Constructs smile model fitter from forward, strikes, time to expiry, implied volatilities, error values
+   * and the least square solver.
+   * <p>
+   * {@code strikes}, {@code impliedVols} and {@code error} should be the same length and ordered coherently.
+   * 
+   * @param forward  the forward value of the underlying
+   * @param strikes  the ordered values of strikes
+   * @param timeToExpiry  the time-to-expiry
+   * @param impliedVols  the market implied volatilities
+   * @param error  the 'measurement' error to apply to the market volatility of a particular option
+   * @param model  the volatility function provider
+   * @param solver  the least square solver, such as {@link LevenbergMarquardtLeastSquare}
+   */
+  public SmileModelFitter(
+      double forward,
+      DoubleArray strikes,
+      double timeToExpiry,
+      DoubleArray impliedVols,
+      DoubleArray error,
+      VolatilityFunctionProvider<T> model,
+      NonLinearLeastSquare solver) {
     ArgChecker.notNull(strikes, "strikes");
     ArgChecker.notNull(impliedVols, "implied vols");
     ArgChecker.notNull(error, "errors");
     ArgChecker.notNull(model, "model");
+    ArgChecker.notNull(solver, "solver");
     int n = strikes.size();
     ArgChecker.isTrue(n == impliedVols.size(), "vols not the same length as strikes");
     ArgChecker.isTrue(n == error.size(), "errors not the same length as strikes");
@@ -76,27 +109,30 @@ public abstract class SmileModelFitter<T extends SmileModelData> {
     this.marketValues = impliedVols;
     this.errors = error;
     this.model = model;
+    this.solver = solver;
+    this.forward = forward;
+    this.strikes = strikes.toArrayUnsafe();
+    this.timeToExpiry = timeToExpiry;
+    double[] strikesArray = this.strikes;
     this.volFunc = new Function<DoubleArray, DoubleArray>() {
       @Override
       public DoubleArray apply(DoubleArray x) {
         final T data = toSmileModelData(x);
-        double[] res = new double[n];
-        for (int i = 0; i < n; ++i) {
-          res[i] = model.volatility(forward, strikes.get(i), timeToExpiry, data);
-        }
-        return DoubleArray.copyOf(res);
+        return DoubleArray.ofUnsafe(model.volatilities(forward, strikesArray, timeToExpiry, data));
       }
     };
     this.volAdjointFunc = new Function<DoubleArray, DoubleMatrix>() {
       @Override
       public DoubleMatrix apply(DoubleArray x) {
         final T data = toSmileModelData(x);
-        double[][] resAdj = new double[n][];
+        int nbParameters = data.getNumberOfParameters();
+        double[][] volatilitiesD = new double[n][2 + nbParameters];
+        model.volatilitiesAdjoint(forward, strikesArray, timeToExpiry, data, volatilitiesD);
+        double[][] resAdj = new double[n][nbParameters];
         for (int i = 0; i < n; ++i) {
-          DoubleArray deriv = model.volatilityAdjoint(forward, strikes.get(i), timeToExpiry, data).getDerivatives();
-          resAdj[i] = deriv.subArray(2).toArrayUnsafe();
+          System.arraycopy(volatilitiesD[i], 2, resAdj[i], 0, nbParameters);
         }
-        return DoubleMatrix.copyOf(resAdj);
+        return DoubleMatrix.ofUnsafe(resAdj);
       }
     };
   }
@@ -138,12 +174,101 @@ public abstract class SmileModelFitter<T extends SmileModelData> {
    * @return the calibration results
    */
   public LeastSquareResultsWithTransform solve(DoubleArray start, NonLinearParameterTransforms transform) {
+    if (solver instanceof LevenbergMarquardtLeastSquare) {
+      LevenbergMarquardtLeastSquare.Model fittingModel =
+          constrained(LevenbergMarquardtLeastSquare.Model.transformed(new SmileModel(), transform), transform);
+      DoubleArray maxJumps = getMaximumStep();
+      LeastSquareResults solRes = ((LevenbergMarquardtLeastSquare) solver).solve(
+          marketValues.toArrayUnsafe(),
+          errors.toArrayUnsafe(),
+          fittingModel,
+          transform.transform(start).toArrayUnsafe(),
+          maxJumps == null ? null : maxJumps.toArrayUnsafe());
+      return new LeastSquareResultsWithTransform(solRes, transform);
+    }
     NonLinearTransformFunction transFunc = new NonLinearTransformFunction(volFunc, volAdjointFunc, transform);
-    LeastSquareResults solRes = SOLVER.solve(marketValues, errors, transFunc.getFittingFunction(),
+    LeastSquareResults solRes = solver.solve(marketValues, errors, transFunc.getFittingFunction(),
         transFunc.getFittingJacobian(), transform.transform(start), getConstraintFunction(transform), getMaximumStep());
     return new LeastSquareResultsWithTransform(solRes, transform);
   }
 
+  // applies the constraints, which are expressed on the fitting parameters, to the model of the fitting parameters
+  private LevenbergMarquardtLeastSquare.Model constrained(
+      LevenbergMarquardtLeastSquare.Model fittingModel,
+      NonLinearParameterTransforms transform) {
+
+    Function<DoubleArray, Boolean> constraints = getConstraintFunction(transform);
+    if (constraints == UNCONSTRAINED) {
+      return fittingModel;
+    }
+    return new LevenbergMarquardtLeastSquare.Model() {
+      @Override
+      public void values(double[] parameters, double[] values) {
+        fittingModel.values(parameters, values);
+      }
+
+      @Override
+      public void jacobian(double[] parameters, double[][] jacobian) {
+        fittingModel.jacobian(parameters, jacobian);
+      }
+
+      @Override
+      public boolean isAllowed(double[] parameters) {
+        return constraints.apply(DoubleArray.ofUnsafe(parameters));
+      }
+    };
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The smile model evaluated in-place, used with {@link LevenbergMarquardtLeastSquare}.
+   * <p>
+   * The volatilities and their derivatives are written directly into the arrays of the solver.
+   * The model data is only created when the parameters change, as the solver evaluates
+   * the values and the Jacobian at the same parameters once a step is accepted.
+   * The model is unconstrained, the constraints being applied to the fitting parameters.
+   */
+  private final class SmileModel implements LevenbergMarquardtLeastSquare.Model {
+    // the model parameters of the current model data, null until first used
+    private double[] dataParameters;
+    // the current model data
+    private T data;
+    // work arrays for the adjoint
+    private final double[] volatilities = new double[strikes.length];
+    private double[][] volatilitiesD;
+
+    @Override
+    public void values(double[] parameters, double[] values) {
+      model.volatilities(forward, strikes, timeToExpiry, data(parameters), values);
+    }
+
+    @Override
+    public void jacobian(double[] parameters, double[][] jacobian) {
+      T data = data(parameters);
+      int nbParameters = data.getNumberOfParameters();
+      if (volatilitiesD == null) {
+        volatilitiesD = new double[strikes.length][2 + nbParameters];
+      }
+      model.volatilitiesAdjoint(forward, strikes, timeToExpiry, data, volatilities, volatilitiesD);
+      for (int i = 0; i < strikes.length; ++i) {
+        System.arraycopy(volatilitiesD[i], 2, jacobian[i], 0, nbParameters);
+      }
+    }
+
+    // obtains the model data, reusing the current data if the parameters are unchanged
+    private T data(double[] parameters) {
+      if (dataParameters == null) {
+        dataParameters = new double[parameters.length];
+      } else if (data != null && Arrays.equals(parameters, dataParameters)) {
+        return data;
+      }
+      System.arraycopy(parameters, 0, dataParameters, 0, parameters.length);
+      data = toSmileModelData(DoubleArray.ofUnsafe(parameters));
+      return data;
+    }
+  }
+
+  //-------------------------------------------------------------------------
   /**
    * Obtains volatility function of the smile model.
    * <p>
@@ -192,6 +317,9 @@ public abstract class SmileModelFitter<T extends SmileModelData> {
 
   /**
    * Obtains {@code SmileModelData} instance from the model parameters.
+   * <p>
+   * The array underlying the parameters may be reused by the solver once this method returns,
+   * thus the smile model data must not retain it.
    * 
    * @param modelParameters  the model parameters
    * @return the smile model data
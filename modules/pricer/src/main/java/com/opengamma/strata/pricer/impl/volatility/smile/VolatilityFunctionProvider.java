@@ -85,6 +85,152 @@ public abstract class VolatilityFunctionProvider<T extends SmileModelData> {
       double[] volatilityD,
       double[][] volatilityD2);
 
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the volatilities of a smile, for a set of strikes sharing the same forward and expiry.
+   *
+   * @param forward  the forward value of the underlying
+   * @param strikes  the strike values of the options
+   * @param timeToExpiry  the time to expiry of the options
+   * @param data  the model data
+   * @return the volatilities, one per strike
+   */
+  public double[] volatilities(double forward, double[] strikes, double timeToExpiry, T data) {
+    ArgChecker.notNull(strikes, "strikes");
+    double[] volatilities = new double[strikes.length];
+    volatilities(forward, strikes, timeToExpiry, data, volatilities);
+    return volatilities;
+  }
+
+  /**
+   * Calculates the volatilities of a smile, for a set of strikes sharing the same forward and expiry,
+   * writing them into the specified array.
+   * <p>
+   * By default this calls {@link #volatility(double, double, double, SmileModelData)} for each strike.
+   * Subclasses may override this to share the computation of the strike independent terms.
+   *
+   * @param forward  the forward value of the underlying
+   * @param strikes  the strike values of the options
+   * @param timeToExpiry  the time to expiry of the options
+   * @param data  the model data
+   * @param volatilities  the array used to return the volatilities, one per strike
+   */
+  public void volatilities(double forward, double[] strikes, double timeToExpiry, T data, double[] volatilities) {
+    ArgChecker.notNull(strikes, "strikes");
+    ArgChecker.notNull(volatilities, "volatilities");
+    ArgChecker.isTrue(volatilities.length == strikes.length, "volatilities must have one element per strike");
+    for (int i = 0; i < strikes.length; i++) {
+      volatilities[i] = volatility(forward, strikes[i], timeToExpiry, data);
+    }
+  }
+
+  /**
+   * Calculates the volatilities of a smile and the adjoints, for a set of strikes sharing the same forward and expiry.
+   * <p>
+   * The first derivative values will be stored in the input array {@code volatilitiesD}, one row per strike.
+   * Each row contains [0] Derivative w.r.t the forward, [1] the derivative w.r.t the strike, then followed by model
+   * parameters. Thus the size should be (number of strikes) x (2 + number of model parameters).
+   *
+   * @param forward  the forward value of the underlying
+   * @param strikes  the strike values of the options
+   * @param timeToExpiry  the time to expiry of the options
+   * @param data  the model data
+   * @param volatilitiesD  the array of array used to return the first order derivatives
+   * @return the volatilities, one per strike
+   */
+  public double[] volatilitiesAdjoint(
+      double forward,
+      double[] strikes,
+      double timeToExpiry,
+      T data,
+      double[][] volatilitiesD) {
+
+    ArgChecker.notNull(strikes, "strikes");
+    double[] volatilities = new double[strikes.length];
+    volatilitiesAdjoint(forward, strikes, timeToExpiry, data, volatilities, volatilitiesD);
+    return volatilities;
+  }
+
+  /**
+   * Calculates the volatilities of a smile and the adjoints, for a set of strikes sharing the same forward and expiry,
+   * writing them into the specified arrays.
+   * <p>
+   * The first derivative values will be stored in the input array {@code volatilitiesD}, one row per strike.
+   * Each row contains [0] Derivative w.r.t the forward, [1] the derivative w.r.t the strike, then followed by model
+   * parameters. Thus the size should be (number of strikes) x (2 + number of model parameters).
+   * <p>
+   * By default this calls {@link #volatilityAdjoint(double, double, double, SmileModelData)} for each strike.
+   * Subclasses may override this to share the computation of the strike independent terms.
+   *
+   * @param forward  the forward value of the underlying
+   * @param strikes  the strike values of the options
+   * @param timeToExpiry  the time to expiry of the options
+   * @param data  the model data
+   * @param volatilities  the array used to return the volatilities, one per strike
+   * @param volatilitiesD  the array of array used to return the first order derivatives
+   */
+  public void volatilitiesAdjoint(
+      double forward,
+      double[] strikes,
+      double timeToExpiry,
+      T data,
+      double[] volatilities,
+      double[][] volatilitiesD) {
+
+    ArgChecker.notNull(strikes, "strikes");
+    ArgChecker.notNull(volatilities, "volatilities");
+    ArgChecker.notNull(volatilitiesD, "volatilitiesD");
+    ArgChecker.isTrue(volatilities.length == strikes.length, "volatilities must have one element per strike");
+    ArgChecker.isTrue(volatilitiesD.length == strikes.length, "volatilitiesD must have one row per strike");
+    for (int i = 0; i < strikes.length; i++) {
+      ValueDerivatives adjoint = volatilityAdjoint(forward, strikes[i], timeToExpiry, data);
+      volatilities[i] = adjoint.getValue();
+      adjoint.getDerivatives().copyInto(volatilitiesD[i], 0);
+    }
+  }
+
+  /**
+   * Calculates the volatilities of a smile with their first and second order derivatives,
+   * for a set of strikes sharing the same forward and expiry, writing them into the specified arrays.
+   * <p>
+   * The first derivative values will be stored in the input array {@code volatilitiesD}, one row per strike,
+   * and the second derivative values in the input array {@code volatilitiesD2}, one matrix per strike.
+   * The content of each row and matrix is the same as for
+   * {@link #volatilityAdjoint2(double, double, double, SmileModelData, double[], double[][])}.
+   * <p>
+   * By default this calls {@code volatilityAdjoint2} for each strike.
+   * Subclasses may override this to share the computation of the strike independent terms.
+   *
+   * @param forward  the forward value of the underlying
+   * @param strikes  the strike values of the options
+   * @param timeToExpiry  the time to expiry of the options
+   * @param data  the model data
+   * @param volatilities  the array used to return the volatilities, one per strike
+   * @param volatilitiesD  the array of array used to return the first order derivatives
+   * @param volatilitiesD2  the array of matrices used to return the second order derivatives
+   */
+  public void volatilitiesAdjoint2(
+      double forward,
+      double[] strikes,
+      double timeToExpiry,
+      T data,
+      double[] volatilities,
+      double[][] volatilitiesD,
+      double[][][] volatilitiesD2) {
+
+    ArgChecker.notNull(strikes, "strikes");
+    ArgChecker.notNull(volatilities, "volatilities");
+    ArgChecker.notNull(volatilitiesD, "volatilitiesD");
+    ArgChecker.notNull(volatilitiesD2, "volatilitiesD2");
+    ArgChecker.isTrue(volatilities.length == strikes.length, "volatilities must have one element per strike");
+    ArgChecker.isTrue(volatilitiesD.length == strikes.length, "volatilitiesD must have one row per strike");
+    ArgChecker.isTrue(volatilitiesD2.length == strikes.length, "volatilitiesD2 must have one matrix per strike");
+    for (int i = 0; i < strikes.length; i++) {
+      volatilities[i] = volatilityAdjoint2(
+          forward, strikes[i], timeToExpiry, data, volatilitiesD[i], volatilitiesD2[i]);
+    }
+  }
+
   //-------------------------------------------------------------------------
   private double forwardBar(double forward, double strike, double timeToExpiry, T data) {
     double volUp = volatility(forward + EPS, strike, timeToExpiry, data);
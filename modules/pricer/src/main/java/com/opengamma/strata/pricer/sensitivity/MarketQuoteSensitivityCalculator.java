@@ -5,20 +5,30 @@
  */
 package com.opengamma.strata.pricer.sensitivity;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.function.Function;
 
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.data.MarketDataName;
 import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveInfoType;
 import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.CurveParameterSize;
 import com.opengamma.strata.market.curve.JacobianCalibrationMatrix;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
-import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
-import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
 import com.opengamma.strata.pricer.bond.LegalEntityDiscountingProvider;
 import com.opengamma.strata.pricer.credit.CreditRatesProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
@@ -29,6 +39,14 @@ import com.opengamma.strata.pricer.rate.RatesProvider;
  * This needs the {@link JacobianCalibrationMatrix} obtained during curve calibration.
  * The Market Quote sensitivities are also called Par Rate when the instruments used
  * in the curve calibration are quoted in rate, e.g. IRS, FRA or OIS.
+ * <p>
+ * The multiplication by the Jacobian skips the blocks of the matrix that are zero,
+ * such as those relating curves of different currencies calibrated in the same group,
+ * see {@link JacobianCalibrationMatrix#multiply(DoubleArray)}.
+ * <p>
+ * Sensitivities of many trades can be converted together, for example to obtain the market quote
+ * sensitivity of each trade in a portfolio. The parameter sensitivities to each curve are then stacked
+ * into a matrix, which is multiplied by the Jacobian in a single operation.
  */
 public class MarketQuoteSensitivityCalculator {
 
@@ -36,10 +54,6 @@ public class MarketQuoteSensitivityCalculator {
    * The default instance.
    */
   public static final MarketQuoteSensitivityCalculator DEFAULT = new MarketQuoteSensitivityCalculator();
-  /**
-   * The matrix algebra used for matrix inversion.
-   */
-  private static final MatrixAlgebra MATRIX_ALGEBRA = new OGMatrixAlgebra();
 
   //-------------------------------------------------------------------------
   /**
@@ -68,11 +82,8 @@ public class MarketQuoteSensitivityCalculator {
           .orElseThrow(() -> new IllegalArgumentException(
               "Market Quote sensitivity requires Jacobian calibration information"));
 
-      // calculate the market quote sensitivity using the Jacobian
-      DoubleMatrix jacobian = info.getJacobianMatrix();
-      DoubleArray paramSensMatrix = paramSens.getSensitivity();
-      DoubleArray marketQuoteSensMatrix = (DoubleArray) MATRIX_ALGEBRA.multiply(paramSensMatrix, jacobian);
-      DoubleArray marketQuoteSens = marketQuoteSensMatrix;
+      // calculate the market quote sensitivity using the Jacobian, skipping the zero blocks
+      DoubleArray marketQuoteSens = info.multiply(paramSens.getSensitivity());
 
       // split between different curves
       Map<CurveName, DoubleArray> split = info.splitValues(marketQuoteSens);
@@ -87,6 +98,27 @@ public class MarketQuoteSensitivityCalculator {
     return result;
   }
 
+  /**
+   * Calculates the market quote sensitivities from parameter sensitivity for many trades.
+   * <p>
+   * The result is the same as calling
+   * {@link #sensitivity(CurrencyParameterSensitivities, RatesProvider)} for each element of the list, in the same order.
+   * The parameter sensitivities to the same curve and currency are stacked into a matrix,
+   * which is multiplied by the Jacobian of the curve in a single operation.
+   * 
+   * @param paramSensitivities  the curve parameter sensitivities, typically one for each trade
+   * @param provider  the rates provider, containing Jacobian calibration information
+   * @return the market quote sensitivities, one for each element of the input list
+   */
+  public List<CurrencyParameterSensitivities> sensitivity(
+      List<CurrencyParameterSensitivities> paramSensitivities,
+      RatesProvider provider) {
+
+    ArgChecker.noNulls(paramSensitivities, "paramSensitivities");
+    ArgChecker.notNull(provider, "provider");
+    return sensitivity(paramSensitivities, name -> provider.findData(name));
+  }
+
   /**
    * Calculates the market quote sensitivities from parameter sensitivity.
    * <p>
@@ -116,11 +148,8 @@ public class MarketQuoteSensitivityCalculator {
           .orElseThrow(() -> new IllegalArgumentException(
               "Market Quote sensitivity requires Jacobian calibration information"));
 
-      // calculate the market quote sensitivity using the Jacobian
-      DoubleMatrix jacobian = info.getJacobianMatrix();
-      DoubleArray paramSensMatrix = paramSens.getSensitivity();
-      DoubleArray marketQuoteSensMatrix = (DoubleArray) MATRIX_ALGEBRA.multiply(paramSensMatrix, jacobian);
-      DoubleArray marketQuoteSens = marketQuoteSensMatrix;
+      // calculate the market quote sensitivity using the Jacobian, skipping the zero blocks
+      DoubleArray marketQuoteSens = info.multiply(paramSens.getSensitivity());
 
       // split between different curves
       Map<CurveName, DoubleArray> split = info.splitValues(marketQuoteSens);
@@ -135,6 +164,27 @@ public class MarketQuoteSensitivityCalculator {
     return result;
   }
 
+  /**
+   * Calculates the market quote sensitivities from parameter sensitivity for many trades.
+   * <p>
+   * The result is the same as calling
+   * {@link #sensitivity(CurrencyParameterSensitivities, LegalEntityDiscountingProvider)} for each element of the list, in the same order.
+   * The parameter sensitivities to the same curve and currency are stacked into a matrix,
+   * which is multiplied by the Jacobian of the curve in a single operation.
+   * 
+   * @param paramSensitivities  the curve parameter sensitivities, typically one for each trade
+   * @param provider  the legal entity discounting provider, containing Jacobian calibration information
+   * @return the market quote sensitivities, one for each element of the input list
+   */
+  public List<CurrencyParameterSensitivities> sensitivity(
+      List<CurrencyParameterSensitivities> paramSensitivities,
+      LegalEntityDiscountingProvider provider) {
+
+    ArgChecker.noNulls(paramSensitivities, "paramSensitivities");
+    ArgChecker.notNull(provider, "provider");
+    return sensitivity(paramSensitivities, name -> provider.findData(name));
+  }
+
   /**
    * Calculates the market quote sensitivities from parameter sensitivity.
    * <p>
@@ -161,11 +211,8 @@ public class MarketQuoteSensitivityCalculator {
           .orElseThrow(() -> new IllegalArgumentException(
               "Market Quote sensitivity requires Jacobian calibration information"));
 
-      // calculate the market quote sensitivity using the Jacobian
-      DoubleMatrix jacobian = info.getJacobianMatrix();
-      DoubleArray paramSensMatrix = paramSens.getSensitivity();
-      DoubleArray marketQuoteSensMatrix = (DoubleArray) MATRIX_ALGEBRA.multiply(paramSensMatrix, jacobian);
-      DoubleArray marketQuoteSens = marketQuoteSensMatrix;
+      // calculate the market quote sensitivity using the Jacobian, skipping the zero blocks
+      DoubleArray marketQuoteSens = info.multiply(paramSens.getSensitivity());
 
       // split between different curves
       Map<CurveName, DoubleArray> split = info.splitValues(marketQuoteSens);
@@ -180,4 +227,88 @@ public class MarketQuoteSensitivityCalculator {
     return result;
   }
 
+  /**
+   * Calculates the market quote sensitivities from parameter sensitivity for many trades.
+   * <p>
+   * The result is the same as calling
+   * {@link #sensitivity(CurrencyParameterSensitivities, CreditRatesProvider)} for each element of the list, in the same order.
+   * The parameter sensitivities to the same curve and currency are stacked into a matrix,
+   * which is multiplied by the Jacobian of the curve in a single operation.
+   * 
+   * @param paramSensitivities  the curve parameter sensitivities, typically one for each trade
+   * @param provider  the credit rates provider, containing Jacobian calibration information
+   * @return the market quote sensitivities, one for each element of the input list
+   */
+  public List<CurrencyParameterSensitivities> sensitivity(
+      List<CurrencyParameterSensitivities> paramSensitivities,
+      CreditRatesProvider provider) {
+
+    ArgChecker.noNulls(paramSensitivities, "paramSensitivities");
+    ArgChecker.notNull(provider, "provider");
+    return sensitivity(paramSensitivities, name -> provider.findData(name));
+  }
+
+  //-------------------------------------------------------------------------
+  // calculates the market quote sensitivities of many trades, stacking the sensitivities to each curve
+  private List<CurrencyParameterSensitivities> sensitivity(
+      List<CurrencyParameterSensitivities> paramSensitivities,
+      Function<MarketDataName<?>, Optional<?>> findData) {
+
+    // stack the parameter sensitivities by curve and currency
+    Map<Pair<MarketDataName<?>, Currency>, List<double[]>> stacks = new LinkedHashMap<>();
+    for (CurrencyParameterSensitivities sensitivities : paramSensitivities) {
+      for (CurrencyParameterSensitivity paramSens : sensitivities.getSensitivities()) {
+        stacks.computeIfAbsent(Pair.of(paramSens.getMarketDataName(), paramSens.getCurrency()), k -> new ArrayList<>())
+            .add(paramSens.getSensitivity().toArrayUnsafe());
+      }
+    }
+
+    // multiply each stack by the Jacobian, then split between different curves
+    Map<Pair<MarketDataName<?>, Currency>, Iterator<List<CurrencyParameterSensitivity>>> converted = new HashMap<>();
+    for (Entry<Pair<MarketDataName<?>, Currency>, List<double[]>> entry : stacks.entrySet()) {
+      MarketDataName<?> name = entry.getKey().getFirst();
+      Currency currency = entry.getKey().getSecond();
+      Curve curve = findData.apply(name)
+          .filter(v -> v instanceof Curve)
+          .map(v -> (Curve) v)
+          .orElseThrow(() -> new IllegalArgumentException("Market Quote sensitivity requires curve: " + name));
+      JacobianCalibrationMatrix info = curve.getMetadata().findInfo(CurveInfoType.JACOBIAN)
+          .orElseThrow(() -> new IllegalArgumentException(
+              "Market Quote sensitivity requires Jacobian calibration information"));
+      DoubleMatrix marketQuoteSens = info.multiply(DoubleMatrix.ofUnsafe(entry.getValue().toArray(new double[0][])));
+      Map<CurveName, Optional<Curve>> curves = new HashMap<>();
+      for (CurveParameterSize paramSizes : info.getOrder()) {
+        curves.put(paramSizes.getName(), findData.apply(paramSizes.getName())
+            .filter(v -> v instanceof Curve)
+            .map(v -> (Curve) v));
+      }
+      List<List<CurrencyParameterSensitivity>> rows = new ArrayList<>(marketQuoteSens.rowCount());
+      for (int i = 0; i < marketQuoteSens.rowCount(); i++) {
+        ImmutableList.Builder<CurrencyParameterSensitivity> row = ImmutableList.builder();
+        for (Entry<CurveName, DoubleArray> split : info.splitValues(marketQuoteSens.row(i)).entrySet()) {
+          CurveName curveName = split.getKey();
+          row.add(curves.get(curveName)
+              .map(c -> c.createParameterSensitivity(currency, split.getValue()))
+              .orElse(CurrencyParameterSensitivity.of(curveName, currency, split.getValue())));
+        }
+        rows.add(row.build());
+      }
+      converted.put(entry.getKey(), rows.iterator());
+    }
+
+    // combine in the order of the input, so that the result matches the single trade calculation
+    ImmutableList.Builder<CurrencyParameterSensitivities> results = ImmutableList.builder();
+    for (CurrencyParameterSensitivities sensitivities : paramSensitivities) {
+      CurrencyParameterSensitivities result = CurrencyParameterSensitivities.empty();
+      for (CurrencyParameterSensitivity paramSens : sensitivities.getSensitivities()) {
+        Pair<MarketDataName<?>, Currency> key = Pair.of(paramSens.getMarketDataName(), paramSens.getCurrency());
+        for (CurrencyParameterSensitivity marketQuoteSens : converted.get(key).next()) {
+          result = result.combinedWith(marketQuoteSens);
+        }
+      }
+      results.add(result);
+    }
+    return results.build();
+  }
+
 }
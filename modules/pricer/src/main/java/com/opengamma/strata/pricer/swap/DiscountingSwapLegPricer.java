@@ -17,6 +17,7 @@ import com.opengamma.strata.basics.value.ValueDerivatives;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.market.amount.CashFlow;
+import com.opengamma.strata.market.amount.CashFlowBuffer;
 import com.opengamma.strata.market.amount.CashFlows;
 import com.opengamma.strata.market.explain.ExplainKey;
 import com.opengamma.strata.market.explain.ExplainMap;
@@ -489,6 +490,49 @@ public class DiscountingSwapLegPricer {
     return cashFlowPeriods.combinedWith(cashFlowEvents);
   }
 
+  /**
+   * Calculates the future cash flows of the swap leg, adding them to a buffer.
+   * <p>
+   * Each expected cash flow is added to the buffer, periods first and then events.
+   * This is equivalent to {@link #cashFlows(ResolvedSwapLeg, RatesProvider)} without creating
+   * an object for each cash flow.
+   * 
+   * @param leg  the swap leg for which the cash flows should be computed
+   * @param provider  the rates provider
+   * @param buffer  the buffer to add the cash flows to
+   */
+  public void cashFlows(ResolvedSwapLeg leg, RatesProvider provider, CashFlowBuffer buffer) {
+    LocalDate valuationDate = provider.getValuationDate();
+    for (SwapPaymentPeriod period : leg.getPaymentPeriods()) {
+      if (!period.getPaymentDate().isBefore(valuationDate)) {
+        double forecastValue = paymentPeriodPricer.forecastValue(period, provider);
+        if (forecastValue != 0d) {
+          addCashFlow(period.getPaymentDate(), period.getCurrency(), forecastValue, provider, buffer);
+        }
+      }
+    }
+    for (SwapPaymentEvent event : leg.getPaymentEvents()) {
+      if (!event.getPaymentDate().isBefore(valuationDate)) {
+        double forecastValue = paymentEventPricer.forecastValue(event, provider);
+        if (forecastValue != 0d) {
+          addCashFlow(event.getPaymentDate(), event.getCurrency(), forecastValue, provider, buffer);
+        }
+      }
+    }
+  }
+
+  // adds a single cash flow to the buffer
+  private static void addCashFlow(
+      LocalDate paymentDate,
+      Currency currency,
+      double forecastValue,
+      RatesProvider provider,
+      CashFlowBuffer buffer) {
+
+    double discountFactor = provider.discountFactor(currency, paymentDate);
+    buffer.add(paymentDate, currency, forecastValue, discountFactor);
+  }
+
   //-------------------------------------------------------------------------
   // calculates the forecast value of the events composing the leg in the currency of the swap leg
   double forecastValueEventsInternal(ResolvedSwapLeg leg, RatesProvider provider) {
@@ -596,6 +640,8 @@ public class DiscountingSwapLegPricer {
   //-------------------------------------------------------------------------
   /**
    * Explain present value builder used to build large explain map from the individual legs.
+   * <p>
+   * The entries of the payment periods and payment events are only created when they are accessed.
    * 
    * @param leg  the swap log 
    * @param provider  the rates provider
@@ -605,20 +651,25 @@ public class DiscountingSwapLegPricer {
     builder.put(ExplainKey.ENTRY_TYPE, "Leg");
     builder.put(ExplainKey.PAY_RECEIVE, leg.getPayReceive());
     builder.put(ExplainKey.LEG_TYPE, leg.getType().toString());
-    for (SwapPaymentPeriod period : leg.getPaymentPeriods()) {
-      builder.addListEntry(
-          ExplainKey.PAYMENT_PERIODS, child -> paymentPeriodPricer.explainPresentValue(period, provider, child));
-    }
-    for (SwapPaymentEvent event : leg.getPaymentEvents()) {
-      builder.addListEntry(
-          ExplainKey.PAYMENT_EVENTS, child -> paymentEventPricer.explainPresentValue(event, provider, child));
-    }
+    builder.addLazyListEntries(
+        ExplainKey.PAYMENT_PERIODS,
+        leg.getPaymentPeriods(),
+        (period, child) -> paymentPeriodPricer.explainPresentValue(period, provider, child));
+    builder.addLazyListEntries(
+        ExplainKey.PAYMENT_EVENTS,
+        leg.getPaymentEvents(),
+        (event, child) -> paymentEventPricer.explainPresentValue(event, provider, child));
     builder.put(ExplainKey.FORECAST_VALUE, forecastValue(leg, provider));
     builder.put(ExplainKey.PRESENT_VALUE, presentValue(leg, provider));
   }
 
   /**
    * Explain present value for a swap leg.
+   * <p>
+   * The explanation of each payment period and payment event is only created when it is accessed.
+   * Until all of them have been accessed, the result retains the rates provider.
+   * Any failure to explain a payment period or payment event is thrown when it is accessed,
+   * not by this method.
    * 
    * @param leg  the swap log 
    * @param provider  the rates provider
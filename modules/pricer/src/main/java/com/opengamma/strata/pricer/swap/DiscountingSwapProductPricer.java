@@ -471,6 +471,7 @@ public class DiscountingSwapProductPricer {
    * Explains the present value of the swap product.
    * <p>
    * This returns explanatory information about the calculation.
+   * The explanation of each payment period and payment event of the legs is only created when it is accessed.
    * 
    * @param swap  the product
    * @param provider  the rates provider
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.market.amount.CashFlowBuckets;
+import com.opengamma.strata.market.amount.CashFlowBuffer;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.ResolvedSwapTrade;
+
+/**
+ * Projects the future cash flows of a portfolio of swap trades.
+ * <p>
+ * The cash flows are the same as those of
+ * {@link DiscountingSwapTradePricer#cashFlows(ResolvedSwapTrade, RatesProvider)},
+ * using the forecast values of the leg pricer. Instead of creating an object for each cash flow,
+ * the cash flows are written to a {@link CashFlowBuffer}, or aggregated into {@link CashFlowBuckets}.
+ * This is intended for liquidity reporting across a large number of trades.
+ * <p>
+ * When aggregating into buckets, the trades are divided into chunks that are projected and
+ * aggregated in parallel using the common fork-join pool. The rates provider must be thread-safe.
+ */
+public class SwapPortfolioCashFlowProjector {
+
+  /**
+   * Default implementation.
+   */
+  public static final SwapPortfolioCashFlowProjector DEFAULT =
+      new SwapPortfolioCashFlowProjector(DiscountingSwapLegPricer.DEFAULT);
+
+  /**
+   * The number of trades projected together when aggregating in parallel.
+   */
+  private static final int CHUNK_SIZE = 1000;
+
+  /**
+   * Pricer for {@link ResolvedSwapLeg}.
+   */
+  private final DiscountingSwapLegPricer legPricer;
+
+  /**
+   * Creates an instance.
+   *
+   * @param legPricer  the pricer for {@link ResolvedSwapLeg}
+   */
+  public SwapPortfolioCashFlowProjector(DiscountingSwapLegPricer legPricer) {
+    this.legPricer = ArgChecker.notNull(legPricer, "legPricer");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Projects the future cash flows of the trades.
+   * <p>
+   * The cash flows are added in the order of the trades, then legs.
+   *
+   * @param trades  the trades
+   * @param provider  the rates provider
+   * @return the buffer containing the cash flows
+   */
+  public CashFlowBuffer cashFlows(List<ResolvedSwapTrade> trades, RatesProvider provider) {
+    CashFlowBuffer buffer = new CashFlowBuffer();
+    cashFlows(trades, provider, buffer);
+    return buffer;
+  }
+
+  /**
+   * Projects the future cash flows of the trades, aggregated into date buckets.
+   * <p>
+   * The buckets are defined by their start dates, in increasing order, see {@link CashFlowBuckets}.
+   * The trades are projected and aggregated in parallel.
+   *
+   * @param trades  the trades
+   * @param provider  the rates provider
+   * @param bucketDates  the bucket start dates, in increasing order
+   * @return the cash flows aggregated into buckets
+   */
+  public CashFlowBuckets bucketedCashFlows(
+      List<ResolvedSwapTrade> trades,
+      RatesProvider provider,
+      List<LocalDate> bucketDates) {
+
+    ImmutableList<LocalDate> dates = ImmutableList.copyOf(bucketDates);
+    int chunkCount = (trades.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    // each thread sums its chunks in place into a single builder, the builders are then summed in place
+    return IntStream.range(0, chunkCount)
+        .parallel()
+        .collect(
+            () -> CashFlowBuckets.builder(dates),
+            (builder, chunk) -> {
+              List<ResolvedSwapTrade> chunkTrades =
+                  trades.subList(chunk * CHUNK_SIZE, Math.min(trades.size(), (chunk + 1) * CHUNK_SIZE));
+              CashFlowBuffer buffer = new CashFlowBuffer(chunkTrades.size() * 8);
+              cashFlows(chunkTrades, provider, buffer);
+              builder.add(buffer);
+            },
+            CashFlowBuckets.Builder::addAll)
+        .build();
+  }
+
+  // adds the cash flows of the trades to the buffer
+  private void cashFlows(List<ResolvedSwapTrade> trades, RatesProvider provider, CashFlowBuffer buffer) {
+    for (ResolvedSwapTrade trade : trades) {
+      for (ResolvedSwapLeg leg : trade.getProduct().getLegs()) {
+        legPricer.cashFlows(leg, provider, buffer);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swaption;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.pricer.DiscountingPaymentPricer;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorBermudanGrid;
+import com.opengamma.strata.pricer.impl.rate.swap.CashFlowEquivalentCalculator;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParametersProvider;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.product.common.LongShort;
+import com.opengamma.strata.product.common.SettlementType;
+import com.opengamma.strata.product.swap.NotionalExchange;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swaption.ResolvedSwaption;
+
+/**
+ * Pricer for Bermudan swaptions with physical settlement in Hull-White one factor model
+ * with piecewise constant volatility.
+ * <p>
+ * The Bermudan swaption is represented by the list of European swaptions, one for each exercise date,
+ * sorted by increasing expiry. The underlying swap of each swaption is the swap entered into on exercise at that date.
+ * All the swaptions must have the same currency, the same long/short flag and physical settlement.
+ * <p>
+ * The price is computed by backward induction on a {@link HullWhiteOneFactorBermudanGrid}.
+ * The grid only depends on the model parameters and the exercise times; it can be created once with
+ * {@link #createGrid(List, RatesProvider, HullWhiteOneFactorPiecewiseConstantParametersProvider)}
+ * and reused for all the Bermudan swaptions sharing the same exercise dates.
+ * <p>
+ * Reference: Henrard, "M. Bermudan Swaptions in Gaussian HJM One-Factor Model: Analytical and Numerical Approaches".
+ * SSRN, October 2008. Available at SSRN: http://ssrn.com/abstract=1287982
+ */
+public class HullWhiteBermudanSwaptionPhysicalProductPricer {
+
+  /**
+   * Default implementation.
+   */
+  public static final HullWhiteBermudanSwaptionPhysicalProductPricer DEFAULT =
+      new HullWhiteBermudanSwaptionPhysicalProductPricer(DiscountingPaymentPricer.DEFAULT);
+
+  /**
+   * Pricer for the cash flow equivalents.
+   */
+  private final DiscountingPaymentPricer paymentPricer;
+
+  /**
+   * Creates an instance.
+   *
+   * @param paymentPricer  the pricer for the cash flow equivalents
+   */
+  public HullWhiteBermudanSwaptionPhysicalProductPricer(DiscountingPaymentPricer paymentPricer) {
+    this.paymentPricer = ArgChecker.notNull(paymentPricer, "paymentPricer");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates the grid used to price Bermudan swaptions with the exercise dates of the specified swaptions.
+   * <p>
+   * Only the exercise dates which are not before the valuation date are used.
+   *
+   * @param swaptions  the swaptions, one for each exercise date
+   * @param ratesProvider  the rates provider
+   * @param hwProvider  the Hull-White model parameter provider
+   * @return the grid, null if all the exercise dates are in the past
+   */
+  public HullWhiteOneFactorBermudanGrid createGrid(
+      List<ResolvedSwaption> swaptions,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider) {
+
+    validate(swaptions, ratesProvider, hwProvider);
+    DoubleArray exerciseTimes = exerciseTimes(swaptions, ratesProvider, hwProvider);
+    if (exerciseTimes.isEmpty()) {
+      return null;
+    }
+    return HullWhiteOneFactorBermudanGrid.of(hwProvider.getParameters(), exerciseTimes);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value of the Bermudan swaption.
+   * <p>
+   * The result is expressed using the currency of the swaptions.
+   *
+   * @param swaptions  the swaptions, one for each exercise date
+   * @param ratesProvider  the rates provider
+   * @param hwProvider  the Hull-White model parameter provider
+   * @return the present value
+   */
+  public CurrencyAmount presentValue(
+      List<ResolvedSwaption> swaptions,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider) {
+
+    HullWhiteOneFactorBermudanGrid grid = createGrid(swaptions, ratesProvider, hwProvider);
+    if (grid == null) { // Option has expired already
+      return CurrencyAmount.zero(currency(swaptions));
+    }
+    return presentValue(swaptions, ratesProvider, hwProvider, grid);
+  }
+
+  /**
+   * Calculates the present value of the Bermudan swaption using an existing grid.
+   * <p>
+   * The grid must have been created for the same model parameters and exercise dates.
+   * The result is expressed using the currency of the swaptions.
+   *
+   * @param swaptions  the swaptions, one for each exercise date
+   * @param ratesProvider  the rates provider
+   * @param hwProvider  the Hull-White model parameter provider
+   * @param grid  the grid
+   * @return the present value
+   */
+  public CurrencyAmount presentValue(
+      List<ResolvedSwaption> swaptions,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider,
+      HullWhiteOneFactorBermudanGrid grid) {
+
+    validate(swaptions, ratesProvider, hwProvider);
+    ArgChecker.notNull(grid, "grid");
+    DoubleArray exerciseTimes = exerciseTimes(swaptions, ratesProvider, hwProvider);
+    ArgChecker.isTrue(grid.getParameters().equals(hwProvider.getParameters()),
+        "grid should be created with the same Hull-White model parameters");
+    ArgChecker.isTrue(grid.getExerciseTimes().equals(exerciseTimes),
+        "grid should be created with the same exercise dates");
+    int nbExercise = exerciseTimes.size();
+    int firstExercise = swaptions.size() - nbExercise;
+    double numeraireTime = exerciseTimes.get(nbExercise - 1);
+    double[][] exerciseValues = new double[nbExercise][];
+    for (int i = 0; i < nbExercise; i++) {
+      ResolvedSwapLeg cashFlowEquiv = CashFlowEquivalentCalculator.cashFlowEquivalentSwap(
+          swaptions.get(firstExercise + i).getUnderlying(), ratesProvider);
+      int nPayments = cashFlowEquiv.getPaymentEvents().size();
+      double[] paymentTimes = new double[nPayments];
+      double[] discountedCashFlow = new double[nPayments];
+      for (int loopcf = 0; loopcf < nPayments; loopcf++) {
+        NotionalExchange payment = (NotionalExchange) cashFlowEquiv.getPaymentEvents().get(loopcf);
+        paymentTimes[loopcf] = hwProvider.relativeTime(payment.getPaymentDate());
+        discountedCashFlow[loopcf] = paymentPricer.presentValueAmount(payment.getPayment(), ratesProvider);
+      }
+      exerciseValues[i] = grid.cashFlowValues(i, numeraireTime, discountedCashFlow, paymentTimes);
+    }
+    double pv = grid.presentValue(exerciseValues);
+    return CurrencyAmount.of(currency(swaptions), pv * swaptions.get(0).getLongShort().sign());
+  }
+
+  //-------------------------------------------------------------------------
+  // the times of the exercise dates which are not before the valuation date
+  private DoubleArray exerciseTimes(
+      List<ResolvedSwaption> swaptions,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider) {
+
+    return DoubleArray.copyOf(swaptions.stream()
+        .map(ResolvedSwaption::getExpiryDate)
+        .filter(expiryDate -> !expiryDate.isBefore(ratesProvider.getValuationDate()))
+        .mapToDouble(hwProvider::relativeTime)
+        .toArray());
+  }
+
+  private Currency currency(List<ResolvedSwaption> swaptions) {
+    return swaptions.get(0).getUnderlying().getLegs().get(0).getCurrency();
+  }
+
+  // validate that the swaptions, the rates and volatilities providers are coherent
+  private void validate(
+      List<ResolvedSwaption> swaptions,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider) {
+
+    ArgChecker.notEmpty(swaptions, "swaptions");
+    ArgChecker.isTrue(hwProvider.getValuationDateTime().toLocalDate().equals(ratesProvider.getValuationDate()),
+        "Hull-White model data and rate data should be for the same date");
+    Currency currency = currency(swaptions);
+    LongShort longShort = swaptions.get(0).getLongShort();
+    LocalDate previousExpiry = null;
+    for (ResolvedSwaption swaption : swaptions) {
+      ArgChecker.isFalse(swaption.getUnderlying().isCrossCurrency(), "underlying swap should be single currency");
+      ArgChecker.isTrue(swaption.getSwaptionSettlement().getSettlementType().equals(SettlementType.PHYSICAL),
+          "swaption should be physical settlement");
+      ArgChecker.isTrue(swaption.getUnderlying().getLegs().get(0).getCurrency().equals(currency),
+          "swaptions should have the same currency");
+      ArgChecker.isTrue(swaption.getLongShort().equals(longShort), "swaptions should have the same long/short flag");
+      LocalDate expiry = swaption.getExpiryDate();
+      ArgChecker.isTrue(previousExpiry == null || expiry.isAfter(previousExpiry),
+          "swaptions should be sorted by increasing expiry date");
+      previousExpiry = expiry;
+    }
+  }
+
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swaption;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import com.opengamma.strata.basics.date.DayCount;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.rootfinding.BrentSingleRootFinder;
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
+import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
+import com.opengamma.strata.pricer.DiscountingPaymentPricer;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPiecewiseConstantInterestRateModel;
+import com.opengamma.strata.pricer.impl.rate.swap.CashFlowEquivalentCalculator;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParametersProvider;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.product.common.SettlementType;
+import com.opengamma.strata.product.swap.NotionalExchange;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapLegType;
+import com.opengamma.strata.product.swaption.ResolvedSwaption;
+
+/**
+ * Calibrator of the Hull-White one factor model with piecewise constant volatility to swaptions.
+ * <p>
+ * The volatility is calibrated to a strip of physical swaptions with increasing expiries, typically the co-terminal
+ * swaptions underlying a Bermudan swaption. The volatility times are the expiry times of the swaptions,
+ * so that the price of each swaption depends only on the volatilities up to its expiry.
+ * The volatilities are then bootstrapped in one pass, each one by a one dimensional root-finding.
+ * <p>
+ * In the model, all the bond volatilities of a swaption are proportional to the square root of the same variance.
+ * The cash flow equivalents are computed once for each swaption and the root-finding is done on this variance.
+ * The mean reversion is not calibrated.
+ */
+public class HullWhiteSwaptionCalibrator {
+
+  /**
+   * Normal distribution function.
+   */
+  private static final ProbabilityDistribution<Double> NORMAL = new NormalDistribution(0, 1);
+  /**
+   * The model.
+   */
+  private static final HullWhiteOneFactorPiecewiseConstantInterestRateModel MODEL =
+      HullWhiteOneFactorPiecewiseConstantInterestRateModel.DEFAULT;
+  /**
+   * The small parameter.
+   */
+  private static final double SMALL = 1.0e-9;
+  /**
+   * The maximal number of iterations to bracket the root.
+   */
+  private static final int MAX_BRACKET_ITERATIONS = 100;
+  /**
+   * The root-finder.
+   */
+  private static final BrentSingleRootFinder ROOT_FINDER = new BrentSingleRootFinder(1.0e-12);
+
+  /**
+   * Default implementation.
+   */
+  public static final HullWhiteSwaptionCalibrator DEFAULT =
+      new HullWhiteSwaptionCalibrator(
+          DiscountingPaymentPricer.DEFAULT, VolatilitySwaptionPhysicalProductPricer.DEFAULT);
+
+  /**
+   * Pricer for the cash flow equivalents.
+   */
+  private final DiscountingPaymentPricer paymentPricer;
+  /**
+   * Pricer for the swaptions, used to compute the calibration targets from volatilities.
+   */
+  private final VolatilitySwaptionPhysicalProductPricer swaptionPricer;
+
+  /**
+   * Creates an instance.
+   *
+   * @param paymentPricer  the pricer for the cash flow equivalents
+   * @param swaptionPricer  the pricer used to compute the swaption prices from volatilities
+   */
+  public HullWhiteSwaptionCalibrator(
+      DiscountingPaymentPricer paymentPricer,
+      VolatilitySwaptionPhysicalProductPricer swaptionPricer) {
+
+    this.paymentPricer = ArgChecker.notNull(paymentPricer, "paymentPricer");
+    this.swaptionPricer = ArgChecker.notNull(swaptionPricer, "swaptionPricer");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calibrates the Hull-White volatilities to the prices implied by swaption volatilities.
+   * <p>
+   * The model is valid at the valuation date-time of the volatilities.
+   *
+   * @param swaptions  the swaptions, sorted by increasing expiry
+   * @param ratesProvider  the rates provider
+   * @param swaptionVolatilities  the swaption volatilities
+   * @param meanReversion  the mean reversion
+   * @param dayCount  the day count applicable to the model
+   * @return the calibrated model parameters provider
+   */
+  public HullWhiteOneFactorPiecewiseConstantParametersProvider calibrate(
+      List<ResolvedSwaption> swaptions,
+      RatesProvider ratesProvider,
+      SwaptionVolatilities swaptionVolatilities,
+      double meanReversion,
+      DayCount dayCount) {
+
+    ArgChecker.notEmpty(swaptions, "swaptions");
+    DoubleArray presentValues = DoubleArray.copyOf(swaptions.stream()
+        .mapToDouble(swaption -> swaptionPricer.presentValue(swaption, ratesProvider, swaptionVolatilities).getAmount())
+        .toArray());
+    return calibrate(
+        swaptions, presentValues, ratesProvider, meanReversion, dayCount, swaptionVolatilities.getValuationDateTime());
+  }
+
+  /**
+   * Calibrates the Hull-White volatilities to swaption present values.
+   * <p>
+   * The present values are those of the swaptions, including the long/short sign.
+   *
+   * @param swaptions  the swaptions, sorted by increasing expiry
+   * @param presentValues  the present values of the swaptions
+   * @param ratesProvider  the rates provider
+   * @param meanReversion  the mean reversion
+   * @param dayCount  the day count applicable to the model
+   * @param valuationDateTime  the valuation date-time
+   * @return the calibrated model parameters provider
+   * @throws IllegalArgumentException if a present value cannot be reached
+   */
+  public HullWhiteOneFactorPiecewiseConstantParametersProvider calibrate(
+      List<ResolvedSwaption> swaptions,
+      DoubleArray presentValues,
+      RatesProvider ratesProvider,
+      double meanReversion,
+      DayCount dayCount,
+      ZonedDateTime valuationDateTime) {
+
+    ArgChecker.notEmpty(swaptions, "swaptions");
+    ArgChecker.isTrue(swaptions.size() == presentValues.size(), "one present value is required per swaption");
+    ArgChecker.isTrue(valuationDateTime.toLocalDate().equals(ratesProvider.getValuationDate()),
+        "Hull-White model data and rate data should be for the same date");
+    int nbSwaptions = swaptions.size();
+    // times, using an uncalibrated provider
+    HullWhiteOneFactorPiecewiseConstantParametersProvider timeProvider =
+        HullWhiteOneFactorPiecewiseConstantParametersProvider.of(
+            HullWhiteOneFactorPiecewiseConstantParameters.of(meanReversion, DoubleArray.of(0d), DoubleArray.EMPTY),
+            dayCount,
+            valuationDateTime);
+    double[] expiryTimes = new double[nbSwaptions];
+    for (int i = 0; i < nbSwaptions; i++) {
+      ResolvedSwaption swaption = swaptions.get(i);
+      ArgChecker.isTrue(swaption.getSwaptionSettlement().getSettlementType().equals(SettlementType.PHYSICAL),
+          "swaption should be physical settlement");
+      ArgChecker.isFalse(swaption.getUnderlying().isCrossCurrency(), "underlying swap should be single currency");
+      LocalDate expiryDate = swaption.getExpiryDate();
+      expiryTimes[i] = timeProvider.relativeTime(expiryDate);
+      ArgChecker.isTrue(expiryTimes[i] > (i == 0 ? 0d : expiryTimes[i - 1]),
+          "swaption expiries should be after the valuation date and increasing");
+    }
+    // bootstrap
+    double a = meanReversion;
+    double[] volatility = new double[nbSwaptions];
+    double variance = 0d;
+    double previousExp2a = 1d;
+    for (int i = 0; i < nbSwaptions; i++) {
+      ResolvedSwaption swaption = swaptions.get(i);
+      double target = presentValues.get(i) * swaption.getLongShort().sign();
+      double exp2a = Math.exp(2d * a * expiryTimes[i]);
+      double deviation = impliedDeviation(
+          swaption, target, expiryTimes[i], Math.sqrt(variance), a, ratesProvider, timeProvider);
+      double periodVariance = Math.max(deviation * deviation - variance, 0d);
+      volatility[i] = Math.sqrt(periodVariance * 2d * a / (exp2a - previousExp2a));
+      variance += periodVariance;
+      previousExp2a = exp2a;
+    }
+    HullWhiteOneFactorPiecewiseConstantParameters parameters = HullWhiteOneFactorPiecewiseConstantParameters.of(
+        meanReversion, DoubleArray.ofUnsafe(volatility), DoubleArray.copyOf(expiryTimes, 0, nbSwaptions - 1));
+    return HullWhiteOneFactorPiecewiseConstantParametersProvider.of(parameters, dayCount, valuationDateTime);
+  }
+
+  //-------------------------------------------------------------------------
+  // the standard deviation of the state variable at expiry which reproduces the price of a long swaption
+  private double impliedDeviation(
+      ResolvedSwaption swaption,
+      double target,
+      double expiryTime,
+      double minDeviation,
+      double a,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider timeProvider) {
+
+    ResolvedSwapLeg cashFlowEquiv = CashFlowEquivalentCalculator.cashFlowEquivalentSwap(
+        swaption.getUnderlying(), ratesProvider);
+    int nPayments = cashFlowEquiv.getPaymentEvents().size();
+    double[] factor = new double[nPayments];
+    double[] discountedCashFlow = new double[nPayments];
+    double expExpiry = Math.exp(-a * expiryTime);
+    for (int loopcf = 0; loopcf < nPayments; loopcf++) {
+      NotionalExchange payment = (NotionalExchange) cashFlowEquiv.getPaymentEvents().get(loopcf);
+      factor[loopcf] = (expExpiry - Math.exp(-a * timeProvider.relativeTime(payment.getPaymentDate()))) / a;
+      discountedCashFlow[loopcf] = paymentPricer.presentValueAmount(payment.getPayment(), ratesProvider);
+    }
+    double omega = (swaption.getUnderlying().getLegs(SwapLegType.FIXED).get(0).getPayReceive().isPay() ? -1d : 1d);
+    Function<Double, Double> error = deviation -> price(deviation, factor, discountedCashFlow, omega) - target;
+    double lower = minDeviation;
+    ArgChecker.isTrue(error.apply(lower) <= 0d,
+        "swaption price {} at expiry {} is below the price implied by the previous volatilities", target, expiryTime);
+    double upper = Math.max(2d * lower, 0.01 * Math.sqrt(expiryTime));
+    int nbIterations = 0;
+    while (error.apply(upper) < 0d) {
+      ArgChecker.isTrue(nbIterations++ < MAX_BRACKET_ITERATIONS,
+          "swaption price {} at expiry {} cannot be reached", target, expiryTime);
+      lower = upper;
+      upper *= 2d;
+    }
+    return ROOT_FINDER.getRoot(error, lower, upper);
+  }
+
+  // the price of the long swaption with alpha = factor * deviation
+  private static double price(double deviation, double[] factor, double[] discountedCashFlow, double omega) {
+    int nPayments = factor.length;
+    double[] alpha = new double[nPayments];
+    boolean small = true;
+    for (int loopcf = 0; loopcf < nPayments; loopcf++) {
+      alpha[loopcf] = factor[loopcf] * deviation;
+      small &= Math.abs(alpha[loopcf]) < SMALL;
+    }
+    if (small) { // intrinsic value
+      double totalPv = 0d;
+      for (int loopcf = 0; loopcf < nPayments; loopcf++) {
+        totalPv += discountedCashFlow[loopcf];
+      }
+      return Math.max(totalPv, 0d);
+    }
+    double kappa = MODEL.kappa(DoubleArray.ofUnsafe(discountedCashFlow), DoubleArray.ofUnsafe(alpha));
+    double pv = 0d;
+    for (int loopcf = 0; loopcf < nPayments; loopcf++) {
+      pv += discountedCashFlow[loopcf] * NORMAL.getCDF(omega * (kappa + alpha[loopcf]));
+    }
+    return pv;
+  }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
+import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_6M;
+import static com.opengamma.strata.basics.index.OvernightIndices.USD_FED_FUND;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static com.opengamma.strata.product.common.BuySell.SELL;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.date.Tenor;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+import com.opengamma.strata.pricer.deposit.DiscountingTermDepositProductPricer;
+import com.opengamma.strata.pricer.fra.DiscountingFraProductPricer;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
+import com.opengamma.strata.product.deposit.ResolvedTermDeposit;
+import com.opengamma.strata.product.deposit.type.TermDepositConventions;
+import com.opengamma.strata.product.deposit.type.TermDepositTemplate;
+import com.opengamma.strata.product.fra.FraDiscountingMethod;
+import com.opengamma.strata.product.fra.ResolvedFra;
+import com.opengamma.strata.product.fra.type.FraTemplate;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.type.FixedIborSwapConventions;
+import com.opengamma.strata.product.swap.type.FixedOvernightSwapConventions;
+
+/**
+ * Test {@link LinearScenarioCashFlows}.
+ */
+@Test
+public class LinearScenarioCashFlowsTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = LocalDate.of(2015, 6, 30);
+  private static final DoubleArray TIMES = DoubleArray.of(0.25, 0.5, 1.0, 2.0, 5.0, 10.0);
+  private static final DoubleArray RATES = DoubleArray.of(0.010, 0.012, 0.014, 0.018, 0.022, 0.025);
+  private static final int NB_SCENARIOS = 4;
+  private static final LocalDateDoubleTimeSeries TS_LIBOR_3M;
+  static {
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    for (LocalDate date = VAL_DATE.minusYears(2); date.isBefore(VAL_DATE); date = date.plusDays(1)) {
+      builder.put(date, 0.0025);
+    }
+    TS_LIBOR_3M = builder.build();
+  }
+
+  private static final ResolvedSwap SWAP = FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M
+      .createTrade(VAL_DATE, Tenor.TENOR_5Y, BUY, 1_000_000d, 0.02, REF_DATA)
+      .getProduct().resolve(REF_DATA);
+  private static final ResolvedSwap SWAP_SEASONED = FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M
+      .createTrade(VAL_DATE.minusYears(1), Tenor.TENOR_5Y, SELL, 1_000_000d, 0.015, REF_DATA)
+      .getProduct().resolve(REF_DATA);
+  private static final ResolvedSwap SWAP_OIS = FixedOvernightSwapConventions.USD_FIXED_1Y_FED_FUND_OIS
+      .createTrade(VAL_DATE, Tenor.TENOR_2Y, BUY, 1_000_000d, 0.01, REF_DATA)
+      .getProduct().resolve(REF_DATA);
+  private static final ResolvedFra FRA = FraTemplate.of(Period.ofMonths(3), USD_LIBOR_3M)
+      .createTrade(VAL_DATE, BUY, 1_000_000d, 0.015, REF_DATA)
+      .getProduct().resolve(REF_DATA);
+  private static final ResolvedTermDeposit DEPOSIT = TermDepositTemplate.of(Period.ofMonths(6),
+      TermDepositConventions.USD_DEPOSIT_T2)
+      .createTrade(VAL_DATE, BUY, 1_000_000d, 0.012, REF_DATA)
+      .getProduct().resolve(REF_DATA);
+
+  private static final DiscountingSwapProductPricer SWAP_PRICER = DiscountingSwapProductPricer.DEFAULT;
+  private static final DiscountingFraProductPricer FRA_PRICER = DiscountingFraProductPricer.DEFAULT;
+  private static final DiscountingTermDepositProductPricer DEPOSIT_PRICER = DiscountingTermDepositProductPricer.DEFAULT;
+
+  //-------------------------------------------------------------------------
+  public void test_swap() {
+    LinearScenarioCashFlows test = LinearScenarioCashFlows.of(SWAP).get();
+    assertEquals(test.getCurrency(), USD);
+    assertEquals(test.size(), SWAP.getLegs().get(0).getPaymentPeriods().size() +
+        SWAP.getLegs().get(1).getPaymentPeriods().size());
+    CurrencyScenarioArray computed = test.presentValue(NB_SCENARIOS, LinearScenarioCashFlowsTest::provider);
+    assertEquals(computed.getScenarioCount(), NB_SCENARIOS);
+    for (int i = 0; i < NB_SCENARIOS; i++) {
+      CurrencyAmount expected = SWAP_PRICER.presentValue(SWAP, provider(i)).getAmount(USD);
+      assertEquals(computed.get(i), expected);
+      assertEquals(test.presentValue(provider(i)), expected);
+    }
+  }
+
+  public void test_swap_seasoned() {
+    LinearScenarioCashFlows test = LinearScenarioCashFlows.of(SWAP_SEASONED).get();
+    CurrencyScenarioArray computed = test.presentValue(NB_SCENARIOS, LinearScenarioCashFlowsTest::provider);
+    for (int i = 0; i < NB_SCENARIOS; i++) {
+      assertEquals(computed.get(i), SWAP_PRICER.presentValue(SWAP_SEASONED, provider(i)).getAmount(USD));
+    }
+  }
+
+  public void test_swap_notSupported() {
+    assertFalse(LinearScenarioCashFlows.of(SWAP_OIS).isPresent());
+  }
+
+  public void test_fra() {
+    for (FraDiscountingMethod discounting : FraDiscountingMethod.values()) {
+      ResolvedFra fra = FRA.toBuilder().discounting(discounting).build();
+      LinearScenarioCashFlows test = LinearScenarioCashFlows.of(fra).get();
+      CurrencyScenarioArray computed = test.presentValue(NB_SCENARIOS, LinearScenarioCashFlowsTest::provider);
+      for (int i = 0; i < NB_SCENARIOS; i++) {
+        assertEquals(computed.get(i), FRA_PRICER.presentValue(fra, provider(i)));
+      }
+    }
+  }
+
+  public void test_termDeposit() {
+    LinearScenarioCashFlows test = LinearScenarioCashFlows.of(DEPOSIT).get();
+    assertEquals(test.size(), 2);
+    CurrencyScenarioArray computed = test.presentValue(NB_SCENARIOS, LinearScenarioCashFlowsTest::provider);
+    for (int i = 0; i < NB_SCENARIOS; i++) {
+      assertEquals(computed.get(i), DEPOSIT_PRICER.presentValue(DEPOSIT, provider(i)));
+    }
+  }
+
+  public void test_termDeposit_started() {
+    LinearScenarioCashFlows test = LinearScenarioCashFlows.of(DEPOSIT).get();
+    List<LocalDate> dates = ImmutableList.of(
+        DEPOSIT.getStartDate(), DEPOSIT.getStartDate().plusDays(1), DEPOSIT.getEndDate(), DEPOSIT.getEndDate().plusDays(1));
+    CurrencyScenarioArray computed = test.presentValue(dates.size(), i -> provider(dates.get(i), i));
+    for (int i = 0; i < dates.size(); i++) {
+      assertEquals(computed.get(i), DEPOSIT_PRICER.presentValue(DEPOSIT, provider(dates.get(i), i)));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static RatesProvider provider(int scenarioIndex) {
+    return provider(VAL_DATE, scenarioIndex);
+  }
+
+  // the curves are shifted in each scenario
+  private static ImmutableRatesProvider provider(LocalDate valuationDate, int scenarioIndex) {
+    DoubleArray rates = RATES.plus(0.001 * scenarioIndex);
+    InterpolatedNodalCurve dsc = InterpolatedNodalCurve.of(
+        Curves.zeroRates(CurveName.of("USD-DSC"), ACT_365F), TIMES, rates, CurveInterpolators.LINEAR);
+    InterpolatedNodalCurve fwd3 = InterpolatedNodalCurve.of(
+        Curves.zeroRates(CurveName.of("USD-L3"), ACT_365F), TIMES, rates.plus(0.002), CurveInterpolators.LINEAR);
+    InterpolatedNodalCurve fwd6 = InterpolatedNodalCurve.of(
+        Curves.zeroRates(CurveName.of("USD-L6"), ACT_365F), TIMES, rates.plus(0.003), CurveInterpolators.LINEAR);
+    return ImmutableRatesProvider.builder(valuationDate)
+        .discountCurve(USD, dsc)
+        .overnightIndexCurve(USD_FED_FUND, dsc)
+        .iborIndexCurve(USD_LIBOR_3M, fwd3)
+        .iborIndexCurve(USD_LIBOR_6M, fwd6)
+        .timeSeries(USD_LIBOR_3M, TS_LIBOR_3M)
+        .build();
+  }
+
+}
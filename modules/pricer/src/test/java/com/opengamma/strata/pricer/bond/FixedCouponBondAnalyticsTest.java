@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.bond;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.time.LocalDate;
+import java.util.function.DoubleUnaryOperator;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.date.BusinessDayAdjustment;
+import com.opengamma.strata.basics.date.BusinessDayConventions;
+import com.opengamma.strata.basics.date.DayCounts;
+import com.opengamma.strata.basics.date.DaysAdjustment;
+import com.opengamma.strata.basics.date.HolidayCalendarIds;
+import com.opengamma.strata.basics.schedule.Frequency;
+import com.opengamma.strata.basics.schedule.PeriodicSchedule;
+import com.opengamma.strata.basics.schedule.StubConvention;
+import com.opengamma.strata.product.LegalEntityId;
+import com.opengamma.strata.product.SecurityId;
+import com.opengamma.strata.product.bond.FixedCouponBond;
+import com.opengamma.strata.product.bond.FixedCouponBondYieldConvention;
+import com.opengamma.strata.product.bond.ResolvedFixedCouponBond;
+
+/**
+ * Test {@link FixedCouponBondAnalytics}.
+ */
+@Test
+public class FixedCouponBondAnalyticsTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final DiscountingFixedCouponBondProductPricer PRICER = DiscountingFixedCouponBondProductPricer.DEFAULT;
+  private static final LocalDate SETTLEMENT = date(2016, 4, 25);
+  private static final double YIELD = 0.0225;
+  private static final double TOL = 1e-12;
+  private static final double EPS = 1e-6;
+
+  //-------------------------------------------------------------------------
+  public void test_standard() {
+    ResolvedFixedCouponBond bond = bond(FixedCouponBondYieldConvention.US_STREET, date(2025, 4, 12));
+    FixedCouponBondAnalytics test = PRICER.analytics(bond, SETTLEMENT);
+    // hand computed: settlement 13 days into the 183 day period from 2016-04-12, then 18 coupons of 2%
+    DoubleUnaryOperator expected = y -> {
+      double factorToNextCoupon = (183d - 13d) / 183d;
+      double price = 0d;
+      for (int i = 0; i < 18; i++) {
+        LocalDate start = date(2016, 4, 12).plusMonths(6 * i);
+        double yearFraction = (start.plusMonths(6).toEpochDay() - start.toEpochDay()) / 365d;
+        price += 0.02 * yearFraction * Math.pow(1d + y / 2d, -(i + factorToNextCoupon));
+      }
+      return price + Math.pow(1d + y / 2d, -(17 + factorToNextCoupon));
+    };
+    double price = test.dirtyPriceFromYield(YIELD);
+    assertThat(price).isCloseTo(expected.applyAsDouble(YIELD), offset(TOL));
+    assertThat(test.yieldFromDirtyPrice(price)).isCloseTo(YIELD, offset(TOL));
+    assertDerivatives(test, expected);
+    assertThat(test.macaulayDurationFromYield(YIELD))
+        .isCloseTo(test.modifiedDurationFromYield(YIELD) * (1d + YIELD / 2d), offset(TOL));
+  }
+
+  public void test_singleCoupon() {
+    ResolvedFixedCouponBond bond = bond(FixedCouponBondYieldConvention.US_STREET, date(2016, 10, 12));
+    FixedCouponBondAnalytics test = PRICER.analytics(bond, SETTLEMENT);
+    // hand computed: the last coupon and the repayment are discounted with simple compounding
+    double factorToNextCoupon = (183d - 13d) / 183d;
+    DoubleUnaryOperator expected = y -> (1d + 0.02 * 183d / 365d) / (1d + factorToNextCoupon * y / 2d);
+    double price = test.dirtyPriceFromYield(YIELD);
+    assertThat(price).isCloseTo(expected.applyAsDouble(YIELD), offset(TOL));
+    assertThat(test.yieldFromDirtyPrice(price)).isCloseTo(YIELD, offset(TOL));
+    assertDerivatives(test, expected);
+    assertThat(test.macaulayDurationFromYield(YIELD)).isCloseTo(factorToNextCoupon / 2d, offset(TOL));
+  }
+
+  public void test_simple() {
+    ResolvedFixedCouponBond bond = bond(FixedCouponBondYieldConvention.JP_SIMPLE, date(2025, 4, 12));
+    FixedCouponBondAnalytics test = PRICER.analytics(bond, SETTLEMENT);
+    // hand computed: simple yield to maturity, plus the accrued interest of 13 days
+    double maturity = (date(2025, 4, 12).toEpochDay() - SETTLEMENT.toEpochDay()) / 365d;
+    DoubleUnaryOperator expected = y -> (1d + 0.02 * maturity) / (1d + y * maturity) + 0.02 * 13d / 365d;
+    double price = test.dirtyPriceFromYield(YIELD);
+    assertThat(price).isCloseTo(expected.applyAsDouble(YIELD), offset(TOL));
+    assertThat(test.yieldFromDirtyPrice(price)).isCloseTo(YIELD, offset(TOL));
+    assertDerivatives(test, expected);
+    assertThrows(() -> test.macaulayDurationFromYield(YIELD), UnsupportedOperationException.class);
+  }
+
+  public void test_simple_matured() {
+    ResolvedFixedCouponBond bond = bond(FixedCouponBondYieldConvention.JP_SIMPLE, date(2025, 4, 12));
+    FixedCouponBondAnalytics test = PRICER.analytics(bond, date(2026, 1, 1));
+    assertThat(test.dirtyPriceFromYield(YIELD)).isEqualTo(0d);
+    assertThat(test.modifiedDurationFromYield(YIELD)).isEqualTo(0d);
+    assertThat(test.convexityFromYield(YIELD)).isEqualTo(0d);
+    assertThrows(() -> test.yieldFromDirtyPrice(1d), IllegalArgumentException.class, "Date outside range of bond");
+    assertThrows(
+        () -> PRICER.yieldFromDirtyPrice(bond, date(2026, 1, 1), 1d),
+        IllegalArgumentException.class,
+        "Date outside range of bond");
+  }
+
+  //-------------------------------------------------------------------------
+  // checks the duration and convexity against finite differences of the hand computed price
+  private void assertDerivatives(FixedCouponBondAnalytics test, DoubleUnaryOperator expected) {
+    double price = expected.applyAsDouble(YIELD);
+    double priceUp = expected.applyAsDouble(YIELD + EPS);
+    double priceDown = expected.applyAsDouble(YIELD - EPS);
+    double duration = -(priceUp - priceDown) / (2d * EPS) / price;
+    double convexity = (priceUp - 2d * price + priceDown) / (EPS * EPS) / price;
+    assertThat(test.modifiedDurationFromYield(YIELD)).isCloseTo(duration, offset(EPS));
+    assertThat(test.convexityFromYield(YIELD)).isCloseTo(convexity, offset(1e-3));
+  }
+
+  private static ResolvedFixedCouponBond bond(FixedCouponBondYieldConvention convention, LocalDate endDate) {
+    BusinessDayAdjustment adjustment =
+        BusinessDayAdjustment.of(BusinessDayConventions.MODIFIED_FOLLOWING, HolidayCalendarIds.USNY);
+    return FixedCouponBond.builder()
+        .securityId(SecurityId.of("OG-Ticker", "GOVT1-BOND1"))
+        .dayCount(DayCounts.ACT_365F)
+        .fixedRate(0.02)
+        .legalEntityId(LegalEntityId.of("OG-Ticker", "GOVT1"))
+        .currency(USD)
+        .notional(1_000_000d)
+        .accrualSchedule(PeriodicSchedule.of(
+            date(2015, 4, 12), endDate, Frequency.P6M, adjustment, StubConvention.SHORT_INITIAL, false))
+        .settlementDateOffset(DaysAdjustment.ofBusinessDays(1, HolidayCalendarIds.USNY))
+        .yieldConvention(convention)
+        .build()
+        .resolve(REF_DATA);
+  }
+
+}
@@ -19,12 +19,14 @@ import java.util.List;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.market.ValueType;
 import com.opengamma.strata.market.surface.ConstantSurface;
 import com.opengamma.strata.market.surface.Surfaces;
+import com.opengamma.strata.math.impl.statistics.leastsquare.LevenbergMarquardtLeastSquare;
 import com.opengamma.strata.pricer.model.SabrVolatilityFormula;
 import com.opengamma.strata.pricer.option.RawOptionData;
 import com.opengamma.strata.product.capfloor.ResolvedIborCapFloorLeg;
@@ -83,6 +85,42 @@ public class SabrIborCapletFloorletVolatilityCalibratorTest
     assertEquals(resVols.getParameters().getBetaCurve(), definition.getBetaCurve().get());
   }
 
+  public void recovery_test_black_levenbergMarquardt() {
+    SabrIborCapletFloorletVolatilityCalibrator calibrator = SabrIborCapletFloorletVolatilityCalibrator.of(
+        VolatilityIborCapFloorLegPricer.DEFAULT,
+        SabrIborCapFloorLegPricer.DEFAULT,
+        new LevenbergMarquardtLeastSquare(1.0e-10),
+        ReferenceData.standard());
+    double beta = 0.7;
+    SabrIborCapletFloorletVolatilityCalibrationDefinition definition =
+        SabrIborCapletFloorletVolatilityCalibrationDefinition.ofFixedBeta(
+            NAME, USD_LIBOR_3M, ACT_ACT_ISDA, beta, ALPHA_KNOTS, BETA_RHO_KNOTS, NU_KNOTS, DOUBLE_QUADRATIC, FLAT, FLAT, HAGAN);
+    DoubleMatrix volData = createFullBlackDataMatrix();
+    DoubleMatrix error = DoubleMatrix.filled(volData.rowCount(), volData.columnCount(), 1.0e-3);
+    RawOptionData data = RawOptionData.of(
+        createBlackMaturities(), createBlackStrikes(), ValueType.STRIKE, volData, error, ValueType.BLACK_VOLATILITY);
+    IborCapletFloorletVolatilityCalibrationResult res = calibrator.calibrate(definition, CALIBRATION_TIME, data, RATES_PROVIDER);
+    IborCapletFloorletVolatilityCalibrationResult expected =
+        CALIBRATOR.calibrate(definition, CALIBRATION_TIME, data, RATES_PROVIDER);
+    assertEquals(res.getChiSquare(), expected.getChiSquare(), Math.max(expected.getChiSquare(), 1d) * TOL);
+    SabrParametersIborCapletFloorletVolatilities resVols =
+        (SabrParametersIborCapletFloorletVolatilities) res.getVolatilities();
+    for (int i = 0; i < NUM_BLACK_STRIKES; ++i) {
+      Pair<List<ResolvedIborCapFloorLeg>, List<Double>> capsAndVols = getCapsBlackVols(i);
+      List<ResolvedIborCapFloorLeg> caps = capsAndVols.getFirst();
+      List<Double> vols = capsAndVols.getSecond();
+      for (int j = 0; j < caps.size(); ++j) {
+        ConstantSurface volSurface = ConstantSurface.of(
+            Surfaces.blackVolatilityByExpiryStrike("test", ACT_ACT_ISDA), vols.get(j));
+        BlackIborCapletFloorletExpiryStrikeVolatilities constVol = BlackIborCapletFloorletExpiryStrikeVolatilities.of(
+            USD_LIBOR_3M, CALIBRATION_TIME, volSurface);
+        double priceOrg = LEG_PRICER_BLACK.presentValue(caps.get(j), RATES_PROVIDER, constVol).getAmount();
+        double priceCalib = LEG_PRICER_SABR.presentValue(caps.get(j), RATES_PROVIDER, resVols).getAmount();
+        assertEquals(priceOrg, priceCalib, Math.max(priceOrg, 1d) * TOL * 3d);
+      }
+    }
+  }
+
   public void recovery_test_black_fixedRho() {
     double rho = 0.15;
     SabrIborCapletFloorletVolatilityCalibrationDefinition definition =
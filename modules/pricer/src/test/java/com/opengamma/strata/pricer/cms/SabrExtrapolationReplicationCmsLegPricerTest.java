@@ -296,7 +296,11 @@ public class SabrExtrapolationReplicationCmsLegPricerTest {
     assertEquals(explain.get(ExplainKey.START_DATE).get(), LocalDate.of(2015, 10, 21));
     assertEquals(explain.get(ExplainKey.END_DATE).get(), LocalDate.of(2020, 10, 21));
     assertEquals(explain.get(ExplainKey.INDEX).get().toString(), "EUR-EURIBOR-1100-5Y");
-    assertEquals(explain.get(ExplainKey.PRESENT_VALUE).get().getAmount(), 39728.51321029542);
+    // regression value, the replication integrals are computed to an absolute tolerance of 1e-8 per unit of notional
+    // thus the value matches the one of the former Runge-Kutta integration, 39728.51321029542, within that tolerance
+    double pvLeg = explain.get(ExplainKey.PRESENT_VALUE).get().getAmount();
+    assertEquals(pvLeg, 39728.513119306204);
+    assertEquals(pvLeg, 39728.51321029542, NOTIONAL_VALUE_0 * 1e-8);
     
     List<ExplainMap> paymentPeriods = explain.get(ExplainKey.PAYMENT_PERIODS).get();
     assertEquals(paymentPeriods.size(), 5);
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.credit;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.basics.date.HolidayCalendarIds.SAT_SUN;
+import static com.opengamma.strata.basics.schedule.Frequency.P3M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.pricer.common.PriceType.CLEAN;
+import static com.opengamma.strata.pricer.common.PriceType.DIRTY;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static org.testng.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.market.ValueType;
+import com.opengamma.strata.market.curve.DefaultCurveMetadata;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.curve.interpolator.CurveExtrapolators;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+import com.opengamma.strata.pricer.common.PriceType;
+import com.opengamma.strata.product.credit.CdsIndex;
+import com.opengamma.strata.product.credit.ResolvedCds;
+import com.opengamma.strata.product.credit.ResolvedCdsIndex;
+
+/**
+ * Test {@link IsdaCdsIndexConstituentPricer}.
+ */
+@Test
+public class IsdaCdsIndexConstituentPricerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VALUATION_DATE = LocalDate.of(2014, 2, 13);
+  private static final StandardId INDEX_ID = StandardId.of("OG", "ABCXX");
+  private static final int NUM_NAMES = 12;
+  private static final ImmutableList<StandardId> LEGAL_ENTITIES;
+  static {
+    ImmutableList.Builder<StandardId> builder = ImmutableList.builder();
+    for (int i = 0; i < NUM_NAMES; ++i) {
+      builder.add(StandardId.of("OG", String.valueOf(i)));
+    }
+    LEGAL_ENTITIES = builder.build();
+  }
+  private static final DoubleArray TIME_YC = DoubleArray.of(
+      0.0876, 0.1726, 0.2602, 0.5095, 1.0109, 2.0109, 3.0136, 4.0191, 5.0164, 7.0164, 10.0219, 15.0273, 30.0301);
+  private static final DoubleArray RATE_YC = DoubleArray.of(
+      0.0016, 0.0020, 0.0024, 0.0033, 0.0056, 0.0044, 0.0078, 0.0119, 0.0159, 0.0224, 0.0286, 0.0341, 0.0378);
+  // two sets of nodes, so that constituents share some but not all integration grids
+  private static final DoubleArray TIME_CC1 = DoubleArray.of(
+      1.2054, 1.7095, 2.7123, 3.7123, 4.7123, 5.7123, 7.7150, 10.7178);
+  private static final DoubleArray TIME_CC2 = DoubleArray.of(0.5, 1d, 3d, 5d, 7d, 10d);
+  private static final DoubleArray RATE_CC1 = DoubleArray.of(
+      0.0099, 0.0120, 0.0142, 0.0168, 0.0197, 0.0231, 0.0270, 0.0296);
+  private static final DoubleArray RATE_CC2 = DoubleArray.of(0.0050, 0.0070, 0.0120, 0.0180, 0.0200, 0.0210);
+  private static final double RECOVERY_RATE_INDEX = 0.3;
+
+  private static final LocalDate START_DATE = LocalDate.of(2013, 12, 20);
+  private static final LocalDate MATURITY_DATE = LocalDate.of(2018, 12, 20);
+  private static final double COUPON = 0.01;
+  private static final ResolvedCdsIndex PRODUCT = CdsIndex.of(
+      BUY, INDEX_ID, LEGAL_ENTITIES, USD, 1.0e8, START_DATE, MATURITY_DATE, P3M, SAT_SUN, COUPON).resolve(REF_DATA);
+  private static final CreditRatesProvider RATES_PROVIDER = createCreditRatesProvider(VALUATION_DATE);
+  private static final LocalDate SETTLEMENT_STD = PRODUCT.getSettlementDateOffset().adjust(VALUATION_DATE, REF_DATA);
+
+  private static final double TOL = 1.0e-14;
+
+  //-------------------------------------------------------------------------
+  public void test_accrualOnDefaultFormula() {
+    assertEquals(
+        IsdaCdsIndexConstituentPricer.DEFAULT.getAccrualOnDefaultFormula(),
+        AccrualOnDefaultFormula.ORIGINAL_ISDA);
+    assertEquals(
+        new IsdaCdsIndexConstituentPricer(AccrualOnDefaultFormula.MARKIT_FIX).getAccrualOnDefaultFormula(),
+        AccrualOnDefaultFormula.MARKIT_FIX);
+  }
+
+  public void test_constituentValues() {
+    for (AccrualOnDefaultFormula formula : AccrualOnDefaultFormula.values()) {
+      IsdaCdsIndexConstituentPricer pricer = new IsdaCdsIndexConstituentPricer(formula);
+      IsdaCdsProductPricer cdsPricer = new IsdaCdsProductPricer(formula);
+      for (LocalDate referenceDate : ImmutableList.of(VALUATION_DATE, SETTLEMENT_STD)) {
+        IsdaCdsIndexConstituentValues test = pricer.constituentValues(PRODUCT, RATES_PROVIDER, referenceDate, REF_DATA);
+        assertEquals(test.getLegalEntityIds(), LEGAL_ENTITIES);
+        double sumProtection = 0d;
+        double sumAnnuity = 0d;
+        for (int i = 0; i < NUM_NAMES; ++i) {
+          ResolvedCds cds = PRODUCT.toSingleNameCds().toBuilder().legalEntityId(LEGAL_ENTITIES.get(i)).build();
+          double protection = cdsPricer.protectionLeg(cds, RATES_PROVIDER, referenceDate, REF_DATA);
+          double annuityClean = cdsPricer.riskyAnnuity(cds, RATES_PROVIDER, referenceDate, CLEAN, REF_DATA);
+          double annuityDirty = cdsPricer.riskyAnnuity(cds, RATES_PROVIDER, referenceDate, DIRTY, REF_DATA);
+          assertEquals(test.getProtectionLegs().get(i), protection, TOL);
+          assertEquals(test.getRiskyAnnuities(CLEAN).get(i), annuityClean, TOL);
+          assertEquals(test.getRiskyAnnuities(DIRTY).get(i), annuityDirty, TOL);
+          double parSpread = cdsPricer.parSpread(cds, RATES_PROVIDER, referenceDate, REF_DATA);
+          assertEquals(test.getParSpreads().get(i), parSpread, TOL);
+          for (PriceType priceType : PriceType.values()) {
+            assertEquals(
+                test.getPrices(priceType).get(i),
+                cdsPricer.price(cds, RATES_PROVIDER, referenceDate, priceType, REF_DATA),
+                TOL);
+          }
+          sumProtection += protection;
+          sumAnnuity += annuityClean;
+        }
+        assertEquals(test.getIntrinsicParSpread(), sumProtection / sumAnnuity, TOL);
+        assertEquals(test.getIntrinsicPrice(CLEAN), (sumProtection - sumAnnuity * COUPON) / NUM_NAMES, TOL);
+      }
+    }
+  }
+
+  public void test_parSpreadBasis() {
+    IsdaCdsIndexConstituentPricer pricer = IsdaCdsIndexConstituentPricer.DEFAULT;
+    double computed = pricer.parSpreadBasis(PRODUCT, RATES_PROVIDER, SETTLEMENT_STD, REF_DATA);
+    double indexSpread =
+        IsdaHomogenousCdsIndexProductPricer.DEFAULT.parSpread(PRODUCT, RATES_PROVIDER, SETTLEMENT_STD, REF_DATA);
+    double intrinsicSpread =
+        pricer.constituentValues(PRODUCT, RATES_PROVIDER, SETTLEMENT_STD, REF_DATA).getIntrinsicParSpread();
+    assertEquals(computed, indexSpread - intrinsicSpread, TOL);
+  }
+
+  public void test_expired() {
+    CreditRatesProvider provider = createCreditRatesProvider(MATURITY_DATE.plusDays(1));
+    assertThrowsIllegalArg(() -> IsdaCdsIndexConstituentPricer.DEFAULT.constituentValues(
+        PRODUCT, provider, MATURITY_DATE.plusDays(1), REF_DATA));
+  }
+
+  //-------------------------------------------------------------------------
+  private static CreditRatesProvider createCreditRatesProvider(LocalDate valuationDate) {
+    IsdaCreditDiscountFactors yc = IsdaCreditDiscountFactors.of(USD, valuationDate, curve("yield", TIME_YC, RATE_YC));
+    Map<Pair<StandardId, Currency>, LegalEntitySurvivalProbabilities> creditCurves = new HashMap<>();
+    Map<StandardId, RecoveryRates> recoveryRates = new HashMap<>();
+    for (int i = 0; i < NUM_NAMES; ++i) {
+      StandardId legalEntityId = LEGAL_ENTITIES.get(i);
+      double shift = 0.001 * i;
+      InterpolatedNodalCurve curve = i % 3 == 0 ?
+          curve("credit" + i, TIME_CC2, RATE_CC2.plus(shift)) :
+          curve("credit" + i, TIME_CC1, RATE_CC1.plus(shift));
+      creditCurves.put(
+          Pair.of(legalEntityId, USD),
+          LegalEntitySurvivalProbabilities.of(legalEntityId, IsdaCreditDiscountFactors.of(USD, valuationDate, curve)));
+      recoveryRates.put(legalEntityId, ConstantRecoveryRates.of(legalEntityId, valuationDate, 0.25 + 0.02 * i));
+    }
+    creditCurves.put(
+        Pair.of(INDEX_ID, USD),
+        LegalEntitySurvivalProbabilities.of(
+            INDEX_ID, IsdaCreditDiscountFactors.of(USD, valuationDate, curve("index", TIME_CC1, RATE_CC1))));
+    recoveryRates.put(INDEX_ID, ConstantRecoveryRates.of(INDEX_ID, valuationDate, RECOVERY_RATE_INDEX));
+    return ImmutableCreditRatesProvider.builder()
+        .valuationDate(valuationDate)
+        .creditCurves(creditCurves)
+        .discountCurves(ImmutableMap.of(USD, yc))
+        .recoveryRateCurves(recoveryRates)
+        .build();
+  }
+
+  private static InterpolatedNodalCurve curve(String name, DoubleArray times, DoubleArray rates) {
+    DefaultCurveMetadata metadata = DefaultCurveMetadata.builder()
+        .xValueType(ValueType.YEAR_FRACTION)
+        .yValueType(ValueType.ZERO_RATE)
+        .curveName(name)
+        .dayCount(ACT_365F)
+        .build();
+    return InterpolatedNodalCurve.of(metadata, times, rates,
+        CurveInterpolators.PRODUCT_LINEAR, CurveExtrapolators.FLAT, CurveExtrapolators.PRODUCT_LINEAR);
+  }
+
+}
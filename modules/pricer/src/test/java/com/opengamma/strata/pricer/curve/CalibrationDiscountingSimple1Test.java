@@ -22,6 +22,7 @@ import java.util.Set;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.basics.currency.Currency;
@@ -34,6 +35,7 @@ import com.opengamma.strata.data.ImmutableMarketData;
 import com.opengamma.strata.data.ImmutableMarketDataBuilder;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.market.ValueType;
+import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
 import com.opengamma.strata.market.curve.CurveGroupName;
 import com.opengamma.strata.market.curve.CurveMetadata;
@@ -51,6 +53,7 @@ import com.opengamma.strata.market.curve.node.IborFixingDepositCurveNode;
 import com.opengamma.strata.market.observable.QuoteId;
 import com.opengamma.strata.pricer.deposit.DiscountingIborFixingDepositProductPricer;
 import com.opengamma.strata.pricer.fra.DiscountingFraTradePricer;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
 import com.opengamma.strata.product.ResolvedTrade;
@@ -209,6 +212,19 @@ public class CalibrationDiscountingSimple1Test {
     }
   }
 
+  public void calibration_startingCurves() {
+    ImmutableRatesProvider base = CALIBRATOR.calibrate(CURVE_GROUP_DEFN, ALL_QUOTES, REF_DATA);
+    Curve baseCurve = base.getDiscountCurves().get(USD);
+    ImmutableRatesProvider computed =
+        CALIBRATOR.calibrate(CURVE_GROUP_DEFN, ALL_QUOTES, REF_DATA, ImmutableMap.of(ALL_CURVE_NAME, baseCurve));
+    Curve computedCurve = computed.getDiscountCurves().get(USD);
+    assertEquals(computedCurve.getParameterCount(), baseCurve.getParameterCount());
+    for (int i = 0; i < baseCurve.getParameterCount(); i++) {
+      assertEquals(computedCurve.getParameter(i), baseCurve.getParameter(i), 1e-12);
+    }
+    assertEquals(computed.getIndexCurves().get(USD_LIBOR_3M), computedCurve);
+  }
+
   //-------------------------------------------------------------------------
   @Test(enabled = false)
   void performance() {
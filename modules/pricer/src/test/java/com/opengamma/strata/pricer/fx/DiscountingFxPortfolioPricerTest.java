@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.fx;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.KRW;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.product.fx.ResolvedFxSingle;
+import com.opengamma.strata.product.fx.ResolvedFxSwap;
+
+/**
+ * Test {@link DiscountingFxPortfolioPricer}.
+ */
+@Test
+public class DiscountingFxPortfolioPricerTest {
+
+  private static final RatesProvider PROVIDER = RatesProviderFxDataSets.createProvider();
+  private static final LocalDate VAL_DATE = RatesProviderFxDataSets.VAL_DATE_2014_01_22;
+  private static final List<ResolvedFxSingle> FORWARDS;
+  static {
+    List<ResolvedFxSingle> forwards = new ArrayList<>();
+    for (int i = 0; i < 60; i++) {
+      LocalDate paymentDate = VAL_DATE.plusWeeks(i % 6 - 1);
+      CurrencyAmount usd = CurrencyAmount.of(USD, 1_000_000d * (i - 30));
+      CurrencyAmount eur = CurrencyAmount.of(EUR, -500_000d * i);
+      forwards.add(i % 2 == 0 ?
+          ResolvedFxSingle.of(usd, FxRate.of(USD, KRW, 1100d + i), paymentDate) :
+          ResolvedFxSingle.of(eur, FxRate.of(EUR, USD, 1.35d + 0.001 * i), paymentDate));
+    }
+    FORWARDS = ImmutableList.copyOf(forwards);
+  }
+  private static final ResolvedFxSwap SWAP = ResolvedFxSwap.ofForwardPoints(
+      CurrencyAmount.of(USD, 100_000_000d), KRW, 1109.5d, 4.45d, VAL_DATE.plusWeeks(1), VAL_DATE.plusMonths(1));
+  private static final DiscountingFxPortfolioPricer PRICER = DiscountingFxPortfolioPricer.DEFAULT;
+  private static final DiscountingFxSingleProductPricer FX_PRICER = DiscountingFxSingleProductPricer.DEFAULT;
+  private static final DiscountingFxSwapProductPricer SWAP_PRICER = DiscountingFxSwapProductPricer.DEFAULT;
+  // amounts in KRW are of the order of 1e10, results are summed in a different order
+  private static final double TOL = 1.0e-3;
+
+  //-------------------------------------------------------------------------
+  public void test_presentValue() {
+    MultiCurrencyAmount expected = MultiCurrencyAmount.empty();
+    for (ResolvedFxSingle fx : FORWARDS) {
+      expected = expected.plus(FX_PRICER.presentValue(fx, PROVIDER));
+    }
+    assertEqualsWithTolerance(PRICER.presentValue(FORWARDS, PROVIDER), expected);
+    assertEqualsWithTolerance(PRICER.currencyExposure(FORWARDS, PROVIDER), expected);
+    assertEquals(PRICER.presentValue(ImmutableList.of(), PROVIDER), MultiCurrencyAmount.empty());
+  }
+
+  public void test_presentValueSensitivity() {
+    PointSensitivities expected = PointSensitivities.empty();
+    for (ResolvedFxSingle fx : FORWARDS) {
+      expected = expected.combinedWith(FX_PRICER.presentValueSensitivity(fx, PROVIDER));
+    }
+    PointSensitivities computed = PRICER.presentValueSensitivity(FORWARDS, PROVIDER);
+    assertTrue(computed.normalized().equalWithTolerance(expected.normalized(), TOL));
+    CurrencyParameterSensitivities computedParam = PROVIDER.parameterSensitivity(computed);
+    CurrencyParameterSensitivities expectedParam = PROVIDER.parameterSensitivity(expected);
+    assertTrue(computedParam.equalWithTolerance(expectedParam, TOL));
+  }
+
+  public void test_swap() {
+    List<ResolvedFxSingle> legs = DiscountingFxPortfolioPricer.swapLegs(ImmutableList.of(SWAP));
+    assertEquals(legs, ImmutableList.of(SWAP.getNearLeg(), SWAP.getFarLeg()));
+    MultiCurrencyAmount expected = SWAP_PRICER.presentValue(SWAP, PROVIDER);
+    assertEqualsWithTolerance(PRICER.presentValue(legs, PROVIDER), expected);
+    assertTrue(PRICER.presentValueSensitivity(legs, PROVIDER).normalized()
+        .equalWithTolerance(SWAP_PRICER.presentValueSensitivity(SWAP, PROVIDER).normalized(), TOL));
+  }
+
+  public void test_forwardFxRates() {
+    List<FxRate> computed = PRICER.forwardFxRates(FORWARDS, PROVIDER);
+    assertEquals(computed.size(), FORWARDS.size());
+    for (int i = 0; i < FORWARDS.size(); i++) {
+      FxRate expected = FX_PRICER.forwardFxRate(FORWARDS.get(i), PROVIDER);
+      assertEquals(computed.get(i).getPair(), expected.getPair());
+      assertEquals(computed.get(i).fxRate(expected.getPair()), expected.fxRate(expected.getPair()), 1e-12);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // the amounts are summed in a different order, thus only equal within rounding
+  private static void assertEqualsWithTolerance(MultiCurrencyAmount computed, MultiCurrencyAmount expected) {
+    assertEquals(computed.getCurrencies(), expected.getCurrencies());
+    for (CurrencyAmount amount : expected.getAmounts()) {
+      assertEquals(computed.getAmount(amount.getCurrency()).getAmount(), amount.getAmount(), TOL);
+    }
+  }
+
+}
@@ -485,6 +485,33 @@ public class SabrExtrapolationRightFunctionTest {
     }
   }
 
+  /**
+   * Tests the prices and derivatives of a set of strikes against the strike by strike computation.
+   */
+  public void pricesAdjoint() {
+    double[] strikes = {0.001, 0.03, FORWARD, 0.08, CUT_OFF_STRIKE, 0.12, 0.30};
+    for (PutCall putCall : new PutCall[] {PutCall.CALL, PutCall.PUT}) {
+      SabrExtrapolationRightFunction func = SabrExtrapolationRightFunction.of(
+          FORWARD, TIME_TO_EXPIRY, SABR_DATA, CUT_OFF_STRIKE, MU);
+      double[] derivativesForward = new double[strikes.length];
+      double[][] derivativesSabr = new double[strikes.length][4];
+      double[] prices = func.prices(strikes, putCall);
+      double[] pricesAdjoint = func.pricesAdjoint(strikes, putCall, derivativesForward, derivativesSabr);
+      double[] pricesOnly = func.pricesAdjoint(strikes, putCall, null, null);
+      for (int i = 0; i < strikes.length; i++) {
+        double price = func.price(strikes[i], putCall);
+        assertEquals(prices[i], price, TOLERANCE_PRICE);
+        assertEquals(pricesAdjoint[i], price, TOLERANCE_PRICE);
+        assertEquals(pricesOnly[i], price, TOLERANCE_PRICE);
+        assertEquals(derivativesForward[i], func.priceDerivativeForward(strikes[i], putCall), TOLERANCE_PRICE);
+        ValueDerivatives adjointSabr = func.priceAdjointSabr(strikes[i], putCall);
+        for (int j = 0; j < 4; j++) {
+          assertEquals(derivativesSabr[i][j], adjointSabr.getDerivative(j), TOLERANCE_PRICE);
+        }
+      }
+    }
+  }
+
   /**
    * Tests the price put/call parity for options in SABR model with extrapolation.
    */
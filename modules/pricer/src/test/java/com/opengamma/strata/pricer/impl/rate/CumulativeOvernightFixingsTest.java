@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate;
+
+import static com.opengamma.strata.basics.index.OvernightIndices.GBP_SONIA;
+import static com.opengamma.strata.basics.index.OvernightIndices.USD_FED_FUND;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.date.HolidayCalendar;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+import com.opengamma.strata.product.rate.OvernightCompoundedRateComputation;
+
+/**
+ * Test {@link CumulativeOvernightFixings}.
+ */
+@Test
+public class CumulativeOvernightFixingsTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final OvernightCompoundedRateComputation COMPUTATION =
+      OvernightCompoundedRateComputation.of(GBP_SONIA, date(2018, 1, 1), date(2018, 2, 1), REF_DATA);
+  // Monday to Friday, then the following Tuesday after a missing fixing on Monday
+  private static final LocalDateDoubleTimeSeries FIXINGS = LocalDateDoubleTimeSeries.builder()
+      .put(date(2018, 4, 2), 0.01)
+      .put(date(2018, 4, 3), 0.02)
+      .put(date(2018, 4, 4), 0.03)
+      .put(date(2018, 4, 5), 0.04)
+      .put(date(2018, 4, 6), 0.05)
+      .put(date(2018, 4, 10), 0.06)
+      .build();
+  private static final double TOL = 1e-15;
+
+  //-------------------------------------------------------------------------
+  public void test_position() {
+    CumulativeOvernightFixings test = CumulativeOvernightFixings.of(COMPUTATION, FIXINGS);
+    assertThat(test.position(date(2018, 4, 2))).isEqualTo(0);
+    assertThat(test.position(date(2018, 4, 10))).isEqualTo(5);
+    assertThat(test.position(date(2018, 4, 9))).isEqualTo(-1);
+    assertThat(test.position(date(2018, 3, 1))).isEqualTo(-1);
+    assertThat(test.date(1)).isEqualTo(date(2018, 4, 3));
+    assertThat(test.fixing(1)).isEqualTo(0.02);
+  }
+
+  public void test_countWhile() {
+    CumulativeOvernightFixings test = CumulativeOvernightFixings.of(COMPUTATION, FIXINGS);
+    assertThat(test.countWhile(0, date -> date.isBefore(date(2018, 4, 4)))).isEqualTo(2);
+    assertThat(test.countWhile(1, date -> date.isBefore(date(2018, 4, 4)))).isEqualTo(1);
+    assertThat(test.countWhile(2, date -> date.isBefore(date(2018, 4, 4)))).isEqualTo(0);
+    // the count stops at the missing fixing
+    assertThat(test.countWhile(0, date -> true)).isEqualTo(5);
+    assertThat(test.countWhile(5, date -> true)).isEqualTo(1);
+  }
+
+  public void test_compoundedFactor() {
+    CumulativeOvernightFixings test = CumulativeOvernightFixings.of(COMPUTATION, FIXINGS);
+    double expected = 1d;
+    for (int i = 1; i < 5; i++) {
+      LocalDate fixingDate = test.date(i);
+      LocalDate effectiveDate = COMPUTATION.calculateEffectiveFromFixing(fixingDate);
+      LocalDate maturityDate = COMPUTATION.calculateMaturityFromEffective(effectiveDate);
+      expected *= 1d + GBP_SONIA.getDayCount().yearFraction(effectiveDate, maturityDate) * test.fixing(i);
+    }
+    assertThat(test.compoundedFactor(1, 5)).isCloseTo(expected, offset(TOL));
+    assertThat(test.compoundedFactor(3, 3)).isEqualTo(1d);
+  }
+
+  public void test_weightedSum() {
+    CumulativeOvernightFixings test = CumulativeOvernightFixings.of(COMPUTATION, FIXINGS);
+    assertThat(test.weightedSum(0, 2)).isCloseTo(0.01 + 0.02, offset(TOL));
+    // Friday applies until the following Monday
+    assertThat(test.weightedSum(3, 5)).isCloseTo(0.04 + 3 * 0.05, offset(TOL));
+    assertThat(test.weightedSum(2, 2)).isEqualTo(0d);
+  }
+
+  public void test_longHistory() {
+    // thirty years of daily fixings, with the range to value at the end
+    HolidayCalendar calendar = REF_DATA.getValue(GBP_SONIA.getFixingCalendar());
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    LocalDate endDate = date(2018, 1, 1);
+    for (LocalDate date = calendar.nextOrSame(date(1988, 1, 4)); date.isBefore(endDate); date = calendar.next(date)) {
+      builder.put(date, 0.05 + 0.04 * Math.sin(date.toEpochDay() / 100d));
+    }
+    CumulativeOvernightFixings test = CumulativeOvernightFixings.of(COMPUTATION, builder.build());
+    int end = test.position(calendar.previous(endDate));
+    int start = end - 63;
+    double expectedFactor = 1d;
+    double expectedSum = 0d;
+    for (int i = start; i < end; i++) {
+      LocalDate fixingDate = test.date(i);
+      LocalDate effectiveDate = COMPUTATION.calculateEffectiveFromFixing(fixingDate);
+      LocalDate maturityDate = COMPUTATION.calculateMaturityFromEffective(effectiveDate);
+      expectedFactor *= 1d + GBP_SONIA.getDayCount().yearFraction(effectiveDate, maturityDate) * test.fixing(i);
+      expectedSum += test.fixing(i) * (calendar.next(fixingDate).toEpochDay() - fixingDate.toEpochDay());
+    }
+    // the error does not grow with the number of earlier fixings
+    assertThat(test.compoundedFactor(start, end)).isCloseTo(expectedFactor, offset(1e-14));
+    assertThat(test.weightedSum(start, end)).isCloseTo(expectedSum, offset(1e-14));
+  }
+
+  public void test_cached() {
+    CumulativeOvernightFixings test = CumulativeOvernightFixings.of(COMPUTATION, FIXINGS);
+    assertThat(CumulativeOvernightFixings.of(COMPUTATION, FIXINGS)).isSameAs(test);
+    OvernightCompoundedRateComputation other =
+        OvernightCompoundedRateComputation.of(USD_FED_FUND, date(2018, 1, 2), date(2018, 2, 1), REF_DATA);
+    assertThat(CumulativeOvernightFixings.of(other, FIXINGS)).isNotSameAs(test);
+  }
+
+}
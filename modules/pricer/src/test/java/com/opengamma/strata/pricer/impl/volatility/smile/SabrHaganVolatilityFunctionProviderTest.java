@@ -52,6 +52,9 @@ public class SabrHaganVolatilityFunctionProviderTest extends SabrVolatilityFunct
   private static EuropeanVanillaOption CALL_OTM = EuropeanVanillaOption.of(STRIKE_OTM, T, CALL);
   
   private static final double TOLERANCE_VOL_LIMIT = 1.0E-5;
+  private static final double TOLERANCE_SMILE = 1.0E-12;
+  private static final SabrFormulaData[] SMILE_DATA =
+      {DATA, DATA.withAlpha(0.0), DATA.withBeta(0.0), DATA.withBeta(1.0), DATA.withNu(0.0), DATA.withRho(0.9)};
 
   @Override
   protected VolatilityFunctionProvider<SabrFormulaData> getFunction() {
@@ -225,6 +228,61 @@ public class SabrHaganVolatilityFunctionProviderTest extends SabrVolatilityFunct
     volatilityAdjoint2ForInstrument(CALL_OTM, 1.0E-6, 1.0E-2);
   }
 
+  /**
+   * Tests the smile volatilities and adjoints against the strike by strike computation.
+   */
+  public void volatilitiesAdjoint() {
+    double[] strikes = {0.0, 1e-4, 0.01, STRIKE_ITM, F, F + 1e-8, STRIKE_OTM, 0.10, 0.25};
+    for (SabrFormulaData data : SMILE_DATA) {
+      double[][] volatilitiesD = new double[strikes.length][6];
+      double[] volatilities = FUNCTION.volatilitiesAdjoint(F, strikes, T, data, volatilitiesD);
+      double[] volatilitiesOnly = FUNCTION.volatilities(F, strikes, T, data);
+      for (int i = 0; i < strikes.length; i++) {
+        ValueDerivatives expected = FUNCTION.volatilityAdjoint(F, strikes[i], T, data);
+        assertEquals(volatilities[i], expected.getValue(), TOLERANCE_SMILE * expected.getValue());
+        double expectedVolatility = FUNCTION.volatility(F, strikes[i], T, data);
+        assertEquals(volatilitiesOnly[i], expectedVolatility, TOLERANCE_SMILE * expectedVolatility);
+        for (int j = 0; j < 6; j++) {
+          double expectedD = expected.getDerivative(j);
+          assertEquals(volatilitiesD[i][j], expectedD, TOLERANCE_SMILE * Math.max(Math.abs(expectedD), 1d));
+        }
+      }
+    }
+    assertThrowsIllegalArg(() -> FUNCTION.volatilitiesAdjoint(F, strikes, T, DATA, new double[2][6]));
+    assertThrowsIllegalArg(() -> FUNCTION.volatilities(F, strikes, T, DATA, new double[2]));
+    assertThrowsIllegalArg(() -> FUNCTION.volatilities(F, new double[] {-0.01}, T, DATA));
+  }
+
+  /**
+   * Tests the smile volatilities and second order adjoints against the strike by strike computation.
+   */
+  public void volatilitiesAdjoint2() {
+    double[] strikes = {1e-4, 0.01, STRIKE_ITM, F, STRIKE_OTM, 0.10, 0.25};
+    for (SabrFormulaData data : SMILE_DATA) {
+      double[] volatilities = new double[strikes.length];
+      double[][] volatilitiesD = new double[strikes.length][6];
+      double[][][] volatilitiesD2 = new double[strikes.length][2][2];
+      FUNCTION.volatilitiesAdjoint2(F, strikes, T, data, volatilities, volatilitiesD, volatilitiesD2);
+      for (int i = 0; i < strikes.length; i++) {
+        double[] expectedD = new double[6];
+        double[][] expectedD2 = new double[2][2];
+        double expected = FUNCTION.volatilityAdjoint2(F, strikes[i], T, data, expectedD, expectedD2);
+        assertEquals(volatilities[i], expected, TOLERANCE_SMILE * expected);
+        for (int j = 0; j < 6; j++) {
+          assertEquals(volatilitiesD[i][j], expectedD[j], TOLERANCE_SMILE * Math.max(Math.abs(expectedD[j]), 1d));
+        }
+        for (int j = 0; j < 2; j++) {
+          for (int l = 0; l < 2; l++) {
+            assertEquals(volatilitiesD2[i][j][l], expectedD2[j][l],
+                TOLERANCE_SMILE * Math.max(Math.abs(expectedD2[j][l]), 1d));
+          }
+        }
+      }
+    }
+    assertThrowsIllegalArg(() -> FUNCTION.volatilitiesAdjoint2(
+        F, strikes, T, DATA, new double[strikes.length], new double[strikes.length][6], new double[2][2][2]));
+  }
+
   //TODO write a fuzzer that hits SABR with random parameters
   @Test(enabled = false)
   public void testRandomParameters() {
@@ -20,6 +20,7 @@ import com.opengamma.strata.math.impl.cern.MersenneTwister;
 import com.opengamma.strata.math.impl.cern.RandomEngine;
 import com.opengamma.strata.math.impl.minimization.NonLinearParameterTransforms;
 import com.opengamma.strata.math.impl.statistics.leastsquare.LeastSquareResultsWithTransform;
+import com.opengamma.strata.math.impl.statistics.leastsquare.LevenbergMarquardtLeastSquare;
 
 
 /**
@@ -97,6 +98,23 @@ public class SabrModelFitterTest extends SmileModelFitterTest<SabrFormulaData> {
     assertEquals(0.0, results.getChiSq(), eps);
   }
 
+  public void testExactFitLevenbergMarquardt() {
+    double[] start = new double[] {0.01, 0.99, 0.9, 0.4};
+    SabrModelFitter fitter = new SabrModelFitter(F, DoubleArray.copyOf(STRIKES), TIME_TO_EXPIRY,
+        DoubleArray.copyOf(_cleanVols), DoubleArray.copyOf(_errors), SabrHaganVolatilityFunctionProvider.DEFAULT,
+        new LevenbergMarquardtLeastSquare(1e-12));
+    LeastSquareResultsWithTransform results = fitter.solve(DoubleArray.copyOf(start));
+    LeastSquareResultsWithTransform expected = _fitter.solve(DoubleArray.copyOf(start));
+    double[] res = results.getModelParameters().toArray();
+    double eps = 1e-6;
+    assertEquals(ALPHA, res[0], eps);
+    assertEquals(BETA, res[1], eps);
+    assertEquals(RHO, res[2], eps);
+    assertEquals(NU, res[3], eps);
+    assertEquals(0.0, results.getChiSq(), eps);
+    assertTrue(results.getModelParameters().equalWithTolerance(expected.getModelParameters(), eps));
+  }
+
   public void testExactFitWithTransform() {
     double[] start = new double[] {0.01, 0.99, 0.9, 0.4};
     NonLinearParameterTransforms transf = _fitter.getTransform(DoubleArray.copyOf(start));
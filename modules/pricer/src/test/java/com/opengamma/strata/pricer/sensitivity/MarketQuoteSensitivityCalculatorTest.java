@@ -8,6 +8,7 @@ package com.opengamma.strata.pricer.sensitivity;
 import static com.opengamma.strata.basics.currency.Currency.GBP;
 import static com.opengamma.strata.basics.currency.Currency.USD;
 import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static com.opengamma.strata.market.curve.CurveInfoType.JACOBIAN;
 import static com.opengamma.strata.market.curve.interpolator.CurveInterpolators.LINEAR;
@@ -15,6 +16,7 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import org.testng.annotations.Test;
 
@@ -38,6 +40,7 @@ import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
 import com.opengamma.strata.pricer.ZeroRateDiscountFactors;
 import com.opengamma.strata.pricer.bond.ImmutableLegalEntityDiscountingProvider;
 import com.opengamma.strata.pricer.curve.CalibrationDiscountingSimpleEur3Test;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.product.LegalEntityId;
 import com.opengamma.strata.product.SecurityId;
 
@@ -124,4 +127,32 @@ public class MarketQuoteSensitivityCalculatorTest {
     assertTrue(computed.getSensitivity(CURVE_NAME_2, GBP).getSensitivity().equalWithTolerance(expected22, TOL));
   }
 
+  public void test_sensitivity_LegalEntityDiscountingProvider_list() {
+    List<CurrencyParameterSensitivities> paramSensitivities = ImmutableList.of(
+        PARAMETER_SENSITIVITIES,
+        CurrencyParameterSensitivities.empty(),
+        PARAMETER_SENSITIVITIES.multipliedBy(-2.5d),
+        CurrencyParameterSensitivities.of(CurrencyParameterSensitivity.of(CURVE_NAME_2, GBP, SENSI_1.concat(1d))));
+    List<CurrencyParameterSensitivities> computed = CALC.sensitivity(paramSensitivities, PROVIDER);
+    assertEquals(computed.size(), paramSensitivities.size());
+    for (int i = 0; i < paramSensitivities.size(); i++) {
+      assertEquals(computed.get(i), CALC.sensitivity(paramSensitivities.get(i), PROVIDER));
+    }
+  }
+
+  public void test_sensitivity_RatesProvider_list() {
+    ImmutableRatesProvider provider = ImmutableRatesProvider.builder(DATE)
+        .discountCurve(USD, CURVE_1)
+        .discountCurve(GBP, CURVE_2)
+        .build();
+    List<CurrencyParameterSensitivities> paramSensitivities =
+        ImmutableList.of(PARAMETER_SENSITIVITIES.multipliedBy(3d), PARAMETER_SENSITIVITIES);
+    List<CurrencyParameterSensitivities> computed = CALC.sensitivity(paramSensitivities, provider);
+    assertEquals(computed.get(0), CALC.sensitivity(paramSensitivities.get(0), provider));
+    assertEquals(computed.get(1), CALC.sensitivity(paramSensitivities.get(1), provider));
+    List<CurrencyParameterSensitivities> unknown = ImmutableList.of(CurrencyParameterSensitivities.of(
+        CurrencyParameterSensitivity.of(CurveName.of("unknown"), USD, SENSI_1)));
+    assertThrowsIllegalArg(() -> CALC.sensitivity(unknown, provider));
+  }
+
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.Tenor.TENOR_10Y;
+import static com.opengamma.strata.basics.date.Tenor.TENOR_5Y;
+import static com.opengamma.strata.pricer.datasets.RatesProviderDataSets.MULTI_USD;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static com.opengamma.strata.product.common.BuySell.SELL;
+import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.amount.CashFlow;
+import com.opengamma.strata.market.amount.CashFlowBuckets;
+import com.opengamma.strata.market.amount.CashFlows;
+import com.opengamma.strata.product.swap.ResolvedSwapTrade;
+import com.opengamma.strata.product.swap.type.FixedIborSwapTemplate;
+
+/**
+ * Test {@link SwapPortfolioCashFlowProjector}.
+ */
+@Test
+public class SwapPortfolioCashFlowProjectorTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = MULTI_USD.getValuationDate();
+  private static final ResolvedSwapTrade SWAP_5Y = FixedIborSwapTemplate
+      .of(Period.ZERO, TENOR_5Y, USD_FIXED_6M_LIBOR_3M)
+      .createTrade(VAL_DATE, BUY, 1_000_000d, 0.02, REF_DATA)
+      .resolve(REF_DATA);
+  private static final ResolvedSwapTrade SWAP_10Y = FixedIborSwapTemplate
+      .of(Period.ZERO, TENOR_10Y, USD_FIXED_6M_LIBOR_3M)
+      .createTrade(VAL_DATE, SELL, 2_000_000d, 0.025, REF_DATA)
+      .resolve(REF_DATA);
+  private static final SwapPortfolioCashFlowProjector PROJECTOR = SwapPortfolioCashFlowProjector.DEFAULT;
+  private static final DiscountingSwapTradePricer TRADE_PRICER = DiscountingSwapTradePricer.DEFAULT;
+  private static final double TOL = 1e-4;
+
+  //-------------------------------------------------------------------------
+  public void test_cashFlows() {
+    CashFlows computed = PROJECTOR.cashFlows(ImmutableList.of(SWAP_5Y, SWAP_10Y), MULTI_USD).toCashFlows();
+    CashFlows expected = TRADE_PRICER.cashFlows(SWAP_5Y, MULTI_USD)
+        .combinedWith(TRADE_PRICER.cashFlows(SWAP_10Y, MULTI_USD));
+    assertThat(computed).isEqualTo(expected);
+  }
+
+  public void test_bucketedCashFlows() {
+    // more trades than a single chunk
+    List<ResolvedSwapTrade> trades = new ArrayList<>();
+    for (int i = 0; i < 1200; i++) {
+      trades.add(i % 3 == 0 ? SWAP_10Y : SWAP_5Y);
+    }
+    List<LocalDate> bucketDates = ImmutableList.of(VAL_DATE, VAL_DATE.plusYears(1), VAL_DATE.plusYears(5));
+    CashFlowBuckets computed = PROJECTOR.bucketedCashFlows(trades, MULTI_USD, bucketDates);
+    double[] expectedForecast = new double[3];
+    double[] expectedPresent = new double[3];
+    for (ResolvedSwapTrade trade : trades) {
+      for (CashFlow cashFlow : TRADE_PRICER.cashFlows(trade, MULTI_USD).getCashFlows()) {
+        int bucket = cashFlow.getPaymentDate().isBefore(bucketDates.get(1)) ? 0 :
+            cashFlow.getPaymentDate().isBefore(bucketDates.get(2)) ? 1 : 2;
+        expectedForecast[bucket] += cashFlow.getForecastValue().getAmount();
+        expectedPresent[bucket] += cashFlow.getPresentValue().getAmount();
+      }
+    }
+    assertThat(computed.getCurrencies()).containsOnly(USD);
+    assertThat(computed.getForecastValues(USD).equalWithTolerance(DoubleArray.ofUnsafe(expectedForecast), TOL))
+        .isTrue();
+    assertThat(computed.getPresentValues(USD).equalWithTolerance(DoubleArray.ofUnsafe(expectedPresent), TOL))
+        .isTrue();
+  }
+
+  public void test_bucketedCashFlows_empty() {
+    CashFlowBuckets computed = PROJECTOR.bucketedCashFlows(ImmutableList.of(), MULTI_USD, ImmutableList.of(VAL_DATE));
+    assertThat(computed.getCurrencies()).isEmpty();
+    assertThat(computed.getForecastValues(USD)).isEqualTo(DoubleArray.of(0d));
+  }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swaption;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.EUR_FIXED_1Y_EURIBOR_6M;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.date.AdjustableDate;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorBermudanGrid;
+import com.opengamma.strata.pricer.index.HullWhiteIborFutureDataSet;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParametersProvider;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.product.common.BuySell;
+import com.opengamma.strata.product.common.LongShort;
+import com.opengamma.strata.product.swap.Swap;
+import com.opengamma.strata.product.swaption.CashSwaptionSettlement;
+import com.opengamma.strata.product.swaption.CashSwaptionSettlementMethod;
+import com.opengamma.strata.product.swaption.PhysicalSwaptionSettlement;
+import com.opengamma.strata.product.swaption.ResolvedSwaption;
+import com.opengamma.strata.product.swaption.Swaption;
+import com.opengamma.strata.product.swaption.SwaptionSettlement;
+
+/**
+ * Test {@link HullWhiteBermudanSwaptionPhysicalProductPricer}.
+ */
+@Test
+public class HullWhiteBermudanSwaptionPhysicalProductPricerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VALUATION = LocalDate.of(2011, 7, 7);
+  private static final LocalDate END = LocalDate.of(2018, 7, 11);
+  private static final double NOTIONAL = 100_000_000d;
+  private static final double RATE = 0.0175;
+  private static final int NB_EXERCISE = 6;
+  private static final List<ResolvedSwaption> BERMUDAN_REC_LONG =
+      bermudan(BuySell.SELL, LongShort.LONG, PhysicalSwaptionSettlement.DEFAULT);
+  private static final List<ResolvedSwaption> BERMUDAN_REC_SHORT =
+      bermudan(BuySell.SELL, LongShort.SHORT, PhysicalSwaptionSettlement.DEFAULT);
+  private static final List<ResolvedSwaption> BERMUDAN_PAY_LONG =
+      bermudan(BuySell.BUY, LongShort.LONG, PhysicalSwaptionSettlement.DEFAULT);
+
+  private static final HullWhiteOneFactorPiecewiseConstantParametersProvider HW_PROVIDER =
+      HullWhiteIborFutureDataSet.createHullWhiteProvider(VALUATION);
+  private static final ImmutableRatesProvider RATES_PROVIDER = HullWhiteIborFutureDataSet.createRatesProvider(VALUATION);
+
+  private static final HullWhiteBermudanSwaptionPhysicalProductPricer PRICER =
+      HullWhiteBermudanSwaptionPhysicalProductPricer.DEFAULT;
+  private static final HullWhiteSwaptionPhysicalProductPricer PRICER_EUROPEAN =
+      HullWhiteSwaptionPhysicalProductPricer.DEFAULT;
+  // second order error of the linear interpolation of the exercise value around the exercise boundary
+  private static final double TOL_GRID = 5.0e-4;
+
+  private static List<ResolvedSwaption> bermudan(BuySell buySell, LongShort longShort, SwaptionSettlement settlement) {
+    List<ResolvedSwaption> swaptions = new ArrayList<>();
+    for (int i = 0; i < NB_EXERCISE; i++) {
+      LocalDate expiry = VALUATION.plusYears(i + 1);
+      Swap swap = EUR_FIXED_1Y_EURIBOR_6M
+          .toTrade(VALUATION, expiry.plusDays(2), END, buySell, NOTIONAL, RATE)
+          .getProduct();
+      swaptions.add(Swaption.builder()
+          .expiryDate(AdjustableDate.of(expiry))
+          .expiryTime(LocalTime.NOON)
+          .expiryZone(ZoneOffset.UTC)
+          .swaptionSettlement(settlement)
+          .longShort(longShort)
+          .underlying(swap)
+          .build()
+          .resolve(REF_DATA));
+    }
+    return ImmutableList.copyOf(swaptions);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_presentValue_singleExercise() {
+    for (List<ResolvedSwaption> bermudan : ImmutableList.of(BERMUDAN_REC_LONG, BERMUDAN_REC_SHORT, BERMUDAN_PAY_LONG)) {
+      for (ResolvedSwaption swaption : bermudan) {
+        CurrencyAmount computed = PRICER.presentValue(ImmutableList.of(swaption), RATES_PROVIDER, HW_PROVIDER);
+        CurrencyAmount expected = PRICER_EUROPEAN.presentValue(swaption, RATES_PROVIDER, HW_PROVIDER);
+        assertEquals(computed.getCurrency(), Currency.EUR);
+        assertEquals(computed.getAmount(), expected.getAmount(), Math.abs(expected.getAmount()) * TOL_GRID);
+      }
+    }
+  }
+
+  public void test_presentValue_bounds() {
+    double computed = PRICER.presentValue(BERMUDAN_REC_LONG, RATES_PROVIDER, HW_PROVIDER).getAmount();
+    double maxEuropean = 0d;
+    double sumEuropean = 0d;
+    for (ResolvedSwaption swaption : BERMUDAN_REC_LONG) {
+      double european = PRICER_EUROPEAN.presentValue(swaption, RATES_PROVIDER, HW_PROVIDER).getAmount();
+      maxEuropean = Math.max(maxEuropean, european);
+      sumEuropean += european;
+    }
+    assertTrue(computed > maxEuropean);
+    assertTrue(computed < sumEuropean);
+  }
+
+  public void test_presentValue_longShort() {
+    CurrencyAmount computedLong = PRICER.presentValue(BERMUDAN_REC_LONG, RATES_PROVIDER, HW_PROVIDER);
+    CurrencyAmount computedShort = PRICER.presentValue(BERMUDAN_REC_SHORT, RATES_PROVIDER, HW_PROVIDER);
+    assertEquals(computedShort.getAmount(), -computedLong.getAmount(), NOTIONAL * 1.0e-12);
+  }
+
+  public void test_presentValue_grid() {
+    HullWhiteOneFactorBermudanGrid grid = PRICER.createGrid(BERMUDAN_REC_LONG, RATES_PROVIDER, HW_PROVIDER);
+    assertEquals(grid.getExerciseCount(), NB_EXERCISE);
+    assertEquals(grid.getParameters(), HW_PROVIDER.getParameters());
+    assertEquals(
+        PRICER.presentValue(BERMUDAN_REC_LONG, RATES_PROVIDER, HW_PROVIDER, grid),
+        PRICER.presentValue(BERMUDAN_REC_LONG, RATES_PROVIDER, HW_PROVIDER));
+    // same exercise dates, different underlying
+    assertEquals(
+        PRICER.presentValue(BERMUDAN_PAY_LONG, RATES_PROVIDER, HW_PROVIDER, grid),
+        PRICER.presentValue(BERMUDAN_PAY_LONG, RATES_PROVIDER, HW_PROVIDER));
+    // different exercise dates
+    assertThrowsIllegalArg(
+        () -> PRICER.presentValue(BERMUDAN_REC_LONG.subList(1, NB_EXERCISE), RATES_PROVIDER, HW_PROVIDER, grid));
+  }
+
+  public void test_presentValue_convergence() {
+    HullWhiteOneFactorBermudanGrid grid = PRICER.createGrid(BERMUDAN_REC_LONG, RATES_PROVIDER, HW_PROVIDER);
+    HullWhiteOneFactorBermudanGrid fineGrid = HullWhiteOneFactorBermudanGrid.of(
+        HW_PROVIDER.getParameters(), grid.getExerciseTimes(), 40, 10d);
+    double computed = PRICER.presentValue(BERMUDAN_REC_LONG, RATES_PROVIDER, HW_PROVIDER, grid).getAmount();
+    double computedFine = PRICER.presentValue(BERMUDAN_REC_LONG, RATES_PROVIDER, HW_PROVIDER, fineGrid).getAmount();
+    assertEquals(computed, computedFine, computedFine * TOL_GRID);
+  }
+
+  public void test_presentValue_partlyExpired() {
+    LocalDate valuation = VALUATION.plusYears(2).plusDays(1);
+    ImmutableRatesProvider ratesProvider = HullWhiteIborFutureDataSet.createRatesProvider(valuation);
+    HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider =
+        HullWhiteIborFutureDataSet.createHullWhiteProvider(valuation);
+    assertEquals(
+        PRICER.presentValue(BERMUDAN_REC_LONG, ratesProvider, hwProvider),
+        PRICER.presentValue(BERMUDAN_REC_LONG.subList(2, NB_EXERCISE), ratesProvider, hwProvider));
+  }
+
+  public void test_presentValue_expired() {
+    LocalDate valuation = VALUATION.plusYears(NB_EXERCISE).plusDays(1);
+    ImmutableRatesProvider ratesProvider = HullWhiteIborFutureDataSet.createRatesProvider(valuation);
+    HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider =
+        HullWhiteIborFutureDataSet.createHullWhiteProvider(valuation);
+    assertEquals(PRICER.presentValue(BERMUDAN_REC_LONG, ratesProvider, hwProvider), CurrencyAmount.zero(Currency.EUR));
+    assertNull(PRICER.createGrid(BERMUDAN_REC_LONG, ratesProvider, hwProvider));
+  }
+
+  public void test_invalid() {
+    List<ResolvedSwaption> unsorted = ImmutableList.of(BERMUDAN_REC_LONG.get(1), BERMUDAN_REC_LONG.get(0));
+    assertThrowsIllegalArg(() -> PRICER.presentValue(unsorted, RATES_PROVIDER, HW_PROVIDER));
+    List<ResolvedSwaption> mixed = ImmutableList.of(BERMUDAN_REC_LONG.get(0), BERMUDAN_REC_SHORT.get(1));
+    assertThrowsIllegalArg(() -> PRICER.presentValue(mixed, RATES_PROVIDER, HW_PROVIDER));
+    List<ResolvedSwaption> cash = bermudan(BuySell.SELL, LongShort.LONG,
+        CashSwaptionSettlement.of(VALUATION.plusYears(1).plusDays(2), CashSwaptionSettlementMethod.PAR_YIELD));
+    assertThrowsIllegalArg(() -> PRICER.presentValue(cash, RATES_PROVIDER, HW_PROVIDER));
+    assertThrowsIllegalArg(() -> PRICER.presentValue(ImmutableList.of(), RATES_PROVIDER, HW_PROVIDER));
+    assertThrowsIllegalArg(() -> HullWhiteOneFactorBermudanGrid.of(HW_PROVIDER.getParameters(), DoubleArray.of(2d, 1d)));
+    assertThrowsIllegalArg(() -> HullWhiteOneFactorBermudanGrid.of(HW_PROVIDER.getParameters(), DoubleArray.EMPTY));
+  }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swaption;
+
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_ACT_ISDA;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.EUR_FIXED_1Y_EURIBOR_6M;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.date.AdjustableDate;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.surface.ConstantSurface;
+import com.opengamma.strata.market.surface.Surfaces;
+import com.opengamma.strata.pricer.index.HullWhiteIborFutureDataSet;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParametersProvider;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.product.common.BuySell;
+import com.opengamma.strata.product.common.LongShort;
+import com.opengamma.strata.product.swap.Swap;
+import com.opengamma.strata.product.swaption.PhysicalSwaptionSettlement;
+import com.opengamma.strata.product.swaption.ResolvedSwaption;
+import com.opengamma.strata.product.swaption.Swaption;
+
+/**
+ * Test {@link HullWhiteSwaptionCalibrator}.
+ */
+@Test
+public class HullWhiteSwaptionCalibratorTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VALUATION = LocalDate.of(2011, 7, 7);
+  private static final ZonedDateTime VALUATION_DATE_TIME = VALUATION.atTime(LocalTime.NOON).atZone(ZoneOffset.UTC);
+  private static final LocalDate END = LocalDate.of(2021, 7, 12);
+  private static final double NOTIONAL = 100_000_000d;
+  private static final double RATE = 0.025;
+  private static final int NB_EXERCISE = 8;
+  private static final double MEAN_REVERSION = 0.01;
+  private static final ImmutableRatesProvider RATES_PROVIDER = HullWhiteIborFutureDataSet.createRatesProvider(VALUATION);
+
+  private static final HullWhiteSwaptionCalibrator CALIBRATOR = HullWhiteSwaptionCalibrator.DEFAULT;
+  private static final HullWhiteSwaptionPhysicalProductPricer PRICER_HW = HullWhiteSwaptionPhysicalProductPricer.DEFAULT;
+  private static final double TOL = 1.0e-8;
+
+  private static List<ResolvedSwaption> coTerminal(BuySell buySell, LongShort longShort) {
+    List<ResolvedSwaption> swaptions = new ArrayList<>();
+    for (int i = 0; i < NB_EXERCISE; i++) {
+      LocalDate expiry = VALUATION.plusYears(i + 1);
+      Swap swap = EUR_FIXED_1Y_EURIBOR_6M
+          .toTrade(VALUATION, expiry.plusDays(2), END, buySell, NOTIONAL, RATE)
+          .getProduct();
+      swaptions.add(Swaption.builder()
+          .expiryDate(AdjustableDate.of(expiry))
+          .expiryTime(LocalTime.NOON)
+          .expiryZone(ZoneOffset.UTC)
+          .swaptionSettlement(PhysicalSwaptionSettlement.DEFAULT)
+          .longShort(longShort)
+          .underlying(swap)
+          .build()
+          .resolve(REF_DATA));
+    }
+    return ImmutableList.copyOf(swaptions);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_calibrate_presentValues() {
+    List<ResolvedSwaption> swaptions = coTerminal(BuySell.SELL, LongShort.LONG);
+    // model with volatility times at the expiries, to be recovered by the calibration
+    double[] times = new double[NB_EXERCISE - 1];
+    double[] vols = new double[NB_EXERCISE];
+    HullWhiteOneFactorPiecewiseConstantParametersProvider timeProvider =
+        HullWhiteIborFutureDataSet.createHullWhiteProvider(VALUATION);
+    for (int i = 0; i < NB_EXERCISE; i++) {
+      if (i < NB_EXERCISE - 1) {
+        times[i] = timeProvider.relativeTime(swaptions.get(i).getExpiryDate());
+      }
+      vols[i] = 0.008 + 0.0005 * i;
+    }
+    HullWhiteOneFactorPiecewiseConstantParametersProvider expected = HullWhiteOneFactorPiecewiseConstantParametersProvider.of(
+        HullWhiteOneFactorPiecewiseConstantParameters.of(MEAN_REVERSION, DoubleArray.ofUnsafe(vols), DoubleArray.ofUnsafe(times)),
+        ACT_ACT_ISDA,
+        VALUATION_DATE_TIME);
+    DoubleArray pvs = DoubleArray.copyOf(swaptions.stream()
+        .mapToDouble(swaption -> PRICER_HW.presentValue(swaption, RATES_PROVIDER, expected).getAmount())
+        .toArray());
+    HullWhiteOneFactorPiecewiseConstantParametersProvider computed =
+        CALIBRATOR.calibrate(swaptions, pvs, RATES_PROVIDER, MEAN_REVERSION, ACT_ACT_ISDA, VALUATION_DATE_TIME);
+    assertEquals(computed.getValuationDateTime(), VALUATION_DATE_TIME);
+    assertEquals(computed.getDayCount(), ACT_ACT_ISDA);
+    HullWhiteOneFactorPiecewiseConstantParameters params = computed.getParameters();
+    assertEquals(params.getMeanReversion(), MEAN_REVERSION);
+    assertTrue(params.getVolatilityTime().equalWithTolerance(expected.getParameters().getVolatilityTime(), TOL));
+    assertTrue(params.getVolatility().equalWithTolerance(expected.getParameters().getVolatility(), 1.0e-7));
+  }
+
+  public void test_calibrate_volatilities() {
+    List<ResolvedSwaption> swaptions = coTerminal(BuySell.BUY, LongShort.SHORT);
+    NormalSwaptionExpiryTenorVolatilities vols = NormalSwaptionExpiryTenorVolatilities.of(
+        EUR_FIXED_1Y_EURIBOR_6M,
+        VALUATION_DATE_TIME,
+        ConstantSurface.of(Surfaces.normalVolatilityByExpiryTenor("Normal", ACT_365F), 0.0075));
+    HullWhiteOneFactorPiecewiseConstantParametersProvider computed =
+        CALIBRATOR.calibrate(swaptions, RATES_PROVIDER, vols, MEAN_REVERSION, ACT_ACT_ISDA);
+    for (ResolvedSwaption swaption : swaptions) {
+      double expected = NormalSwaptionPhysicalProductPricer.DEFAULT.presentValue(swaption, RATES_PROVIDER, vols).getAmount();
+      double pv = PRICER_HW.presentValue(swaption, RATES_PROVIDER, computed).getAmount();
+      assertEquals(pv, expected, NOTIONAL * TOL);
+    }
+  }
+
+  public void test_calibrate_invalid() {
+    List<ResolvedSwaption> swaptions = coTerminal(BuySell.SELL, LongShort.LONG);
+    DoubleArray pvs = DoubleArray.filled(NB_EXERCISE, 100_000d);
+    // wrong number of present values
+    assertThrowsIllegalArg(() -> CALIBRATOR.calibrate(
+        swaptions, DoubleArray.filled(2), RATES_PROVIDER, MEAN_REVERSION, ACT_ACT_ISDA, VALUATION_DATE_TIME));
+    // unsorted swaptions
+    assertThrowsIllegalArg(() -> CALIBRATOR.calibrate(
+        ImmutableList.of(swaptions.get(1), swaptions.get(0)), DoubleArray.filled(2, 100_000d),
+        RATES_PROVIDER, MEAN_REVERSION, ACT_ACT_ISDA, VALUATION_DATE_TIME));
+    // inconsistent dates
+    assertThrowsIllegalArg(() -> CALIBRATOR.calibrate(
+        swaptions, pvs, RATES_PROVIDER, MEAN_REVERSION, ACT_ACT_ISDA, VALUATION_DATE_TIME.plusDays(1)));
+    // price below intrinsic value
+    assertThrowsIllegalArg(() -> CALIBRATOR.calibrate(
+        swaptions, DoubleArray.filled(NB_EXERCISE, -1d), RATES_PROVIDER, MEAN_REVERSION, ACT_ACT_ISDA,
+        VALUATION_DATE_TIME));
+    assertThrowsIllegalArg(() -> CALIBRATOR.calibrate(
+        ImmutableList.of(), DoubleArray.EMPTY, RATES_PROVIDER, MEAN_REVERSION, ACT_ACT_ISDA, VALUATION_DATE_TIME));
+  }
+
+}
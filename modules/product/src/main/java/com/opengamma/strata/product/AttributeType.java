@@ -34,6 +34,13 @@ public final class AttributeType<T>
    * Key used to access the name.
    */
   public static final AttributeType<String> NAME = AttributeType.of("name");
+  /**
+   * Key used to access the version.
+   * <p>
+   * The version identifies a revision of an item, such as an amended trade.
+   * It is used to determine whether information derived from an earlier revision is still valid.
+   */
+  public static final AttributeType<String> VERSION = AttributeType.of("version");
 
   /** Serialization version. */
   private static final long serialVersionUID = 1L;